@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+#
+# Joao Barrera
+# CEN 3024 - Software Development 1
+# October 19, 2026
+# appcds-train.sh
+#
+# Extracts the packaged jar into a layout the JVM can share classes from, then records a
+# dynamic AppCDS archive from a training run that stops as soon as the context has refreshed.
+# The archive only works with the same JVM and the same class path, so run this in the image
+# that will run the application.
+#
+# Usage: scripts/appcds-train.sh <application.jar> [output directory, default target/optimized]
+
+set -euo pipefail
+
+if [ $# -lt 1 ]; then
+    echo "usage: $0 <application.jar> [output directory]" >&2
+    exit 2
+fi
+
+jar="$1"
+out="${2:-target/optimized}"
+java="${JAVA:-java}"
+
+rm -rf "$out"
+"$java" -Djarmode=tools -jar "$jar" extract --destination "$out"
+
+# The training run gets its own scratch database so it never touches real data
+scratch="$(mktemp -d)"
+trap 'rm -rf "$scratch"' EXIT
+
+app="$(basename "$jar")"
+(
+    cd "$out"
+    "$java" -XX:ArchiveClassesAtExit=application.jsa \
+        -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh \
+        -jar "$app" \
+        --spring.datasource.url="jdbc:sqlite:$scratch/training.db" \
+        --workout.warmup.iterations=0
+)
+
+echo "AppCDS archive written to $out/application.jsa"
+echo "Run with: cd $out && $java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar $app"
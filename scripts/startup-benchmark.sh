@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+#
+# Joao Barrera
+# CEN 3024 - Software Development 1
+# October 19, 2026
+# startup-benchmark.sh
+#
+# Compares startup of the plain jar with the AOT and AppCDS build. Each run starts the
+# application against a scratch database and records the time until /api/workout/getAll
+# first answers 200, the time until /actuator/health/readiness reports UP, and the resident
+# set size of the process at that point. Results are printed and written to
+# target/startup-benchmark.csv.
+#
+# Build first with: mvn -Paot clean package
+# Usage: scripts/startup-benchmark.sh [runs per mode, default 5] [port, default 8124]
+
+set -euo pipefail
+
+runs="${1:-5}"
+port="${2:-8124}"
+java="${JAVA:-java}"
+target="$(cd "$(dirname "$0")/.." && pwd)/target"
+jar="$(ls "$target"/*.jar | grep -v original | head -n 1)"
+optimized="$target/optimized"
+csv="$target/startup-benchmark.csv"
+
+if [ ! -f "$optimized/application.jsa" ]; then
+    echo "No AppCDS archive in $optimized; build with mvn -Paot clean package first" >&2
+    exit 1
+fi
+
+scratch="$(mktemp -d)"
+pid=""
+cleanup() {
+    if [ -n "$pid" ]; then kill "$pid" 2>/dev/null || true; fi
+    rm -rf "$scratch"
+}
+trap cleanup EXIT
+
+now_millis() {
+    date +%s%3N
+}
+
+# Polls a URL until it answers 200 and prints the milliseconds since the given start
+wait_for() {
+    local url="$1" start="$2"
+    while [ "$(curl -s -o /dev/null -w '%{http_code}' "$url" || true)" != "200" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited during startup; see $scratch/app.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    echo $(( $(now_millis) - start ))
+}
+
+# Starts one mode, measures it and stops it again
+run_once() {
+    local mode="$1" run="$2"
+    local db="$scratch/$mode-$run.db"
+    local args=(--server.port="$port" --spring.datasource.url="jdbc:sqlite:$db")
+    local start
+    start="$(now_millis)"
+
+    if [ "$mode" = "default" ]; then
+        "$java" -jar "$jar" "${args[@]}" > "$scratch/app.log" 2>&1 &
+    else
+        (cd "$optimized" && exec "$java" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+            -jar "$(basename "$jar")" "${args[@]}") > "$scratch/app.log" 2>&1 &
+    fi
+    pid=$!
+
+    local first ready rss
+    first="$(wait_for "http://localhost:$port/api/workout/getAll" "$start")"
+    ready="$(wait_for "http://localhost:$port/actuator/health/readiness" "$start")"
+    rss="$(ps -o rss= -p "$pid" | tr -d ' ')"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    pid=""
+
+    echo "$mode,$run,$first,$ready,$rss" >> "$csv"
+    printf '%-10s %4s %18s %12s %10s\n' "$mode" "$run" "$first" "$ready" "$(( rss / 1024 ))"
+}
+
+echo "mode,run,first_request_ms,ready_ms,rss_kb" > "$csv"
+printf '%-10s %4s %18s %12s %10s\n' "mode" "run" "first request ms" "ready ms" "RSS MB"
+for run in $(seq 1 "$runs"); do
+    run_once default "$run"
+    run_once optimized "$run"
+done
+
+echo
+awk -F, 'NR > 1 { n[$1]++; first[$1] += $3; ready[$1] += $4; rss[$1] += $5 }
+    END { for (m in n) printf "%-10s mean first request %6.0f ms, ready %6.0f ms, RSS %5.0f MB\n",
+        m, first[m] / n[m], ready[m] / n[m], rss[m] / n[m] / 1024 }' "$csv"
+echo "Results written to $csv"
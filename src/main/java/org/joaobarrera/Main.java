@@ -3,6 +3,7 @@ package org.joaobarrera;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /*
  * Joao Barrera
@@ -19,6 +20,7 @@ import org.springframework.context.ConfigurableApplicationContext;
  */
 
 @SpringBootApplication
+@EnableScheduling
 public class Main {
     /**
      * The main method is the starting point of the application.
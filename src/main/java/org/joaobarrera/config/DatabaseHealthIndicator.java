@@ -0,0 +1,160 @@
+package org.joaobarrera.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * DatabaseHealthIndicator.java
+ */
+
+/**
+ * Reports the health of the SQLite database from a cached result, so health requests never
+ * touch the database themselves.
+ * <p>
+ * A dedicated thread probes the database on a fixed delay. Each probe opens its own
+ * read-only connection outside the connection pool, so it never waits behind user traffic,
+ * and reads the schema version as a ping. Less often, it also runs PRAGMA quick_check. If
+ * the probe thread stops reporting for three intervals, the cached result is treated as
+ * stale and reported out of service.
+ */
+@Component
+public class DatabaseHealthIndicator implements HealthIndicator {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseHealthIndicator.class);
+
+    private final String databaseUrl;
+    private final long probeIntervalMillis;
+    private final long quickCheckIntervalMillis;
+    private final Properties connectionProperties;
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "health-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Health cached = Health.status(Status.OUT_OF_SERVICE)
+            .withDetail("message", "Waiting for the first probe.").build();
+    private volatile long checkedAtMillis;
+    private volatile String quickCheck;
+    private volatile long quickCheckAtMillis;
+
+    /**
+     * Constructs the indicator. Probing starts once the bean is initialized.
+     *
+     * @param databaseUrl the JDBC URL of the SQLite database
+     * @param probeIntervalMillis the delay between two probes
+     * @param quickCheckIntervalMillis how often a probe also runs PRAGMA quick_check
+     * @param probeTimeoutMillis how long a probe waits on a locked database before failing
+     */
+    public DatabaseHealthIndicator(@Value("${spring.datasource.url}") String databaseUrl,
+                                   @Value("${workout.health.probe-interval-ms:10000}") long probeIntervalMillis,
+                                   @Value("${workout.health.quick-check-interval-ms:600000}") long quickCheckIntervalMillis,
+                                   @Value("${workout.health.probe-timeout-ms:2000}") int probeTimeoutMillis) {
+        this.databaseUrl = databaseUrl;
+        this.probeIntervalMillis = Math.max(100, probeIntervalMillis);
+        this.quickCheckIntervalMillis = quickCheckIntervalMillis;
+
+        // Read-only so a probe can never create or change the database file
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setBusyTimeout(probeTimeoutMillis);
+        this.connectionProperties = config.toProperties();
+    }
+
+    /**
+     * Runs the first probe and schedules the rest.
+     */
+    @PostConstruct
+    public void start() {
+        refresh();
+        prober.scheduleWithFixedDelay(this::refresh, probeIntervalMillis, probeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops probing.
+     */
+    @PreDestroy
+    public void shutdown() {
+        prober.shutdownNow();
+    }
+
+    @Override
+    public Health health() {
+        Health health = cached;
+        long age = System.currentTimeMillis() - checkedAtMillis;
+        if (checkedAtMillis > 0 && age > 3 * probeIntervalMillis) {
+            return Health.status(Status.OUT_OF_SERVICE)
+                    .withDetails(health.getDetails())
+                    .withDetail("stale", true)
+                    .build();
+        }
+        return health;
+    }
+
+    /**
+     * Probes the database now and caches the result.
+     *
+     * @return the new health of the database
+     */
+    public Health refresh() {
+        long now = System.currentTimeMillis();
+        long start = System.nanoTime();
+        Health health;
+        try (Connection connection = DriverManager.getConnection(databaseUrl, connectionProperties);
+             Statement statement = connection.createStatement()) {
+            int schemaVersion;
+            try (ResultSet rs = statement.executeQuery("PRAGMA schema_version")) {
+                rs.next();
+                schemaVersion = rs.getInt(1);
+            }
+            double pingMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            if (quickCheck == null || now - quickCheckAtMillis >= quickCheckIntervalMillis) {
+                try (ResultSet rs = statement.executeQuery("PRAGMA quick_check")) {
+                    quickCheck = rs.next() ? rs.getString(1) : "no result";
+                }
+                quickCheckAtMillis = now;
+            }
+
+            Health.Builder builder = "ok".equals(quickCheck) ? Health.up() : Health.down();
+            health = builder.withDetail("database", "SQLite")
+                    .withDetail("pingMillis", pingMillis)
+                    .withDetail("schemaVersion", schemaVersion)
+                    .withDetail("quickCheck", quickCheck)
+                    .withDetail("quickCheckAt", Instant.ofEpochMilli(quickCheckAtMillis).toString())
+                    .withDetail("checkedAt", Instant.ofEpochMilli(now).toString())
+                    .build();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("action=HEALTH_PROBE status=FAIL message={}", e.getMessage());
+            health = Health.down(e)
+                    .withDetail("database", "SQLite")
+                    .withDetail("checkedAt", Instant.ofEpochMilli(now).toString())
+                    .build();
+        }
+
+        cached = health;
+        checkedAtMillis = now;
+        return health;
+    }
+}
@@ -0,0 +1,51 @@
+package org.joaobarrera.config;
+
+import org.joaobarrera.model.MetricsHistorySnapshot;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.service.MetricsHistory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * MetricsHistoryEndpoint.java
+ */
+
+/**
+ * Actuator endpoint at /actuator/metricshistory that returns the recorded metric history.
+ * <p>
+ * The resolution parameter picks 1s, 1m or 1h points and defaults to 1s. The series
+ * parameter is a comma-separated list of series names, and since drops points older than
+ * the given epoch milliseconds. An unknown resolution or series answers 400.
+ */
+@Component
+@Endpoint(id = "metricshistory")
+public class MetricsHistoryEndpoint {
+
+    private final MetricsHistory history;
+
+    public MetricsHistoryEndpoint(MetricsHistory history) {
+        this.history = history;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> history(@Nullable String resolution, @Nullable String series,
+                                               @Nullable Long since) {
+        List<String> names = series == null || series.isBlank() ? null : Arrays.asList(series.split(","));
+        OperationResult<MetricsHistorySnapshot> result = history.query(resolution == null ? "1s" : resolution, names, since);
+
+        if (!result.success()) {
+            return new WebEndpointResponse<>(Map.of("error", result.message()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        return new WebEndpointResponse<>(result.data());
+    }
+}
@@ -0,0 +1,48 @@
+package org.joaobarrera.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.joaobarrera.service.MetricsHistory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * MetricsHistoryFilter.java
+ */
+
+/**
+ * Feeds the duration of every request into the {@link MetricsHistory}. Actuator requests are
+ * left out so the dashboard's own polling does not show up in the request rate.
+ */
+@Component
+public class MetricsHistoryFilter extends OncePerRequestFilter {
+
+    private final MetricsHistory history;
+
+    public MetricsHistoryFilter(MetricsHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            history.recordRequest(System.nanoTime() - start);
+        }
+    }
+}
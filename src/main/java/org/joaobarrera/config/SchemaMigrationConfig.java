@@ -0,0 +1,31 @@
+package org.joaobarrera.config;
+
+import org.joaobarrera.service.SchemaMigrator;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SchemaMigrationConfig.java
+ */
+
+/**
+ * Makes the JPA entity manager factory wait for {@link SchemaMigrator}, so Hibernate only
+ * starts once the schema is up to date.
+ */
+@Configuration
+public class SchemaMigrationConfig {
+
+    /**
+     * Adds the schema migrator to the dependencies of the entity manager factory.
+     *
+     * @return the post-processor that declares the dependency
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrator() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SchemaMigrator.class);
+    }
+}
@@ -0,0 +1,60 @@
+package org.joaobarrera.config;
+
+import org.joaobarrera.model.SerializedWorkouts;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * SerializedWorkoutsHttpMessageConverter.java
+ */
+
+/**
+ * Writes a {@link SerializedWorkouts} response body exactly as it was serialized.
+ * <p>
+ * The JSON chunks are copied straight to the response stream, so lists assembled from the
+ * JSON cache never pass through Jackson a second time. The converter is write-only.
+ */
+@Component
+public class SerializedWorkoutsHttpMessageConverter extends AbstractHttpMessageConverter<SerializedWorkouts> {
+
+    /**
+     * Constructs a converter that produces application/json.
+     */
+    public SerializedWorkoutsHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SerializedWorkouts.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Long getContentLength(SerializedWorkouts workouts, MediaType contentType) {
+        return workouts.length();
+    }
+
+    @Override
+    protected SerializedWorkouts readInternal(Class<? extends SerializedWorkouts> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Serialized workouts cannot be read from a request.", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(SerializedWorkouts workouts, HttpOutputMessage outputMessage) throws IOException {
+        workouts.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,87 @@
+package org.joaobarrera.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.joaobarrera.service.SqlStatementStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SqlRequestFilter.java
+ */
+
+/**
+ * Counts the SQL statements each API request runs.
+ * <p>
+ * Every request's statement count and SQL time are logged at debug level. A request that
+ * runs more statements than the budget, or runs the same statement shape over and over, is
+ * logged as a warning, since that is usually an N+1 query pattern.
+ */
+@Component
+public class SqlRequestFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(SqlRequestFilter.class);
+
+    private final SqlStatementStats stats;
+    private final int statementBudget;
+    private final int repeatThreshold;
+
+    /**
+     * Constructs the filter.
+     *
+     * @param stats the collector that captures each request's statements
+     * @param statementBudget how many statements a request may run before it is logged as a warning
+     * @param repeatThreshold how many times a request may run the same statement shape before it is logged as a warning
+     */
+    public SqlRequestFilter(SqlStatementStats stats,
+                            @Value("${workout.sql.request-statement-budget:20}") int statementBudget,
+                            @Value("${workout.sql.repeat-threshold:10}") int repeatThreshold) {
+        this.stats = stats;
+        this.statementBudget = statementBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats.Capture capture = stats.capture();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            capture.close();
+            report(request, capture);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats.Capture capture) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        Map.Entry<String, Integer> repeated = capture.mostRepeated();
+
+        if (capture.statements() > statementBudget) {
+            log.warn("action=SQL_BUDGET status=EXCEEDED method={} path={} statements={} budget={} sqlTime={}ms",
+                    method, path, capture.statements(), statementBudget, capture.elapsedMillis());
+        }
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            log.warn("action=SQL_REPEATED method={} path={} count={} fingerprint={}",
+                    method, path, repeated.getValue(), repeated.getKey());
+        }
+        log.debug("action=SQL_REQUEST method={} path={} statements={} sqlTime={}ms",
+                method, path, capture.statements(), capture.elapsedMillis());
+    }
+}
@@ -0,0 +1,64 @@
+package org.joaobarrera.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.joaobarrera.service.SqlStatementStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SqlStatisticsConfig.java
+ */
+
+/**
+ * Wires SQL statement statistics into the persistence stack.
+ * <p>
+ * The application's data source is wrapped in a {@link SqlTimingDataSource}, which times
+ * every statement, and Hibernate is given a statement inspector that marks the statements it
+ * generates, so the statistics can tell them apart from plain JDBC queries.
+ */
+@Configuration
+public class SqlStatisticsConfig {
+
+    /**
+     * Wraps every data source bean in a timing data source.
+     *
+     * @param stats supplies the collector, which is looked up when the first statement runs
+     * @return the post-processor that wraps the data sources
+     */
+    @Bean
+    public static BeanPostProcessor sqlTimingDataSourcePostProcessor(ObjectProvider<SqlStatementStats> stats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlTimingDataSource)) {
+                    return new SqlTimingDataSource(dataSource, stats::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registers a statement inspector that reports the SQL Hibernate generates.
+     *
+     * @param stats the collector that is told about each generated statement
+     * @return the customizer that installs the inspector
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector(SqlStatementStats stats) {
+        StatementInspector inspector = sql -> {
+            stats.inspected(sql);
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
@@ -0,0 +1,42 @@
+package org.joaobarrera.config;
+
+import org.joaobarrera.model.SqlStatementSummary;
+import org.joaobarrera.service.SqlStatementStats;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SqlStatsEndpoint.java
+ */
+
+/**
+ * Actuator endpoint at /actuator/sqlstats that lists the SQL statement totals per
+ * fingerprint, most expensive first. A DELETE clears the totals.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private final SqlStatementStats stats;
+
+    public SqlStatsEndpoint(SqlStatementStats stats) {
+        this.stats = stats;
+    }
+
+    @ReadOperation
+    public List<SqlStatementSummary> statements() {
+        return stats.summaries();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        stats.reset();
+    }
+}
@@ -0,0 +1,162 @@
+package org.joaobarrera.config;
+
+import org.joaobarrera.service.SqlStatementStats;
+import org.joaobarrera.service.WorkoutTracer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SqlTimingDataSource.java
+ */
+
+/**
+ * Data source wrapper that times every statement run through its connections.
+ * <p>
+ * Connections and statements are wrapped in JDK proxies. Each execute call is timed and
+ * reported to {@link SqlStatementStats} with its SQL and the types of its bind parameters.
+ * The time covers the execute call only. SQLite computes the first row there and the rest
+ * as the result set is read, so long scans are only partly counted.
+ * <p>
+ * Every other call goes straight to the real object, and unwrap still reaches the driver's
+ * own classes.
+ */
+public class SqlTimingDataSource extends DelegatingDataSource {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final Supplier<SqlStatementStats> stats;
+
+    /**
+     * Wraps a data source.
+     *
+     * @param target the data source that hands out the real connections
+     * @param stats supplies the collector that statements are reported to
+     */
+    public SqlTimingDataSource(DataSource target, Supplier<SqlStatementStats> stats) {
+        super(target);
+        this.stats = stats;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTimingDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrapStatement(result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> wrapStatement(result, CallableStatement.class, (String) args[0]);
+                case "createStatement" -> wrapStatement(result, Statement.class, null);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Object statement, Class<?> type, String sql) {
+            String source = sql == null ? "jdbc" : stats.get().sourceOf(sql);
+            return Proxy.newProxyInstance(SqlTimingDataSource.class.getClassLoader(), new Class<?>[] {type},
+                    new StatementHandler(statement, sql, source));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Object target;
+        private final String preparedSql;
+        private final String source;
+        private final Map<Integer, String> binds = new TreeMap<>();
+        private String batchSql;
+
+        private StatementHandler(Object target, String preparedSql, String source) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.source = source;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) return timed(method, args);
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                binds.put(index, name.equals("setNull") ? "null" : name.substring(3));
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                batchSql = (String) args[0];
+            }
+            return SqlTimingDataSource.invoke(target, method, args);
+        }
+
+        private Object timed(Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : preparedSql != null ? preparedSql : batchSql;
+            WorkoutTracer.Span span = WorkoutTracer.span("sql");
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = SqlTimingDataSource.invoke(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                String fingerprint = stats.get().record(sql, source, bindShape(), System.nanoTime() - start, failed);
+                if (span.isRecording()) {
+                    span.attribute("statement", fingerprint).attribute("source", source);
+                    if (failed) span.failed();
+                }
+                span.close();
+            }
+        }
+
+        private String bindShape() {
+            if (binds.isEmpty()) return "()";
+            StringJoiner shape = new StringJoiner(", ", "(", ")");
+            binds.values().forEach(shape::add);
+            return shape.toString();
+        }
+    }
+}
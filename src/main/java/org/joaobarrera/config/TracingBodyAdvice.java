@@ -0,0 +1,75 @@
+package org.joaobarrera.config;
+
+import org.joaobarrera.service.WorkoutTracer;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Type;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * TracingBodyAdvice.java
+ */
+
+/**
+ * Adds deserialize and serialize spans around the reading of request bodies and the writing
+ * of response bodies.
+ * <p>
+ * Spring gives no hook after a response body is written, so the serialize span is left open
+ * and ends with the request's root span.
+ */
+@ControllerAdvice
+public class TracingBodyAdvice extends RequestBodyAdviceAdapter implements ResponseBodyAdvice<Object> {
+    private static final String DESERIALIZE_SPAN = TracingBodyAdvice.class.getName() + ".deserialize";
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        WorkoutTracer.Span span = WorkoutTracer.span("deserialize");
+        if (span.isRecording()) {
+            span.attribute("type", targetType.getTypeName());
+            RequestContextHolder.currentRequestAttributes()
+                    .setAttribute(DESERIALIZE_SPAN, span, RequestAttributes.SCOPE_REQUEST);
+        }
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        Object span = RequestContextHolder.currentRequestAttributes()
+                .getAttribute(DESERIALIZE_SPAN, RequestAttributes.SCOPE_REQUEST);
+        if (span instanceof WorkoutTracer.Span open) open.close();
+        return body;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        WorkoutTracer.span("serialize").attribute("converter", selectedConverterType.getSimpleName());
+        return body;
+    }
+}
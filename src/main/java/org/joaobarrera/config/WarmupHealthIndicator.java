@@ -0,0 +1,52 @@
+package org.joaobarrera.config;
+
+import org.joaobarrera.model.WarmupStatus;
+import org.joaobarrera.service.WorkoutWarmup;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WarmupHealthIndicator.java
+ */
+
+/**
+ * Reports the startup warm-up as out of service until it is complete. It belongs to the
+ * readiness group, so traffic is only sent to the application once its hot paths are warm.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WorkoutWarmup warmup;
+
+    public WarmupHealthIndicator(WorkoutWarmup warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        WarmupStatus status = warmup.getStatus();
+        Health.Builder builder = warmup.isComplete() ? Health.up() : Health.status(Status.OUT_OF_SERVICE);
+
+        // Values that are not known yet are left out
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("state", status.state());
+        details.put("iterations", status.iterations());
+        details.put("completed", status.completed());
+        details.put("failed", status.failed());
+        details.put("durationMillis", status.durationMillis());
+        details.put("firstIterationMillis", status.firstIterationMillis());
+        details.put("lastIterationMillis", status.lastIterationMillis());
+        details.put("firstMinute", status.firstMinute());
+        details.values().removeIf(Objects::isNull);
+        return builder.withDetails(details).build();
+    }
+}
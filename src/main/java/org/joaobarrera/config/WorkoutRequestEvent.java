@@ -0,0 +1,37 @@
+package org.joaobarrera.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutRequestEvent.java
+ */
+
+/**
+ * Flight Recorder event emitted for every request to the workout API. Its duration covers
+ * the request from the moment it reaches the filter chain until the response is complete.
+ */
+@Name("org.joaobarrera.WorkoutRequest")
+@Label("Workout API Request")
+@Category({"Workout Logger", "HTTP"})
+@Description("A request handled by the workout API")
+@StackTrace(false)
+public class WorkoutRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    @Description("The matched route pattern, or the raw path if no route matched")
+    String route;
+
+    @Label("Status")
+    int status;
+}
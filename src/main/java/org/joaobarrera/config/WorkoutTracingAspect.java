@@ -0,0 +1,42 @@
+package org.joaobarrera.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.service.WorkoutTracer;
+import org.springframework.stereotype.Component;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutTracingAspect.java
+ */
+
+/**
+ * Opens a span around every public call into the workout services, named after the class
+ * and method and tagged with the outcome of the returned OperationResult.
+ */
+@Aspect
+@Component
+public class WorkoutTracingAspect {
+
+    @Around("execution(public * org.joaobarrera.service.WorkoutManager.*(..))"
+            + " || execution(public * org.joaobarrera.service.WorkoutJdbcReader.*(..))"
+            + " || execution(public * org.joaobarrera.service.WorkoutReadCoalescer.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        WorkoutTracer.Span span = WorkoutTracer.span(
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+        if (!span.isRecording()) return joinPoint.proceed();
+
+        try (span) {
+            Object result = joinPoint.proceed();
+            if (result instanceof OperationResult<?> operation) span.attribute("outcome", operation.status());
+            return result;
+        } catch (Throwable e) {
+            span.attribute("error", e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+}
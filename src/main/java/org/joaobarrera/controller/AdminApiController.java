@@ -0,0 +1,165 @@
+package org.joaobarrera.controller;
+
+import org.joaobarrera.model.BackupStatus;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.RecordedTrace;
+import org.joaobarrera.model.RecordingStatus;
+import org.joaobarrera.service.DatabaseBackupService;
+import org.joaobarrera.service.JfrRecordingService;
+import org.joaobarrera.service.WorkoutMirror;
+import org.joaobarrera.service.WorkoutTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * AdminApiController.java
+ */
+
+/**
+ * The AdminApiController class exposes operational endpoints that are not part of the
+ * everyday workout editing flow.
+ * <p>
+ * It lets an operator trigger online database backups, follow their progress, list the
+ * backups that are kept on disk, and restore the live database from one of them.
+ * It can also check the in-memory mirror against the database on demand.
+ * <p>
+ * For profiling, it starts a bounded Flight Recorder recording and hands back the .jfr file
+ * once the recording is stopped, and lists the slowest recent request traces with their
+ * span trees.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminApiController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminApiController.class);
+
+    private final DatabaseBackupService backupService;
+    private final WorkoutMirror mirror;
+    private final JfrRecordingService recordingService;
+    private final WorkoutTracer tracer;
+
+    public AdminApiController(DatabaseBackupService backupService, WorkoutMirror mirror,
+                              JfrRecordingService recordingService, WorkoutTracer tracer) {
+        this.backupService = backupService;
+        this.mirror = mirror;
+        this.recordingService = recordingService;
+        this.tracer = tracer;
+    }
+
+    @PostMapping("/backup")
+    public ResponseEntity<?> startBackup() {
+        log.info("action=START_BACKUP");
+
+        OperationResult<BackupStatus> result = backupService.startBackup();
+
+        if (!result.success()) {
+            log.error("action=START_BACKUP status=FAIL message={}", result.message());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", result.message()));
+        }
+        return ResponseEntity.accepted().body(result.data());
+    }
+
+    @GetMapping("/backup/status")
+    public BackupStatus getBackupStatus() {
+        return backupService.getStatus();
+    }
+
+    @GetMapping("/backups")
+    public ResponseEntity<?> listBackups() {
+        OperationResult<List<String>> result = backupService.listBackups();
+
+        if (!result.success()) {
+            return ResponseEntity.internalServerError().body(Map.of("error", result.message()));
+        }
+        return ResponseEntity.ok(result.data());
+    }
+
+    @PostMapping("/restore")
+    public ResponseEntity<?> restore(@RequestParam("file") String file) {
+        long start = System.currentTimeMillis();
+        log.info("action=RESTORE_BACKUP file={}", file);
+
+        OperationResult<BackupStatus> result = backupService.restore(file);
+
+        long duration = System.currentTimeMillis() - start;
+
+        if (result.success()) {
+            log.info("action=RESTORE_BACKUP status=SUCCESS file={} duration={}ms", file, duration);
+            return ResponseEntity.ok(result.data());
+        } else {
+            log.error("action=RESTORE_BACKUP status=FAIL file={} duration={}ms message={}",
+                    file, duration, result.message());
+            return ResponseEntity.badRequest().body(Map.of("error", result.message()));
+        }
+    }
+
+    @PostMapping("/mirror/verify")
+    public ResponseEntity<?> verifyMirror() {
+        long start = System.currentTimeMillis();
+        log.info("action=MIRROR_VERIFY");
+
+        OperationResult<Boolean> result = mirror.verify();
+
+        long duration = System.currentTimeMillis() - start;
+
+        if (result.success()) {
+            log.info("action=MIRROR_VERIFY status=SUCCESS consistent={} duration={}ms", result.data(), duration);
+            return ResponseEntity.ok(Map.of("consistent", result.data(), "message", result.message()));
+        } else {
+            log.error("action=MIRROR_VERIFY status=FAIL duration={}ms message={}", duration, result.message());
+            return ResponseEntity.badRequest().body(Map.of("error", result.message()));
+        }
+    }
+
+    @PostMapping("/jfr/start")
+    public ResponseEntity<?> startRecording(@RequestParam(value = "durationSeconds", required = false) Long durationSeconds) {
+        log.info("action=START_RECORDING durationSeconds={}", durationSeconds);
+
+        OperationResult<RecordingStatus> result = recordingService.start(durationSeconds);
+
+        if (!result.success()) {
+            log.error("action=START_RECORDING status=FAIL message={}", result.message());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", result.message()));
+        }
+        return ResponseEntity.accepted().body(result.data());
+    }
+
+    @GetMapping("/jfr/status")
+    public RecordingStatus getRecordingStatus() {
+        return recordingService.getStatus();
+    }
+
+    @PostMapping("/jfr/stop")
+    public ResponseEntity<?> stopRecording() {
+        log.info("action=STOP_RECORDING");
+
+        OperationResult<Path> result = recordingService.stop();
+
+        if (!result.success()) {
+            log.error("action=STOP_RECORDING status=FAIL message={}", result.message());
+            return ResponseEntity.badRequest().body(Map.of("error", result.message()));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + result.data().getFileName() + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(result.data()));
+    }
+
+    @GetMapping("/traces/slowest")
+    public List<RecordedTrace> getSlowestTraces(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return tracer.slowest(limit);
+    }
+}
@@ -0,0 +1,119 @@
+package org.joaobarrera.controller;
+
+import org.joaobarrera.model.JobStatus;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.service.WorkoutJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * JobApiController.java
+ */
+
+/**
+ * The JobApiController class exposes heavy workout operations as background jobs.
+ * <p>
+ * Starting a job answers 202 with its status straight away, and the client polls the job
+ * until it finishes. A job whose bulkhead is full is refused with 429. Export jobs write a
+ * snapshot file that can be downloaded once the job has succeeded, and import jobs load one
+ * that was uploaded when the job was started.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobApiController {
+
+    private static final Logger log = LoggerFactory.getLogger(JobApiController.class);
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final WorkoutJobService jobService;
+
+    public JobApiController(WorkoutJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping("/convert")
+    public ResponseEntity<?> startConversion(@RequestBody UnitType unitType) {
+        log.info("action=START_CONVERT_JOB targetUnit={}", unitType);
+        return acceptedResponse(jobService.startConversion(unitType));
+    }
+
+    @PostMapping("/export")
+    public ResponseEntity<?> startExport() {
+        log.info("action=START_EXPORT_JOB");
+        return acceptedResponse(jobService.startExport());
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> startImport(InputStream body,
+                                         @RequestParam(value = "replace", defaultValue = "false") boolean replace) {
+        log.info("action=START_IMPORT_JOB replace={}", replace);
+        return acceptedResponse(jobService.startImport(body, replace));
+    }
+
+    @PostMapping("/archive")
+    public ResponseEntity<?> startArchive() {
+        log.info("action=START_ARCHIVE_JOB");
+        return acceptedResponse(jobService.startArchive());
+    }
+
+    @GetMapping
+    public List<JobStatus> listJobs() {
+        return jobService.listJobs();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable("id") long id) {
+        OperationResult<JobStatus> result = jobService.getJob(id);
+
+        if (!result.success()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", result.message()));
+        }
+        return ResponseEntity.ok(result.data());
+    }
+
+    @GetMapping("/{id}/file")
+    public ResponseEntity<?> downloadFile(@PathVariable("id") long id) {
+        OperationResult<Path> result = jobService.getExportFile(id);
+
+        if (!result.success()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", result.message()));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"workouts.wksnap\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(result.data()));
+    }
+
+    // A full bulkhead asks the client to come back later. Anything else is a bad request.
+    private ResponseEntity<?> acceptedResponse(OperationResult<JobStatus> result) {
+        if (result.success()) {
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/api/jobs/" + result.data().id())
+                    .body(result.data());
+        }
+
+        log.error("action=START_JOB status=FAIL message={}", result.message());
+        if (result.status() == OperationStatus.REJECTED) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(Map.of("error", result.message()));
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", result.message()));
+    }
+}
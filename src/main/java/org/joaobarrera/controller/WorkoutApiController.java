@@ -1,16 +1,29 @@
 package org.joaobarrera.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.joaobarrera.model.MutationResponse;
 import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.SerializedWorkouts;
 import org.joaobarrera.model.UnitType;
+import org.joaobarrera.model.WorkoutChanges;
 import org.joaobarrera.entity.Workout;
+import org.joaobarrera.service.WorkoutDataVersion;
+import org.joaobarrera.service.WorkoutField;
 import org.joaobarrera.service.WorkoutManager;
+import org.joaobarrera.service.WorkoutReadCoalescer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /*
  * Joao Barrera
@@ -24,11 +37,15 @@ import java.util.Map;
  * within the Workout Logger application.
  * <p>
  * It handles CRUD operations and database interactions such as creating, updating,
- * deleting, and retrieving workout entries.
+ * deleting, and retrieving workout entries. Updates may replace a whole workout (PUT) or
+ * change only some of its fields with a JSON Merge Patch (PATCH).
  * <p>
  * It also supports unit conversion (kilometers to miles and vice versa) and database
  * connection management, enabling smooth interaction between the frontend interface
  * and backend logic.
+ * <p>
+ * Clients that keep a copy of the workouts can poll /changes with the cursor from their
+ * previous call to receive only what changed since.
  */
 
 @RestController
@@ -36,50 +53,114 @@ import java.util.Map;
 public class WorkoutApiController {
 
     private static final Logger log = LoggerFactory.getLogger(WorkoutApiController.class);
+    private static final String DATA_VERSION_HEADER = "X-Data-Version";
+    private static final String RETRY_AFTER_SECONDS = "1";
 
     private final WorkoutManager workoutManager;
+    private final WorkoutReadCoalescer readCoalescer;
+    private final WorkoutDataVersion dataVersion;
 
-    public WorkoutApiController(WorkoutManager workoutManager) {
+    public WorkoutApiController(WorkoutManager workoutManager, WorkoutReadCoalescer readCoalescer,
+                                WorkoutDataVersion dataVersion) {
         this.workoutManager = workoutManager;
+        this.readCoalescer = readCoalescer;
+        this.dataVersion = dataVersion;
     }
 
     @GetMapping("/getAll")
-    public List<Workout> getAllWorkouts() {
+    public ResponseEntity<?> getAllWorkouts(@RequestParam(value = "fields", required = false) String fields) {
         long start = System.currentTimeMillis();
-        log.info("action=GET_ALL_WORKOUTS");
+        log.info("action=GET_ALL_WORKOUTS fields={}", fields);
+
+        OperationResult<Set<WorkoutField>> selection = WorkoutField.parse(fields);
+        if (!selection.success()) {
+            log.error("action=GET_ALL_WORKOUTS status=FAIL message={}", selection.message());
+            return ResponseEntity.badRequest().body(Map.of("error", selection.message()));
+        }
 
-        OperationResult<List<Workout>> result = workoutManager.getAllWorkouts();
+        OperationResult<SerializedWorkouts> result = readCoalescer.getAllWorkouts(selection.data());
 
         long duration = System.currentTimeMillis() - start;
 
         if (result.success()) {
             log.info("action=GET_ALL_WORKOUTS status=SUCCESS count={} duration={}ms",
-                    result.data().size(), duration);
-            return result.data();
+                    result.data().count(), duration);
+            return jsonResponse(result.data());
         } else {
             log.error("action=GET_ALL_WORKOUTS status=FAIL duration={}ms message={}",
                     duration, result.message());
-            return null;
+            return failureResponse(result, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping("/getByName")
-    public List<Workout> getWorkoutByName(@RequestParam("name") String name) {
+    public ResponseEntity<?> getWorkoutByName(@RequestParam("name") String name,
+                                              @RequestParam(value = "fields", required = false) String fields) {
         long start = System.currentTimeMillis();
-        log.info("action=GET_WORKOUT_BY_NAME query={}", name);
+        log.info("action=GET_WORKOUT_BY_NAME query={} fields={}", name, fields);
 
-        OperationResult<List<Workout>> result = workoutManager.getWorkoutsBySearchParameter(name);
+        OperationResult<Set<WorkoutField>> selection = WorkoutField.parse(fields);
+        if (!selection.success()) {
+            log.error("action=GET_WORKOUT_BY_NAME status=FAIL query={} message={}", name, selection.message());
+            return ResponseEntity.badRequest().body(Map.of("error", selection.message()));
+        }
+
+        OperationResult<SerializedWorkouts> result = readCoalescer.getWorkoutsBySearchParameter(name, selection.data());
 
         long duration = System.currentTimeMillis() - start;
 
         if (result.success()) {
             log.info("action=GET_WORKOUT_BY_NAME status=SUCCESS count={} duration={}ms",
-                    result.data().size(), duration);
-            return result.data();
+                    result.data().count(), duration);
+            return jsonResponse(result.data());
         } else {
             log.error("action=GET_WORKOUT_BY_NAME status=FAIL query={} duration={}ms message={}",
                     name, duration, result.message());
-            return null;
+            return failureResponse(result, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/getByDateRange")
+    public ResponseEntity<?> getWorkoutsByDateRange(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        long start = System.currentTimeMillis();
+        log.info("action=GET_WORKOUTS_BY_DATE_RANGE from={} to={}", from, to);
+
+        OperationResult<List<Workout>> result = workoutManager.getWorkoutsByDateRange(from, to);
+
+        long duration = System.currentTimeMillis() - start;
+
+        if (result.success()) {
+            log.info("action=GET_WORKOUTS_BY_DATE_RANGE status=SUCCESS count={} duration={}ms",
+                    result.data().size(), duration);
+            return ResponseEntity.ok(result.data());
+        } else {
+            log.error("action=GET_WORKOUTS_BY_DATE_RANGE status=FAIL from={} to={} duration={}ms message={}",
+                    from, to, duration, result.message());
+            return failureResponse(result, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(value = "since", required = false) String since,
+                                        @RequestParam(value = "limit", required = false) Integer limit) {
+        long start = System.currentTimeMillis();
+        log.info("action=GET_CHANGES since={} limit={}", since, limit);
+
+        OperationResult<WorkoutChanges> result = workoutManager.getChanges(since, limit);
+
+        long duration = System.currentTimeMillis() - start;
+
+        if (result.success()) {
+            log.info("action=GET_CHANGES status=SUCCESS resync={} upserted={} deleted={} hasMore={} duration={}ms",
+                    result.data().resync(), result.data().upserted().size(), result.data().deleted().size(),
+                    result.data().hasMore(), duration);
+            return ResponseEntity.ok(result.data());
+        } else {
+            log.error("action=GET_CHANGES status=FAIL since={} duration={}ms message={}",
+                    since, duration, result.message());
+            return failureResponse(result, HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -123,6 +204,33 @@ public class WorkoutApiController {
         return processResult(result);
     }
 
+    @PatchMapping("/updateByID")
+    public ResponseEntity<?> patchWorkout(@RequestBody JsonNode patch) {
+        long start = System.currentTimeMillis();
+        log.info("action=PATCH_WORKOUT payload={}", patch);
+
+        OperationResult<Map<WorkoutField, Object>> changes = WorkoutField.readPatch(patch);
+        if (!changes.success()) {
+            log.error("action=PATCH_WORKOUT status=FAIL message={}", changes.message());
+            return ResponseEntity.badRequest().body(Map.of("error", changes.message()));
+        }
+
+        Integer id = (Integer) changes.data().get(WorkoutField.ID);
+        OperationResult<Workout> result = workoutManager.patchWorkout(id, changes.data());
+
+        long duration = System.currentTimeMillis() - start;
+
+        if (result.success()) {
+            log.info("action=PATCH_WORKOUT status=SUCCESS id={} fields={} duration={}ms",
+                    id, changes.data().keySet(), duration);
+        } else {
+            log.error("action=PATCH_WORKOUT status=FAIL id={} duration={}ms message={}",
+                    id, duration, result.message());
+        }
+
+        return processResult(result);
+    }
+
     @DeleteMapping("/deleteByID")
     public ResponseEntity<?> deleteWorkout(@RequestBody Workout workout) {
         long start = System.currentTimeMillis();
@@ -162,13 +270,45 @@ public class WorkoutApiController {
         return processResult(result);
     }
 
+    // Writes an already serialized list without passing it through Jackson again
+    private ResponseEntity<SerializedWorkouts> jsonResponse(SerializedWorkouts workouts) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(DATA_VERSION_HEADER, Long.toString(workouts.version()))
+                .body(workouts);
+    }
+
+    // Successful mutations return their result and the data version their own commit produced,
+    // so clients can patch locally
     private ResponseEntity<?> processResult(OperationResult<?> result) {
         if (result.success()) {
-            return ResponseEntity.ok().build();
+            long version = result.version() != null ? result.version() : dataVersion.current();
+            return ResponseEntity.ok()
+                    .header(DATA_VERSION_HEADER, Long.toString(version))
+                    .body(new MutationResponse<>(result.data(), version));
         } else {
-            return ResponseEntity
-                    .badRequest()
-                    .body(Map.of("error", result.message()));
+            return failureResponse(result, HttpStatus.BAD_REQUEST);
         }
     }
+
+    // Conflicts return the current state so the client can show it and retry. A busy database
+    // or a full write queue asks the client to come back shortly. Anything else gets the given status.
+    private ResponseEntity<?> failureResponse(OperationResult<?> result, HttpStatus otherwise) {
+        return switch (result.status()) {
+            case CONFLICT -> ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", result.message(), "current", result.data()));
+            case UNAVAILABLE -> ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(Map.of("error", result.message()));
+            case REJECTED -> ResponseEntity
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(Map.of("error", result.message()));
+            default -> ResponseEntity
+                    .status(otherwise)
+                    .body(Map.of("error", result.message()));
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package org.joaobarrera.entity;
+
+import jakarta.persistence.*;
+import org.joaobarrera.model.UnitType;
+
+import java.time.LocalDateTime;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * ArchivedWorkout.java
+ */
+
+/**
+ * Represents a workout that has been moved out of the primary Workout table because it is
+ * older than the archive horizon.
+ * <p>
+ * Archived workouts keep the ID they had in the primary table and are read-only. They are
+ * only returned by explicit date-range queries.
+ */
+
+@Entity
+@Table(name = "WorkoutArchive", indexes = @Index(name = "idx_workout_archive_start", columnList = "startDateTime"))
+public class ArchivedWorkout {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime startDateTime;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private UnitType unit;
+
+    @Column(nullable = false)
+    private Integer duration; // in minutes
+
+    @Column(nullable = false)
+    private Double distance;
+
+    @Column(length = 200)
+    private String notes;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public ArchivedWorkout() {}
+
+    /**
+     * Returns the archived workout as a regular, detached Workout.
+     *
+     * @return a Workout with the same ID and field values
+     */
+    public Workout toWorkout() {
+        return new Workout(id, name, startDateTime, duration, distance, unit, notes);
+    }
+
+    /**
+     * Returns the ID the workout had in the primary table.
+     *
+     * @return the workout ID
+     */
+    public Integer getID() { return id; }
+
+    /**
+     * Returns the start date and time of the workout.
+     *
+     * @return the workout start date and time
+     */
+    public LocalDateTime getStartDateTime() { return startDateTime; }
+
+    /**
+     * Returns when the workout was moved into the archive.
+     *
+     * @return the archive date and time
+     */
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
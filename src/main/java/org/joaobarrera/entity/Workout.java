@@ -2,6 +2,7 @@ package org.joaobarrera.entity;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.joaobarrera.config.LocalDateTimeDeserializer;
 import org.joaobarrera.config.UnitTypeDeserializer;
 import org.joaobarrera.model.UnitType;
@@ -25,10 +26,16 @@ import java.time.format.DateTimeFormatter;
  * Used for creating, updating, displaying, and persisting workout information.
  * <p>
  * Converted to a JPA entity to persist in SQLite via Spring Data JPA.
+ * <p>
+ * The notes column is the widest one and most operations never look at it, so it is only
+ * loaded from a managed entity when it is first read.
+ * <p>
+ * Every change moves the version forward. Clients send back the version they last saw, and an
+ * update is only applied if the workout has not changed since.
  */
 
 @Entity
-@Table(name = "Workout")
+@Table(name = "Workout", indexes = @Index(name = "idx_workout_start", columnList = "startDateTime"))
 public class Workout {
 
     @Id
@@ -53,9 +60,16 @@ public class Workout {
     @Column(nullable = false)
     private Double distance;
 
+    // Loaded on first access; requires the Hibernate bytecode enhancement configured in the pom
+    @Basic(fetch = FetchType.LAZY)
     @Column(length = 200)
     private String notes;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Default constructor required by JPA.
      */
@@ -86,6 +100,24 @@ public class Workout {
         this.notes = notes;
     }
 
+    /**
+     * Constructs a Workout with all fields and the version it was read at.
+     *
+     * @param id the unique identifier for this workout
+     * @param name the name of the workout
+     * @param startDateTime the starting date and time of the workout
+     * @param duration the duration of the workout in minutes
+     * @param distance the distance covered in the workout
+     * @param unit the unit type of the distance (KILOMETERS or MILES)
+     * @param notes optional notes for the workout
+     * @param version the version of the stored workout
+     */
+    public Workout(Integer id, String name, LocalDateTime startDateTime, Integer duration,
+                   Double distance, UnitType unit, String notes, Long version) {
+        this(id, name, startDateTime, duration, distance, unit, notes);
+        this.version = version;
+    }
+
     /**
      * Returns the ID of the workout.
      * <p>
@@ -188,6 +220,20 @@ public class Workout {
      */
     public void setNotes(String notes) { this.notes = notes; }
 
+    /**
+     * Returns the version of the workout, which increases with every change.
+     *
+     * @return the workout version, or null if it has not been stored
+     */
+    public Long getVersion() { return version; }
+
+    /**
+     * Sets the version of the workout that an update is based on.
+     *
+     * @param version the version last seen by the client
+     */
+    public void setVersion(Long version) { this.version = version; }
+
 
     /**
      * Returns a string representation of the workout.
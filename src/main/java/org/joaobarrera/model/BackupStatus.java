@@ -0,0 +1,38 @@
+package org.joaobarrera.model;
+
+import java.time.LocalDateTime;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * BackupStatus.java
+ */
+
+/**
+ * Immutable snapshot of the most recent online backup or restore run.
+ * <p>
+ * Reported by the admin API so that operators can follow the progress of a
+ * long-running copy without tailing the logs.
+ *
+ * @param state the current state of the run (IDLE, RUNNING, SUCCEEDED or FAILED)
+ * @param operation the kind of run, either BACKUP or RESTORE
+ * @param file the backup file being written or read
+ * @param pageCount the total number of database pages to copy
+ * @param pagesRemaining the number of pages still to copy
+ * @param startedAt when the run started
+ * @param finishedAt when the run finished, or null while it is running
+ * @param message a human-readable description of the outcome
+ */
+public record BackupStatus(String state, String operation, String file, int pageCount, int pagesRemaining,
+                           LocalDateTime startedAt, LocalDateTime finishedAt, String message) {
+
+    /**
+     * Returns the status reported before any backup has been taken.
+     *
+     * @return an IDLE status with no file or progress information
+     */
+    public static BackupStatus idle() {
+        return new BackupStatus("IDLE", null, null, 0, 0, null, null, "No backup has run yet.");
+    }
+}
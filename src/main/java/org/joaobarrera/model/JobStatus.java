@@ -0,0 +1,87 @@
+package org.joaobarrera.model;
+
+import java.time.LocalDateTime;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * JobStatus.java
+ */
+
+/**
+ * Immutable snapshot of a background job, such as a unit conversion or an export.
+ * <p>
+ * Reported by the jobs API so that clients can start heavy work without holding a request
+ * open and poll until it finishes.
+ *
+ * @param id the ID the job is looked up by
+ * @param type the kind of job, such as CONVERT or EXPORT
+ * @param bulkhead the bulkhead whose threads run the job
+ * @param state the current state of the job (QUEUED, RUNNING, SUCCEEDED or FAILED)
+ * @param processed the number of items handled so far
+ * @param total the number of items the job expects to handle
+ * @param file the file the job wrote, or null if it does not write one
+ * @param submittedAt when the job was accepted
+ * @param startedAt when the job started running, or null while it is queued
+ * @param finishedAt when the job finished, or null while it is queued or running
+ * @param message a human-readable description of the outcome
+ */
+public record JobStatus(long id, String type, String bulkhead, String state, long processed, long total, String file,
+                        LocalDateTime submittedAt, LocalDateTime startedAt, LocalDateTime finishedAt, String message) {
+
+    /**
+     * Returns the status of a job that has just been accepted.
+     *
+     * @param id the ID of the job
+     * @param type the kind of job
+     * @param bulkhead the bulkhead that will run the job
+     * @return a QUEUED status with no progress
+     */
+    public static JobStatus queued(long id, String type, String bulkhead) {
+        return new JobStatus(id, type, bulkhead, "QUEUED", 0, 0, null, LocalDateTime.now(), null, null, "Job queued.");
+    }
+
+    /**
+     * Returns this status with the job marked as running.
+     *
+     * @return a RUNNING copy of this status
+     */
+    public JobStatus running() {
+        return new JobStatus(id, type, bulkhead, "RUNNING", processed, total, file, submittedAt, LocalDateTime.now(),
+                null, "Job running.");
+    }
+
+    /**
+     * Returns this status with new progress figures.
+     *
+     * @param processed the number of items handled so far
+     * @param total the number of items the job expects to handle
+     * @return a copy of this status with the given progress
+     */
+    public JobStatus progress(long processed, long total) {
+        return new JobStatus(id, type, bulkhead, state, processed, total, file, submittedAt, startedAt, finishedAt, message);
+    }
+
+    /**
+     * Returns this status with the job marked as finished.
+     *
+     * @param succeeded whether the job succeeded
+     * @param file the file the job wrote, or null
+     * @param message a description of the outcome
+     * @return a SUCCEEDED or FAILED copy of this status
+     */
+    public JobStatus finished(boolean succeeded, String file, String message) {
+        return new JobStatus(id, type, bulkhead, succeeded ? "SUCCEEDED" : "FAILED", processed, total, file,
+                submittedAt, startedAt, LocalDateTime.now(), message);
+    }
+
+    /**
+     * Reports whether the job is still queued or running.
+     *
+     * @return true if the job has not finished
+     */
+    public boolean active() {
+        return finishedAt == null;
+    }
+}
@@ -0,0 +1,19 @@
+package org.joaobarrera.model;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * LatencySummary.java
+ */
+
+/**
+ * The request latency over a window of time.
+ *
+ * @param requests how many requests finished in the window
+ * @param p50Millis the median latency, or null if no request finished
+ * @param p95Millis the 95th percentile latency, or null if no request finished
+ * @param p99Millis the 99th percentile latency, or null if no request finished
+ */
+public record LatencySummary(long requests, Double p50Millis, Double p95Millis, Double p99Millis) {
+}
@@ -0,0 +1,21 @@
+package org.joaobarrera.model;
+
+import java.util.List;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * MetricSeries.java
+ */
+
+/**
+ * The recorded values of one metric, aligned with the timestamps of the
+ * {@link MetricsHistorySnapshot} that holds it.
+ *
+ * @param name the series name, such as http.latency.p95
+ * @param unit the unit of the values, such as ms or req/s
+ * @param values one value per timestamp, or null where the metric was not available
+ */
+public record MetricSeries(String name, String unit, List<Double> values) {
+}
@@ -0,0 +1,22 @@
+package org.joaobarrera.model;
+
+import java.util.List;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * MetricsHistorySnapshot.java
+ */
+
+/**
+ * A window of recorded metrics at one resolution, oldest first.
+ *
+ * @param resolution the resolution the points were recorded at: 1s, 1m or 1h
+ * @param intervalMillis the length of the period each point covers
+ * @param timestamps the start of each point's period, in epoch milliseconds
+ * @param series the requested series, each holding one value per timestamp
+ */
+public record MetricsHistorySnapshot(String resolution, long intervalMillis, List<Long> timestamps,
+                                     List<MetricSeries> series) {
+}
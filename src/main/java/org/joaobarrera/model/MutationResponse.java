@@ -0,0 +1,21 @@
+package org.joaobarrera.model;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * MutationResponse.java
+ */
+
+/**
+ * Response body returned by every successful workout mutation.
+ * <p>
+ * Carries the persisted result of the change together with the data version its own commit
+ * produced. Clients that know the previous version can apply the change to their local copy
+ * directly and only reload when they notice a gap in the versions.
+ *
+ * @param data the persisted workout, the deleted ID, or the converted workouts
+ * @param version the data version produced by the change's own commit
+ */
+public record MutationResponse<T>(T data, long version) {
+}
@@ -12,9 +12,48 @@ package org.joaobarrera.model;
  * <p>
  * Encapsulates whether the operation was successful, the data returned by the operation,
  * and an optional message describing the result or any errors.
+ * <p>
+ * The status refines a failure when the caller needs to react to it differently, such as a
+ * conflict whose data is the current state. It follows the success flag when not given.
+ * <p>
+ * A successful change also carries the data version its own commit produced. Other results
+ * carry none.
  */
 
-public record OperationResult<T>(boolean success, T data, String message) {
+public record OperationResult<T>(boolean success, T data, String message, OperationStatus status, Long version) {
+    /**
+     * Constructs a result whose status follows its success flag.
+     *
+     * @param success whether the operation succeeded
+     * @param data the data returned by the operation
+     * @param message a message describing the result
+     */
+    public OperationResult(boolean success, T data, String message) {
+        this(success, data, message, success ? OperationStatus.SUCCEEDED : OperationStatus.FAILED);
+    }
+
+    /**
+     * Constructs a result without a data version.
+     *
+     * @param success whether the operation succeeded
+     * @param data the data returned by the operation
+     * @param message a message describing the result
+     * @param status how the operation ended
+     */
+    public OperationResult(boolean success, T data, String message, OperationStatus status) {
+        this(success, data, message, status, null);
+    }
+
+    /**
+     * Returns a copy of this result that carries the given data version.
+     *
+     * @param version the data version produced or observed by the operation
+     * @return the same result with the version attached
+     */
+    public OperationResult<T> withVersion(Long version) {
+        return new OperationResult<>(success, data, message, status, version);
+    }
+
     /**
      * Returns a string representation of the operation result.
      * <p>
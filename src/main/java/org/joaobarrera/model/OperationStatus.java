@@ -0,0 +1,23 @@
+package org.joaobarrera.model;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * OperationStatus.java
+ */
+
+/**
+ * Enum describing how an operation in the Workout Logger application ended.
+ * <p>
+ * Lets the API tell failures that need a different response apart from ordinary
+ * validation errors.
+ */
+
+public enum OperationStatus {
+    SUCCEEDED,
+    FAILED,
+    CONFLICT,
+    UNAVAILABLE,
+    REJECTED
+}
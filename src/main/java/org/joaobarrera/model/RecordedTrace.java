@@ -0,0 +1,24 @@
+package org.joaobarrera.model;
+
+import java.time.LocalDateTime;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * RecordedTrace.java
+ */
+
+/**
+ * A finished trace of one request or background job that was kept by sampling.
+ *
+ * @param traceId the random ID of the trace
+ * @param startedAt when the trace started
+ * @param durationMillis how long the whole request or job took
+ * @param reason why the trace was kept: slow, error or sampled
+ * @param droppedSpans how many spans were left out because the trace reached its span limit
+ * @param root the outermost span, holding the tree of every other span
+ */
+public record RecordedTrace(String traceId, LocalDateTime startedAt, double durationMillis, String reason,
+                            int droppedSpans, TraceSpan root) {
+}
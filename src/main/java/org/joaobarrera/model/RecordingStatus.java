@@ -0,0 +1,34 @@
+package org.joaobarrera.model;
+
+import java.time.LocalDateTime;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * RecordingStatus.java
+ */
+
+/**
+ * Immutable snapshot of the most recent on-demand Flight Recorder recording.
+ *
+ * @param state the current state of the recording (IDLE, RUNNING, STOPPED or FAILED)
+ * @param file the file the recording is written to
+ * @param maxDurationSeconds how long the recording may run before it stops by itself
+ * @param maxSizeBytes how much data the recording keeps on disk
+ * @param startedAt when the recording started
+ * @param stoppedAt when the recording stopped, or null while it is running
+ * @param message a human-readable description of the outcome
+ */
+public record RecordingStatus(String state, String file, long maxDurationSeconds, long maxSizeBytes,
+                              LocalDateTime startedAt, LocalDateTime stoppedAt, String message) {
+
+    /**
+     * Returns the status reported before any recording has been taken.
+     *
+     * @return an IDLE status with no file
+     */
+    public static RecordingStatus idle() {
+        return new RecordingStatus("IDLE", null, 0, 0, null, null, "No recording has run yet.");
+    }
+}
@@ -0,0 +1,58 @@
+package org.joaobarrera.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * SerializedWorkouts.java
+ */
+
+/**
+ * A list of workouts that has already been serialized to JSON.
+ * <p>
+ * Produced once per read and shared by every request that asked for the same data at the
+ * same data version. The JSON array is held as a sequence of byte slices, most of which
+ * point straight into the off-heap JSON cache, and is only joined while it is written out.
+ *
+ * @param count the number of workouts in the list
+ * @param version the data version the list was read at
+ * @param chunks the UTF-8 encoded JSON array, in order
+ * @param length the total number of bytes in all chunks
+ */
+public record SerializedWorkouts(int count, long version, List<ByteBuffer> chunks, long length) {
+
+    /**
+     * Writes the JSON array to the given stream.
+     * <p>
+     * Each chunk is duplicated first, so the same instance can be written by several
+     * requests at once.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(out);
+        for (ByteBuffer chunk : chunks) {
+            ByteBuffer slice = chunk.duplicate();
+            while (slice.hasRemaining()) channel.write(slice);
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns a string representation without the JSON payload.
+     *
+     * @return a string describing the serialized list
+     */
+    @Override
+    public String toString() {
+        return "Count: " + count + ", Version: " + version + ", Bytes: " + length;
+    }
+}
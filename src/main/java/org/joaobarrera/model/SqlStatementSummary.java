@@ -0,0 +1,27 @@
+package org.joaobarrera.model;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SqlStatementSummary.java
+ */
+
+/**
+ * Aggregated execution statistics for one SQL statement shape.
+ * <p>
+ * Statements that differ only in their literals and bind values share a fingerprint, so
+ * the summary shows how often a query runs and what it costs overall.
+ *
+ * @param fingerprint the normalized SQL, with literals replaced by ? and whitespace collapsed
+ * @param source hibernate if Hibernate generated the statement, jdbc otherwise
+ * @param count how many times the statement ran
+ * @param errors how many of those runs threw
+ * @param slow how many of those runs exceeded the slow-query threshold
+ * @param totalMillis the combined execution time of every run
+ * @param meanMillis the average execution time of a run
+ * @param maxMillis the longest execution time of a single run
+ */
+public record SqlStatementSummary(String fingerprint, String source, long count, long errors, long slow,
+                                  double totalMillis, double meanMillis, double maxMillis) {
+}
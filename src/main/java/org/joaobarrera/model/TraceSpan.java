@@ -0,0 +1,24 @@
+package org.joaobarrera.model;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * TraceSpan.java
+ */
+
+/**
+ * One timed step of a recorded trace, with the steps it contained.
+ *
+ * @param name what the step did, such as WorkoutManager.addWorkout or sql
+ * @param offsetMillis when the step started, relative to the start of the trace
+ * @param durationMillis how long the step took
+ * @param attributes details of the step, such as the SQL fingerprint or the outcome
+ * @param children the steps that ran within this one, in the order they started
+ */
+public record TraceSpan(String name, double offsetMillis, double durationMillis, Map<String, String> attributes,
+                        List<TraceSpan> children) {
+}
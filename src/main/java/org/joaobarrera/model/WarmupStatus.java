@@ -0,0 +1,25 @@
+package org.joaobarrera.model;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WarmupStatus.java
+ */
+
+/**
+ * The progress and outcome of the startup warm-up.
+ *
+ * @param state PENDING, RUNNING or COMPLETE
+ * @param iterations how many iterations the warm-up runs
+ * @param completed how many iterations have finished
+ * @param failed how many of the finished iterations threw
+ * @param durationMillis how long the whole warm-up took, or null until it is complete
+ * @param firstIterationMillis how long the first iteration took, or null until it has run
+ * @param lastIterationMillis how long the most recent iteration took, or null until one has run
+ * @param firstMinute the latency of requests in the first minute after the warm-up, or null
+ *                    until that minute has passed
+ */
+public record WarmupStatus(String state, int iterations, int completed, int failed, Long durationMillis,
+                           Double firstIterationMillis, Double lastIterationMillis, LatencySummary firstMinute) {
+}
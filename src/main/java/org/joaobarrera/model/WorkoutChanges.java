@@ -0,0 +1,30 @@
+package org.joaobarrera.model;
+
+import org.joaobarrera.entity.Workout;
+
+import java.util.List;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutChanges.java
+ */
+
+/**
+ * One page of workout changes after a sync cursor.
+ * <p>
+ * The changes are compacted, so each workout appears at most once, either with its current
+ * values or as deleted. When resync is true the cursor is too old or comes from before a
+ * restore or import. The client must then reload every workout and continue from the cursor
+ * returned here. Replaying a change the client already has is harmless.
+ *
+ * @param cursor the cursor to send as since on the next request
+ * @param resync whether the client must reload every workout before continuing
+ * @param hasMore whether more changes follow the cursor
+ * @param upserted the workouts that were added or changed, with their current values
+ * @param deleted the IDs of the workouts that were deleted or archived
+ */
+public record WorkoutChanges(String cursor, boolean resync, boolean hasMore,
+                             List<Workout> upserted, List<Integer> deleted) {
+}
@@ -0,0 +1,39 @@
+package org.joaobarrera.repository;
+
+import org.joaobarrera.entity.ArchivedWorkout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * ArchivedWorkoutRepository.java
+ */
+
+/**
+ * Extends JpaRepository to provide read access to archived workouts.
+ */
+@Repository
+public interface ArchivedWorkoutRepository extends JpaRepository<ArchivedWorkout, Integer> {
+    /**
+     * Finds all archived workouts that started within the given range, oldest first.
+     *
+     * @param from the earliest start date and time, inclusive
+     * @param to the latest start date and time, inclusive
+     * @return a list of matching archived workouts
+     */
+    List<ArchivedWorkout> findByStartDateTimeBetweenOrderByStartDateTime(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns the start date and time of the newest archived workout.
+     *
+     * @return the newest archived start date and time, or null if the archive is empty
+     */
+    @Query("select max(a.startDateTime) from ArchivedWorkout a")
+    LocalDateTime findNewestStartDateTime();
+}
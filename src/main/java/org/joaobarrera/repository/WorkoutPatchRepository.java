@@ -0,0 +1,29 @@
+package org.joaobarrera.repository;
+
+import java.util.Map;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutPatchRepository.java
+ */
+
+/**
+ * Repository fragment for partial updates of a Workout, mixed into {@link WorkoutRepository}.
+ */
+public interface WorkoutPatchRepository {
+    /**
+     * Sets only the given attributes of a workout in a single statement and moves its version
+     * forward.
+     * <p>
+     * When an expected version is given, the row is only changed if it is still at that
+     * version. A null expected version updates the row whatever its version.
+     *
+     * @param id the ID of the workout to update
+     * @param expectedVersion the version the update is based on, or null to skip the check
+     * @param values the new values, keyed by Workout attribute name
+     * @return the number of rows changed, which is 0 if the workout is missing or has moved on
+     */
+    int patchIfCurrent(Integer id, Long expectedVersion, Map<String, Object> values);
+}
@@ -0,0 +1,52 @@
+package org.joaobarrera.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.joaobarrera.entity.Workout;
+
+import java.util.Map;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutPatchRepositoryImpl.java
+ */
+
+/**
+ * Builds the partial update with the Criteria API, so the statement only names the columns
+ * being changed.
+ */
+public class WorkoutPatchRepositoryImpl implements WorkoutPatchRepository {
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs the fragment around the shared EntityManager.
+     *
+     * @param entityManager the EntityManager used to run the update
+     */
+    public WorkoutPatchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int patchIfCurrent(Integer id, Long expectedVersion, Map<String, Object> values) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Workout> update = cb.createCriteriaUpdate(Workout.class);
+        Root<Workout> workout = update.from(Workout.class);
+
+        values.forEach((attribute, value) -> update.set(workout.get(attribute), value));
+        Path<Long> version = workout.get("version");
+        update.set(version, cb.sum(version, 1L));
+
+        Predicate matches = cb.equal(workout.get("id"), id);
+        if (expectedVersion != null) matches = cb.and(matches, cb.equal(version, expectedVersion));
+        update.where(matches);
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
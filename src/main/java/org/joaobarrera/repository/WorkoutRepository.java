@@ -1,10 +1,18 @@
 package org.joaobarrera.repository;
 
 import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.UnitType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /*
  * Joao Barrera
@@ -15,16 +23,153 @@ import java.util.List;
 
 /**
  * Extends JpaRepository to provide standard CRUD operations for the Workout object.
+ * <p>
+ * The detached finders select every column into new, unmanaged Workout objects in a single
+ * query. They are used for reads, because the lazy notes column of a managed entity would
+ * otherwise be loaded with one extra query per workout.
+ * <p>
+ * Partial updates come from {@link WorkoutPatchRepository}.
  */
 @Repository
-public interface WorkoutRepository extends JpaRepository<Workout, Integer> {
+public interface WorkoutRepository extends JpaRepository<Workout, Integer>, WorkoutPatchRepository {
+    String SELECT_DETACHED = "select new org.joaobarrera.entity.Workout(w.id, w.name, w.startDateTime, " +
+            "w.duration, w.distance, w.unit, w.notes, w.version) from Workout w";
+
+    /**
+     * Finds a workout as a fully loaded, unmanaged object.
+     *
+     * @param id the ID to look up
+     * @return the workout, or empty if it does not exist
+     */
+    @Query(SELECT_DETACHED + " where w.id = :id")
+    Optional<Workout> findDetachedById(@Param("id") Integer id);
+
+    /**
+     * Finds all workouts as fully loaded, unmanaged objects in ID order.
+     *
+     * @return a list of every Workout
+     */
+    @Query(SELECT_DETACHED + " order by w.id")
+    List<Workout> findAllDetached();
+
+    /**
+     * Finds the workouts with the given IDs as fully loaded, unmanaged objects.
+     *
+     * @param ids the IDs to look up
+     * @return a list of the workouts that exist
+     */
+    @Query(SELECT_DETACHED + " where w.id in :ids order by w.id")
+    List<Workout> findAllDetachedById(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Finds the workouts whose names match a LIKE pattern, ignoring case, as fully loaded,
+     * unmanaged objects in ID order. The pattern uses a backslash as its escape character.
+     *
+     * @param pattern the LIKE pattern to match
+     * @return a list of matching workouts
+     */
+    @Query(SELECT_DETACHED + " where upper(w.name) like upper(:pattern) escape '\\' order by w.id")
+    List<Workout> findDetachedByNameLike(@Param("pattern") String pattern);
+
+    /**
+     * Finds the workouts that started within the given range as fully loaded, unmanaged
+     * objects, oldest first.
+     *
+     * @param from the earliest start date and time, inclusive
+     * @param to the latest start date and time, inclusive
+     * @return a list of matching workouts
+     */
+    @Query(SELECT_DETACHED + " where w.startDateTime between :from and :to order by w.startDateTime, w.id")
+    List<Workout> findDetachedByStartDateTimeBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     /**
-     * Finds all workouts whose names contain the given search term, ignoring case.
+     * Deletes a workout in a single statement, without loading it first.
+     *
+     * @param id the ID of the workout to delete
+     * @return the number of rows deleted, which is 0 if the workout does not exist
+     */
+    @Modifying
+    @Query("delete from Workout w where w.id = :id")
+    int deleteDirectlyById(@Param("id") Integer id);
+
+    /**
+     * Replaces the fields of a workout in a single statement and moves its version forward.
      * <p>
-     * Useful for search functionality in the Workout Logger website.
+     * When an expected version is given, the row is only changed if it is still at that
+     * version. A null expected version updates the row whatever its version.
+     *
+     * @param id the ID of the workout to update
+     * @param expectedVersion the version the update is based on, or null to skip the check
+     * @param name the new name
+     * @param startDateTime the new start date and time
+     * @param duration the new duration in minutes
+     * @param distance the new distance
+     * @param unit the new distance unit
+     * @param notes the new notes
+     * @return the number of rows changed, which is 0 if the workout is missing or has moved on
+     */
+    @Modifying
+    @Query("update Workout w set w.name = :name, w.startDateTime = :startDateTime, w.duration = :duration, " +
+            "w.distance = :distance, w.unit = :unit, w.notes = :notes, w.version = w.version + 1 " +
+            "where w.id = :id and (:expectedVersion is null or w.version = :expectedVersion)")
+    int updateIfCurrent(@Param("id") Integer id,
+                        @Param("expectedVersion") Long expectedVersion,
+                        @Param("name") String name,
+                        @Param("startDateTime") LocalDateTime startDateTime,
+                        @Param("duration") Integer duration,
+                        @Param("distance") Double distance,
+                        @Param("unit") UnitType unit,
+                        @Param("notes") String notes);
+
+    /**
+     * Counts the workouts whose distance is not yet recorded in the given unit.
+     *
+     * @param unit the unit the workouts are compared against
+     * @return the number of workouts in any other unit
+     */
+    long countByUnitNot(UnitType unit);
+
+    /**
+     * Finds, in ID order, the IDs of workouts after the given ID that are not yet recorded in
+     * the given unit. Used to walk the table one chunk at a time.
+     *
+     * @param unit the unit the workouts are compared against
+     * @param afterId the ID to continue after
+     * @param page the page whose size bounds the chunk
+     * @return the next IDs to convert
+     */
+    @Query("select w.id from Workout w where w.unit <> :unit and w.id > :afterId order by w.id")
+    List<Integer> findIdsToConvert(@Param("unit") UnitType unit, @Param("afterId") Integer afterId, Pageable page);
+
+    /**
+     * Multiplies the distance of the given workouts that are still in one unit by a factor,
+     * records the new unit, and moves their versions forward.
+     *
+     * @param ids the IDs of the workouts to convert
+     * @param source the unit the workouts must still be in
+     * @param target the unit to record
+     * @param factor the factor the distance is multiplied by
+     * @return the number of rows changed
+     */
+    @Modifying
+    @Query("update Workout w set w.distance = w.distance * :factor, w.unit = :target, w.version = w.version + 1 " +
+            "where w.id in :ids and w.unit = :source")
+    int multiplyDistance(@Param("ids") Collection<Integer> ids, @Param("source") UnitType source,
+                         @Param("target") UnitType target, @Param("factor") double factor);
+
+    /**
+     * Divides the distance of the given workouts that are still in one unit by a factor,
+     * records the new unit, and moves their versions forward.
      *
-     * @param searchTerm the string to search for within workout names
-     * @return a list of matching Workout objects
+     * @param ids the IDs of the workouts to convert
+     * @param source the unit the workouts must still be in
+     * @param target the unit to record
+     * @param factor the factor the distance is divided by
+     * @return the number of rows changed
      */
-    List<Workout> findByNameContainingIgnoreCase(String searchTerm);
-}
\ No newline at end of file
+    @Modifying
+    @Query("update Workout w set w.distance = w.distance / :factor, w.unit = :target, w.version = w.version + 1 " +
+            "where w.id in :ids and w.unit = :source")
+    int divideDistance(@Param("ids") Collection<Integer> ids, @Param("source") UnitType source,
+                       @Param("target") UnitType target, @Param("factor") double factor);
+}
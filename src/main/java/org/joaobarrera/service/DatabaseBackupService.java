@@ -0,0 +1,386 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.joaobarrera.model.BackupStatus;
+import org.joaobarrera.model.OperationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * DatabaseBackupService.java
+ */
+
+/**
+ * Takes online backups of the live SQLite database and restores them on request.
+ * <p>
+ * Backups use SQLite's incremental backup API through a dedicated connection, copying a
+ * small number of pages per step and sleeping between steps. The source database is only
+ * read-locked while a step runs, so regular workout writes keep flowing during a backup.
+ * <p>
+ * Every backup is written to a temporary file, verified with {@code PRAGMA quick_check},
+ * and only then renamed into the backup directory. Restores verify the backup file the same
+ * way before copying it over the live database.
+ */
+@Service
+public class DatabaseBackupService {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBackupService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+    private static final String FILE_PREFIX = "workouts-";
+    private static final String FILE_SUFFIX = ".db";
+
+    private final String databaseUrl;
+    private final Path backupDirectory;
+    private final int pagesPerStep;
+    private final int stepSleepMillis;
+    private final int busyRetries;
+    private final int retainCount;
+    private final WorkoutDataVersion dataVersion;
+    private final WorkoutChangeLog changeLog;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "db-backup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger pageCount = new AtomicInteger();
+    private final AtomicInteger pagesRemaining = new AtomicInteger();
+    private volatile BackupStatus status = BackupStatus.idle();
+
+    private final Timer backupTimer;
+    private final Timer restoreTimer;
+    private final Counter backupFailures;
+    private final Counter restoreFailures;
+    private final Counter restarts;
+
+    /**
+     * Constructs the backup service and registers its metrics.
+     *
+     * @param databaseUrl the JDBC URL of the live database
+     * @param backupDirectory the directory in which backups are stored
+     * @param pagesPerStep the number of pages copied per backup step
+     * @param stepSleepMillis the pause between two backup steps, which throttles the copy
+     * @param busyRetries how many times a step is retried when the database is busy
+     * @param retainCount how many backups are kept before the oldest ones are removed
+     * @param dataVersion the version that is incremented after a restore
+     * @param changeLog the change log whose clients must resync after a restore
+     * @param registry the registry that receives backup progress metrics
+     */
+    public DatabaseBackupService(@Value("${spring.datasource.url}") String databaseUrl,
+                                 @Value("${workout.backup.directory:backups}") String backupDirectory,
+                                 @Value("${workout.backup.pages-per-step:64}") int pagesPerStep,
+                                 @Value("${workout.backup.step-sleep-ms:10}") int stepSleepMillis,
+                                 @Value("${workout.backup.busy-retries:50}") int busyRetries,
+                                 @Value("${workout.backup.retain:7}") int retainCount,
+                                 WorkoutDataVersion dataVersion,
+                                 WorkoutChangeLog changeLog,
+                                 MeterRegistry registry) {
+        this.databaseUrl = databaseUrl;
+        this.backupDirectory = Path.of(backupDirectory).toAbsolutePath().normalize();
+        this.pagesPerStep = pagesPerStep;
+        this.stepSleepMillis = stepSleepMillis;
+        this.busyRetries = busyRetries;
+        this.retainCount = retainCount;
+        this.dataVersion = dataVersion;
+        this.changeLog = changeLog;
+
+        Gauge.builder("workout.backup.pages.total", pageCount, AtomicInteger::get)
+                .description("Pages in the database being backed up or restored")
+                .register(registry);
+        Gauge.builder("workout.backup.pages.remaining", pagesRemaining, AtomicInteger::get)
+                .description("Pages still to copy in the running backup or restore")
+                .register(registry);
+        Gauge.builder("workout.backup.running", running, r -> r.get() ? 1 : 0)
+                .register(registry);
+        backupTimer = Timer.builder("workout.backup.duration").tag("operation", "backup").register(registry);
+        restoreTimer = Timer.builder("workout.backup.duration").tag("operation", "restore").register(registry);
+        backupFailures = Counter.builder("workout.backup.failures").tag("operation", "backup").register(registry);
+        restoreFailures = Counter.builder("workout.backup.failures").tag("operation", "restore").register(registry);
+        restarts = Counter.builder("workout.backup.restarts")
+                .description("Times a backup restarted because the source changed underneath it")
+                .register(registry);
+    }
+
+    /**
+     * Starts a backup in the background.
+     *
+     * @return OperationResult containing the status of the started backup, or a failure if one is already running
+     */
+    public OperationResult<BackupStatus> startBackup() {
+        if (!running.compareAndSet(false, true)) {
+            return new OperationResult<>(false, status, "A backup or restore is already running.");
+        }
+        status = new BackupStatus("RUNNING", "BACKUP", null, 0, 0, LocalDateTime.now(), null, "Backup queued.");
+        executor.submit(this::runBackupExclusively);
+        return new OperationResult<>(true, status, "Backup started.");
+    }
+
+    /**
+     * Runs the scheduled backup. The schedule is disabled unless workout.backup.cron is set.
+     */
+    @Scheduled(cron = "${workout.backup.cron:-}")
+    public void scheduledBackup() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("action=BACKUP status=SKIPPED message=another backup or restore is running");
+            return;
+        }
+        runBackupExclusively();
+    }
+
+    /**
+     * Takes a backup on the calling thread and waits for it to complete.
+     *
+     * @return OperationResult containing the final backup status and a success/failure message
+     */
+    public OperationResult<BackupStatus> backupNow() {
+        if (!running.compareAndSet(false, true)) {
+            return new OperationResult<>(false, status, "A backup or restore is already running.");
+        }
+        BackupStatus result = runBackupExclusively();
+        return new OperationResult<>("SUCCEEDED".equals(result.state()), result, result.message());
+    }
+
+    /**
+     * Restores the live database from a backup file in the backup directory.
+     * <p>
+     * The backup is verified before anything is copied. The restore runs on the calling
+     * thread and holds the write lock on the live database until it finishes.
+     *
+     * @param fileName the name of a file previously listed by {@link #listBackups()}
+     * @return OperationResult containing the final restore status and a success/failure message
+     */
+    public OperationResult<BackupStatus> restore(String fileName) {
+        Path source = resolveBackup(fileName);
+        if (source == null) {
+            return new OperationResult<>(false, null, "Backup " + fileName + " not found.");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return new OperationResult<>(false, status, "A backup or restore is already running.");
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        try {
+            String verification = verify(source);
+            if (verification != null) {
+                restoreFailures.increment();
+                status = new BackupStatus("FAILED", "RESTORE", source.toString(), 0, 0, startedAt,
+                        LocalDateTime.now(), "Backup failed verification: " + verification);
+                return new OperationResult<>(false, status, status.message());
+            }
+
+            resetProgress();
+            status = new BackupStatus("RUNNING", "RESTORE", source.toString(), 0, 0, startedAt, null, "Restoring.");
+            try (Connection connection = DriverManager.getConnection(databaseUrl)) {
+                DB db = connection.unwrap(SQLiteConnection.class).getDatabase();
+                int rc = db.restore("main", source.toString(), this::recordProgress,
+                        stepSleepMillis, busyRetries, pagesPerStep);
+                if (rc != 0) {
+                    throw new SQLException("SQLite restore returned code " + rc);
+                }
+            }
+            // The restored log may be behind what clients have already seen
+            changeLog.invalidate();
+            dataVersion.incrementAfterCommit();
+
+            status = new BackupStatus("SUCCEEDED", "RESTORE", source.toString(), pageCount.get(), 0, startedAt,
+                    LocalDateTime.now(), "Restored database from " + source.getFileName());
+            log.info("action=RESTORE status=SUCCESS file={} pages={}", source, pageCount.get());
+            return new OperationResult<>(true, status, status.message());
+        } catch (Exception e) {
+            restoreFailures.increment();
+            status = new BackupStatus("FAILED", "RESTORE", source.toString(), pageCount.get(), pagesRemaining.get(),
+                    startedAt, LocalDateTime.now(), "Error restoring backup: " + e.getMessage());
+            log.error("action=RESTORE status=FAIL file={} message={}", source, e.getMessage());
+            return new OperationResult<>(false, status, status.message());
+        } finally {
+            restoreTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Returns the status of the most recent backup or restore.
+     *
+     * @return the latest backup status
+     */
+    public BackupStatus getStatus() {
+        BackupStatus current = status;
+        if ("RUNNING".equals(current.state())) {
+            return new BackupStatus(current.state(), current.operation(), current.file(), pageCount.get(),
+                    pagesRemaining.get(), current.startedAt(), null, current.message());
+        }
+        return current;
+    }
+
+    /**
+     * Lists the verified backups currently kept in the backup directory, newest first.
+     *
+     * @return OperationResult containing the backup file names and a success/failure message
+     */
+    public OperationResult<List<String>> listBackups() {
+        try {
+            List<String> names = new ArrayList<>();
+            for (Path path : backupFiles()) {
+                names.add(path.getFileName().toString());
+            }
+            return new OperationResult<>(true, names, "Found " + names.size() + " backups.");
+        } catch (IOException e) {
+            return new OperationResult<>(false, null, "Error listing backups: " + e.getMessage());
+        }
+    }
+
+    // Runs one backup; the caller must already own the running flag
+    private BackupStatus runBackupExclusively() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        Path target = backupDirectory.resolve(FILE_PREFIX + startedAt.format(FILE_TIMESTAMP) + FILE_SUFFIX);
+        Path partial = backupDirectory.resolve(target.getFileName() + ".partial");
+
+        try {
+            Files.createDirectories(backupDirectory);
+            Files.deleteIfExists(partial);
+            resetProgress();
+            status = new BackupStatus("RUNNING", "BACKUP", target.toString(), 0, 0, startedAt, null, "Copying pages.");
+
+            try (Connection connection = DriverManager.getConnection(databaseUrl)) {
+                DB db = connection.unwrap(SQLiteConnection.class).getDatabase();
+                int rc = db.backup("main", partial.toString(), this::recordProgress,
+                        stepSleepMillis, busyRetries, pagesPerStep);
+                if (rc != 0) {
+                    throw new SQLException("SQLite backup returned code " + rc);
+                }
+            }
+
+            String verification = verify(partial);
+            if (verification != null) {
+                throw new SQLException("Backup failed verification: " + verification);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            pruneOldBackups();
+
+            status = new BackupStatus("SUCCEEDED", "BACKUP", target.toString(), pageCount.get(), 0, startedAt,
+                    LocalDateTime.now(), "Backup written to " + target.getFileName());
+            log.info("action=BACKUP status=SUCCESS file={} pages={} duration={}ms", target, pageCount.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            backupFailures.increment();
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // the next run overwrites the partial file anyway
+            }
+            status = new BackupStatus("FAILED", "BACKUP", target.toString(), pageCount.get(), pagesRemaining.get(),
+                    startedAt, LocalDateTime.now(), "Error backing up database: " + e.getMessage());
+            log.error("action=BACKUP status=FAIL file={} message={}", target, e.getMessage());
+        } finally {
+            backupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+        return status;
+    }
+
+    private void resetProgress() {
+        pageCount.set(0);
+        pagesRemaining.set(0);
+    }
+
+    // Called by SQLite after every step; a growing remaining count means the copy restarted
+    private void recordProgress(int remaining, int total) {
+        if (remaining > pagesRemaining.get() && pagesRemaining.get() > 0) {
+            restarts.increment();
+        }
+        pageCount.set(total);
+        pagesRemaining.set(remaining);
+    }
+
+    // Returns null if the file is a readable, consistent workout database, or an error message otherwise
+    private String verify(Path file) {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("PRAGMA quick_check")) {
+                String result = rs.next() ? rs.getString(1) : "no result";
+                if (!"ok".equalsIgnoreCase(result)) return result;
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM workout")) {
+                return rs.next() ? null : "workout table is unreadable";
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    // Only accepts plain file names of existing backups, never paths outside the backup directory
+    private Path resolveBackup(String fileName) {
+        if (fileName == null || !fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(FILE_SUFFIX)) {
+            return null;
+        }
+        Path path = backupDirectory.resolve(fileName).normalize();
+        if (!path.getParent().equals(backupDirectory) || !Files.isRegularFile(path)) {
+            return null;
+        }
+        return path;
+    }
+
+    private List<Path> backupFiles() throws IOException {
+        if (!Files.isDirectory(backupDirectory)) return List.of();
+        try (Stream<Path> files = Files.list(backupDirectory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+    }
+
+    private void pruneOldBackups() throws IOException {
+        List<Path> files = backupFiles();
+        for (int i = retainCount; i < files.size(); i++) {
+            Files.deleteIfExists(files.get(i));
+            log.info("action=BACKUP_PRUNE file={}", files.get(i));
+        }
+    }
+
+    /**
+     * Stops the backup thread when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,425 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.joaobarrera.model.OperationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * DatabaseMaintenanceService.java
+ */
+
+/**
+ * Keeps the SQLite file compact, its query planner statistics fresh and its write-ahead log
+ * short.
+ * <p>
+ * At startup the database is switched to WAL mode and to incremental auto-vacuum. Switching
+ * auto-vacuum on an existing database needs a full VACUUM, so that only happens while the
+ * file is below a size limit. Larger files are left for an offline VACUUM.
+ * <p>
+ * A maintenance pass runs on a fixed delay on its own connection, outside the connection pool.
+ * The connection's busy timeout is the step budget, so no step waits longer than that for a
+ * lock held by user traffic. Each pass first runs a passive checkpoint, which never blocks. If
+ * the WAL is still over its limit, it tries a truncating checkpoint. Only when traffic since
+ * the last pass was low does the pass also run PRAGMA optimize, with a bounded analysis, and
+ * return free pages in small incremental vacuum steps. It stops as soon as one step goes over
+ * the budget. The file size, free page count and WAL size are published as metrics.
+ */
+@Service
+public class DatabaseMaintenanceService {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseMaintenanceService.class);
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+    private static final int ANALYSIS_LIMIT = 400;
+
+    private final String databaseUrl;
+    private final MetricsHistory metricsHistory;
+    private final boolean enabled;
+    private final long stepBudgetMillis;
+    private final long optimizeIntervalMillis;
+    private final int vacuumPagesPerStep;
+    private final int vacuumMaxSteps;
+    private final long vacuumStepPauseMillis;
+    private final double lowTrafficRequestsPerSecond;
+    private final long walMaxBytes;
+    private final long convertMaxBytes;
+    private final Properties connectionProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong fileBytes = new AtomicLong();
+    private final AtomicLong freelistPages = new AtomicLong();
+    private final AtomicLong walBytes = new AtomicLong();
+    private final Counter reclaimedPages;
+    private final Timer checkpointTimer;
+    private final Timer optimizeTimer;
+    private final Timer vacuumTimer;
+
+    private volatile Path databaseFile;
+    private volatile long lastOptimizeMillis;
+    private volatile long lastPassMillis;
+    private volatile long[] lastPassLatency;
+
+    /**
+     * Constructs the maintenance service and registers its metrics.
+     *
+     * @param databaseUrl the JDBC URL of the live database
+     * @param metricsHistory the history used to tell whether traffic is low
+     * @param enabled whether the startup changes and the scheduled passes run
+     * @param stepBudgetMillis the longest a single step may wait for a lock or run before the pass stops
+     * @param optimizeIntervalMillis the least time between two runs of PRAGMA optimize
+     * @param vacuumPagesPerStep the number of free pages returned per incremental vacuum step
+     * @param vacuumMaxSteps the most incremental vacuum steps per pass
+     * @param vacuumStepPauseMillis the pause between two incremental vacuum steps
+     * @param lowTrafficRequestsPerSecond the request rate up to which traffic counts as low
+     * @param walMaxBytes the WAL size above which a truncating checkpoint is tried
+     * @param convertMaxBytes the largest file that is vacuumed at startup to enable incremental auto-vacuum
+     * @param registry the registry that receives the maintenance metrics
+     */
+    public DatabaseMaintenanceService(@Value("${spring.datasource.url}") String databaseUrl,
+                                      MetricsHistory metricsHistory,
+                                      @Value("${workout.maintenance.enabled:true}") boolean enabled,
+                                      @Value("${workout.maintenance.step-budget-ms:50}") long stepBudgetMillis,
+                                      @Value("${workout.maintenance.optimize-interval-ms:3600000}") long optimizeIntervalMillis,
+                                      @Value("${workout.maintenance.vacuum-pages-per-step:64}") int vacuumPagesPerStep,
+                                      @Value("${workout.maintenance.vacuum-max-steps:100}") int vacuumMaxSteps,
+                                      @Value("${workout.maintenance.vacuum-step-pause-ms:20}") long vacuumStepPauseMillis,
+                                      @Value("${workout.maintenance.low-traffic-requests-per-second:5}") double lowTrafficRequestsPerSecond,
+                                      @Value("${workout.maintenance.wal-max-bytes:16777216}") long walMaxBytes,
+                                      @Value("${workout.maintenance.convert-max-bytes:67108864}") long convertMaxBytes,
+                                      MeterRegistry registry) {
+        this.databaseUrl = databaseUrl;
+        this.metricsHistory = metricsHistory;
+        this.enabled = enabled;
+        this.stepBudgetMillis = Math.max(1, stepBudgetMillis);
+        this.optimizeIntervalMillis = optimizeIntervalMillis;
+        this.vacuumPagesPerStep = Math.max(1, vacuumPagesPerStep);
+        this.vacuumMaxSteps = vacuumMaxSteps;
+        this.vacuumStepPauseMillis = vacuumStepPauseMillis;
+        this.lowTrafficRequestsPerSecond = lowTrafficRequestsPerSecond;
+        this.walMaxBytes = walMaxBytes;
+        this.convertMaxBytes = convertMaxBytes;
+
+        // The busy timeout bounds how long any step waits behind user traffic
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout((int) this.stepBudgetMillis);
+        this.connectionProperties = config.toProperties();
+
+        Gauge.builder("workout.db.file.bytes", fileBytes, AtomicLong::get)
+                .description("Size of the SQLite database file")
+                .register(registry);
+        Gauge.builder("workout.db.freelist.pages", freelistPages, AtomicLong::get)
+                .description("Unused pages in the SQLite database file")
+                .register(registry);
+        Gauge.builder("workout.db.wal.bytes", walBytes, AtomicLong::get)
+                .description("Size of the SQLite write-ahead log")
+                .register(registry);
+        reclaimedPages = Counter.builder("workout.db.maintenance.reclaimed.pages")
+                .description("Free pages returned to the file system by incremental vacuum")
+                .register(registry);
+        checkpointTimer = Timer.builder("workout.db.maintenance.duration").tag("step", "checkpoint").register(registry);
+        optimizeTimer = Timer.builder("workout.db.maintenance.duration").tag("step", "optimize").register(registry);
+        vacuumTimer = Timer.builder("workout.db.maintenance.duration").tag("step", "vacuum").register(registry);
+    }
+
+    /**
+     * Switches the database to WAL mode and incremental auto-vacuum before traffic arrives.
+     */
+    @PostConstruct
+    public void prepare() {
+        if (!enabled) return;
+
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(5000);
+        try (Connection connection = DriverManager.getConnection(databaseUrl, config.toProperties());
+             Statement statement = connection.createStatement()) {
+            String journalMode = queryString(statement, "PRAGMA journal_mode=WAL");
+            if (!"wal".equalsIgnoreCase(journalMode)) {
+                log.warn("action=DB_MAINTENANCE status=NO_WAL journalMode={}", journalMode);
+            }
+
+            if (queryLong(statement, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                long bytes = queryLong(statement, "PRAGMA page_count") * queryLong(statement, "PRAGMA page_size");
+                if (bytes <= convertMaxBytes) {
+                    long start = System.nanoTime();
+                    statement.execute("PRAGMA auto_vacuum=INCREMENTAL");
+                    statement.execute("VACUUM");
+                    log.info("action=DB_MAINTENANCE status=AUTO_VACUUM_ENABLED bytes={} duration={}ms",
+                            bytes, (System.nanoTime() - start) / 1_000_000);
+                } else {
+                    log.warn("action=DB_MAINTENANCE status=AUTO_VACUUM_SKIPPED bytes={} message=run PRAGMA auto_vacuum=INCREMENTAL and VACUUM offline",
+                            bytes);
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("action=DB_MAINTENANCE status=PREPARE_FAIL message={}", e.getMessage());
+        }
+        refreshStatistics();
+    }
+
+    /**
+     * Runs a maintenance pass on the configured delay.
+     */
+    @Scheduled(fixedDelayString = "${workout.maintenance.interval-ms:60000}",
+            initialDelayString = "${workout.maintenance.interval-ms:60000}")
+    public void scheduledMaintenance() {
+        if (enabled) runMaintenance();
+    }
+
+    /**
+     * Runs one maintenance pass: a checkpoint, and when traffic is low, PRAGMA optimize and
+     * incremental vacuum steps.
+     *
+     * @return true if the pass ran, false if another pass was still running
+     */
+    public boolean runMaintenance() {
+        if (!running.compareAndSet(false, true)) return false;
+        try {
+            boolean lowTraffic = isLowTraffic();
+            checkpoint();
+            if (lowTraffic) {
+                if (System.currentTimeMillis() - lastOptimizeMillis >= optimizeIntervalMillis) optimize();
+                reclaimFreePages();
+            }
+            refreshStatistics();
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Copies the WAL back into the database. A passive checkpoint runs first. If the WAL is
+     * still over its limit, a truncating checkpoint is tried, which gives up after the step
+     * budget if readers or writers are active.
+     *
+     * @return OperationResult containing the number of WAL frames checkpointed and a success/failure message
+     */
+    public OperationResult<Integer> checkpoint() {
+        long start = System.nanoTime();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            int checkpointed = walCheckpoint(statement, "PASSIVE");
+            boolean truncated = false;
+            if (walBytes() > walMaxBytes) {
+                checkpointed = Math.max(checkpointed, walCheckpoint(statement, "TRUNCATE"));
+                truncated = true;
+            }
+            refreshStatistics();
+            return new OperationResult<>(true, checkpointed, "Checkpointed " + checkpointed + " frames"
+                    + (truncated ? " and tried to truncate the WAL." : "."));
+        } catch (SQLException e) {
+            return failure("CHECKPOINT", 0, e);
+        } finally {
+            checkpointTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Refreshes the query planner statistics that PRAGMA optimize finds stale. Each index
+     * examines at most {@value #ANALYSIS_LIMIT} rows, so the run stays short on large tables.
+     *
+     * @return OperationResult with a success/failure message
+     */
+    public OperationResult<Void> optimize() {
+        long start = System.nanoTime();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA analysis_limit=" + ANALYSIS_LIMIT);
+            statement.execute("PRAGMA optimize");
+            lastOptimizeMillis = System.currentTimeMillis();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            log.info("action=DB_MAINTENANCE status=OPTIMIZED duration={}ms", millis);
+            return new OperationResult<>(true, null, "Optimized in " + millis + " ms.");
+        } catch (SQLException e) {
+            return failure("OPTIMIZE", null, e);
+        } finally {
+            optimizeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns free pages to the file system in small incremental vacuum steps. Each step
+     * holds the write lock only briefly. The run stops once the free list is empty, after the
+     * maximum number of steps, or when one step takes longer than the budget.
+     *
+     * @return OperationResult containing the number of pages reclaimed and a success/failure message
+     */
+    public OperationResult<Integer> reclaimFreePages() {
+        long start = System.nanoTime();
+        int reclaimed = 0;
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            if (queryLong(statement, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                return new OperationResult<>(false, 0, "Incremental auto-vacuum is not enabled.");
+            }
+
+            DB db = connection.unwrap(SQLiteConnection.class).getDatabase();
+            long free = queryLong(statement, "PRAGMA freelist_count");
+            for (int step = 0; step < vacuumMaxSteps && free > 0; step++) {
+                long stepStart = System.nanoTime();
+                // The pragma frees one page each time it is stepped, which only sqlite3_exec does to the end
+                int rc = db._exec("PRAGMA incremental_vacuum(" + vacuumPagesPerStep + ")");
+                if (rc != 0) throw new SQLException("incremental_vacuum returned code " + rc, null, rc);
+                long remaining = queryLong(statement, "PRAGMA freelist_count");
+                reclaimed += (int) (free - remaining);
+                free = remaining;
+
+                long stepMillis = (System.nanoTime() - stepStart) / 1_000_000;
+                if (stepMillis > stepBudgetMillis) {
+                    log.info("action=DB_MAINTENANCE status=VACUUM_OVER_BUDGET step={}ms budget={}ms",
+                            stepMillis, stepBudgetMillis);
+                    break;
+                }
+                if (free > 0) Thread.sleep(vacuumStepPauseMillis);
+            }
+
+            reclaimedPages.increment(reclaimed);
+            if (reclaimed > 0) log.info("action=DB_MAINTENANCE status=VACUUMED pages={} remaining={}", reclaimed, free);
+            return new OperationResult<>(true, reclaimed, "Reclaimed " + reclaimed + " pages; " + free + " still free.");
+        } catch (SQLException e) {
+            reclaimedPages.increment(reclaimed);
+            return failure("VACUUM", reclaimed, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reclaimedPages.increment(reclaimed);
+            return new OperationResult<>(false, reclaimed, "Vacuum interrupted.");
+        } finally {
+            vacuumTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads the file size, free page count and WAL size into the published metrics.
+     */
+    public void refreshStatistics() {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            if (databaseFile == null) {
+                try (ResultSet rs = statement.executeQuery("PRAGMA database_list")) {
+                    while (rs.next()) {
+                        if ("main".equals(rs.getString("name"))) databaseFile = Path.of(rs.getString("file"));
+                    }
+                }
+            }
+            fileBytes.set(queryLong(statement, "PRAGMA page_count") * queryLong(statement, "PRAGMA page_size"));
+            freelistPages.set(queryLong(statement, "PRAGMA freelist_count"));
+            walBytes.set(walFileBytes());
+        } catch (SQLException e) {
+            log.warn("action=DB_MAINTENANCE status=STATS_FAIL message={}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the database file size seen by the last statistics refresh.
+     *
+     * @return the size of the database file in bytes
+     */
+    public long fileBytes() {
+        return fileBytes.get();
+    }
+
+    /**
+     * Returns the free page count seen by the last statistics refresh.
+     *
+     * @return the number of unused pages in the database file
+     */
+    public long freelistPages() {
+        return freelistPages.get();
+    }
+
+    /**
+     * Returns the size of the write-ahead log.
+     *
+     * @return the size of the WAL file in bytes, or 0 if there is none
+     */
+    public long walBytes() {
+        long bytes = walFileBytes();
+        walBytes.set(bytes);
+        return bytes;
+    }
+
+    // Traffic counts as low if the request rate since the last pass stayed under the threshold
+    private boolean isLowTraffic() {
+        long now = System.currentTimeMillis();
+        long[] snapshot = metricsHistory.latencySnapshot();
+        long[] previous = lastPassLatency;
+        long previousMillis = lastPassMillis;
+        lastPassLatency = snapshot;
+        lastPassMillis = now;
+        if (previous == null) return false;
+
+        long requests = 0;
+        for (int i = 0; i < snapshot.length; i++) requests += snapshot[i] - previous[i];
+        double seconds = Math.max(1, now - previousMillis) / 1000.0;
+        return requests <= lowTrafficRequestsPerSecond * seconds;
+    }
+
+    private int walCheckpoint(Statement statement, String mode) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            if (!rs.next()) return 0;
+            if (rs.getInt(1) != 0) {
+                log.info("action=DB_MAINTENANCE status=CHECKPOINT_BUSY mode={} frames={} checkpointed={}",
+                        mode, rs.getInt(2), rs.getInt(3));
+            }
+            return Math.max(0, rs.getInt(3));
+        }
+    }
+
+    private long walFileBytes() {
+        Path file = databaseFile;
+        if (file == null) return 0;
+        try {
+            Path wal = file.resolveSibling(file.getFileName() + "-wal");
+            return Files.exists(wal) ? Files.size(wal) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(databaseUrl, connectionProperties);
+    }
+
+    private <T> OperationResult<T> failure(String step, T data, SQLException e) {
+        if (SqliteFailure.classify(e) == SqliteFailure.BUSY) {
+            log.info("action=DB_MAINTENANCE status=BUSY step={} budget={}ms", step, stepBudgetMillis);
+            return new OperationResult<>(false, data, "Database busy; " + step.toLowerCase(Locale.ROOT) + " deferred to the next pass.");
+        }
+        log.warn("action=DB_MAINTENANCE status=FAIL step={} message={}", step, e.getMessage());
+        return new OperationResult<>(false, data, "Error during " + step.toLowerCase(Locale.ROOT) + ": " + e.getMessage());
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static String queryString(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
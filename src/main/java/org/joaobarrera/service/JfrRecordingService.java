@@ -0,0 +1,208 @@
+package org.joaobarrera.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.RecordingStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * JfrRecordingService.java
+ */
+
+/**
+ * Starts and stops bounded Flight Recorder recordings of the running application on request.
+ * <p>
+ * Only one recording runs at a time. Every recording stops by itself after its duration, at
+ * most the configured maximum, and keeps no more than the configured size on disk, so a
+ * forgotten recording cannot fill the disk. Recordings use the JDK's low-overhead default
+ * settings with a few thresholds lowered to catch the short lock and I/O waits that matter
+ * for request latency. The workout operation and request events are always recorded in full.
+ * <p>
+ * Finished recordings are written to the recording directory, where only the newest few are kept.
+ */
+@Service
+public class JfrRecordingService {
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+    private static final String FILE_PREFIX = "workouts-";
+    private static final String FILE_SUFFIX = ".jfr";
+
+    // Lower than the default profile so that short waits on request threads show up
+    private static final Map<String, String> TUNED_SETTINGS = Map.of(
+            "org.joaobarrera.WorkoutOperation#enabled", "true",
+            "org.joaobarrera.WorkoutOperation#threshold", "0 ms",
+            "org.joaobarrera.WorkoutRequest#enabled", "true",
+            "org.joaobarrera.WorkoutRequest#threshold", "0 ms",
+            "jdk.JavaMonitorEnter#threshold", "10 ms",
+            "jdk.ThreadPark#threshold", "10 ms",
+            "jdk.SocketRead#threshold", "10 ms",
+            "jdk.SocketWrite#threshold", "10 ms");
+
+    private final Path directory;
+    private final long defaultDurationSeconds;
+    private final long maxDurationSeconds;
+    private final long maxSizeBytes;
+    private final int retainCount;
+
+    private Recording recording;
+    private RecordingStatus status = RecordingStatus.idle();
+
+    /**
+     * Constructs the recording service.
+     *
+     * @param directory the directory recordings are written to
+     * @param defaultDurationSeconds how long a recording runs when no duration is given
+     * @param maxDurationSeconds the longest a recording may run
+     * @param maxSizeMegabytes how much data a recording keeps on disk
+     * @param retainCount how many recordings are kept before the oldest ones are removed
+     */
+    public JfrRecordingService(@Value("${workout.jfr.directory:recordings}") String directory,
+                               @Value("${workout.jfr.default-duration-seconds:60}") long defaultDurationSeconds,
+                               @Value("${workout.jfr.max-duration-seconds:600}") long maxDurationSeconds,
+                               @Value("${workout.jfr.max-size-mb:64}") long maxSizeMegabytes,
+                               @Value("${workout.jfr.retain:5}") int retainCount) {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.maxDurationSeconds = Math.max(1, maxDurationSeconds);
+        this.defaultDurationSeconds = Math.min(Math.max(1, defaultDurationSeconds), this.maxDurationSeconds);
+        this.maxSizeBytes = Math.max(1, maxSizeMegabytes) * 1024 * 1024;
+        this.retainCount = Math.max(1, retainCount);
+    }
+
+    /**
+     * Starts a recording.
+     *
+     * @param durationSeconds how long the recording runs before it stops by itself, or null
+     *                        for the default; it is capped at the configured maximum
+     * @return OperationResult containing the status of the started recording, or a failure if
+     *         one is already running or the recording could not be started
+     */
+    public synchronized OperationResult<RecordingStatus> start(Long durationSeconds) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new OperationResult<>(false, status, "A recording is already running.");
+        }
+        closeRecording();
+
+        long duration = durationSeconds == null
+                ? defaultDurationSeconds
+                : Math.min(Math.max(1, durationSeconds), maxDurationSeconds);
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP) + FILE_SUFFIX);
+
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(TUNED_SETTINGS);
+
+            Recording started = new Recording(settings);
+            started.setName("workout-on-demand");
+            started.setToDisk(true);
+            started.setMaxSize(maxSizeBytes);
+            started.setDuration(Duration.ofSeconds(duration));
+            started.setDestination(file);
+            started.start();
+
+            recording = started;
+            status = new RecordingStatus("RUNNING", file.getFileName().toString(), duration, maxSizeBytes,
+                    LocalDateTime.now(), null, "Recording started.");
+            log.info("action=START_RECORDING status=SUCCESS file={} duration={}s", file, duration);
+            return new OperationResult<>(true, status, status.message());
+        } catch (Exception e) {
+            status = new RecordingStatus("FAILED", null, duration, maxSizeBytes, LocalDateTime.now(),
+                    LocalDateTime.now(), "Error starting recording: " + e.getMessage());
+            return new OperationResult<>(false, status, status.message());
+        }
+    }
+
+    /**
+     * Stops the current recording, or collects it if it already stopped by itself.
+     *
+     * @return OperationResult containing the path of the recording file, or a failure if no
+     *         recording has been started
+     */
+    public synchronized OperationResult<Path> stop() {
+        if (recording == null) {
+            return new OperationResult<>(false, null, "No recording has been started.");
+        }
+
+        Path file = directory.resolve(status.file());
+        try {
+            if (recording.getState() == RecordingState.RUNNING) recording.stop();
+            closeRecording();
+
+            if (!Files.isRegularFile(file)) {
+                status = new RecordingStatus("FAILED", status.file(), status.maxDurationSeconds(), maxSizeBytes,
+                        status.startedAt(), LocalDateTime.now(), "The recording wrote no file.");
+                return new OperationResult<>(false, null, status.message());
+            }
+
+            status = new RecordingStatus("STOPPED", status.file(), status.maxDurationSeconds(), maxSizeBytes,
+                    status.startedAt(), LocalDateTime.now(), "Recording stopped (" + Files.size(file) + " bytes).");
+            pruneRecordings();
+            log.info("action=STOP_RECORDING status=SUCCESS file={}", file);
+            return new OperationResult<>(true, file, status.message());
+        } catch (Exception e) {
+            return new OperationResult<>(false, null, "Error stopping recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the status of the most recent recording.
+     *
+     * @return the current status, which shows STOPPED once a recording's duration has run out
+     */
+    public synchronized RecordingStatus getStatus() {
+        if (recording != null && "RUNNING".equals(status.state()) && recording.getState() != RecordingState.RUNNING) {
+            status = new RecordingStatus("STOPPED", status.file(), status.maxDurationSeconds(), maxSizeBytes,
+                    status.startedAt(), LocalDateTime.now(), "Recording reached its duration.");
+        }
+        return status;
+    }
+
+    /**
+     * Closes any recording that is still open when the application shuts down.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        closeRecording();
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void pruneRecordings() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> recordings = files
+                    .filter(path -> path.getFileName().toString().startsWith(FILE_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+            for (Path old : recordings.subList(Math.min(retainCount, recordings.size()), recordings.size())) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+}
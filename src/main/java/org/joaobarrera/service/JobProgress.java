@@ -0,0 +1,24 @@
+package org.joaobarrera.service;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * JobProgress.java
+ */
+
+/**
+ * Receives progress reports from a long-running operation, such as a unit conversion that
+ * runs as a background job.
+ */
+@FunctionalInterface
+public interface JobProgress {
+
+    /**
+     * Reports how far the operation has come.
+     *
+     * @param processed the number of items handled so far
+     * @param total the number of items the operation expects to handle
+     */
+    void update(long processed, long total);
+}
@@ -0,0 +1,403 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.joaobarrera.model.LatencySummary;
+import org.joaobarrera.model.MetricSeries;
+import org.joaobarrera.model.MetricsHistorySnapshot;
+import org.joaobarrera.model.OperationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * MetricsHistory.java
+ */
+
+/**
+ * Fixed-memory, in-process history of the service's key metrics.
+ * <p>
+ * Once a second the current readings are taken and fed to three resolutions: one point per
+ * second for the last 10 minutes, one per minute for the last 24 hours and one per hour for
+ * the last 30 days. Each resolution keeps its points in primitive ring buffers, one per
+ * series, so memory use is fixed no matter how long the service runs.
+ * <p>
+ * Counters such as the request count and GC time are turned into rates over each point's
+ * period, and gauges such as CPU and heap are averaged over it. Request latency is recorded
+ * into cumulative fixed buckets by {@link #recordRequest(long)}, so the percentiles of each
+ * point come from the requests that finished in that period alone.
+ * <p>
+ * Sampling runs on its own thread rather than the shared scheduler, so backups, archival and
+ * maintenance passes that hold the scheduler cannot leave gaps in the one-second series.
+ */
+@Service
+public class MetricsHistory {
+    private static final Logger log = LoggerFactory.getLogger(MetricsHistory.class);
+    private static final long SAMPLE_INTERVAL_MILLIS = 1000;
+    private static final long[] LATENCY_BOUNDS = latencyBounds();
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final Resolution[] resolutions = {
+            new Resolution("1s", TimeUnit.SECONDS.toMillis(1), 600),
+            new Resolution("1m", TimeUnit.MINUTES.toMillis(1), 1440),
+            new Resolution("1h", TimeUnit.HOURS.toMillis(1), 720)
+    };
+
+    private final AtomicLongArray latencyCounts = new AtomicLongArray(LATENCY_BOUNDS.length + 1);
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-history");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the history.
+     *
+     * @param registry the registry the CPU, heap, GC and connection pool meters are read from
+     * @param enabled whether the scheduled sampling runs
+     */
+    public MetricsHistory(MeterRegistry registry,
+                          @Value("${workout.metrics-history.enabled:true}") boolean enabled) {
+        this.registry = registry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records one finished HTTP request.
+     *
+     * @param elapsedNanos how long the request took
+     */
+    public void recordRequest(long elapsedNanos) {
+        int bucket = Arrays.binarySearch(LATENCY_BOUNDS, elapsedNanos);
+        latencyCounts.incrementAndGet(bucket >= 0 ? bucket : -bucket - 1);
+    }
+
+    /**
+     * Starts taking the current readings once a second, unless the history is disabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        sampler.scheduleAtFixedRate(this::scheduledSample, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the sampling thread when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sampler.shutdownNow();
+    }
+
+    // A failed sample must not cancel the schedule, so it is only logged
+    private void scheduledSample() {
+        try {
+            sample(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("action=METRICS_SAMPLE status=FAIL message={}", e.getMessage());
+        }
+    }
+
+    /**
+     * Takes the current readings and closes any period that has ended.
+     *
+     * @param nowMillis the time of the readings, in epoch milliseconds
+     */
+    public void sample(long nowMillis) {
+        Reading reading = read(nowMillis);
+        for (Resolution resolution : resolutions) resolution.add(reading);
+    }
+
+    /**
+     * Returns the recorded points of the given series at one resolution.
+     *
+     * @param resolution 1s, 1m or 1h
+     * @param names the series to return, or null or empty for all of them
+     * @param sinceMillis the earliest period start to include, or null for everything held
+     * @return OperationResult containing the recorded points, or a failure if the resolution
+     *         or a series is unknown
+     */
+    public OperationResult<MetricsHistorySnapshot> query(String resolution, Collection<String> names, Long sinceMillis) {
+        Resolution selected = null;
+        for (Resolution candidate : resolutions) {
+            if (candidate.name.equals(resolution)) selected = candidate;
+        }
+        if (selected == null) {
+            return new OperationResult<>(false, null, "Unknown resolution: " + resolution + ". Use 1s, 1m or 1h.");
+        }
+
+        List<Series> requested = new ArrayList<>();
+        if (names == null || names.isEmpty()) {
+            requested.addAll(List.of(Series.values()));
+        } else {
+            for (String name : names) {
+                Series series = Series.named(name.trim());
+                if (series == null) return new OperationResult<>(false, null, "Unknown metric series: " + name);
+                requested.add(series);
+            }
+        }
+
+        MetricsHistorySnapshot snapshot = selected.snapshot(requested, sinceMillis == null ? Long.MIN_VALUE : sinceMillis);
+        return new OperationResult<>(true, snapshot, "Found " + snapshot.timestamps().size() + " points.");
+    }
+
+    /**
+     * Returns the request latency counts recorded so far, to measure a window from.
+     *
+     * @return a copy of the cumulative latency bucket counts
+     */
+    public long[] latencySnapshot() {
+        long[] counts = new long[latencyCounts.length()];
+        for (int i = 0; i < counts.length; i++) counts[i] = latencyCounts.get(i);
+        return counts;
+    }
+
+    /**
+     * Summarizes the latency of the requests that finished since a snapshot was taken.
+     *
+     * @param snapshot counts returned earlier by {@link #latencySnapshot()}
+     * @return the request count and percentiles of the window, with null percentiles if no
+     *         request finished
+     */
+    public LatencySummary latencySince(long[] snapshot) {
+        long[] counts = latencySnapshot();
+        long requests = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] -= snapshot[i];
+            requests += counts[i];
+        }
+        return new LatencySummary(requests, orNull(percentile(counts, requests, 0.50)),
+                orNull(percentile(counts, requests, 0.95)), orNull(percentile(counts, requests, 0.99)));
+    }
+
+    private Reading read(long nowMillis) {
+        long[] latency = latencySnapshot();
+        long requests = 0;
+        for (long count : latency) requests += count;
+
+        double gcMillis = 0;
+        long gcCount = 0;
+        for (Timer pause : registry.find("jvm.gc.pause").timers()) {
+            gcMillis += pause.totalTime(TimeUnit.MILLISECONDS);
+            gcCount += pause.count();
+        }
+
+        double[] gauges = new double[Gauges.COUNT];
+        gauges[Gauges.CPU_PROCESS] = gauge("process.cpu.usage", null) * 100;
+        gauges[Gauges.CPU_SYSTEM] = gauge("system.cpu.usage", null) * 100;
+        gauges[Gauges.HEAP_USED] = gauge("jvm.memory.used", "heap") / (1024 * 1024);
+        gauges[Gauges.HEAP_COMMITTED] = gauge("jvm.memory.committed", "heap") / (1024 * 1024);
+        gauges[Gauges.DB_ACTIVE] = gauge("hikaricp.connections.active", null);
+        gauges[Gauges.DB_IDLE] = gauge("hikaricp.connections.idle", null);
+        gauges[Gauges.DB_PENDING] = gauge("hikaricp.connections.pending", null);
+        return new Reading(nowMillis, requests, latency, gcMillis, gcCount, gauges);
+    }
+
+    // Sums every gauge of that name, or NaN if there is none
+    private double gauge(String name, String area) {
+        Collection<Gauge> gauges = area == null
+                ? registry.find(name).gauges()
+                : registry.find(name).tag("area", area).gauges();
+        if (gauges.isEmpty()) return Double.NaN;
+
+        double total = 0;
+        for (Gauge gauge : gauges) total += gauge.value();
+        return total;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    // The upper bound of the bucket holding the requested share of the requests, in milliseconds
+    private static double percentile(long[] counts, long total, double quantile) {
+        if (total == 0) return Double.NaN;
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long bound = i < LATENCY_BOUNDS.length ? LATENCY_BOUNDS[i] : LATENCY_BOUNDS[LATENCY_BOUNDS.length - 1];
+                return bound / 1_000_000.0;
+            }
+        }
+        return LATENCY_BOUNDS[LATENCY_BOUNDS.length - 1] / 1_000_000.0;
+    }
+
+    // Ten buckets per power of ten, from 0.1 ms to 60 s
+    private static long[] latencyBounds() {
+        List<Long> bounds = new ArrayList<>();
+        for (int step = 0; ; step++) {
+            long bound = Math.round(100_000 * Math.pow(10, step / 10.0));
+            bounds.add(bound);
+            if (bound >= TimeUnit.SECONDS.toNanos(60)) break;
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private enum Series {
+        HTTP_REQUESTS("http.requests", "req/s"),
+        HTTP_LATENCY_P50("http.latency.p50", "ms"),
+        HTTP_LATENCY_P95("http.latency.p95", "ms"),
+        HTTP_LATENCY_P99("http.latency.p99", "ms"),
+        CPU_PROCESS("cpu.process", "%"),
+        CPU_SYSTEM("cpu.system", "%"),
+        HEAP_USED("heap.used", "MB"),
+        HEAP_COMMITTED("heap.committed", "MB"),
+        GC_PAUSE("gc.pause", "%"),
+        GC_COUNT("gc.count", "collections"),
+        DB_ACTIVE("db.active", "connections"),
+        DB_IDLE("db.idle", "connections"),
+        DB_PENDING("db.pending", "connections");
+
+        private final String name;
+        private final String unit;
+
+        Series(String name, String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        private static Series named(String name) {
+            for (Series series : values()) {
+                if (series.name.equals(name)) return series;
+            }
+            return null;
+        }
+    }
+
+    // Indexes of the gauge readings
+    private static final class Gauges {
+        private static final int CPU_PROCESS = 0;
+        private static final int CPU_SYSTEM = 1;
+        private static final int HEAP_USED = 2;
+        private static final int HEAP_COMMITTED = 3;
+        private static final int DB_ACTIVE = 4;
+        private static final int DB_IDLE = 5;
+        private static final int DB_PENDING = 6;
+        private static final int COUNT = 7;
+    }
+
+    private record Reading(long timeMillis, long requests, long[] latency, double gcMillis, long gcCount,
+                           double[] gauges) {
+    }
+
+    // One resolution: a ring of points plus the period currently being accumulated
+    private static final class Resolution {
+        private final String name;
+        private final long intervalMillis;
+        private final int capacity;
+        private final long[] timestamps;
+        private final double[][] values;
+        private int next;
+        private int size;
+
+        private long period = -1;
+        private Reading periodStart;
+        private final double[] gaugeSums = new double[Gauges.COUNT];
+        private int gaugeSamples;
+
+        private Resolution(String name, long intervalMillis, int capacity) {
+            this.name = name;
+            this.intervalMillis = intervalMillis;
+            this.capacity = capacity;
+            this.timestamps = new long[capacity];
+            this.values = new double[Series.values().length][capacity];
+        }
+
+        private synchronized void add(Reading reading) {
+            long readingPeriod = Math.floorDiv(reading.timeMillis(), intervalMillis);
+            if (period == -1) {
+                period = readingPeriod;
+                periodStart = reading;
+            } else if (readingPeriod != period) {
+                append(period * intervalMillis, reading);
+                period = readingPeriod;
+                periodStart = reading;
+                Arrays.fill(gaugeSums, 0);
+                gaugeSamples = 0;
+            }
+
+            for (int i = 0; i < Gauges.COUNT; i++) gaugeSums[i] += reading.gauges()[i];
+            gaugeSamples++;
+        }
+
+        // Closes the current period, measuring counters from its first reading to this one
+        private void append(long timestamp, Reading end) {
+            long elapsedMillis = end.timeMillis() - periodStart.timeMillis();
+            double elapsedSeconds = elapsedMillis / 1000.0;
+
+            long[] latency = new long[end.latency().length];
+            for (int i = 0; i < latency.length; i++) latency[i] = end.latency()[i] - periodStart.latency()[i];
+            long requests = end.requests() - periodStart.requests();
+
+            double[] gauges = new double[Gauges.COUNT];
+            for (int i = 0; i < Gauges.COUNT; i++) gauges[i] = gaugeSamples == 0 ? Double.NaN : gaugeSums[i] / gaugeSamples;
+
+            timestamps[next] = timestamp;
+            set(Series.HTTP_REQUESTS, elapsedMillis > 0 ? requests / elapsedSeconds : Double.NaN);
+            set(Series.HTTP_LATENCY_P50, percentile(latency, requests, 0.50));
+            set(Series.HTTP_LATENCY_P95, percentile(latency, requests, 0.95));
+            set(Series.HTTP_LATENCY_P99, percentile(latency, requests, 0.99));
+            set(Series.CPU_PROCESS, gauges[Gauges.CPU_PROCESS]);
+            set(Series.CPU_SYSTEM, gauges[Gauges.CPU_SYSTEM]);
+            set(Series.HEAP_USED, gauges[Gauges.HEAP_USED]);
+            set(Series.HEAP_COMMITTED, gauges[Gauges.HEAP_COMMITTED]);
+            set(Series.GC_PAUSE, elapsedMillis > 0 ? (end.gcMillis() - periodStart.gcMillis()) / elapsedMillis * 100 : Double.NaN);
+            set(Series.GC_COUNT, end.gcCount() - periodStart.gcCount());
+            set(Series.DB_ACTIVE, gauges[Gauges.DB_ACTIVE]);
+            set(Series.DB_IDLE, gauges[Gauges.DB_IDLE]);
+            set(Series.DB_PENDING, gauges[Gauges.DB_PENDING]);
+
+            next = (next + 1) % capacity;
+            size = Math.min(size + 1, capacity);
+        }
+
+        private void set(Series series, double value) {
+            values[series.ordinal()][next] = value;
+        }
+
+        private synchronized MetricsHistorySnapshot snapshot(List<Series> requested, long sinceMillis) {
+            List<Long> times = new ArrayList<>();
+            List<List<Double>> columns = new ArrayList<>();
+            for (int i = 0; i < requested.size(); i++) columns.add(new ArrayList<>());
+
+            int oldest = (next - size + capacity) % capacity;
+            for (int n = 0; n < size; n++) {
+                int slot = (oldest + n) % capacity;
+                if (timestamps[slot] < sinceMillis) continue;
+
+                times.add(timestamps[slot]);
+                for (int i = 0; i < requested.size(); i++) {
+                    double value = values[requested.get(i).ordinal()][slot];
+                    columns.get(i).add(Double.isNaN(value) ? null : value);
+                }
+            }
+
+            List<MetricSeries> series = new ArrayList<>();
+            for (int i = 0; i < requested.size(); i++) {
+                series.add(new MetricSeries(requested.get(i).name, requested.get(i).unit, columns.get(i)));
+            }
+            return new MetricsHistorySnapshot(name, intervalMillis, times, series);
+        }
+    }
+}
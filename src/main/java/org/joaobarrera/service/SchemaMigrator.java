@@ -0,0 +1,248 @@
+package org.joaobarrera.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SchemaMigrator.java
+ */
+
+/**
+ * Brings the database schema up to date from the versioned SQL scripts in
+ * {@code db/migration}, named {@code V<version>__<description>.sql}.
+ * <p>
+ * Each applied script is recorded in the {@code schema_history} table with a checksum of its
+ * contents. At startup the history is read in a single query and compared with the scripts on
+ * the class path, so an up-to-date database costs one small read instead of a full schema
+ * introspection. Pending scripts are applied in version order, each in its own transaction.
+ * A script that was changed after it was applied stops the startup, since the database no
+ * longer matches what the script describes.
+ * <p>
+ * Databases created while Hibernate still managed the schema have tables but no history.
+ * They are given the columns the first script expects, then adopt it like any other database.
+ * Hibernate runs after the migrations and no longer changes the schema itself.
+ */
+@Service
+public class SchemaMigrator {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final String LOCATION = "classpath*:db/migration/*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern TRIGGER = Pattern.compile("CREATE\\s+(TEMP\\s+|TEMPORARY\\s+)?TRIGGER\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final DataSource dataSource;
+
+    /**
+     * A migration script found on the class path.
+     *
+     * @param version the version the script brings the schema to
+     * @param description what the script does, taken from the file name
+     * @param script the SQL statements of the script
+     * @param checksum the CRC32 of the script with normalized line endings
+     */
+    private record Migration(int version, String description, String script, long checksum) {}
+
+    /**
+     * Constructs the migrator.
+     *
+     * @param dataSource the data source whose database is migrated
+     */
+    public SchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Migrates the schema before the rest of the persistence stack starts.
+     */
+    @PostConstruct
+    public void start() {
+        migrate();
+    }
+
+    /**
+     * Applies every pending migration.
+     *
+     * @return the number of migrations applied
+     * @throws IllegalStateException if an applied migration was changed or a migration fails
+     */
+    public int migrate() {
+        long start = System.nanoTime();
+        List<Migration> migrations = loadMigrations();
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS schema_history ("
+                        + "version integer primary key, description varchar(200) not null, "
+                        + "checksum bigint not null, applied_at timestamp not null, duration_ms integer not null)");
+            }
+
+            Map<Integer, Long> applied = appliedChecksums(connection);
+            validate(migrations, applied);
+            if (applied.isEmpty()) adoptLegacySchema(connection);
+
+            int count = 0;
+            for (Migration migration : migrations) {
+                if (applied.containsKey(migration.version())) continue;
+                apply(connection, migration);
+                count++;
+            }
+
+            int version = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+            log.info("action=SCHEMA_MIGRATE status={} version={} applied={} duration={}ms",
+                    count == 0 ? "UP_TO_DATE" : "SUCCESS", version, count, (System.nanoTime() - start) / 1_000_000);
+            return count;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Reads the scripts from the class path, ordered by version
+    private List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                Matcher matcher = FILE_NAME.matcher(String.valueOf(resource.getFilename()));
+                if (!matcher.matches()) {
+                    throw new IllegalStateException("Migration file name must look like V1__description.sql: "
+                            + resource.getFilename());
+                }
+
+                // Line endings are normalized so a checkout with CRLF keeps the same checksum
+                String script = resource.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+                CRC32 crc = new CRC32();
+                crc.update(script.getBytes(StandardCharsets.UTF_8));
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)),
+                        matcher.group(2).replace('_', ' '), script, crc.getValue()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Two migrations share version " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    private Map<Integer, Long> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new TreeMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_history")) {
+            while (rs.next()) applied.put(rs.getInt(1), rs.getLong(2));
+        }
+        return applied;
+    }
+
+    private void validate(List<Migration> migrations, Map<Integer, Long> applied) {
+        for (Map.Entry<Integer, Long> entry : applied.entrySet()) {
+            Migration migration = migrations.stream()
+                    .filter(m -> m.version() == entry.getKey())
+                    .findFirst()
+                    .orElse(null);
+
+            // A newer build may have migrated this database already; its scripts are not known here
+            if (migration == null) {
+                log.warn("action=SCHEMA_MIGRATE status=UNKNOWN_VERSION version={}", entry.getKey());
+            } else if (migration.checksum() != entry.getValue()) {
+                throw new IllegalStateException("Migration V" + migration.version() + " (" + migration.description()
+                        + ") was changed after it was applied. Add a new migration instead.");
+            }
+        }
+    }
+
+    // Databases created by Hibernate before the version column existed only lack that column
+    private void adoptLegacySchema(Connection connection) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA table_info(workout)")) {
+            while (rs.next()) columns.add(rs.getString("name").toLowerCase(Locale.ROOT));
+        }
+
+        if (!columns.isEmpty() && !columns.contains("version")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("ALTER TABLE workout ADD COLUMN version bigint default 0 not null");
+            }
+            log.info("action=SCHEMA_MIGRATE status=ADOPTED_LEGACY added=workout.version");
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : statements(migration.script())) statement.executeUpdate(sql);
+            }
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO schema_history (version, description, checksum, applied_at, duration_ms) VALUES (?, ?, ?, ?, ?)")) {
+                insert.setInt(1, migration.version());
+                insert.setString(2, migration.description());
+                insert.setLong(3, migration.checksum());
+                insert.setString(4, LocalDateTime.now().toString());
+                insert.setLong(5, millis);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            log.info("action=SCHEMA_MIGRATE status=APPLIED version={} description=\"{}\" duration={}ms",
+                    migration.version(), migration.description(), millis);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw new IllegalStateException("Migration V" + migration.version() + " (" + migration.description()
+                    + ") failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // Splits on semicolons that end a line; a trigger body only ends at its END;
+    private static List<String> statements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) continue;
+            current.append(line).append('\n');
+
+            String text = current.toString().strip();
+            boolean trigger = TRIGGER.matcher(text).lookingAt();
+            if (text.endsWith(";") && (!trigger || text.toUpperCase(Locale.ROOT).endsWith("END;"))) {
+                statements.add(text.substring(0, text.length() - 1).strip());
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) statements.add(current.toString().strip());
+        return statements;
+    }
+}
@@ -0,0 +1,317 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.joaobarrera.model.SqlStatementSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.regex.Pattern;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SqlStatementStats.java
+ */
+
+/**
+ * Collects timings for every SQL statement the application runs.
+ * <p>
+ * Statements are reported by the timing proxy around the data source, so both Hibernate
+ * and plain JDBC queries are seen. Each statement is reduced to a fingerprint, its SQL with
+ * literals replaced and whitespace collapsed, and the totals per fingerprint are kept for the
+ * sqlstats actuator endpoint. The application runs a small, fixed set of SQL strings, so each
+ * string is fingerprinted once and the result is kept, up to the same limit as the
+ * fingerprints themselves. Statements slower than the threshold are logged with the shape
+ * of their bind parameters, never with the values themselves.
+ * <p>
+ * Code that wants to know which statements a piece of work ran opens a {@link Capture} on
+ * its thread. Captures nest, and a statement counts towards every capture open on the thread
+ * that runs it.
+ */
+@Service
+public class SqlStatementStats {
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementStats.class);
+    private static final String OVERFLOW_FINGERPRINT = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowThresholdNanos;
+    private final int maxFingerprints;
+    private final MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Totals> totals = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ThreadLocal<Capture> currentCapture = new ThreadLocal<>();
+    private final ThreadLocal<String> inspectedSql = new ThreadLocal<>();
+
+    /**
+     * Constructs the statistics collector.
+     *
+     * @param slowThresholdMillis the execution time above which a statement is logged as slow
+     * @param maxFingerprints how many distinct fingerprints are tracked before the rest are pooled
+     * @param registry the registry that receives the statement timers
+     */
+    public SqlStatementStats(@Value("${workout.sql.slow-threshold-ms:100}") long slowThresholdMillis,
+                             @Value("${workout.sql.max-fingerprints:500}") int maxFingerprints,
+                             MeterRegistry registry) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.maxFingerprints = Math.max(1, maxFingerprints);
+        this.registry = registry;
+    }
+
+    /**
+     * Notes that Hibernate is about to prepare the given SQL on this thread, so the statement
+     * can be attributed to Hibernate when it runs.
+     *
+     * @param sql the SQL Hibernate generated
+     */
+    public void inspected(String sql) {
+        inspectedSql.set(sql);
+    }
+
+    /**
+     * Returns the source of a statement that is being prepared on this thread.
+     *
+     * @param sql the SQL being prepared
+     * @return hibernate if Hibernate generated the SQL, jdbc otherwise
+     */
+    public String sourceOf(String sql) {
+        String inspected = inspectedSql.get();
+        inspectedSql.remove();
+        return sql != null && sql.equals(inspected) ? "hibernate" : "jdbc";
+    }
+
+    /**
+     * Records one statement execution. Statements run by the startup warm-up are only
+     * fingerprinted, not counted.
+     *
+     * @param sql the SQL that ran
+     * @param source hibernate or jdbc
+     * @param binds the shape of the bind parameters, such as (Int, String), or an empty string
+     * @param elapsedNanos how long the execution took
+     * @param failed whether the execution threw
+     * @return the statement's fingerprint
+     */
+    public String record(String sql, String source, String binds, long elapsedNanos, boolean failed) {
+        Shape shape = shapeOf(sql);
+        String fingerprint = shape.fingerprint();
+        if (WorkoutWarmup.isWarmingUp()) return fingerprint;
+
+        boolean slow = elapsedNanos > slowThresholdNanos;
+
+        Totals entry = totals.get(fingerprint);
+        if (entry == null) {
+            String key = totals.size() < maxFingerprints ? fingerprint : OVERFLOW_FINGERPRINT;
+            entry = totals.computeIfAbsent(key, k -> new Totals(source));
+        }
+        entry.add(elapsedNanos, failed, slow);
+
+        String kind = shape.kind();
+        timers.computeIfAbsent(kind + "/" + source, k -> Timer.builder("workout.sql.statements")
+                .description("Execution time of SQL statements")
+                .tag("kind", kind)
+                .tag("source", source)
+                .register(registry)).record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        for (Capture capture = currentCapture.get(); capture != null; capture = capture.parent) {
+            capture.add(fingerprint, elapsedNanos);
+        }
+
+        if (slow) {
+            log.warn("action=SLOW_SQL duration={}ms source={} binds={} fingerprint={}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), source, binds, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Starts capturing the statements run on this thread until the capture is closed.
+     *
+     * @return the open capture
+     */
+    public Capture capture() {
+        Capture capture = new Capture(currentCapture.get());
+        currentCapture.set(capture);
+        return capture;
+    }
+
+    /**
+     * Returns the totals of every fingerprint, most expensive first.
+     *
+     * @return a new list of statement summaries
+     */
+    public List<SqlStatementSummary> summaries() {
+        List<SqlStatementSummary> summaries = new ArrayList<>();
+        totals.forEach((fingerprint, entry) -> summaries.add(entry.summary(fingerprint)));
+        summaries.sort(Comparator.comparingDouble(SqlStatementSummary::totalMillis).reversed());
+        return summaries;
+    }
+
+    /**
+     * Forgets every fingerprint's totals.
+     */
+    public void reset() {
+        totals.clear();
+    }
+
+    /**
+     * Reduces SQL to its shape: literals become ?, IN lists collapse to a single ?, and
+     * whitespace and case are normalized.
+     *
+     * @param sql the SQL to reduce
+     * @return the fingerprint of the SQL
+     */
+    public static String fingerprint(String sql) {
+        if (sql == null) return "";
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Fingerprints each SQL string once. Past the limit, new strings are fingerprinted every time.
+    private Shape shapeOf(String sql) {
+        Shape shape = sql == null ? null : shapes.get(sql);
+        if (shape != null) return shape;
+
+        String fingerprint = fingerprint(sql);
+        shape = new Shape(fingerprint, kindOf(fingerprint));
+        if (sql != null && shapes.size() < maxFingerprints) shapes.putIfAbsent(sql, shape);
+        return shape;
+    }
+
+    private static String kindOf(String fingerprint) {
+        int end = fingerprint.indexOf(' ');
+        String verb = end < 0 ? fingerprint : fingerprint.substring(0, end);
+        return switch (verb) {
+            case "select", "insert", "update", "delete" -> verb;
+            default -> "other";
+        };
+    }
+
+    /**
+     * The statements run on one thread while the capture was open.
+     */
+    public final class Capture implements AutoCloseable {
+        private final Capture parent;
+        private final Map<String, Integer> counts = new LinkedHashMap<>();
+        private int statements;
+        private long elapsedNanos;
+
+        private Capture(Capture parent) {
+            this.parent = parent;
+        }
+
+        private void add(String fingerprint, long nanos) {
+            statements++;
+            elapsedNanos += nanos;
+            counts.merge(fingerprint, 1, Integer::sum);
+        }
+
+        /**
+         * Returns how many statements ran.
+         *
+         * @return the number of statements
+         */
+        public int statements() {
+            return statements;
+        }
+
+        /**
+         * Returns how long the statements took altogether.
+         *
+         * @return the combined execution time in milliseconds
+         */
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        /**
+         * Returns how long the statements took altogether, in nanoseconds.
+         *
+         * @return the combined execution time in nanoseconds
+         */
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns how many times each fingerprint ran, in the order they first ran.
+         *
+         * @return a copy of the counts per fingerprint
+         */
+        public Map<String, Integer> counts() {
+            return new LinkedHashMap<>(counts);
+        }
+
+        /**
+         * Returns the fingerprint that ran most often and its count.
+         *
+         * @return the most repeated fingerprint, or null if nothing ran
+         */
+        public Map.Entry<String, Integer> mostRepeated() {
+            return counts.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+
+        @Override
+        public void close() {
+            if (currentCapture.get() == this) {
+                if (parent == null) {
+                    currentCapture.remove();
+                } else {
+                    currentCapture.set(parent);
+                }
+            }
+        }
+    }
+
+    // The fingerprint of one SQL string and the kind of statement it is
+    private record Shape(String fingerprint, String kind) {
+    }
+
+    private static final class Totals {
+        private final String source;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong slow = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Totals(String source) {
+            this.source = source;
+        }
+
+        private void add(long nanos, boolean failed, boolean isSlow) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulate(nanos);
+            if (failed) errors.incrementAndGet();
+            if (isSlow) slow.incrementAndGet();
+        }
+
+        private SqlStatementSummary summary(String fingerprint) {
+            long runs = count.get();
+            double total = totalNanos.get() / 1_000_000.0;
+            return new SqlStatementSummary(fingerprint, source, runs, errors.get(), slow.get(),
+                    total, runs == 0 ? 0 : total / runs, maxNanos.get() / 1_000_000.0);
+        }
+    }
+}
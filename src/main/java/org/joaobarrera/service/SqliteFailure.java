@@ -0,0 +1,56 @@
+package org.joaobarrera.service;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SqliteFailure.java
+ */
+
+/**
+ * The kinds of failure a database operation against SQLite can end in.
+ * <p>
+ * BUSY covers SQLITE_BUSY and SQLITE_LOCKED, including their extended codes. They mean another
+ * connection held a lock that was needed, so running the same transaction again can succeed.
+ * CONSTRAINT means the data broke a constraint and will keep doing so. Everything else is FATAL.
+ */
+public enum SqliteFailure {
+    BUSY,
+    CONSTRAINT,
+    FATAL;
+
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    private static final int SQLITE_CONSTRAINT = 19;
+
+    /**
+     * Classifies an exception by the first SQLite error found along its chain of causes.
+     * <p>
+     * The extended result code is reduced to its primary code, and the driver's message is
+     * used when an exception was wrapped without its code.
+     *
+     * @param failure the exception thrown by the operation
+     * @return the kind of failure
+     */
+    public static SqliteFailure classify(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getErrorCode() != 0) {
+                int primary = sql.getErrorCode() & 0xFF;
+                if (primary == SQLITE_BUSY || primary == SQLITE_LOCKED) return BUSY;
+                if (primary == SQLITE_CONSTRAINT) return CONSTRAINT;
+                return FATAL;
+            }
+
+            String message = cause.getMessage() == null ? "" : cause.getMessage().toLowerCase(Locale.ROOT);
+            if (message.contains("sqlite_busy") || message.contains("sqlite_locked")
+                    || message.contains("database is locked") || message.contains("database table is locked")) {
+                return BUSY;
+            }
+            if (message.contains("sqlite_constraint")) return CONSTRAINT;
+        }
+        return FATAL;
+    }
+}
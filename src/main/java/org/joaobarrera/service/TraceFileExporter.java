@@ -0,0 +1,163 @@
+package org.joaobarrera.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.joaobarrera.model.RecordedTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * TraceFileExporter.java
+ */
+
+/**
+ * Writes kept traces to a rolling set of JSON Lines files.
+ * <p>
+ * Traces are queued and written by a single background thread, so request threads never
+ * wait on the disk. When the queue is full, traces are dropped and counted. The current file
+ * is traces.jsonl; once it reaches its size limit it becomes traces.1.jsonl, older files move
+ * up by one, and the oldest beyond the configured count is deleted.
+ */
+@Service
+public class TraceFileExporter {
+    private static final Logger log = LoggerFactory.getLogger(TraceFileExporter.class);
+    private static final String FILE_NAME = "traces";
+    private static final String FILE_SUFFIX = ".jsonl";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int fileCount;
+
+    private final BlockingQueue<RecordedTrace> queue = new ArrayBlockingQueue<>(1000);
+    private final Counter droppedTraces;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs the exporter and starts its writer thread.
+     *
+     * @param objectMapper the mapper that turns each trace into a line of JSON
+     * @param directory the directory the trace files are written to
+     * @param maxFileBytes the size at which the current file is rolled over
+     * @param fileCount how many files are kept, including the current one
+     * @param registry the registry that receives the dropped-trace counter
+     */
+    public TraceFileExporter(ObjectMapper objectMapper,
+                             @Value("${workout.tracing.directory:traces}") String directory,
+                             @Value("${workout.tracing.file-max-bytes:10485760}") long maxFileBytes,
+                             @Value("${workout.tracing.files:5}") int fileCount,
+                             MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.maxFileBytes = Math.max(1024, maxFileBytes);
+        this.fileCount = Math.max(1, fileCount);
+
+        droppedTraces = Counter.builder("workout.tracing.export.dropped")
+                .description("Kept traces that could not be queued for writing")
+                .register(registry);
+
+        writer = new Thread(this::writeLoop, "trace-exporter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a trace to be written.
+     *
+     * @param trace the trace to write
+     */
+    public void export(RecordedTrace trace) {
+        if (!queue.offer(trace)) droppedTraces.increment();
+    }
+
+    /**
+     * Returns the file that traces are currently written to.
+     *
+     * @return the path of the current trace file
+     */
+    public Path currentFile() {
+        return directory.resolve(FILE_NAME + FILE_SUFFIX);
+    }
+
+    /**
+     * Writes any queued traces and stops the writer thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<RecordedTrace> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                RecordedTrace first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<RecordedTrace> traces) {
+        try {
+            Files.createDirectories(directory);
+            for (RecordedTrace trace : traces) {
+                byte[] line = (objectMapper.writeValueAsString(trace) + "\n").getBytes(StandardCharsets.UTF_8);
+                Path current = currentFile();
+                if (Files.exists(current) && Files.size(current) + line.length > maxFileBytes) roll();
+                Files.write(current, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            log.warn("action=EXPORT_TRACES status=FAIL count={} message={}", traces.size(), e.getMessage());
+        }
+    }
+
+    private void roll() throws IOException {
+        Files.deleteIfExists(directory.resolve(FILE_NAME + "." + (fileCount - 1) + FILE_SUFFIX));
+        for (int i = fileCount - 2; i >= 1; i--) {
+            Path from = directory.resolve(FILE_NAME + "." + i + FILE_SUFFIX);
+            if (Files.exists(from)) {
+                Files.move(from, directory.resolve(FILE_NAME + "." + (i + 1) + FILE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (fileCount == 1) {
+            Files.deleteIfExists(currentFile());
+        } else {
+            Files.move(currentFile(), directory.resolve(FILE_NAME + ".1" + FILE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.repository.ArchivedWorkoutRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutArchiveService.java
+ */
+
+/**
+ * Moves workouts older than the archive horizon out of the primary Workout table and into
+ * the WorkoutArchive table.
+ * <p>
+ * Workouts are moved in small batches, each in its own transaction, so the write lock is
+ * released between batches and regular traffic is not held up by a large archival run.
+ * The service also tracks the hot and cold row counts and the approximate size of the hot
+ * working set, which are published as metrics.
+ */
+@Service
+public class WorkoutArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutArchiveService.class);
+
+    private static final String SELECT_BATCH =
+            "SELECT id, start_date_time FROM workout WHERE start_date_time < :cutoff ORDER BY start_date_time LIMIT :limit";
+    private static final String COPY_BATCH =
+            "INSERT INTO workout_archive (id, name, start_date_time, duration, distance, unit, notes, archived_at) " +
+            "SELECT id, name, start_date_time, duration, distance, unit, notes, :archivedAt FROM workout WHERE id IN (:ids)";
+    private static final String DELETE_BATCH = "DELETE FROM workout WHERE id IN (:ids)";
+    private static final String HOT_STATS =
+            "SELECT count(*), coalesce(sum(length(name) + coalesce(length(notes), 0) + 40), 0) FROM workout";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedWorkoutRepository archivedWorkoutRepository;
+    private final WorkoutDataVersion dataVersion;
+    private final WorkoutChangeLog changeLog;
+    private final int horizonDays;
+    private final int batchSize;
+    private final long batchPauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong hotRows = new AtomicLong();
+    private final AtomicLong hotBytes = new AtomicLong();
+    private final AtomicLong coldRows = new AtomicLong();
+    private final Counter movedRows;
+    private final AtomicReference<LocalDateTime> newestArchivedStart = new AtomicReference<>();
+
+    /**
+     * Constructs the archive service and registers its metrics.
+     *
+     * @param jdbcTemplate the template used to move rows between tables
+     * @param transactionManager the transaction manager used for each batch
+     * @param archivedWorkoutRepository the repository used to inspect the archive
+     * @param dataVersion the version that is incremented after each committed batch
+     * @param changeLog the log in which archived workouts are recorded as deleted
+     * @param horizonDays workouts that started more than this many days ago are archived
+     * @param batchSize the number of workouts moved per transaction
+     * @param batchPauseMillis the pause between two batches
+     * @param registry the registry that receives the archive metrics
+     */
+    public WorkoutArchiveService(NamedParameterJdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ArchivedWorkoutRepository archivedWorkoutRepository,
+                                 WorkoutDataVersion dataVersion,
+                                 WorkoutChangeLog changeLog,
+                                 @Value("${workout.archive.horizon-days:365}") int horizonDays,
+                                 @Value("${workout.archive.batch-size:500}") int batchSize,
+                                 @Value("${workout.archive.batch-pause-ms:50}") long batchPauseMillis,
+                                 MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedWorkoutRepository = archivedWorkoutRepository;
+        this.dataVersion = dataVersion;
+        this.changeLog = changeLog;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+
+        Gauge.builder("workout.archive.hot.rows", hotRows, AtomicLong::get)
+                .description("Workouts in the primary table")
+                .register(registry);
+        Gauge.builder("workout.archive.cold.rows", coldRows, AtomicLong::get)
+                .description("Workouts in the archive table")
+                .register(registry);
+        Gauge.builder("workout.archive.hot.bytes", hotBytes, AtomicLong::get)
+                .description("Approximate payload size of the primary table")
+                .baseUnit("bytes")
+                .register(registry);
+        movedRows = Counter.builder("workout.archive.moved")
+                .description("Workouts moved into the archive")
+                .register(registry);
+    }
+
+    /**
+     * Returns the start date and time before which workouts are due for archival.
+     *
+     * @return the current archive cutoff
+     */
+    public LocalDateTime getCutoff() {
+        return LocalDateTime.now().minusDays(horizonDays);
+    }
+
+    /**
+     * Reports whether a date-range query starting at the given time needs to read the archive.
+     *
+     * @param from the start of the queried range
+     * @return true if the archive may hold workouts at or after the given time
+     */
+    public boolean archiveMayContain(LocalDateTime from) {
+        LocalDateTime newest = newestArchivedStart.get();
+        return newest != null && !from.isAfter(newest);
+    }
+
+    /**
+     * Runs the scheduled archival. The schedule is disabled unless workout.archive.cron is set.
+     */
+    @Scheduled(cron = "${workout.archive.cron:-}")
+    public void scheduledArchive() {
+        OperationResult<Integer> result = archiveExpired();
+        if (!result.success()) {
+            log.error("action=ARCHIVE status=FAIL message={}", result.message());
+        }
+    }
+
+    /**
+     * Archives every workout that started before the configured horizon.
+     *
+     * @return OperationResult containing the number of archived workouts and a success/failure message
+     */
+    public OperationResult<Integer> archiveExpired() {
+        return archiveOlderThan(getCutoff());
+    }
+
+    /**
+     * Archives every workout that started before the given cutoff, in batches.
+     *
+     * @param cutoff the start date and time before which workouts are archived
+     * @return OperationResult containing the number of archived workouts and a success/failure message
+     */
+    public OperationResult<Integer> archiveOlderThan(LocalDateTime cutoff) {
+        if (cutoff == null) {
+            return new OperationResult<>(false, null, "Archive cutoff cannot be null.");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return new OperationResult<>(false, null, "An archival run is already in progress.");
+        }
+
+        long start = System.currentTimeMillis();
+        int total = 0;
+        try {
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> moveBatch(cutoff));
+                if (moved == null || moved == 0) break;
+                total += moved;
+                movedRows.increment(moved);
+                if (moved < batchSize) break;
+                Thread.sleep(batchPauseMillis);
+            }
+            refreshStatistics();
+            log.info("action=ARCHIVE status=SUCCESS cutoff={} moved={} duration={}ms",
+                    cutoff, total, System.currentTimeMillis() - start);
+            return new OperationResult<>(true, total, "Archived " + total + " workouts.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new OperationResult<>(false, total, "Archival interrupted after " + total + " workouts.");
+        } catch (Exception e) {
+            return new OperationResult<>(false, total, "Error archiving workouts: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Copies one batch into the archive and removes it from the primary table
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Integer> ids = new ArrayList<>();
+        LocalDateTime[] newest = new LocalDateTime[1];
+        jdbcTemplate.query(SELECT_BATCH, new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", batchSize), rs -> {
+            ids.add(rs.getInt(1));
+            newest[0] = rs.getTimestamp(2).toLocalDateTime();
+        });
+        if (ids.isEmpty()) return 0;
+
+        // Widened before the batch commits, so a date-range query running meanwhile reads the
+        // archive as well and never misses the moved rows. A rollback only costs an extra read.
+        widenNewestArchivedStart(newest[0]);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(COPY_BATCH, params);
+        jdbcTemplate.update(DELETE_BATCH, params);
+
+        // Archived workouts leave the lists clients mirror, so to them they are deleted
+        changeLog.record(WorkoutChangeLog.Operation.DELETE, ids);
+        dataVersion.incrementAfterCommit(ids);
+        return ids.size();
+    }
+
+    /**
+     * Recomputes the hot and cold counts published as metrics, and widens the archived range
+     * to the newest archived workout.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${workout.archive.stats-refresh-ms:60000}",
+            initialDelayString = "${workout.archive.stats-refresh-ms:60000}")
+    public void refreshStatistics() {
+        try {
+            jdbcTemplate.getJdbcTemplate().query(HOT_STATS, rs -> {
+                hotRows.set(rs.getLong(1));
+                hotBytes.set(rs.getLong(2));
+            });
+            coldRows.set(archivedWorkoutRepository.count());
+            widenNewestArchivedStart(archivedWorkoutRepository.findNewestStartDateTime());
+        } catch (Exception e) {
+            log.warn("action=ARCHIVE_STATS status=FAIL message={}", e.getMessage());
+        }
+    }
+
+    // Only ever moves forward. A refresh that reads the archive while a batch is still
+    // uncommitted must not undo the widening done for that batch.
+    private void widenNewestArchivedStart(LocalDateTime candidate) {
+        if (candidate == null) return;
+        newestArchivedStart.accumulateAndGet(candidate,
+                (current, next) -> current == null || next.isAfter(current) ? next : current);
+    }
+}
@@ -0,0 +1,127 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutBulkhead.java
+ */
+
+/**
+ * A bounded pool of threads reserved for one kind of heavy work.
+ * <p>
+ * Heavy jobs run on their bulkhead's own threads rather than on request threads, and each
+ * bulkhead holds a fixed number of threads and a fixed-size queue. When both are full, new
+ * work is refused at once instead of piling up, so a flood of conversions or exports cannot
+ * take threads or memory away from interactive requests, nor from another bulkhead.
+ * <p>
+ * Every bulkhead reports its active threads, queue depth, saturation, rejections and queue
+ * wait, tagged with its name.
+ */
+public class WorkoutBulkhead {
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejections;
+    private final Timer queueWait;
+
+    /**
+     * Constructs a bulkhead and registers its metrics.
+     *
+     * @param name the name used in thread names and metric tags
+     * @param threads how many jobs may run at once
+     * @param queueCapacity how many jobs may wait for a thread before new ones are refused
+     * @param registry the registry that receives the bulkhead metrics
+     */
+    public WorkoutBulkhead(String name, int threads, int queueCapacity, MeterRegistry registry) {
+        this.name = name;
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity), r -> {
+                    Thread thread = new Thread(r, "bulkhead-" + name + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("workout.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Jobs currently running in the bulkhead")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("workout.bulkhead.queue", executor, e -> e.getQueue().size())
+                .description("Jobs waiting for a thread in the bulkhead")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("workout.bulkhead.saturation", this, WorkoutBulkhead::saturation)
+                .description("Share of the bulkhead's threads and queue slots in use")
+                .tag("bulkhead", name)
+                .register(registry);
+        rejections = Counter.builder("workout.bulkhead.rejections")
+                .description("Jobs refused because the bulkhead was full")
+                .tag("bulkhead", name)
+                .register(registry);
+        queueWait = Timer.builder("workout.bulkhead.queue-wait")
+                .description("Time jobs spent waiting for a thread in the bulkhead")
+                .tag("bulkhead", name)
+                .register(registry);
+    }
+
+    /**
+     * Returns the name of the bulkhead.
+     *
+     * @return the bulkhead name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Hands a job to the bulkhead unless it is full.
+     *
+     * @param job the job to run
+     * @return true if the job was accepted, false if the threads and queue were all taken
+     */
+    public boolean trySubmit(Runnable job) {
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                job.run();
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the share of the bulkhead in use, from 0 when idle to 1 when it refuses work.
+     *
+     * @return the running and queued jobs divided by the threads and queue slots
+     */
+    public double saturation() {
+        return (double) (executor.getActiveCount() + executor.getQueue().size()) / (threads + queueCapacity);
+    }
+
+    /**
+     * Stops accepting jobs and interrupts the running ones.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,34 @@
+package org.joaobarrera.service;
+
+import java.util.Collection;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutChangeListener.java
+ */
+
+/**
+ * Receives a notification after every committed change to the Workout table.
+ * <p>
+ * Listeners are called by {@link WorkoutDataVersion} once the writing transaction has
+ * committed and before the data version moves, so a reader that observes the new version
+ * also observes every listener's reaction to the change. Notifications carry no row data:
+ * listeners that keep derived state re-read what they need.
+ */
+public interface WorkoutChangeListener {
+
+    /**
+     * Called after the workouts with the given IDs were inserted, updated or deleted.
+     *
+     * @param ids the IDs of the changed workouts
+     */
+    void workoutsChanged(Collection<Integer> ids);
+
+    /**
+     * Called after a change that may have touched any workout, such as a unit conversion,
+     * an import or a restore.
+     */
+    void allWorkoutsChanged();
+}
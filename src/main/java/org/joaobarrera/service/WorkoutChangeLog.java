@@ -0,0 +1,286 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.WorkoutChanges;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutChangeLog.java
+ */
+
+/**
+ * Keeps an append-only log of workout changes so clients can catch up with what changed
+ * since they last synchronized, instead of downloading every workout again.
+ * <p>
+ * Writers record each change in the same transaction as the change itself, so the log never
+ * disagrees with the Workout table. A client cursor is the log epoch and the sequence number
+ * of the last change it has seen. Pages of changes after a cursor are compacted to the latest
+ * change of each workout, so reading the log costs in proportion to what changed, not to the
+ * size of the history.
+ * <p>
+ * Entries older than the retention period, or beyond the maximum entry count, are pruned.
+ * A cursor that points into the pruned range needs a full resync. So does a cursor from an
+ * earlier epoch. The epoch moves forward after an import or a restore, which change
+ * workouts without going through the log.
+ */
+@Service
+public class WorkoutChangeLog {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutChangeLog.class);
+
+    private static final String INSERT =
+            "INSERT INTO workout_change (workout_id, operation, changed_at) VALUES (?, ?, ?)";
+    private static final String SELECT_HORIZON =
+            "SELECT epoch, pruned_through, max(pruned_through, (SELECT coalesce(max(seq), 0) FROM workout_change)) AS latest " +
+            "FROM workout_change_horizon WHERE id = 1";
+    private static final String SELECT_PAGE =
+            "SELECT c.seq, c.workout_id, c.operation FROM workout_change c " +
+            "JOIN (SELECT max(seq) AS seq FROM workout_change WHERE seq > ? GROUP BY workout_id) latest ON latest.seq = c.seq " +
+            "ORDER BY c.seq LIMIT ?";
+    private static final String INVALIDATE =
+            "UPDATE workout_change_horizon SET epoch = max(epoch + 1, ?), " +
+            "pruned_through = max(pruned_through, (SELECT coalesce(max(seq), 0) FROM workout_change)) WHERE id = 1";
+    private static final String SELECT_PRUNE_THROUGH =
+            "SELECT max((SELECT coalesce(max(seq), 0) FROM workout_change WHERE changed_at < ?), " +
+            "(SELECT coalesce(max(seq), 0) FROM workout_change) - ?)";
+    private static final String ADVANCE_HORIZON =
+            "UPDATE workout_change_horizon SET pruned_through = ? WHERE id = 1 AND pruned_through < ?";
+    private static final String DELETE_BATCH =
+            "DELETE FROM workout_change WHERE seq IN (SELECT seq FROM workout_change WHERE seq <= ? ORDER BY seq LIMIT ?)";
+
+    /**
+     * The kinds of change recorded in the log.
+     */
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+
+    // The epoch, the pruned range and the newest sequence number, read together
+    private record Horizon(long epoch, long prunedThrough, long latest) {}
+
+    // The latest logged change of one workout
+    private record Entry(long seq, int workoutId, Operation operation) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WorkoutRepository workoutRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTransaction;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final long retentionMillis;
+    private final long maxEntries;
+    private final int pruneBatchSize;
+    private final Counter prunedEntries;
+
+    /**
+     * Constructs the change log and registers its metrics.
+     *
+     * @param jdbcTemplate the template used to read and write the log
+     * @param workoutRepository the repository used to read the current values of changed workouts
+     * @param transactionManager the transaction manager used for each pruning step and for reading a page
+     * @param defaultPageSize the number of changes returned when the client does not ask for a page size
+     * @param maxPageSize the most changes returned in one page
+     * @param retentionHours how long entries are kept before they are pruned
+     * @param maxEntries the most entries kept, whatever their age
+     * @param pruneBatchSize the number of entries deleted per pruning transaction
+     * @param registry the registry that receives the change log metrics
+     */
+    public WorkoutChangeLog(JdbcTemplate jdbcTemplate,
+                            WorkoutRepository workoutRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${workout.changes.page-size:500}") int defaultPageSize,
+                            @Value("${workout.changes.max-page-size:5000}") int maxPageSize,
+                            @Value("${workout.changes.retention-hours:720}") long retentionHours,
+                            @Value("${workout.changes.max-entries:100000}") long maxEntries,
+                            @Value("${workout.changes.prune-batch-size:1000}") int pruneBatchSize,
+                            MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.workoutRepository = workoutRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.defaultPageSize = Math.max(1, defaultPageSize);
+        this.maxPageSize = Math.max(this.defaultPageSize, maxPageSize);
+        this.retentionMillis = retentionHours * 3_600_000L;
+        this.maxEntries = maxEntries;
+        this.pruneBatchSize = Math.max(1, pruneBatchSize);
+        this.prunedEntries = Counter.builder("workout.changes.pruned")
+                .description("Change log entries removed by pruning")
+                .register(registry);
+    }
+
+    /**
+     * Records a change to the given workouts. Must be called inside the transaction that
+     * makes the change.
+     *
+     * @param operation whether the workouts were added or changed, or deleted
+     * @param ids the IDs of the changed workouts
+     */
+    public void record(Operation operation, Collection<Integer> ids) {
+        if (ids.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        if (ids.size() == 1) {
+            jdbcTemplate.update(INSERT, ids.iterator().next(), operation.name(), now);
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, ids, ids.size(), (ps, id) -> {
+            ps.setInt(1, id);
+            ps.setString(2, operation.name());
+            ps.setLong(3, now);
+        });
+    }
+
+    /**
+     * Starts a new epoch, so every client resynchronizes. Used after changes that bypass the
+     * log, such as an import or a restore.
+     */
+    public void invalidate() {
+        jdbcTemplate.update(INVALIDATE, System.currentTimeMillis());
+        log.info("action=CHANGE_LOG status=INVALIDATED");
+    }
+
+    /**
+     * Returns the compacted changes after a cursor, oldest first.
+     * <p>
+     * Without a cursor, or with one that can no longer be served, the result asks for a full
+     * resync and carries the cursor to continue from afterwards. The horizon, the page and the
+     * workouts are read in one read-only transaction, so a prune running meanwhile cannot
+     * remove entries between the horizon check and the page.
+     *
+     * @param since the cursor returned by the previous call, or null on the first sync
+     * @param limit the most workouts to return, or null for the default page size
+     * @return OperationResult containing the page of changes and a success/failure message
+     */
+    public OperationResult<WorkoutChanges> changesSince(String since, Integer limit) {
+        if (limit != null && limit < 1) {
+            return new OperationResult<>(false, null, "Limit must be at least 1.");
+        }
+        long[] cursor = parseCursor(since);
+        if (since != null && !since.isBlank() && cursor == null) {
+            return new OperationResult<>(false, null, "Invalid cursor: " + since);
+        }
+
+        return readTransaction.execute(status -> readPage(cursor, limit));
+    }
+
+    // Reads the horizon, the page after the cursor and the changed workouts from one snapshot
+    private OperationResult<WorkoutChanges> readPage(long[] cursor, Integer limit) {
+        Horizon horizon = jdbcTemplate.queryForObject(SELECT_HORIZON,
+                (rs, i) -> new Horizon(rs.getLong("epoch"), rs.getLong("pruned_through"), rs.getLong("latest")));
+        if (cursor == null || cursor[0] != horizon.epoch()
+                || cursor[1] < horizon.prunedThrough() || cursor[1] > horizon.latest()) {
+            WorkoutChanges resync = new WorkoutChanges(cursor(horizon.epoch(), horizon.latest()), true, false,
+                    List.of(), List.of());
+            return new OperationResult<>(true, resync, "Full resync required.");
+        }
+
+        int size = limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+        List<Entry> rows = jdbcTemplate.query(SELECT_PAGE,
+                (rs, i) -> new Entry(rs.getLong("seq"), rs.getInt("workout_id"), Operation.valueOf(rs.getString("operation"))),
+                cursor[1], size + 1);
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
+
+        List<Integer> upsertIds = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        for (Entry row : rows) {
+            (row.operation() == Operation.UPSERT ? upsertIds : deleted).add(row.workoutId());
+        }
+
+        // A workout deleted since its change was logged has a DELETE further on; report it now
+        List<Workout> upserted = upsertIds.isEmpty() ? List.of() : workoutRepository.findAllDetachedById(upsertIds);
+        if (upserted.size() < upsertIds.size()) {
+            Set<Integer> found = new HashSet<>();
+            for (Workout workout : upserted) found.add(workout.getID());
+            for (Integer id : upsertIds) if (!found.contains(id)) deleted.add(id);
+        }
+
+        long last = rows.isEmpty() ? cursor[1] : rows.get(rows.size() - 1).seq();
+        WorkoutChanges changes = new WorkoutChanges(cursor(horizon.epoch(), last), false, hasMore, upserted, deleted);
+        return new OperationResult<>(true, changes, "Found " + rows.size() + " changed workouts.");
+    }
+
+    /**
+     * Prunes on the configured delay.
+     */
+    @Scheduled(fixedDelayString = "${workout.changes.prune-interval-ms:3600000}",
+            initialDelayString = "${workout.changes.prune-interval-ms:3600000}")
+    public void scheduledPrune() {
+        OperationResult<Long> result = prune(System.currentTimeMillis() - retentionMillis);
+        if (!result.success()) log.warn("action=CHANGE_LOG status=PRUNE_FAIL message={}", result.message());
+    }
+
+    /**
+     * Removes the entries older than the cutoff, and the oldest entries beyond the maximum
+     * count. The pruned range is recorded before any entry is deleted, so a client never
+     * reads a page with entries missing. The entries are then deleted in small batches.
+     *
+     * @param cutoffMillis entries recorded before this time are removed
+     * @return OperationResult containing the number of entries removed and a success/failure message
+     */
+    public OperationResult<Long> prune(long cutoffMillis) {
+        long start = System.currentTimeMillis();
+        try {
+            Long through = transactionTemplate.execute(status -> {
+                Long target = jdbcTemplate.queryForObject(SELECT_PRUNE_THROUGH, Long.class, cutoffMillis, maxEntries);
+                if (target == null || target <= 0) return 0L;
+                jdbcTemplate.update(ADVANCE_HORIZON, target, target);
+                return target;
+            });
+            if (through == null || through <= 0) return new OperationResult<>(true, 0L, "Nothing to prune.");
+
+            long removed = 0;
+            while (true) {
+                Integer deleted = transactionTemplate.execute(status ->
+                        jdbcTemplate.update(DELETE_BATCH, through, pruneBatchSize));
+                if (deleted == null || deleted == 0) break;
+                removed += deleted;
+                prunedEntries.increment(deleted);
+                if (deleted < pruneBatchSize) break;
+            }
+
+            log.info("action=CHANGE_LOG status=PRUNED through={} removed={} duration={}ms",
+                    through, removed, System.currentTimeMillis() - start);
+            return new OperationResult<>(true, removed, "Pruned " + removed + " change log entries.");
+        } catch (Exception e) {
+            return new OperationResult<>(false, null, "Error pruning change log: " + e.getMessage());
+        }
+    }
+
+    private static String cursor(long epoch, long seq) {
+        return epoch + "-" + seq;
+    }
+
+    // Returns the epoch and sequence number, or null if the cursor is missing or malformed
+    private static long[] parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        int dash = cursor.indexOf('-');
+        if (dash <= 0) return null;
+        try {
+            return new long[]{Long.parseLong(cursor.substring(0, dash)), Long.parseLong(cursor.substring(dash + 1))};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutDataVersion.java
+ */
+
+/**
+ * Monotonic counter that identifies the current state of the workout data.
+ * <p>
+ * Every committed change to the Workout table increments the version. Readers capture the
+ * version before they query, so anything derived from a read can be keyed by it and is
+ * never confused with data from a different state.
+ * <p>
+ * Before the version moves, every {@link WorkoutChangeListener} is told which workouts
+ * changed, so derived state such as the in-memory mirror is already up to date by the
+ * time a reader can see the new version.
+ * <p>
+ * A transaction takes its version number just before it commits, while it still holds
+ * SQLite's write lock, so numbers follow the order of the commits. The versions become
+ * current strictly in that order, once every earlier one has committed and its listeners
+ * have run. The thread that committed can read the version its own change produced with
+ * {@link #takeCommitted()}. A transaction that fails while committing still uses up its
+ * number, which only looks like one more change to clients.
+ */
+@Component
+public class WorkoutDataVersion {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutDataVersion.class);
+
+    private final AtomicLong version = new AtomicLong();
+    private final ObjectProvider<WorkoutChangeListener> listeners;
+    private final ThreadLocal<Long> committed = new ThreadLocal<>();
+
+    // Guarded by this: the last number handed out, and numbers finished ahead of the current version
+    private long assigned;
+    private final Set<Long> finishedAhead = new HashSet<>();
+
+    /**
+     * Constructs the data version and publishes it as a gauge.
+     *
+     * @param listeners the listeners notified of every committed change
+     * @param registry the registry that receives the version gauge
+     */
+    public WorkoutDataVersion(ObjectProvider<WorkoutChangeListener> listeners, MeterRegistry registry) {
+        this.listeners = listeners;
+        Gauge.builder("workout.data.version", version, AtomicLong::get)
+                .description("Number of committed changes to the workout data")
+                .register(registry);
+    }
+
+    /**
+     * Returns the current data version.
+     *
+     * @return the current version
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Increments the version once the surrounding transaction commits, after telling the
+     * listeners that any workout may have changed.
+     * <p>
+     * If no transaction is active the version is incremented immediately. The version never
+     * moves for a transaction that rolls back before it starts to commit.
+     */
+    public void incrementAfterCommit() {
+        afterCommit(() -> listeners.orderedStream().forEach(listener -> notify(listener, null)));
+    }
+
+    /**
+     * Increments the version once the surrounding transaction commits, after telling the
+     * listeners which workouts changed.
+     *
+     * @param ids the IDs of the workouts inserted, updated or deleted by the transaction
+     */
+    public void incrementAfterCommit(Collection<Integer> ids) {
+        List<Integer> changed = List.copyOf(ids);
+        afterCommit(() -> listeners.orderedStream().forEach(listener -> notify(listener, changed)));
+    }
+
+    /**
+     * Returns the version produced by the last change this thread committed, and forgets it.
+     *
+     * @return the committed version, or null if this thread has committed no change since
+     *         the last call
+     */
+    public Long takeCommitted() {
+        Long version = committed.get();
+        committed.remove();
+        return version;
+    }
+
+    private void afterCommit(Runnable notifyListeners) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            long number = assign();
+            notifyListeners.run();
+            committed.set(number);
+            finish(number);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long number;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                number = assign();
+            }
+
+            @Override
+            public void afterCommit() {
+                notifyListeners.run();
+                committed.set(number);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (number > 0) finish(number);
+            }
+        });
+    }
+
+    private synchronized long assign() {
+        return ++assigned;
+    }
+
+    // Moves the version forward over every number that has finished without a gap
+    private synchronized void finish(long number) {
+        finishedAhead.add(number);
+        long next = version.get() + 1;
+        while (finishedAhead.remove(next)) {
+            version.set(next);
+            next++;
+        }
+    }
+
+    // A failing listener must not stop the others or keep the version from moving
+    private void notify(WorkoutChangeListener listener, List<Integer> ids) {
+        try {
+            if (ids == null) {
+                listener.allWorkoutsChanged();
+            } else {
+                listener.workoutsChanged(ids);
+            }
+        } catch (Exception e) {
+            log.warn("action=CHANGE_LISTENER status=FAIL listener={} message={}",
+                    listener.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+}
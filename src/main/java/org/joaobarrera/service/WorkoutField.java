@@ -0,0 +1,285 @@
+package org.joaobarrera.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.UnitType;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutField.java
+ */
+
+/**
+ * The fields of a workout that can be requested from the list and search endpoints.
+ * <p>
+ * Each field knows its JSON property name and its column in the Workout table, so a sparse
+ * fieldset turns into a SQL projection that selects only those columns. Fields are always
+ * written in declaration order, which is the order the full Workout JSON uses, and the ID
+ * is always included so clients can address the rows they receive.
+ * <p>
+ * The same names are used to read partial updates, where only the fields present in the
+ * document are changed.
+ */
+public enum WorkoutField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    START_DATE_TIME("startDateTime", "start_date_time"),
+    UNIT("unit", "unit"),
+    DURATION("duration", "duration"),
+    DISTANCE("distance", "distance"),
+    NOTES("notes", "notes"),
+    VERSION("version", "version");
+
+    private final String property;
+    private final String column;
+
+    WorkoutField(String property, String column) {
+        this.property = property;
+        this.column = column;
+    }
+
+    /**
+     * Returns the JSON property name of this field.
+     *
+     * @return the property name
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Returns the Workout table column that holds this field.
+     *
+     * @return the column name
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Parses a comma-separated list of JSON property names, such as "name,distance".
+     * <p>
+     * A null or blank list selects every field.
+     *
+     * @param fields the requested property names
+     * @return OperationResult containing the selected fields and a success/failure message
+     */
+    public static OperationResult<Set<WorkoutField>> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new OperationResult<>(true, EnumSet.allOf(WorkoutField.class), "All fields selected.");
+        }
+
+        Set<WorkoutField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            WorkoutField field = fromProperty(name.trim());
+            if (field == null) {
+                return new OperationResult<>(false, null, "Unknown workout field: " + name.trim());
+            }
+            selected.add(field);
+        }
+        return new OperationResult<>(true, selected, "Selected " + selected.size() + " fields.");
+    }
+
+    /**
+     * Reads the fields present in a partial update document, such as a JSON Merge Patch.
+     * <p>
+     * Dates and units that cannot be read become null, as they do for full updates, so the
+     * workout validators report them. The ID and version are returned like any other field.
+     *
+     * @param patch the JSON object holding the changed fields
+     * @return OperationResult containing the values of the fields present and a success/failure message
+     */
+    public static OperationResult<Map<WorkoutField, Object>> readPatch(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            return new OperationResult<>(false, null, "Patch must be a JSON object.");
+        }
+
+        Map<WorkoutField, Object> values = new EnumMap<>(WorkoutField.class);
+        for (Map.Entry<String, JsonNode> entry : patch.properties()) {
+            WorkoutField field = fromProperty(entry.getKey());
+            if (field == null) {
+                return new OperationResult<>(false, null, "Unknown workout field: " + entry.getKey());
+            }
+
+            JsonNode node = entry.getValue();
+            Object value;
+            if (node.isNull()) {
+                value = null;
+            } else {
+                switch (field) {
+                    case ID, DURATION -> {
+                        if (!node.isIntegralNumber() || !node.canConvertToInt()) return notA(field, "whole number");
+                        value = node.intValue();
+                    }
+                    case VERSION -> {
+                        if (!node.isIntegralNumber() || !node.canConvertToLong()) return notA(field, "whole number");
+                        value = node.longValue();
+                    }
+                    case DISTANCE -> {
+                        if (!node.isNumber()) return notA(field, "number");
+                        value = node.doubleValue();
+                    }
+                    case START_DATE_TIME -> {
+                        if (!node.isTextual()) return notA(field, "string");
+                        value = parseDateTime(node.textValue());
+                    }
+                    case UNIT -> {
+                        if (!node.isTextual()) return notA(field, "string");
+                        value = parseUnit(node.textValue());
+                    }
+                    default -> {
+                        if (!node.isTextual()) return notA(field, "string");
+                        value = node.textValue();
+                    }
+                }
+            }
+            values.put(field, value);
+        }
+        return new OperationResult<>(true, values, "Read " + values.size() + " fields.");
+    }
+
+    /**
+     * Reports whether a field selection covers the whole workout.
+     *
+     * @param fields the selected fields, or null for all of them
+     * @return true if every field is selected
+     */
+    public static boolean isComplete(Set<WorkoutField> fields) {
+        return fields == null || fields.size() == values().length;
+    }
+
+    /**
+     * Returns a stable key for a field selection, for use in cache and coalescing keys.
+     *
+     * @param fields the selected fields, or null for all of them
+     * @return the comma-separated property names in declaration order
+     */
+    public static String key(Set<WorkoutField> fields) {
+        if (isComplete(fields)) return "*";
+
+        StringBuilder key = new StringBuilder();
+        for (WorkoutField field : EnumSet.copyOf(fields)) {
+            if (!key.isEmpty()) key.append(',');
+            key.append(field.property);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Writes the selected fields of a workout as one JSON object.
+     *
+     * @param generator the generator to write to
+     * @param workout the workout to write
+     * @param fields the fields to include
+     * @throws IOException if the object cannot be written
+     */
+    public static void writeObject(JsonGenerator generator, Workout workout, Set<WorkoutField> fields) throws IOException {
+        generator.writeStartObject();
+        for (WorkoutField field : fields) {
+            generator.writeFieldName(field.property);
+            switch (field) {
+                case ID -> writeNumber(generator, workout.getID());
+                case NAME -> generator.writeString(workout.getName());
+                case START_DATE_TIME -> writeDateTime(generator, workout.getStartDateTime());
+                case UNIT -> generator.writeString(workout.getUnit() == null ? null : workout.getUnit().name());
+                case DURATION -> writeNumber(generator, workout.getDuration());
+                case DISTANCE -> {
+                    if (workout.getDistance() == null) generator.writeNull();
+                    else generator.writeNumber(workout.getDistance());
+                }
+                case NOTES -> generator.writeString(workout.getNotes());
+                case VERSION -> {
+                    if (workout.getVersion() == null) generator.writeNull();
+                    else generator.writeNumber(workout.getVersion());
+                }
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the current row of a projection as one JSON object. The result set must hold the
+     * selected fields' columns in declaration order.
+     *
+     * @param generator the generator to write to
+     * @param rs the result set positioned on the row
+     * @param fields the selected fields, in the order of the result set columns
+     * @throws IOException if the object cannot be written
+     * @throws SQLException if a column cannot be read
+     */
+    public static void writeObject(JsonGenerator generator, ResultSet rs, Set<WorkoutField> fields)
+            throws IOException, SQLException {
+        generator.writeStartObject();
+        int column = 1;
+        for (WorkoutField field : fields) {
+            generator.writeFieldName(field.property);
+            switch (field) {
+                case ID, DURATION -> generator.writeNumber(rs.getInt(column));
+                case DISTANCE -> generator.writeNumber(rs.getDouble(column));
+                case VERSION -> generator.writeNumber(rs.getLong(column));
+                case START_DATE_TIME -> {
+                    Timestamp start = rs.getTimestamp(column);
+                    writeDateTime(generator, start == null ? null : start.toLocalDateTime());
+                }
+                default -> generator.writeString(rs.getString(column));
+            }
+            column++;
+        }
+        generator.writeEndObject();
+    }
+
+    private static WorkoutField fromProperty(String property) {
+        for (WorkoutField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) return field;
+        }
+        return null;
+    }
+
+    private static <T> OperationResult<T> notA(WorkoutField field, String type) {
+        return new OperationResult<>(false, null, "Workout field " + field.property + " must be a " + type + ".");
+    }
+
+    // Matches LocalDateTimeDeserializer: unreadable dates become null
+    private static LocalDateTime parseDateTime(String text) {
+        if (text.isBlank()) return null;
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Matches UnitTypeDeserializer: unknown units become null
+    private static UnitType parseUnit(String text) {
+        try {
+            return UnitType.valueOf(text.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, Integer value) throws IOException {
+        if (value == null) generator.writeNull();
+        else generator.writeNumber(value);
+    }
+
+    private static void writeDateTime(JsonGenerator generator, LocalDateTime value) throws IOException {
+        generator.writeString(value == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+    }
+}
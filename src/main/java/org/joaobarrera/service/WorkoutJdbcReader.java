@@ -0,0 +1,134 @@
+package org.joaobarrera.service;
+
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.SerializedWorkouts;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Set;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutJdbcReader.java
+ */
+
+/**
+ * Read-only path that turns Workout rows into JSON without creating entities.
+ * <p>
+ * Rows are read with plain JDBC and each one is written straight into a
+ * {@link WorkoutJsonCache.ListBuilder}, which reuses the row's cached encoding or writes the
+ * columns to a JsonGenerator. Nothing is attached to a persistence context, snapshotted for
+ * dirty checking or reflected over, which is all wasted work for a listing that is never
+ * modified. The output is byte-for-byte what the entity path produces.
+ * <p>
+ * When only some fields are requested, only their columns are selected and each row is
+ * written as a slim object holding just those fields.
+ */
+@Service
+public class WorkoutJdbcReader {
+    private static final String NAME_FILTER = " WHERE upper(name) LIKE upper(?) ESCAPE '\\'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WorkoutJsonCache jsonCache;
+    private final WorkoutTransactionRunner transactions;
+
+    /**
+     * Constructs a reader that serializes through the given cache.
+     *
+     * @param jdbcTemplate the template used to run the queries
+     * @param jsonCache the cache that encodes each row
+     * @param transactions the runner that retries reads while SQLite is busy
+     */
+    public WorkoutJdbcReader(JdbcTemplate jdbcTemplate, WorkoutJsonCache jsonCache, WorkoutTransactionRunner transactions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonCache = jsonCache;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Reads every workout as a JSON array in ID order.
+     *
+     * @param fields the fields to include in each object, or null for all of them
+     * @param version the data version captured before the read
+     * @return OperationResult containing the serialized workouts and a success/failure message
+     */
+    public OperationResult<SerializedWorkouts> getAllWorkouts(Set<WorkoutField> fields, long version) {
+        return transactions.read("getAll", "Error retrieving workouts: ", () -> {
+            SerializedWorkouts workouts = read(fields, null, version);
+            return new OperationResult<>(true, workouts, "Retrieved all workouts.");
+        });
+    }
+
+    /**
+     * Reads the workouts whose names contain the search term, ignoring case, as a JSON array.
+     * <p>
+     * Returns all workouts if the search term is empty or null.
+     *
+     * @param searchTerm the name or partial name to search for
+     * @param fields the fields to include in each object, or null for all of them
+     * @param version the data version captured before the read
+     * @return OperationResult containing the serialized matching workouts and a success/failure message
+     */
+    public OperationResult<SerializedWorkouts> getWorkoutsBySearchParameter(String searchTerm, Set<WorkoutField> fields,
+                                                                            long version) {
+        return transactions.read("search", "Error searching workouts: ", () -> {
+            SerializedWorkouts workouts = searchTerm == null || searchTerm.trim().isEmpty()
+                    ? read(fields, null, version)
+                    : read(fields, "%" + escapeLike(searchTerm) + "%", version);
+            return new OperationResult<>(true, workouts, "Found " + workouts.count() + " matching workouts.");
+        });
+    }
+
+    // I/O failures leave as UncheckedIOException so the runner can see any SQLite error behind them
+    private SerializedWorkouts read(Set<WorkoutField> fields, String namePattern, long version) {
+        boolean complete = WorkoutField.isComplete(fields);
+        Set<WorkoutField> selected = complete ? EnumSet.allOf(WorkoutField.class) : EnumSet.copyOf(fields);
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (WorkoutField field : selected) {
+            if (field != WorkoutField.ID) sql.append(", ");
+            sql.append(field.getColumn());
+        }
+        sql.append(" FROM workout");
+        if (namePattern != null) sql.append(NAME_FILTER);
+        sql.append(" ORDER BY id");
+
+        WorkoutJsonCache.ListBuilder builder = jsonCache.newList(64);
+        Object[] arguments = namePattern == null ? new Object[0] : new Object[] {namePattern};
+        try {
+            jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                try {
+                    if (complete) {
+                        builder.add(rs.getInt(1), rs.getString(2), rs.getTimestamp(3).toLocalDateTime(),
+                                rs.getString(4), rs.getInt(5), rs.getDouble(6), rs.getString(7), rs.getLong(8));
+                    } else {
+                        builder.addUncached(generator -> {
+                            try {
+                                WorkoutField.writeObject(generator, rs, selected);
+                            } catch (SQLException e) {
+                                throw new IOException(e.getMessage(), e);
+                            }
+                        });
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, arguments);
+            return builder.build(version);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Matches the escaping Spring Data applies to "containing" queries
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,398 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.joaobarrera.model.JobStatus;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.joaobarrera.model.UnitType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutJobService.java
+ */
+
+/**
+ * Runs heavy workout operations as background jobs on dedicated bulkheads.
+ * <p>
+ * Mutations of many workouts, such as unit conversion, snapshot imports and archiving, run on
+ * the mutation bulkhead, and full-table reads, such as snapshot exports, run on the export
+ * bulkhead. Neither takes a request thread, and each bulkhead is bounded on its own, so a queue of exports cannot
+ * delay a conversion and neither can starve interactive requests. A job that finds its
+ * bulkhead full is refused straight away so the API can answer 429. An import also waits for
+ * write admission, since it holds the write lock for its whole transaction.
+ * <p>
+ * The status of recent jobs is kept in memory. Once more jobs than the retention limit have
+ * finished, the oldest finished ones are forgotten and their export files deleted, since they
+ * can no longer be downloaded. Export files left over from an earlier run are pruned to the
+ * same limit at startup.
+ */
+@Service
+public class WorkoutJobService {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutJobService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+    private static final String FILE_PREFIX = "workouts-";
+    private static final String FILE_SUFFIX = ".wksnap";
+
+    private final WorkoutManager workoutManager;
+    private final WorkoutSnapshotExporter exporter;
+    private final WorkoutSnapshotImporter importer;
+    private final WorkoutArchiveService archiveService;
+    private final WorkoutWriteAdmission admission;
+    private final WorkoutTracer tracer;
+    private final WorkoutBulkhead mutationBulkhead;
+    private final WorkoutBulkhead exportBulkhead;
+    private final Path exportDirectory;
+    private final int retain;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, JobStatus> jobs = new LinkedHashMap<>();
+
+    /**
+     * Constructs the job service and its bulkheads.
+     *
+     * @param workoutManager the manager that performs conversions
+     * @param exporter the exporter that writes snapshots
+     * @param importer the importer that loads snapshots
+     * @param archiveService the service that moves old workouts to the archive
+     * @param admission the admission control that imports wait for
+     * @param tracer the tracer that records each job as its own trace
+     * @param mutationThreads how many mutation jobs may run at once
+     * @param mutationQueue how many mutation jobs may wait for a thread
+     * @param exportThreads how many export jobs may run at once
+     * @param exportQueue how many export jobs may wait for a thread
+     * @param exportDirectory the directory that export jobs write to
+     * @param retain how many finished jobs are remembered
+     * @param registry the registry that receives the bulkhead metrics
+     */
+    public WorkoutJobService(WorkoutManager workoutManager,
+                             WorkoutSnapshotExporter exporter,
+                             WorkoutSnapshotImporter importer,
+                             WorkoutArchiveService archiveService,
+                             WorkoutWriteAdmission admission,
+                             WorkoutTracer tracer,
+                             @Value("${workout.jobs.mutation.threads:1}") int mutationThreads,
+                             @Value("${workout.jobs.mutation.queue:4}") int mutationQueue,
+                             @Value("${workout.jobs.export.threads:1}") int exportThreads,
+                             @Value("${workout.jobs.export.queue:4}") int exportQueue,
+                             @Value("${workout.jobs.export-directory:exports}") String exportDirectory,
+                             @Value("${workout.jobs.retain:50}") int retain,
+                             MeterRegistry registry) {
+        this.workoutManager = workoutManager;
+        this.exporter = exporter;
+        this.importer = importer;
+        this.archiveService = archiveService;
+        this.admission = admission;
+        this.tracer = tracer;
+        this.mutationBulkhead = new WorkoutBulkhead("mutation", mutationThreads, mutationQueue, registry);
+        this.exportBulkhead = new WorkoutBulkhead("export", exportThreads, exportQueue, registry);
+        this.exportDirectory = Path.of(exportDirectory).toAbsolutePath().normalize();
+        this.retain = Math.max(1, retain);
+    }
+
+    /**
+     * Starts converting every workout to the given unit in the background.
+     *
+     * @param targetUnit the unit type to convert all workouts to
+     * @return OperationResult containing the status of the queued job, or a failure if the
+     *         unit is missing or the mutation bulkhead is full
+     */
+    public OperationResult<JobStatus> startConversion(UnitType targetUnit) {
+        if (targetUnit == null) {
+            return new OperationResult<>(false, null, "Target unit cannot be null.");
+        }
+        return submit("CONVERT", mutationBulkhead, job -> {
+            OperationResult<Integer> result = workoutManager.convertUnits(targetUnit,
+                    (processed, total) -> update(job, status -> status.progress(processed, total)));
+            return new JobOutcome(result.success(), null, result.message());
+        });
+    }
+
+    /**
+     * Starts exporting every workout to a snapshot file in the background.
+     * <p>
+     * The snapshot is written to a temporary file and renamed into the export directory once
+     * it is complete.
+     *
+     * @return OperationResult containing the status of the queued job, or a failure if the
+     *         export bulkhead is full
+     */
+    public OperationResult<JobStatus> startExport() {
+        return submit("EXPORT", exportBulkhead, job -> {
+            try {
+                Files.createDirectories(exportDirectory);
+                Path target = exportDirectory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP)
+                        + "-" + job + FILE_SUFFIX);
+                Path temp = Files.createTempFile(exportDirectory, "export-", ".tmp");
+                try {
+                    OperationResult<Long> result;
+                    try (OutputStream out = Files.newOutputStream(temp)) {
+                        result = exporter.export(out);
+                    }
+                    if (!result.success()) return new JobOutcome(false, null, result.message());
+
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    update(job, status -> status.progress(result.data(), result.data()));
+                    return new JobOutcome(true, target.getFileName().toString(), result.message());
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException e) {
+                return new JobOutcome(false, null, "Error exporting workouts: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Starts importing a snapshot in the background.
+     * <p>
+     * The upload is read to the end into a temporary file on the calling thread, so the job
+     * never waits on the client. The file is deleted once the job has finished.
+     *
+     * @param body the stream containing the snapshot
+     * @param replace whether the snapshot replaces the current workouts
+     * @return OperationResult containing the status of the queued job, or a failure if the
+     *         upload cannot be saved or the mutation bulkhead is full
+     */
+    public OperationResult<JobStatus> startImport(InputStream body, boolean replace) {
+        Path file;
+        try {
+            file = Files.createTempFile("workout-import-", FILE_SUFFIX);
+        } catch (IOException e) {
+            return new OperationResult<>(false, null, "Error saving the snapshot: " + e.getMessage());
+        }
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            return new OperationResult<>(false, null, "Error saving the snapshot: " + e.getMessage());
+        }
+
+        OperationResult<JobStatus> started = submit("IMPORT", mutationBulkhead, job -> {
+            try {
+                OperationResult<Long> result = admission.admit("import", () -> importer.importSnapshot(file, replace));
+                if (result.success()) update(job, status -> status.progress(result.data(), result.data()));
+                return new JobOutcome(result.success(), null, result.message());
+            } finally {
+                deleteQuietly(file);
+            }
+        });
+        if (!started.success()) deleteQuietly(file);
+        return started;
+    }
+
+    /**
+     * Starts moving workouts older than the archive horizon to the archive in the background.
+     *
+     * @return OperationResult containing the status of the queued job, or a failure if the
+     *         mutation bulkhead is full
+     */
+    public OperationResult<JobStatus> startArchive() {
+        return submit("ARCHIVE", mutationBulkhead, job -> {
+            OperationResult<Integer> result = archiveService.archiveExpired();
+            if (result.success()) update(job, status -> status.progress(result.data(), result.data()));
+            return new JobOutcome(result.success(), null, result.message());
+        });
+    }
+
+    /**
+     * Returns the status of a job.
+     *
+     * @param id the ID of the job
+     * @return OperationResult containing the job status, or a failure if the job is unknown
+     */
+    public OperationResult<JobStatus> getJob(long id) {
+        JobStatus status;
+        synchronized (jobs) {
+            status = jobs.get(id);
+        }
+        if (status == null) {
+            return new OperationResult<>(false, null, "Job " + id + " not found.");
+        }
+        return new OperationResult<>(true, status, "Found job " + id + ".");
+    }
+
+    /**
+     * Returns the status of every remembered job, newest first.
+     *
+     * @return a new list of job statuses
+     */
+    public List<JobStatus> listJobs() {
+        List<JobStatus> statuses;
+        synchronized (jobs) {
+            statuses = new ArrayList<>(jobs.values());
+        }
+        Collections.reverse(statuses);
+        return statuses;
+    }
+
+    /**
+     * Finds the file written by a finished export job.
+     *
+     * @param id the ID of the export job
+     * @return OperationResult containing the path of the file, or a failure if the job is
+     *         unknown, has not finished or wrote no file
+     */
+    public OperationResult<Path> getExportFile(long id) {
+        OperationResult<JobStatus> job = getJob(id);
+        if (!job.success()) return new OperationResult<>(false, null, job.message());
+        if (job.data().file() == null) {
+            return new OperationResult<>(false, null, "Job " + id + " has no file to download.");
+        }
+
+        Path file = exportDirectory.resolve(job.data().file()).normalize();
+        if (!file.startsWith(exportDirectory) || !Files.isRegularFile(file)) {
+            return new OperationResult<>(false, null, "The file of job " + id + " no longer exists.");
+        }
+        return new OperationResult<>(true, file, "Found the file of job " + id + ".");
+    }
+
+    /**
+     * Prunes export files left over from an earlier run, keeping the newest ones up to the
+     * retention limit.
+     */
+    @PostConstruct
+    public void pruneExports() {
+        if (!Files.isDirectory(exportDirectory)) return;
+        try (Stream<Path> files = Files.list(exportDirectory)) {
+            List<Path> exports = files
+                    .filter(path -> path.getFileName().toString().startsWith(FILE_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+            for (Path old : exports.subList(Math.min(retain, exports.size()), exports.size())) {
+                Files.deleteIfExists(old);
+            }
+        } catch (IOException e) {
+            log.warn("action=PRUNE_EXPORTS status=FAIL message={}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops both bulkheads when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        mutationBulkhead.shutdown();
+        exportBulkhead.shutdown();
+    }
+
+    private OperationResult<JobStatus> submit(String type, WorkoutBulkhead bulkhead, Function<Long, JobOutcome> work) {
+        long id = nextId.incrementAndGet();
+        JobStatus queued = JobStatus.queued(id, type, bulkhead.getName());
+        synchronized (jobs) {
+            jobs.put(id, queued);
+        }
+
+        boolean accepted = bulkhead.trySubmit(() -> run(id, type, work));
+        if (!accepted) {
+            synchronized (jobs) {
+                jobs.remove(id);
+            }
+            log.warn("action=START_JOB status=REJECTED type={} bulkhead={}", type, bulkhead.getName());
+            return new OperationResult<>(false, null,
+                    "Too many " + bulkhead.getName() + " jobs are in progress. Please try again shortly.",
+                    OperationStatus.REJECTED);
+        }
+        log.info("action=START_JOB status=QUEUED id={} type={} bulkhead={}", id, type, bulkhead.getName());
+        return new OperationResult<>(true, queued, "Job " + id + " queued.");
+    }
+
+    private void run(long id, String type, Function<Long, JobOutcome> work) {
+        long start = System.currentTimeMillis();
+        update(id, JobStatus::running);
+
+        JobOutcome outcome;
+        try (WorkoutTracer.Span trace = tracer.startTrace("job " + type)) {
+            trace.attribute("job", id);
+            try {
+                outcome = work.apply(id);
+            } catch (Throwable e) {
+                // Errors must finish the job too, or it would be reported as running forever
+                outcome = new JobOutcome(false, null, "Error running job: " + e);
+            }
+            if (!outcome.success()) trace.failed();
+        }
+
+        JobOutcome finished = outcome;
+        update(id, status -> status.finished(finished.success(), finished.file(), finished.message()));
+        long duration = System.currentTimeMillis() - start;
+        if (finished.success()) {
+            log.info("action=RUN_JOB status=SUCCESS id={} type={} duration={}ms", id, type, duration);
+        } else {
+            log.error("action=RUN_JOB status=FAIL id={} type={} duration={}ms message={}",
+                    id, type, duration, finished.message());
+        }
+    }
+
+    private void update(long id, UnaryOperator<JobStatus> change) {
+        List<String> evictedFiles = List.of();
+        synchronized (jobs) {
+            JobStatus updated = jobs.computeIfPresent(id, (key, status) -> change.apply(status));
+            if (updated != null && !updated.active()) evictedFiles = evictFinished();
+        }
+        for (String file : evictedFiles) deleteExport(file);
+    }
+
+    // Callers hold the jobs lock. Returns the files of the evicted jobs.
+    private List<String> evictFinished() {
+        int finished = 0;
+        for (JobStatus status : jobs.values()) {
+            if (!status.active()) finished++;
+        }
+        List<String> files = new ArrayList<>();
+        Iterator<JobStatus> it = jobs.values().iterator();
+        while (finished > retain && it.hasNext()) {
+            JobStatus status = it.next();
+            if (!status.active()) {
+                it.remove();
+                finished--;
+                if (status.file() != null) files.add(status.file());
+            }
+        }
+        return files;
+    }
+
+    private void deleteExport(String file) {
+        Path path = exportDirectory.resolve(file).normalize();
+        if (path.startsWith(exportDirectory)) deleteQuietly(path);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("action=DELETE_FILE status=FAIL file={} message={}", file, e.getMessage());
+        }
+    }
+
+    private record JobOutcome(boolean success, String file, String message) {
+    }
+}
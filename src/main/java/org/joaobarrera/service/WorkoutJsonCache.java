@@ -0,0 +1,427 @@
+package org.joaobarrera.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.SerializedWorkouts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutJsonCache.java
+ */
+
+/**
+ * Caches the JSON encoding of each workout in direct (off-heap) buffers, so list responses
+ * can be assembled from bytes that were encoded earlier instead of running every row through
+ * Jackson again.
+ * <p>
+ * Entries are keyed by workout ID and version. Every write increments the version of the
+ * rows it changes, so a cached encoding is only used for the exact row it was encoded from.
+ * Committed changes also drop their entries straight away through
+ * {@link WorkoutChangeListener}. Changes that bypass the version, such as an import or a
+ * restore, drop every entry, and a list that started before such a change does not store
+ * what it read.
+ * <p>
+ * Encodings are packed back to back into direct slabs instead of one small buffer per row.
+ * The memory held by all slabs, plus a fixed heap overhead per entry, is bounded by
+ * workout.json-cache.max-bytes; once it is exceeded the least recently listed slabs are
+ * dropped with all their entries. Space left by dropped entries is reclaimed when their slab
+ * goes. Setting the bound to 0 disables the cache and every row is encoded again on every
+ * list.
+ */
+@Service
+public class WorkoutJsonCache implements WorkoutChangeListener {
+    private static final ByteBuffer OPEN = constant("[");
+    private static final ByteBuffer SEPARATOR = constant(",");
+    private static final ByteBuffer CLOSE = constant("]");
+
+    // Size of the heap segments used while the cache is disabled
+    private static final int SEGMENT_BYTES = 16384;
+
+    // Rough heap overhead of one entry: its map node, the entry and its buffer slice
+    private static final int ENTRY_OVERHEAD = 120;
+
+    // Slabs are a sixteenth of the bound, between 4 KB and 1 MB
+    private static final int MIN_SLAB_BYTES = 4096;
+    private static final int MAX_SLAB_BYTES = 1 << 20;
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final int slabBytes;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final Object slabLock = new Object();
+    private final List<Slab> slabs = new ArrayList<>();
+    private Slab current;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * Constructs the cache and registers its metrics.
+     *
+     * @param objectMapper the mapper used to encode workouts that are not cached yet
+     * @param maxBytes the upper bound on the memory held by the cache, 0 to disable it
+     * @param registry the registry that receives the cache metrics
+     */
+    public WorkoutJsonCache(ObjectMapper objectMapper,
+                            @Value("${workout.json-cache.max-bytes:67108864}") long maxBytes,
+                            MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.slabBytes = (int) Math.max(MIN_SLAB_BYTES, Math.min(MAX_SLAB_BYTES, maxBytes / 16));
+
+        Gauge.builder("workout.json.cache.bytes", usedBytes, AtomicLong::get)
+                .description("Memory held by cached workout JSON, in off-heap slabs and per-entry overhead")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("workout.json.cache.entries", entries, Map::size)
+                .description("Workouts with cached JSON")
+                .register(registry);
+        hits = Counter.builder("workout.json.cache.hits")
+                .description("Workouts listed from cached JSON")
+                .register(registry);
+        misses = Counter.builder("workout.json.cache.misses")
+                .description("Workouts that had to be encoded by Jackson")
+                .register(registry);
+        evictions = Counter.builder("workout.json.cache.evictions")
+                .description("Cached encodings dropped with their slab to stay within the size bound")
+                .register(registry);
+    }
+
+    /**
+     * Serializes a list of workouts to a JSON array, reusing cached encodings where possible.
+     *
+     * @param workouts the workouts to serialize
+     * @param version the data version the workouts were read at
+     * @return the serialized list
+     * @throws IOException if a workout cannot be encoded
+     */
+    public SerializedWorkouts serialize(List<Workout> workouts, long version) throws IOException {
+        ListBuilder builder = newList(workouts.size());
+        for (Workout workout : workouts) builder.add(workout);
+        return builder.build(version);
+    }
+
+    /**
+     * Serializes a list of workouts to a JSON array holding only the given fields.
+     *
+     * @param workouts the workouts to serialize
+     * @param fields the fields to include, or null for all of them
+     * @param version the data version the workouts were read at
+     * @return the serialized list
+     * @throws IOException if a workout cannot be encoded
+     */
+    public SerializedWorkouts serialize(List<Workout> workouts, Set<WorkoutField> fields, long version) throws IOException {
+        if (WorkoutField.isComplete(fields)) return serialize(workouts, version);
+
+        ListBuilder builder = newList(workouts.size());
+        for (Workout workout : workouts) {
+            builder.addUncached(generator -> WorkoutField.writeObject(generator, workout, fields));
+        }
+        return builder.build(version);
+    }
+
+    /**
+     * Starts a new JSON array that rows can be appended to one at a time, for readers that
+     * never materialize the whole list.
+     *
+     * @param expectedRows the expected number of rows, used to size the builder
+     * @return an empty list builder
+     */
+    public ListBuilder newList(int expectedRows) {
+        return new ListBuilder(expectedRows);
+    }
+
+    /**
+     * Collects the encoded rows of one JSON array. A builder is used by a single thread.
+     * <p>
+     * Cached rows are added as slices of their off-heap entries. Rows that are not cached,
+     * because the cache is disabled, the row is a projection or the list is built by the
+     * startup warm-up, whose rows are rolled back, are written back to back into heap
+     * segments of about 16 KB, so a long list is never copied into one large array.
+     */
+    public final class ListBuilder {
+        private final boolean caching = maxBytes > 0 && !WorkoutWarmup.isWarmingUp();
+        private final long tick = clock.incrementAndGet();
+        private final long startGeneration = generation.get();
+        private final List<ByteBuffer> chunks;
+        private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(caching ? 512 : SEGMENT_BYTES + 1024);
+        private final JsonGenerator generator;
+        private long length = 2;
+        private int count;
+        private int hitCount;
+        private boolean segmentPending;
+
+        private ListBuilder(int expectedRows) {
+            chunks = new ArrayList<>(caching ? expectedRows * 2 + 2 : 4);
+            chunks.add(OPEN);
+            try {
+                generator = objectMapper.getFactory().createGenerator(scratch);
+                generator.setRootValueSeparator(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Appends a workout entity.
+         *
+         * @param workout the workout to append
+         * @throws IOException if the workout cannot be encoded
+         */
+        public void add(Workout workout) throws IOException {
+            if (workout.getID() == null || workout.getStartDateTime() == null || workout.getDuration() == null
+                    || workout.getDistance() == null || workout.getUnit() == null || workout.getVersion() == null) {
+                // Incomplete workouts are never stored, so they are encoded as-is and not cached
+                flushSegment();
+                append(ByteBuffer.wrap(objectMapper.writeValueAsBytes(workout)));
+                return;
+            }
+            add(workout.getID(), workout.getName(), workout.getStartDateTime(), workout.getUnit().name(),
+                    workout.getDuration(), workout.getDistance(), workout.getNotes(), workout.getVersion());
+        }
+
+        /**
+         * Appends a workout from its column values, producing the same JSON as the entity.
+         *
+         * @param id the workout ID
+         * @param name the workout name
+         * @param startDateTime the start date and time
+         * @param unit the name of the distance unit
+         * @param duration the duration in minutes
+         * @param distance the distance covered
+         * @param notes the optional notes, or null
+         * @param version the version of the row
+         * @throws IOException if the row cannot be encoded
+         */
+        public void add(int id, String name, LocalDateTime startDateTime, String unit,
+                        int duration, double distance, String notes, long version) throws IOException {
+            if (!caching) {
+                beginUncached();
+                writeRow(generator, id, name, startDateTime, unit, duration, distance, notes, version);
+                endUncached();
+                return;
+            }
+
+            if (segmentPending) flushSegment();
+            Entry entry = entries.get(id);
+            ByteBuffer json;
+            if (entry != null && entry.version == version) {
+                entry.slab.lastUsed = tick;
+                json = entry.json;
+                hitCount++;
+            } else {
+                writeRow(generator, id, name, startDateTime, unit, duration, distance, notes, version);
+                generator.flush();
+                json = store(id, version, scratch.toByteArray(), tick, startGeneration);
+                scratch.reset();
+            }
+            append(json);
+        }
+
+        /**
+         * Appends a row that is written as it is and never cached, such as a projection that
+         * only holds some of the workout's fields.
+         *
+         * @param writer the callback that writes exactly one JSON object
+         * @throws IOException if the row cannot be written
+         */
+        public void addUncached(RowWriter writer) throws IOException {
+            beginUncached();
+            writer.write(generator);
+            endUncached();
+        }
+
+        /**
+         * Finishes the array.
+         *
+         * @param version the data version the rows were read at
+         * @return the serialized list
+         * @throws IOException if the array cannot be closed
+         */
+        public SerializedWorkouts build(long version) throws IOException {
+            flushSegment();
+            generator.close();
+            chunks.add(CLOSE);
+            if (caching) {
+                hits.increment(hitCount);
+                misses.increment(count - hitCount);
+            }
+            return new SerializedWorkouts(count, version, chunks, length);
+        }
+
+        private void append(ByteBuffer json) {
+            if (count > 0) {
+                chunks.add(SEPARATOR);
+                length++;
+            }
+            chunks.add(json);
+            length += json.remaining();
+            count++;
+        }
+
+        private void beginUncached() throws IOException {
+            if (count > 0) generator.writeRaw(',');
+        }
+
+        private void endUncached() throws IOException {
+            count++;
+            segmentPending = true;
+            if (scratch.size() + generator.getOutputBuffered() >= SEGMENT_BYTES) flushSegment();
+        }
+
+        // Moves the rows written so far into their own chunk
+        private void flushSegment() throws IOException {
+            generator.flush();
+            segmentPending = false;
+            if (scratch.size() == 0) return;
+
+            chunks.add(ByteBuffer.wrap(scratch.toByteArray()));
+            length += scratch.size();
+            scratch.reset();
+        }
+    }
+
+    @Override
+    public void workoutsChanged(Collection<Integer> ids) {
+        for (Integer id : ids) {
+            if (entries.remove(id) != null) usedBytes.addAndGet(-ENTRY_OVERHEAD);
+        }
+    }
+
+    @Override
+    public void allWorkoutsChanged() {
+        // Moved first, so a list that read the old rows cannot store them after the clear
+        generation.incrementAndGet();
+        workoutsChanged(new ArrayList<>(entries.keySet()));
+    }
+
+    // Copies an encoding into a slab and returns it. It is only kept if no change that
+    // bypasses the version has happened since the list started.
+    private ByteBuffer store(int id, long version, byte[] bytes, long tick, long startGeneration) {
+        if (generation.get() != startGeneration) return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+
+        Entry entry;
+        synchronized (slabLock) {
+            if (current == null || current.buffer.remaining() < bytes.length) {
+                current = new Slab(ByteBuffer.allocateDirect(Math.max(slabBytes, bytes.length)));
+                slabs.add(current);
+                usedBytes.addAndGet(current.buffer.capacity());
+            }
+            int offset = current.buffer.position();
+            current.buffer.put(bytes);
+            current.lastUsed = tick;
+            entry = new Entry(version, current.buffer.slice(offset, bytes.length).asReadOnlyBuffer(), current);
+        }
+
+        if (entries.put(id, entry) == null) usedBytes.addAndGet(ENTRY_OVERHEAD);
+        if (generation.get() != startGeneration && entries.remove(id, entry)) usedBytes.addAndGet(-ENTRY_OVERHEAD);
+        if (usedBytes.get() > maxBytes) evict();
+        return entry.json;
+    }
+
+    // Drops the least recently listed slabs until the cache is back under 90% of its bound.
+    // Lists still sending a dropped slab keep it alive until they finish.
+    private void evict() {
+        synchronized (slabLock) {
+            if (usedBytes.get() <= maxBytes) return;
+
+            List<Slab> candidates = new ArrayList<>(slabs);
+            candidates.sort(Comparator.comparingLong(slab -> slab.lastUsed));
+            long target = maxBytes - maxBytes / 10;
+            long remaining = usedBytes.get();
+            Set<Slab> victims = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Slab slab : candidates) {
+                if (remaining <= target) break;
+                victims.add(slab);
+                remaining -= slab.buffer.capacity();
+            }
+
+            slabs.removeAll(victims);
+            if (victims.contains(current)) current = null;
+            for (Slab victim : victims) usedBytes.addAndGet(-victim.buffer.capacity());
+            for (Map.Entry<Integer, Entry> candidate : entries.entrySet()) {
+                if (victims.contains(candidate.getValue().slab) && entries.remove(candidate.getKey(), candidate.getValue())) {
+                    usedBytes.addAndGet(-ENTRY_OVERHEAD);
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    // Writes one workout exactly as Jackson writes the Workout entity
+    private static void writeRow(JsonGenerator generator, int id, String name, LocalDateTime startDateTime,
+                                 String unit, int duration, double distance, String notes, long version) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", id);
+        generator.writeStringField("name", name);
+        generator.writeStringField("startDateTime", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(startDateTime));
+        generator.writeStringField("unit", unit);
+        generator.writeNumberField("duration", duration);
+        generator.writeNumberField("distance", distance);
+        generator.writeStringField("notes", notes);
+        generator.writeNumberField("version", version);
+        generator.writeEndObject();
+    }
+
+    private static ByteBuffer constant(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes one JSON object for a row that bypasses the cache.
+     */
+    @FunctionalInterface
+    public interface RowWriter {
+        /**
+         * Writes the row.
+         *
+         * @param generator the generator positioned where the object belongs
+         * @throws IOException if the row cannot be written
+         */
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    // A direct buffer that encodings are appended to until it is full
+    private static final class Slab {
+        private final ByteBuffer buffer;
+        private volatile long lastUsed;
+
+        private Slab(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    // The encoding of one version of a workout, and the slab that holds it
+    private record Entry(long version, ByteBuffer json, Slab slab) {
+    }
+}
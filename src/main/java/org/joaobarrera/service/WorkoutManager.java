@@ -1,15 +1,26 @@
 package org.joaobarrera.service;
 
-import jakarta.transaction.Transactional;
 import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
 import org.joaobarrera.model.UnitType;
+import org.joaobarrera.model.WorkoutChanges;
+import org.joaobarrera.entity.ArchivedWorkout;
 import org.joaobarrera.entity.Workout;
+import org.joaobarrera.repository.ArchivedWorkoutRepository;
 import org.joaobarrera.repository.WorkoutRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /*
  * Joao Barrera
@@ -27,21 +38,79 @@ import java.util.Optional;
  * <p>
  * All database operations are safely parameterized to prevent SQL injection, and
  * validation ensures that only correct workout data is persisted.
+ * <p>
+ * Writes always go to the database. When workout.read-mode is set to mirror, reads are
+ * served from the {@link WorkoutMirror} instead, which is kept current after every commit.
+ * <p>
+ * Every operation runs through the {@link WorkoutTransactionRunner}, which retries it while
+ * SQLite is busy and reports it as unavailable if the database stays busy for too long.
+ * Writes must first be admitted by {@link WorkoutWriteAdmission}, which rejects them when too
+ * many are already waiting.
+ * <p>
+ * Unit conversion rewrites the table one chunk at a time, each chunk in its own short
+ * transaction, so interactive writes can take the write lock between chunks.
+ * <p>
+ * Each public operation emits a {@link WorkoutOperationEvent} while a Flight Recorder
+ * recording is running.
+ * <p>
+ * Every write also records what it changed in the {@link WorkoutChangeLog}, in the same
+ * transaction, so clients can synchronize from the changes instead of reloading everything.
  */
 @Service
 public class WorkoutManager {
+    private static final double MILES_PER_KILOMETER = 0.621371;
+
     private final WorkoutRepository workoutRepository;
+    private final ArchivedWorkoutRepository archivedWorkoutRepository;
+    private final WorkoutArchiveService archiveService;
+    private final WorkoutDataVersion dataVersion;
+    private final WorkoutChangeLog changeLog;
+    private final WorkoutMirror mirror;
+    private final WorkoutTransactionRunner transactions;
+    private final WorkoutWriteAdmission admission;
+    private final WorkoutOperationEvents events;
+    private final int convertChunkSize;
 
     /**
-     * Constructs a WorkoutManager with the specified WorkoutRepository.
+     * Constructs a WorkoutManager with the specified repositories.
      * <p>
      * The WorkoutRepository provides access to persistent workout data,
      * enabling the manager to perform CRUD operations and other business logic.
+     * The archive repository and service are only consulted by date-range queries
+     * that reach back past the archive horizon. Every committed change moves the
+     * data version forward.
      *
      * @param workoutRepository the repository used for database operations
+     * @param archivedWorkoutRepository the repository used to read archived workouts
+     * @param archiveService the service that knows which ranges have been archived
+     * @param dataVersion the version that is incremented after each committed change
+     * @param changeLog the log that every write records its changes in
+     * @param mirror the in-memory copy that serves reads when workout.read-mode is mirror
+     * @param transactions the runner that gives each operation its transaction and busy retries
+     * @param admission the admission control that bounds concurrent writes
+     * @param events the source of the Flight Recorder events emitted for each operation
+     * @param convertChunkSize how many workouts a unit conversion changes per transaction
      */
-    public WorkoutManager(WorkoutRepository workoutRepository) {
+    public WorkoutManager(WorkoutRepository workoutRepository,
+                          ArchivedWorkoutRepository archivedWorkoutRepository,
+                          WorkoutArchiveService archiveService,
+                          WorkoutDataVersion dataVersion,
+                          WorkoutChangeLog changeLog,
+                          WorkoutMirror mirror,
+                          WorkoutTransactionRunner transactions,
+                          WorkoutWriteAdmission admission,
+                          WorkoutOperationEvents events,
+                          @Value("${workout.convert.chunk-size:200}") int convertChunkSize) {
         this.workoutRepository = workoutRepository;
+        this.archivedWorkoutRepository = archivedWorkoutRepository;
+        this.archiveService = archiveService;
+        this.dataVersion = dataVersion;
+        this.changeLog = changeLog;
+        this.mirror = mirror;
+        this.transactions = transactions;
+        this.admission = admission;
+        this.events = events;
+        this.convertChunkSize = Math.max(1, convertChunkSize);
     }
 
     /**
@@ -50,19 +119,26 @@ public class WorkoutManager {
      * @param workout the Workout object to add
      * @return OperationResult containing the updated list of workouts and a success/failure message
      */
-    @Transactional
     public OperationResult<Workout> addWorkout(Workout workout) {
-        try {
+        return events.record("add", workout == null ? null : workout.getID(), () -> {
             OperationResult<String> validation = validateWorkout(workout);
             if (!validation.success()) {
                 return new OperationResult<>(false, null, validation.message());
             }
 
-            Workout saved = workoutRepository.save(workout);
-            return new OperationResult<>(true, saved, "Added workout: " + saved.getName());
-        } catch (Exception e) {
-            return new OperationResult<>(false, null, "Error adding workout: " + e.getMessage());
-        }
+            Integer requestedID = workout.getID();
+            Long requestedVersion = workout.getVersion();
+            return write("add", "Error adding workout: ", () -> {
+                // A rolled back attempt may have left its generated ID and version behind
+                workout.setID(requestedID);
+                workout.setVersion(requestedVersion);
+
+                Workout saved = workoutRepository.save(workout);
+                changeLog.record(WorkoutChangeLog.Operation.UPSERT, List.of(saved.getID()));
+                dataVersion.incrementAfterCommit(List.of(saved.getID()));
+                return new OperationResult<>(true, saved, "Added workout: " + saved.getName());
+            });
+        });
     }
 
     /**
@@ -71,12 +147,10 @@ public class WorkoutManager {
      * @return OperationResult containing a list of all workouts and a success/failure message
      */
     public OperationResult<List<Workout>> getAllWorkouts() {
-        try {
-            List<Workout> workouts = workoutRepository.findAll();
+        return events.record("getAll", null, () -> read("getAll", "Error retrieving workouts: ", () -> {
+            List<Workout> workouts = mirror.isReady() ? mirror.getAll() : workoutRepository.findAllDetached();
             return new OperationResult<>(true, workouts, "Retrieved all workouts.");
-        } catch (Exception e) {
-            return new OperationResult<>(false, null, "Error retrieving workouts: " + e.getMessage());
-        }
+        }));
     }
 
     /**
@@ -88,51 +162,159 @@ public class WorkoutManager {
      * @return OperationResult containing a list of matching workouts and a success/failure message
      */
     public OperationResult<List<Workout>> getWorkoutsBySearchParameter(String searchTerm) {
-        try {
+        return events.record("search", null, () -> read("search", "Error searching workouts: ", () -> {
             List<Workout> workouts;
             if (searchTerm == null || searchTerm.trim().isEmpty()) {
-                workouts = workoutRepository.findAll();
+                workouts = mirror.isReady() ? mirror.getAll() : workoutRepository.findAllDetached();
             } else {
-                workouts = workoutRepository.findByNameContainingIgnoreCase(searchTerm);
+                workouts = mirror.isReady()
+                        ? mirror.search(searchTerm)
+                        : workoutRepository.findDetachedByNameLike("%" + WorkoutJdbcReader.escapeLike(searchTerm) + "%");
             }
             return new OperationResult<>(true, workouts, "Found " + workouts.size() + " matching workouts.");
-        } catch (Exception e) {
-            return new OperationResult<>(false, null, "Error searching workouts: " + e.getMessage());
-        }
+        }));
     }
 
+    /**
+     * Retrieves all workouts that started within the given range, oldest first.
+     * <p>
+     * Workouts that have been moved to the archive are included whenever the range
+     * reaches back into archived history.
+     *
+     * @param from the earliest start date and time, inclusive
+     * @param to the latest start date and time, inclusive
+     * @return OperationResult containing a list of matching workouts and a success/failure message
+     */
+    public OperationResult<List<Workout>> getWorkoutsByDateRange(LocalDateTime from, LocalDateTime to) {
+        return events.record("dateRange", null, () -> {
+            if (from == null || to == null || from.isAfter(to)) {
+                return new OperationResult<>(false, null, "Date range must have a start that is not after its end.");
+            }
+
+            return read("dateRange", "Error retrieving workouts by date range: ", () -> {
+                List<Workout> workouts = mirror.isReady()
+                        ? mirror.getByDateRange(from, to)
+                        : new ArrayList<>(workoutRepository.findDetachedByStartDateTimeBetween(from, to));
+                if (archiveService.archiveMayContain(from)) {
+                    for (ArchivedWorkout archived : archivedWorkoutRepository.findByStartDateTimeBetweenOrderByStartDateTime(from, to)) {
+                        workouts.add(archived.toWorkout());
+                    }
+                    workouts.sort(Comparator.comparing(Workout::getStartDateTime));
+                }
+                return new OperationResult<>(true, workouts, "Found " + workouts.size() + " workouts in range.");
+            });
+        });
+    }
+
+    /**
+     * Retrieves the workouts that changed after a sync cursor, compacted to their latest
+     * change. See {@link WorkoutChangeLog#changesSince(String, Integer)}.
+     *
+     * @param since the cursor returned by the previous call, or null on the first sync
+     * @param limit the most workouts to return, or null for the default page size
+     * @return OperationResult containing a page of changes and a success/failure message
+     */
+    public OperationResult<WorkoutChanges> getChanges(String since, Integer limit) {
+        return events.record("changes", null, () -> read("changes", "Error retrieving changes: ",
+                () -> changeLog.changesSince(since, limit)));
+    }
 
     /**
      * Updates an existing workout identified by the given ID.
      * <p>
-     * Validates the workout and updates the database with the new data.
+     * Validates the workout and updates the database with the new data in a single
+     * conditional statement. If the workout carries a version and the stored workout has
+     * moved past it, nothing is changed and the result is a conflict holding the current
+     * workout. A workout without a version overwrites whatever is stored.
      *
      * @param workoutID the ID of the workout to update
      * @param updatedWorkout the updated workout data
-     * @return OperationResult containing the updated list of workouts and a success/failure message
+     * @return OperationResult containing the updated workout and a success/failure message
      */
-    @Transactional
     public OperationResult<Workout> updateWorkout(Integer workoutID, Workout updatedWorkout) {
-        try {
+        return events.record("update", workoutID, () -> {
             OperationResult<String> validation = validateWorkout(updatedWorkout);
             if (!validation.success()) return new OperationResult<>(false, null, validation.message());
 
-            Optional<Workout> existingOpt = workoutRepository.findById(workoutID);
-            if (existingOpt.isEmpty()) return new OperationResult<>(false, null, "Workout with ID " + workoutID + " not found.");
-
-            Workout existing = existingOpt.get();
-            existing.setName(updatedWorkout.getName());
-            existing.setDistance(updatedWorkout.getDistance());
-            existing.setUnit(updatedWorkout.getUnit());
-            existing.setStartDateTime(updatedWorkout.getStartDateTime());
-            existing.setDuration(updatedWorkout.getDuration());
-            existing.setNotes(updatedWorkout.getNotes());
-
-            Workout saved = workoutRepository.save(existing);
-            return new OperationResult<>(true, saved, "Workout " + workoutID + " updated.");
-        } catch (Exception e) {
-            return new OperationResult<>(false, null, "Error updating workout: " + e.getMessage());
-        }
+            return write("update", "Error updating workout: ", () -> {
+                int updated = workoutRepository.updateIfCurrent(workoutID, updatedWorkout.getVersion(),
+                        updatedWorkout.getName(), updatedWorkout.getStartDateTime(), updatedWorkout.getDuration(),
+                        updatedWorkout.getDistance(), updatedWorkout.getUnit(), updatedWorkout.getNotes());
+
+                Optional<Workout> current = workoutRepository.findDetachedById(workoutID);
+                if (current.isEmpty()) return new OperationResult<>(false, null, "Workout with ID " + workoutID + " not found.");
+
+                if (updated == 0) {
+                    return new OperationResult<>(false, current.get(), "Workout " + workoutID + " was changed by someone else " +
+                            "(version " + current.get().getVersion() + ").", OperationStatus.CONFLICT);
+                }
+
+                changeLog.record(WorkoutChangeLog.Operation.UPSERT, List.of(workoutID));
+                dataVersion.incrementAfterCommit(List.of(workoutID));
+                return new OperationResult<>(true, current.get(), "Workout " + workoutID + " updated.");
+            });
+        });
+    }
+
+    /**
+     * Changes only the given fields of an existing workout.
+     * <p>
+     * Only the fields present are validated, and the update statement only sets their
+     * columns. A version in the changes works as it does for {@link #updateWorkout}: if the
+     * stored workout has moved past it, nothing is changed and the result is a conflict
+     * holding the current workout.
+     *
+     * @param workoutID the ID of the workout to change
+     * @param changes the new values of the fields to change, which may include the ID and version
+     * @return OperationResult containing the updated workout and a success/failure message
+     */
+    public OperationResult<Workout> patchWorkout(Integer workoutID, Map<WorkoutField, Object> changes) {
+        return events.record("patch", workoutID, () -> {
+            if (workoutID == null) return new OperationResult<>(false, null, "Workout ID is required.");
+
+            Map<String, Object> values = new LinkedHashMap<>();
+            WorkoutTracer.Span validate = WorkoutTracer.span("validate");
+            for (Map.Entry<WorkoutField, Object> change : changes.entrySet()) {
+                Object value = change.getValue();
+                String error = switch (change.getKey()) {
+                    case ID -> Objects.equals(value, workoutID) ? null : "Workout ID cannot be changed.";
+                    case VERSION -> null;
+                    case NAME -> validateName((String) value);
+                    case START_DATE_TIME -> validateStartDateTime((LocalDateTime) value);
+                    case UNIT -> validateUnit((UnitType) value);
+                    case DURATION -> validateDuration((Integer) value);
+                    case DISTANCE -> validateDistance((Double) value);
+                    case NOTES -> validateNotes((String) value);
+                };
+                if (error != null) {
+                    validate.close();
+                    return new OperationResult<>(false, null, error);
+                }
+
+                if (change.getKey() != WorkoutField.ID && change.getKey() != WorkoutField.VERSION) {
+                    values.put(change.getKey().getProperty(), value);
+                }
+            }
+            validate.close();
+            if (values.isEmpty()) return new OperationResult<>(false, null, "No workout fields to update.");
+
+            Long expectedVersion = (Long) changes.get(WorkoutField.VERSION);
+            return write("patch", "Error updating workout: ", () -> {
+                int updated = workoutRepository.patchIfCurrent(workoutID, expectedVersion, values);
+
+                Optional<Workout> current = workoutRepository.findDetachedById(workoutID);
+                if (current.isEmpty()) return new OperationResult<>(false, null, "Workout with ID " + workoutID + " not found.");
+
+                if (updated == 0) {
+                    return new OperationResult<>(false, current.get(), "Workout " + workoutID + " was changed by someone else " +
+                            "(version " + current.get().getVersion() + ").", OperationStatus.CONFLICT);
+                }
+
+                changeLog.record(WorkoutChangeLog.Operation.UPSERT, List.of(workoutID));
+                dataVersion.incrementAfterCommit(List.of(workoutID));
+                return new OperationResult<>(true, current.get(), "Workout " + workoutID + " updated.");
+            });
+        });
     }
 
     /**
@@ -141,51 +323,124 @@ public class WorkoutManager {
      * @param workoutID the ID of the workout to delete
      * @return OperationResult containing the updated list of workouts and a success/failure message
      */
-    @Transactional
     public OperationResult<Integer> deleteWorkout(Integer workoutID) {
-        try {
-            if (!workoutRepository.existsById(workoutID)) {
+        return events.record("delete", workoutID, () -> write("delete", "Error deleting workout: ", () -> {
+            if (workoutRepository.deleteDirectlyById(workoutID) == 0) {
                 return new OperationResult<>(false, null, "Workout with ID " + workoutID + " not found.");
             }
-            workoutRepository.deleteById(workoutID);
+            changeLog.record(WorkoutChangeLog.Operation.DELETE, List.of(workoutID));
+            dataVersion.incrementAfterCommit(List.of(workoutID));
             return new OperationResult<>(true, workoutID, "Deleted workout ID " + workoutID);
-        } catch (Exception e) {
-            return new OperationResult<>(false, null, "Error deleting workout: " + e.getMessage());
-        }
+        }));
     }
 
     /**
      * Converts all stored workouts to the specified unit type (kilometers or miles).
      * <p>
-     * Updates both the in-memory objects and the database records.
+     * The conversion runs in chunks, see {@link #convertUnits(UnitType, JobProgress)}.
      *
      * @param targetUnit the unit type to convert all workouts to
      * @return OperationResult containing the updated list of workouts and a success/failure message
      */
-    @Transactional
     public OperationResult<List<Workout>> convertAllUnits(UnitType targetUnit) {
+        return events.record("convert", null, () -> {
+            OperationResult<Integer> converted = convertInChunks(targetUnit, (processed, total) -> { });
+            if (!converted.success()) {
+                return new OperationResult<>(false, null, converted.message(), converted.status());
+            }
+
+            // The list is read after the conversion committed, so it holds at least this version
+            long version = dataVersion.current();
+            return read("convert", "Error converting workouts: ", () ->
+                    new OperationResult<>(true, workoutRepository.findAllDetached(), converted.message()))
+                    .withVersion(version);
+        });
+    }
+
+    /**
+     * Converts all stored workouts to the specified unit type, one chunk at a time.
+     * <p>
+     * Each chunk is admitted and committed as its own write, so the write lock is released
+     * between chunks and other writes are not held up for the whole conversion. A chunk only
+     * converts workouts that are still in the other unit, so a workout edited meanwhile is
+     * never converted twice. If a chunk fails, the chunks before it stay converted and running
+     * the conversion again finishes the job.
+     *
+     * @param targetUnit the unit type to convert all workouts to
+     * @param progress notified after each committed chunk
+     * @return OperationResult containing the number of workouts converted and a success/failure message
+     */
+    public OperationResult<Integer> convertUnits(UnitType targetUnit, JobProgress progress) {
+        return events.record("convert", null, () -> convertInChunks(targetUnit, progress),
+                result -> result.data());
+    }
+
+    private OperationResult<Integer> convertInChunks(UnitType targetUnit, JobProgress progress) {
         if (targetUnit == null) {
             return new OperationResult<>(false, null, "Target unit cannot be null.");
         }
 
-        try {
-            List<Workout> workouts = workoutRepository.findAll();
-            if (workouts.isEmpty()) return new OperationResult<>(false, null, "No workouts to convert.");
-
-            for (Workout w : workouts) {
-                if (w.getUnit() != targetUnit) {
-                    double convertedDistance = w.getUnit() == UnitType.KILOMETERS
-                            ? w.getDistance() * 0.621371
-                            : w.getDistance() / 0.621371;
-                    w.setDistance(convertedDistance);
-                    w.setUnit(targetUnit);
+        OperationResult<Long> pending = read("convert", "Error converting workouts: ", () -> {
+            if (workoutRepository.count() == 0) return new OperationResult<>(false, null, "No workouts to convert.");
+            return new OperationResult<>(true, workoutRepository.countByUnitNot(targetUnit), "Counted workouts.");
+        });
+        if (!pending.success()) return new OperationResult<>(false, null, pending.message(), pending.status());
+
+        long total = pending.data();
+        int converted = 0;
+        int afterId = Integer.MIN_VALUE;
+        progress.update(0, total);
+        while (true) {
+            int after = afterId;
+            OperationResult<List<Integer>> next = read("convert", "Error converting workouts: ", () ->
+                    new OperationResult<>(true, workoutRepository.findIdsToConvert(targetUnit, after,
+                            PageRequest.of(0, convertChunkSize)), "Found workouts to convert."));
+            if (!next.success()) return convertFailure(next, converted);
+
+            List<Integer> ids = next.data();
+            if (ids.isEmpty()) break;
+
+            OperationResult<Integer> chunk = write("convert", "Error converting workouts: ", () -> {
+                int changed = targetUnit == UnitType.MILES
+                        ? workoutRepository.multiplyDistance(ids, UnitType.KILOMETERS, targetUnit, MILES_PER_KILOMETER)
+                        : workoutRepository.divideDistance(ids, UnitType.MILES, targetUnit, MILES_PER_KILOMETER);
+                if (changed > 0) {
+                    changeLog.record(WorkoutChangeLog.Operation.UPSERT, ids);
+                    dataVersion.incrementAfterCommit(ids);
                 }
-            }
-            workoutRepository.saveAll(workouts);
-            return new OperationResult<>(true, workouts, "Converted all workouts to " + targetUnit);
-        } catch (Exception e) {
-            return new OperationResult<>(false, null, "Error converting workouts: " + e.getMessage());
+                return new OperationResult<>(true, changed, "Converted " + changed + " workouts.");
+            });
+            if (!chunk.success()) return convertFailure(chunk, converted);
+
+            converted += chunk.data();
+            afterId = ids.get(ids.size() - 1);
+            progress.update(converted, Math.max(total, converted));
         }
+        return new OperationResult<>(true, converted, "Converted all workouts to " + targetUnit);
+    }
+
+    // Keeps the failed chunk's status so busy and rejected conversions still map to 503 and 429
+    private static <T> OperationResult<Integer> convertFailure(OperationResult<T> failed, int converted) {
+        String message = converted == 0
+                ? failed.message()
+                : failed.message() + " " + converted + " workouts were converted before the failure.";
+        return new OperationResult<>(false, null, message, failed.status());
+    }
+
+    // Runs a write in its own transaction once admission control lets it in. A committed change
+    // carries the data version it produced.
+    private <T> OperationResult<T> write(String operation, String errorPrefix, Supplier<OperationResult<T>> work) {
+        events.validated();
+        dataVersion.takeCommitted();
+        OperationResult<T> result = admission.admit(operation, () -> transactions.write(operation, errorPrefix, work));
+        Long committed = dataVersion.takeCommitted();
+        return result.success() && committed != null ? result.withVersion(committed) : result;
+    }
+
+    // Runs a read with busy retries
+    private <T> OperationResult<T> read(String operation, String errorPrefix, Supplier<OperationResult<T>> work) {
+        events.validated();
+        return transactions.read(operation, errorPrefix, work);
     }
 
     // -- Validation methods --
@@ -229,24 +484,26 @@ public class WorkoutManager {
 
     // Runs all checks and returns an error message if there's any validation error
     private OperationResult<String> validateWorkout(Workout workout) {
-        String error = validateName(workout.getName());
-        if (error != null) return new OperationResult<>(false, null, error);
+        try (WorkoutTracer.Span span = WorkoutTracer.span("validate")) {
+            String error = validateName(workout.getName());
+            if (error != null) return new OperationResult<>(false, null, error);
 
-        error = validateStartDateTime(workout.getStartDateTime());
-        if (error != null) return new OperationResult<>(false, null, error);
+            error = validateStartDateTime(workout.getStartDateTime());
+            if (error != null) return new OperationResult<>(false, null, error);
 
-        error = validateDuration(workout.getDuration());
-        if (error != null) return new OperationResult<>(false, null, error);
+            error = validateDuration(workout.getDuration());
+            if (error != null) return new OperationResult<>(false, null, error);
 
-        error = validateDistance(workout.getDistance());
-        if (error != null) return new OperationResult<>(false, null, error);
+            error = validateDistance(workout.getDistance());
+            if (error != null) return new OperationResult<>(false, null, error);
 
-        error = validateUnit(workout.getUnit());
-        if (error != null) return new OperationResult<>(false, null, error);
+            error = validateUnit(workout.getUnit());
+            if (error != null) return new OperationResult<>(false, null, error);
 
-        error = validateNotes(workout.getNotes());
-        if (error != null) return new OperationResult<>(false, null, error);
+            error = validateNotes(workout.getNotes());
+            if (error != null) return new OperationResult<>(false, null, error);
 
-        return new OperationResult<>(true, null, "Workout is valid.");
+            return new OperationResult<>(true, null, "Workout is valid.");
+        }
     }
 }
\ No newline at end of file
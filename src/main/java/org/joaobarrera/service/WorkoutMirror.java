@@ -0,0 +1,348 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutMirror.java
+ */
+
+/**
+ * Keeps a complete in-memory copy of the Workout table so reads can be served without
+ * touching the database.
+ * <p>
+ * The mirror is only active when workout.read-mode is set to mirror. It is warmed once the
+ * application is ready and is then kept current through {@link WorkoutChangeListener}: after
+ * a write commits, the changed rows are re-read from the database and swapped in. Because
+ * every update re-reads the committed state, notifications may arrive in any order without
+ * leaving a stale row behind.
+ * <p>
+ * Readers do not normally take a lock. Rows are held in a map ordered by ID, a map ordered
+ * by start date and time, and an index from lower-cased name to IDs. A full rebuild fills a
+ * fresh set of these and publishes it in one reference swap, and a changed row is replaced
+ * in place. A counter is odd while changed rows are being applied; a read that overlapped a
+ * change is retried, and after a few attempts it waits for the in-memory step of the change
+ * instead. Readers therefore never see the mirror empty or missing a row. The rows handed
+ * out are the mirror's own copies and must be treated as read-only.
+ * <p>
+ * A scheduled verifier compares the mirror with the database and rebuilds it if they differ.
+ */
+@Service
+public class WorkoutMirror implements WorkoutChangeListener {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutMirror.class);
+
+    private final WorkoutRepository workoutRepository;
+    private final WorkoutDataVersion dataVersion;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+
+    private final Object writeLock = new Object();
+    private final Object applyLock = new Object();
+    private final AtomicLong changes = new AtomicLong();
+    private final Counter divergences;
+    private volatile Indexes indexes = new Indexes();
+    private volatile boolean ready;
+
+    // The maps of one generation of the mirror; a rebuild replaces the whole set
+    private static final class Indexes {
+        final ConcurrentSkipListMap<Integer, Workout> byId = new ConcurrentSkipListMap<>();
+        final ConcurrentSkipListMap<StartKey, Workout> byStart = new ConcurrentSkipListMap<>();
+        final ConcurrentHashMap<String, Set<Integer>> byName = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Constructs the mirror and registers its metrics.
+     *
+     * @param workoutRepository the repository the mirror is loaded from
+     * @param dataVersion the version used to tell whether a verification raced a write
+     * @param transactionManager the transaction manager used for the mirror's own reads
+     * @param readMode database to read from SQLite, or mirror to serve reads from memory
+     * @param registry the registry that receives the mirror metrics
+     */
+    public WorkoutMirror(WorkoutRepository workoutRepository,
+                         WorkoutDataVersion dataVersion,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${workout.read-mode:database}") String readMode,
+                         MeterRegistry registry) {
+        this.workoutRepository = workoutRepository;
+        this.dataVersion = dataVersion;
+        this.enabled = "mirror".equalsIgnoreCase(readMode.trim());
+
+        // Change notifications arrive after commit, while the finished transaction is still bound
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+
+        Gauge.builder("workout.mirror.size", this, mirror -> mirror.indexes.byId.size())
+                .description("Workouts held in the in-memory mirror")
+                .register(registry);
+        Gauge.builder("workout.mirror.ready", this, mirror -> mirror.ready ? 1 : 0)
+                .description("Whether reads are being served from the in-memory mirror")
+                .register(registry);
+        divergences = Counter.builder("workout.mirror.divergences")
+                .description("Verifier runs that found the mirror out of step with the database")
+                .register(registry);
+    }
+
+    /**
+     * Reports whether reads should be served from the mirror.
+     *
+     * @return true if the mirror is enabled and has been warmed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Loads every workout into the mirror once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!enabled) return;
+
+        long start = System.currentTimeMillis();
+        int count;
+        synchronized (writeLock) {
+            List<Workout> workouts = readTransaction.execute(status -> workoutRepository.findAllDetached());
+            Indexes rebuilt = new Indexes();
+            for (Workout workout : workouts) put(rebuilt, workout);
+            indexes = rebuilt;
+            count = rebuilt.byId.size();
+            ready = true;
+        }
+        log.info("action=MIRROR_WARM status=SUCCESS count={} duration={}ms", count, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns every workout in ID order.
+     *
+     * @return a new list of the mirrored workouts
+     */
+    public List<Workout> getAll() {
+        return read(current -> new ArrayList<>(current.byId.values()));
+    }
+
+    /**
+     * Returns the workouts whose names contain the search term, ignoring case, in ID order.
+     *
+     * @param searchTerm the name or partial name to search for
+     * @return a new list of the matching workouts
+     */
+    public List<Workout> search(String searchTerm) {
+        String term = searchTerm.toLowerCase();
+        return read(current -> {
+            Set<Integer> ids = new TreeSet<>();
+            current.byName.forEach((name, nameIds) -> {
+                if (name.contains(term)) ids.addAll(nameIds);
+            });
+
+            List<Workout> workouts = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                Workout workout = current.byId.get(id);
+                if (workout != null) workouts.add(workout);
+            }
+            return workouts;
+        });
+    }
+
+    /**
+     * Returns the workouts that started within the given range, oldest first.
+     *
+     * @param from the earliest start date and time, inclusive
+     * @param to the latest start date and time, inclusive
+     * @return a new list of the matching workouts
+     */
+    public List<Workout> getByDateRange(LocalDateTime from, LocalDateTime to) {
+        return read(current -> new ArrayList<>(current.byStart.subMap(
+                new StartKey(from, Integer.MIN_VALUE), true,
+                new StartKey(to, Integer.MAX_VALUE), true).values()));
+    }
+
+    @Override
+    public void workoutsChanged(Collection<Integer> ids) {
+        if (!enabled) return;
+
+        synchronized (writeLock) {
+            List<Workout> current = readTransaction.execute(status -> workoutRepository.findAllDetachedById(ids));
+            Map<Integer, Workout> found = new HashMap<>();
+            for (Workout workout : current) found.put(workout.getID(), workout);
+
+            synchronized (applyLock) {
+                changes.incrementAndGet();
+                try {
+                    for (Integer id : ids) {
+                        Workout workout = found.get(id);
+                        if (workout == null) {
+                            remove(indexes, id);
+                        } else {
+                            put(indexes, workout);
+                        }
+                    }
+                } finally {
+                    changes.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void allWorkoutsChanged() {
+        warm();
+    }
+
+    /**
+     * Runs the periodic consistency check. The check is skipped while the mirror is disabled.
+     */
+    @Scheduled(fixedDelayString = "${workout.mirror.verify-interval-ms:300000}",
+            initialDelayString = "${workout.mirror.verify-interval-ms:300000}")
+    public void scheduledVerify() {
+        if (!ready) return;
+
+        OperationResult<Boolean> result = verify();
+        if (!result.success()) {
+            log.warn("action=MIRROR_VERIFY status=FAIL message={}", result.message());
+        }
+    }
+
+    /**
+     * Compares the mirror with the database and rebuilds the mirror if they differ.
+     * <p>
+     * The comparison is only conclusive when no write commits while the database is being
+     * read; otherwise it is reported as skipped and left for the next run.
+     *
+     * @return OperationResult containing true if the mirror matched, false if it was rebuilt,
+     *         and a success/failure message
+     */
+    public OperationResult<Boolean> verify() {
+        if (!ready) {
+            return new OperationResult<>(false, null, "The in-memory mirror is not enabled.");
+        }
+
+        try {
+            long versionBefore = dataVersion.current();
+            List<Workout> stored = readTransaction.execute(status -> workoutRepository.findAllDetached());
+            Map<Integer, Workout> mirrored = new HashMap<>(indexes.byId);
+            if (dataVersion.current() != versionBefore) {
+                return new OperationResult<>(true, true, "Verification skipped because the data changed during the check.");
+            }
+
+            int mismatches = 0;
+            for (Workout workout : stored) {
+                if (!sameValues(workout, mirrored.remove(workout.getID()))) mismatches++;
+            }
+            mismatches += mirrored.size();
+
+            if (mismatches == 0) {
+                return new OperationResult<>(true, true, "Mirror matches the database (" + stored.size() + " workouts).");
+            }
+
+            divergences.increment();
+            log.warn("action=MIRROR_VERIFY status=DIVERGED mismatches={}", mismatches);
+            warm();
+            return new OperationResult<>(true, false, "Mirror differed in " + mismatches + " workouts and was rebuilt.");
+        } catch (Exception e) {
+            return new OperationResult<>(false, null, "Error verifying mirror: " + e.getMessage());
+        }
+    }
+
+    // Runs a read without locking, retrying it if changed rows were applied meanwhile
+    private <T> T read(Function<Indexes, T> reader) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long before = changes.get();
+            if ((before & 1) == 0) {
+                T result = reader.apply(indexes);
+                if (changes.get() == before) return result;
+            }
+            Thread.onSpinWait();
+        }
+        // Only the in-memory step is waited for, never the database read before it
+        synchronized (applyLock) {
+            return reader.apply(indexes);
+        }
+    }
+
+    // Callers hold writeLock. Entries are replaced in place rather than removed and added again.
+    private static void put(Indexes target, Workout workout) {
+        Integer id = workout.getID();
+        StartKey key = new StartKey(workout.getStartDateTime(), id);
+        String name = workout.getName().toLowerCase();
+
+        target.byStart.put(key, workout);
+        target.byName.computeIfAbsent(name, n -> ConcurrentHashMap.newKeySet()).add(id);
+        Workout previous = target.byId.put(id, workout);
+        if (previous == null) return;
+
+        StartKey previousKey = new StartKey(previous.getStartDateTime(), id);
+        if (!previousKey.equals(key)) target.byStart.remove(previousKey, previous);
+        String previousName = previous.getName().toLowerCase();
+        if (!previousName.equals(name)) removeName(target, previousName, id);
+    }
+
+    // Callers hold writeLock
+    private static void remove(Indexes target, Integer id) {
+        Workout previous = target.byId.remove(id);
+        if (previous == null) return;
+
+        target.byStart.remove(new StartKey(previous.getStartDateTime(), id));
+        removeName(target, previous.getName().toLowerCase(), id);
+    }
+
+    private static void removeName(Indexes target, String name, Integer id) {
+        Set<Integer> ids = target.byName.get(name);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) target.byName.remove(name, ids);
+        }
+    }
+
+    private static boolean sameValues(Workout a, Workout b) {
+        return b != null
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getStartDateTime(), b.getStartDateTime())
+                && Objects.equals(a.getDuration(), b.getDuration())
+                && Objects.equals(a.getDistance(), b.getDistance())
+                && a.getUnit() == b.getUnit()
+                && Objects.equals(a.getNotes(), b.getNotes())
+                && Objects.equals(a.getVersion(), b.getVersion());
+    }
+
+    // Orders by start date and time, using the ID to keep workouts that start together apart
+    private record StartKey(LocalDateTime start, int id) implements Comparable<StartKey> {
+        @Override
+        public int compareTo(StartKey other) {
+            int byTime = start.compareTo(other.start);
+            return byTime != 0 ? byTime : Integer.compare(id, other.id);
+        }
+    }
+}
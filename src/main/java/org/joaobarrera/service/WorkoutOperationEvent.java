@@ -0,0 +1,57 @@
+package org.joaobarrera.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutOperationEvent.java
+ */
+
+/**
+ * Flight Recorder event emitted for every {@link WorkoutManager} operation, and for list and
+ * search reads that {@link WorkoutReadCoalescer} serves straight from the database.
+ * <p>
+ * The event's duration covers the whole operation, including any wait for admission and
+ * busy retries. Validation time runs from the start of the operation until it first reaches
+ * for the database, and database time is the time spent executing SQL statements.
+ */
+@Name("org.joaobarrera.WorkoutOperation")
+@Label("Workout Operation")
+@Category({"Workout Logger", "Operations"})
+@Description("A workout operation with its outcome and where its time went")
+@StackTrace(false)
+public class WorkoutOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Workout ID")
+    @Description("The workout the operation targets, or -1 if it targets none")
+    long workoutId;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Validation Time")
+    @Timespan
+    long validationTime;
+
+    @Label("Database Time")
+    @Timespan
+    long databaseTime;
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Rows")
+    @Description("The workouts read, written or deleted")
+    int rows;
+}
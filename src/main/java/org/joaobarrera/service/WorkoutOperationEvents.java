@@ -0,0 +1,117 @@
+package org.joaobarrera.service;
+
+import org.joaobarrera.model.OperationResult;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutOperationEvents.java
+ */
+
+/**
+ * Emits a {@link WorkoutOperationEvent} around workout operations.
+ * <p>
+ * When no Flight Recorder recording has the event enabled, the operation runs as it is and
+ * nothing is measured, so the cost outside of a recording is a single check. While a
+ * recording is running, the operation's SQL statements are captured to work out its
+ * database time. Operations run by the startup warm-up emit no event.
+ */
+@Service
+public class WorkoutOperationEvents {
+    private final SqlStatementStats sqlStats;
+    private final ThreadLocal<Timing> current = new ThreadLocal<>();
+
+    /**
+     * Constructs the event source.
+     *
+     * @param sqlStats the statistics that capture each operation's SQL statements
+     */
+    public WorkoutOperationEvents(SqlStatementStats sqlStats) {
+        this.sqlStats = sqlStats;
+    }
+
+    /**
+     * Runs an operation and emits an event for it, counting the rows in its result: the size
+     * of a returned list, otherwise one for any returned value.
+     *
+     * @param operation the name of the operation, such as update
+     * @param workoutId the workout the operation targets, or null
+     * @param body the operation to run
+     * @return the operation's result
+     */
+    public <T> OperationResult<T> record(String operation, Integer workoutId, Supplier<OperationResult<T>> body) {
+        return record(operation, workoutId, body, WorkoutOperationEvents::rowsOf);
+    }
+
+    /**
+     * Runs an operation and emits an event for it.
+     *
+     * @param operation the name of the operation, such as update
+     * @param workoutId the workout the operation targets, or null
+     * @param body the operation to run
+     * @param rows works out the rows touched from the operation's result
+     * @return the operation's result
+     */
+    public <T> OperationResult<T> record(String operation, Integer workoutId, Supplier<OperationResult<T>> body,
+                                         ToIntFunction<OperationResult<T>> rows) {
+        WorkoutOperationEvent event = new WorkoutOperationEvent();
+        if (!event.isEnabled() || WorkoutWarmup.isWarmingUp()) return body.get();
+
+        Timing previous = current.get();
+        Timing timing = new Timing(System.nanoTime());
+        current.set(timing);
+        SqlStatementStats.Capture capture = sqlStats.capture();
+        event.begin();
+
+        OperationResult<T> result = null;
+        try {
+            result = body.get();
+            return result;
+        } finally {
+            event.end();
+            capture.close();
+            current.set(previous);
+            if (previous == null) current.remove();
+
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.workoutId = workoutId == null ? -1 : workoutId;
+                event.outcome = result == null ? "ERROR" : result.status().name();
+                event.validationTime = (timing.validatedAt == 0 ? System.nanoTime() : timing.validatedAt) - timing.startedAt;
+                event.databaseTime = capture.elapsedNanos();
+                event.statements = capture.statements();
+                event.rows = result == null || !result.success() ? 0 : rows.applyAsInt(result);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Marks the end of the current operation's validation. Only the first call per operation counts.
+     */
+    public void validated() {
+        Timing timing = current.get();
+        if (timing != null && timing.validatedAt == 0) timing.validatedAt = System.nanoTime();
+    }
+
+    private static int rowsOf(OperationResult<?> result) {
+        Object data = result.data();
+        if (data instanceof Collection<?> collection) return collection.size();
+        return data == null ? 0 : 1;
+    }
+
+    private static final class Timing {
+        private final long startedAt;
+        private long validatedAt;
+
+        private Timing(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
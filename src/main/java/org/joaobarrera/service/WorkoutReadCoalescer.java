@@ -0,0 +1,213 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.SerializedWorkouts;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutReadCoalescer.java
+ */
+
+/**
+ * Collapses identical concurrent workout reads into a single query.
+ * <p>
+ * The first request for a query at the current data version runs the query and serializes
+ * the result. Every identical request that arrives while it is still running waits for and
+ * shares that serialized result instead of querying again. Results are not cached: once the
+ * execution finishes, the next request starts a new one.
+ * <p>
+ * Keys include the data version, so a request that arrives after a write has committed
+ * never joins an execution that started before it.
+ * <p>
+ * Executions read from the in-memory mirror when it is active, and otherwise stream rows
+ * from the database through {@link WorkoutJdbcReader} without creating entities. Database
+ * executions emit the same {@link WorkoutOperationEvent} that {@link WorkoutManager} emits
+ * for reads from the mirror.
+ */
+@Service
+public class WorkoutReadCoalescer {
+    private final WorkoutManager workoutManager;
+    private final WorkoutMirror mirror;
+    private final WorkoutJdbcReader jdbcReader;
+    private final WorkoutDataVersion dataVersion;
+    private final WorkoutJsonCache jsonCache;
+    private final WorkoutOperationEvents events;
+    private final MeterRegistry registry;
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> requestCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hitCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a WorkoutReadCoalescer in front of the given WorkoutManager.
+     *
+     * @param workoutManager the manager that runs reads against the in-memory mirror
+     * @param mirror the mirror, which decides whether reads go to memory or to the database
+     * @param jdbcReader the reader that serializes database rows without creating entities
+     * @param dataVersion the version that keys every execution
+     * @param jsonCache the cache used to serialize results once per execution
+     * @param events the source of the events emitted for database executions
+     * @param registry the registry that receives the coalescing metrics
+     */
+    public WorkoutReadCoalescer(WorkoutManager workoutManager, WorkoutMirror mirror, WorkoutJdbcReader jdbcReader,
+                                WorkoutDataVersion dataVersion,
+                                WorkoutJsonCache jsonCache, WorkoutOperationEvents events, MeterRegistry registry) {
+        this.workoutManager = workoutManager;
+        this.mirror = mirror;
+        this.jdbcReader = jdbcReader;
+        this.dataVersion = dataVersion;
+        this.jsonCache = jsonCache;
+        this.events = events;
+        this.registry = registry;
+    }
+
+    /**
+     * Retrieves all workouts as serialized JSON, sharing the work with concurrent identical requests.
+     *
+     * @return OperationResult containing the serialized workouts and a success/failure message
+     */
+    public OperationResult<SerializedWorkouts> getAllWorkouts() {
+        return getAllWorkouts(null);
+    }
+
+    /**
+     * Retrieves all workouts as serialized JSON holding only the given fields.
+     *
+     * @param fields the fields to include in each object, or null for all of them
+     * @return OperationResult containing the serialized workouts and a success/failure message
+     */
+    public OperationResult<SerializedWorkouts> getAllWorkouts(Set<WorkoutField> fields) {
+        return execute("getAll", WorkoutField.key(fields), version -> mirror.isReady()
+                ? serialize(workoutManager.getAllWorkouts(), fields, version)
+                : events.record("getAll", null, () -> jdbcReader.getAllWorkouts(fields, version), WorkoutReadCoalescer::rows));
+    }
+
+    /**
+     * Searches workouts by name as serialized JSON, sharing the work with concurrent identical requests.
+     *
+     * @param searchTerm the name or partial name to search for
+     * @return OperationResult containing the serialized matching workouts and a success/failure message
+     */
+    public OperationResult<SerializedWorkouts> getWorkoutsBySearchParameter(String searchTerm) {
+        return getWorkoutsBySearchParameter(searchTerm, null);
+    }
+
+    /**
+     * Searches workouts by name as serialized JSON holding only the given fields.
+     *
+     * @param searchTerm the name or partial name to search for
+     * @param fields the fields to include in each object, or null for all of them
+     * @return OperationResult containing the serialized matching workouts and a success/failure message
+     */
+    public OperationResult<SerializedWorkouts> getWorkoutsBySearchParameter(String searchTerm, Set<WorkoutField> fields) {
+        String argument = (searchTerm == null ? "" : searchTerm) + '\u0000' + WorkoutField.key(fields);
+        return execute("search", argument, version -> mirror.isReady()
+                ? serialize(workoutManager.getWorkoutsBySearchParameter(searchTerm), fields, version)
+                : events.record("search", null, () -> jdbcReader.getWorkoutsBySearchParameter(searchTerm, fields, version),
+                        WorkoutReadCoalescer::rows));
+    }
+
+    /**
+     * Runs the loader for the given query, or joins an identical execution already in flight.
+     *
+     * @param query the name of the query, used as a metric tag
+     * @param argument the query argument, which together with the query and data version forms the key
+     * @param loader the function that runs the query at the captured data version
+     * @param <T> the type of the shared result
+     * @return the result produced by the execution that served this request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String query, String argument, VersionedLoader<T> loader) {
+        long version = dataVersion.current();
+        String key = query + '\u0000' + argument + '\u0000' + version;
+        counter(requestCounters, "workout.coalesce.requests", query).increment();
+
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            counter(hitCounters, "workout.coalesce.hits", query).increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                if (e.getCause() instanceof Error error) throw error;
+                throw e;
+            }
+        }
+
+        try {
+            T result = loader.load(version);
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors must release the followers too, or they would wait on this future forever
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Runs a coalesced query without a version-aware loader.
+     *
+     * @param query the name of the query, used as a metric tag
+     * @param argument the query argument
+     * @param loader the supplier that runs the query
+     * @param <T> the type of the shared result
+     * @return the result produced by the execution that served this request
+     */
+    public <T> T execute(String query, String argument, Supplier<T> loader) {
+        return execute(query, argument, version -> loader.get());
+    }
+
+    private OperationResult<SerializedWorkouts> serialize(OperationResult<List<Workout>> result,
+                                                          Set<WorkoutField> fields, long version) {
+        if (!result.success()) {
+            return new OperationResult<>(false, null, result.message(), result.status());
+        }
+        try {
+            return new OperationResult<>(true, jsonCache.serialize(result.data(), fields, version), result.message());
+        } catch (Exception e) {
+            return new OperationResult<>(false, null, "Error serializing workouts: " + e.getMessage());
+        }
+    }
+
+    private static int rows(OperationResult<SerializedWorkouts> result) {
+        return result.data().count();
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String query) {
+        return counters.computeIfAbsent(query, q -> Counter.builder(name).tag("query", q).register(registry));
+    }
+
+    /**
+     * Loads the result of a query at a given data version.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface VersionedLoader<T> {
+        /**
+         * Runs the query.
+         *
+         * @param version the data version captured before the query started
+         * @return the query result
+         */
+        T load(long version);
+    }
+}
@@ -0,0 +1,80 @@
+package org.joaobarrera.service;
+
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.UnitType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutSnapshotExporter.java
+ */
+
+/**
+ * Streams the workout table into the portable snapshot format described in
+ * {@link WorkoutSnapshotFormat}.
+ * <p>
+ * Rows are read with plain JDBC in ID order and encoded block by block, so exporting a
+ * large history never materializes the whole table in memory.
+ */
+@Service
+public class WorkoutSnapshotExporter {
+    private static final String SELECT_ALL =
+            "SELECT id, name, start_date_time, duration, distance, unit, notes FROM workout ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a WorkoutSnapshotExporter that reads through the given JdbcTemplate.
+     *
+     * @param jdbcTemplate the template used to stream workout rows
+     */
+    public WorkoutSnapshotExporter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes every workout to the given stream as a snapshot.
+     * <p>
+     * The stream is flushed but not closed.
+     *
+     * @param out the stream that receives the snapshot
+     * @return OperationResult containing the number of exported workouts and a success/failure message
+     */
+    public OperationResult<Long> export(OutputStream out) {
+        try {
+            WorkoutSnapshotFormat.Writer writer =
+                    new WorkoutSnapshotFormat.Writer(out, WorkoutSnapshotFormat.DEFAULT_BLOCK_ROWS);
+
+            jdbcTemplate.query(SELECT_ALL, rs -> {
+                String notes = rs.getString("notes");
+                WorkoutSnapshotFormat.Row row = new WorkoutSnapshotFormat.Row(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getLong("start_date_time"),
+                        rs.getInt("duration"),
+                        rs.getDouble("distance"),
+                        UnitType.valueOf(rs.getString("unit")),
+                        notes);
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            long rows = writer.finish();
+            return new OperationResult<>(true, rows, "Exported " + rows + " workouts.");
+        } catch (UncheckedIOException e) {
+            return new OperationResult<>(false, null, "Error exporting workouts: " + e.getCause().getMessage());
+        } catch (Exception e) {
+            return new OperationResult<>(false, null, "Error exporting workouts: " + e.getMessage());
+        }
+    }
+}
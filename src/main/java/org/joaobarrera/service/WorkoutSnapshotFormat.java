@@ -0,0 +1,345 @@
+package org.joaobarrera.service;
+
+import org.joaobarrera.model.UnitType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutSnapshotFormat.java
+ */
+
+/**
+ * Reads and writes the portable binary snapshot format used to move workout history
+ * between environments.
+ * <p>
+ * A snapshot is a header followed by a stream of independently compressed blocks and an
+ * end marker. All integers are unsigned LEB128 varints; signed deltas are zigzag encoded.
+ * <pre>
+ * snapshot := "WKSNAP" version:u8 block* end
+ * block    := rows:varint(&gt;0) flags:varint rawLength:varint deflatedLength:varint deflate(body)
+ * end      := 0:varint totalRows:varint
+ * body     := dictionary ids names starts durations distances units notes
+ * </pre>
+ * Each body stores its rows column by column:
+ * <ul>
+ *     <li>dictionary: the count of names first seen in this block, then each name as length + UTF-8 bytes.
+ *     Names are referenced by their index in a dictionary shared by all blocks. Flag bit 0 clears
+ *     the dictionary before the block is read, which bounds its size.</li>
+ *     <li>ids: zigzag deltas from the previous id in the block.</li>
+ *     <li>names: dictionary indexes.</li>
+ *     <li>starts: zigzag deltas of the stored start timestamp (epoch milliseconds).</li>
+ *     <li>durations: varints.</li>
+ *     <li>distances: 8-byte IEEE 754 values, big-endian.</li>
+ *     <li>units: one byte per row holding the UnitType ordinal.</li>
+ *     <li>notes: length + 1 followed by UTF-8 bytes, where 0 means null.</li>
+ * </ul>
+ * Writers and readers only ever hold one block in memory, so snapshots of any size are
+ * streamed. A block holds at most {@value #MAX_BLOCK_ROWS} rows and {@value #MAX_BLOCK_BYTES}
+ * bytes, compressed or not. Readers reject larger blocks before allocating anything, since
+ * snapshots are uploaded by clients.
+ */
+final class WorkoutSnapshotFormat {
+
+    static final byte[] MAGIC = "WKSNAP".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int DEFAULT_BLOCK_ROWS = 4096;
+    static final int MAX_DICTIONARY_SIZE = 65536;
+    static final int MAX_BLOCK_ROWS = 65536;
+    static final int MAX_BLOCK_BYTES = 8 * 1024 * 1024;
+
+    private static final int FLAG_RESET_DICTIONARY = 1;
+
+    private WorkoutSnapshotFormat() {}
+
+    /**
+     * One workout row as it is stored in a snapshot.
+     *
+     * @param id the workout ID
+     * @param name the workout name
+     * @param startMillis the start date and time exactly as stored in the database
+     * @param duration the duration in minutes
+     * @param distance the distance covered
+     * @param unit the unit of the distance
+     * @param notes the optional notes, or null
+     */
+    record Row(int id, String name, long startMillis, int duration, double distance, UnitType unit, String notes) {}
+
+    /**
+     * Buffers rows into column blocks and writes each full block to the output stream.
+     */
+    static final class Writer {
+        private final OutputStream out;
+        private final int blockRows;
+        private final List<Row> pending;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private long totalRows;
+        private long pendingBytes;
+
+        Writer(OutputStream out, int blockRows) throws IOException {
+            if (blockRows < 1 || blockRows > MAX_BLOCK_ROWS) {
+                throw new IllegalArgumentException("Block rows must be between 1 and " + MAX_BLOCK_ROWS + ".");
+            }
+            this.out = out;
+            this.blockRows = blockRows;
+            this.pending = new ArrayList<>(blockRows);
+            out.write(MAGIC);
+            out.write(VERSION);
+        }
+
+        void write(Row row) throws IOException {
+            pending.add(row);
+            // Worst case for a row: varints and fixed fields, plus up to 3 UTF-8 bytes per character
+            pendingBytes += 48 + 3L * (row.name().length() + (row.notes() == null ? 0 : row.notes().length()));
+            if (pending.size() >= blockRows || pendingBytes >= MAX_BLOCK_BYTES / 2) flushBlock();
+        }
+
+        long finish() throws IOException {
+            flushBlock();
+            writeVarLong(out, 0);
+            writeVarLong(out, totalRows);
+            out.flush();
+            deflater.end();
+            return totalRows;
+        }
+
+        private void flushBlock() throws IOException {
+            if (pending.isEmpty()) return;
+
+            int flags = 0;
+            if (dictionary.size() + pending.size() > MAX_DICTIONARY_SIZE) {
+                dictionary.clear();
+                flags |= FLAG_RESET_DICTIONARY;
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream(pending.size() * 32);
+
+            List<String> newNames = new ArrayList<>();
+            int[] nameIndexes = new int[pending.size()];
+            for (int i = 0; i < pending.size(); i++) {
+                String name = pending.get(i).name();
+                Integer index = dictionary.get(name);
+                if (index == null) {
+                    index = dictionary.size();
+                    dictionary.put(name, index);
+                    newNames.add(name);
+                }
+                nameIndexes[i] = index;
+            }
+            writeVarLong(body, newNames.size());
+            for (String name : newNames) writeString(body, name);
+
+            long previous = 0;
+            for (Row row : pending) {
+                writeVarLong(body, zigzag(row.id() - previous));
+                previous = row.id();
+            }
+            for (int index : nameIndexes) writeVarLong(body, index);
+            previous = 0;
+            for (Row row : pending) {
+                writeVarLong(body, zigzag(row.startMillis() - previous));
+                previous = row.startMillis();
+            }
+            for (Row row : pending) writeVarLong(body, row.duration());
+            for (Row row : pending) {
+                long bits = Double.doubleToRawLongBits(row.distance());
+                for (int shift = 56; shift >= 0; shift -= 8) body.write((int) (bits >>> shift));
+            }
+            for (Row row : pending) body.write(row.unit().ordinal());
+            for (Row row : pending) {
+                if (row.notes() == null) {
+                    writeVarLong(body, 0);
+                } else {
+                    byte[] bytes = row.notes().getBytes(StandardCharsets.UTF_8);
+                    writeVarLong(body, bytes.length + 1L);
+                    body.write(bytes);
+                }
+            }
+
+            byte[] raw = body.toByteArray();
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                compressed.write(buffer, 0, n);
+            }
+
+            writeVarLong(out, pending.size());
+            writeVarLong(out, flags);
+            writeVarLong(out, raw.length);
+            writeVarLong(out, compressed.size());
+            compressed.writeTo(out);
+
+            totalRows += pending.size();
+            pending.clear();
+            pendingBytes = 0;
+        }
+    }
+
+    /**
+     * Reads a snapshot one block at a time.
+     */
+    static final class Reader {
+        private final InputStream in;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Inflater inflater = new Inflater();
+        private long rowsRead;
+        private boolean finished;
+
+        Reader(InputStream in) throws IOException {
+            this.in = in;
+            byte[] magic = in.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a workout snapshot.");
+            }
+            int version = in.read();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ".");
+            }
+        }
+
+        /**
+         * Returns the rows of the next block, or null once the end marker has been read.
+         */
+        List<Row> nextBlock() throws IOException {
+            if (finished) return null;
+
+            long blockRows = readVarLong(in);
+            if (blockRows == 0) {
+                long expected = readVarLong(in);
+                if (expected != rowsRead) {
+                    throw new IOException("Snapshot is truncated: expected " + expected + " rows, read " + rowsRead + ".");
+                }
+                finished = true;
+                inflater.end();
+                return null;
+            }
+
+            if (blockRows < 0 || blockRows > MAX_BLOCK_ROWS) {
+                throw new IOException("Snapshot block has " + blockRows + " rows; at most " + MAX_BLOCK_ROWS + " are allowed.");
+            }
+            int rows = (int) blockRows;
+            int flags = (int) readVarLong(in);
+            int rawLength = blockLength(readVarLong(in));
+            int compressedLength = blockLength(readVarLong(in));
+            byte[] compressed = in.readNBytes(compressedLength);
+            if (compressed.length != compressedLength) throw new EOFException("Snapshot block is truncated.");
+
+            byte[] raw = new byte[rawLength];
+            inflater.reset();
+            inflater.setInput(compressed);
+            try {
+                int n = inflater.inflate(raw);
+                if (n != rawLength) throw new IOException("Snapshot block is corrupt.");
+            } catch (DataFormatException e) {
+                throw new IOException("Snapshot block is corrupt.", e);
+            }
+
+            if ((flags & FLAG_RESET_DICTIONARY) != 0) dictionary.clear();
+
+            DataInputStream body = new DataInputStream(new ByteArrayInputStream(raw));
+            int newNames = (int) readVarLong(body);
+            for (int i = 0; i < newNames; i++) dictionary.add(readString(body));
+
+            int[] ids = new int[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += unzigzag(readVarLong(body));
+                ids[i] = (int) previous;
+            }
+            String[] names = new String[rows];
+            for (int i = 0; i < rows; i++) names[i] = dictionary.get((int) readVarLong(body));
+            long[] starts = new long[rows];
+            previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += unzigzag(readVarLong(body));
+                starts[i] = previous;
+            }
+            int[] durations = new int[rows];
+            for (int i = 0; i < rows; i++) durations[i] = (int) readVarLong(body);
+            double[] distances = new double[rows];
+            for (int i = 0; i < rows; i++) distances[i] = body.readDouble();
+            UnitType[] units = new UnitType[rows];
+            UnitType[] unitValues = UnitType.values();
+            for (int i = 0; i < rows; i++) units[i] = unitValues[body.readUnsignedByte()];
+
+            List<Row> result = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                long length = readVarLong(body);
+                if (length < 0 || length > rawLength) throw new IOException("Snapshot block is corrupt.");
+                String notes = length == 0 ? null : new String(body.readNBytes((int) length - 1), StandardCharsets.UTF_8);
+                result.add(new Row(ids[i], names[i], starts[i], durations[i], distances[i], units[i], notes));
+            }
+
+            rowsRead += rows;
+            return result;
+        }
+
+        private static int blockLength(long length) throws IOException {
+            if (length < 0 || length > MAX_BLOCK_BYTES) {
+                throw new IOException("Snapshot block of " + length + " bytes exceeds the limit of " + MAX_BLOCK_BYTES + ".");
+            }
+            return (int) length;
+        }
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException("Snapshot is truncated.");
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in snapshot.");
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > MAX_BLOCK_BYTES) throw new IOException("Snapshot block is corrupt.");
+        return new String(in.readNBytes((int) length), StandardCharsets.UTF_8);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
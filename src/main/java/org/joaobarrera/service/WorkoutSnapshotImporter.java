@@ -0,0 +1,200 @@
+package org.joaobarrera.service;
+
+import org.joaobarrera.model.OperationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutSnapshotImporter.java
+ */
+
+/**
+ * Bulk-loads a snapshot written by {@link WorkoutSnapshotExporter} into the workout table.
+ * <p>
+ * The snapshot is first copied to a temporary file, so a slow upload is read to the end
+ * before the import takes the database's write lock. The whole import then runs in one
+ * transaction. Secondary indexes on the workout table are
+ * dropped before the first row is inserted and rebuilt once all rows are in, which is far
+ * cheaper than maintaining them row by row. Rows are inserted with batched prepared
+ * statements, one batch per snapshot block.
+ */
+@Service
+public class WorkoutSnapshotImporter {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutSnapshotImporter.class);
+
+    private static final String INSERT_WITH_ID =
+            "INSERT INTO workout (id, name, start_date_time, duration, distance, unit, notes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_WITHOUT_ID =
+            "INSERT INTO workout (name, start_date_time, duration, distance, unit, notes) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String COUNT_ARCHIVED_IDS =
+            "SELECT count(*) FROM workout w JOIN workout_archive a ON a.id = w.id";
+    private static final String SELECT_INDEXES =
+            "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND tbl_name = 'workout' COLLATE NOCASE AND sql IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkoutDataVersion dataVersion;
+    private final WorkoutChangeLog changeLog;
+
+    /**
+     * Constructs a WorkoutSnapshotImporter.
+     *
+     * @param jdbcTemplate the template used for the bulk inserts
+     * @param transactionManager the transaction manager that wraps the import in one transaction
+     * @param dataVersion the version that is incremented once the import commits
+     * @param changeLog the change log whose clients must resync after an import
+     */
+    public WorkoutSnapshotImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   WorkoutDataVersion dataVersion, WorkoutChangeLog changeLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataVersion = dataVersion;
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Imports a snapshot from a stream.
+     * <p>
+     * The stream is read to the end into a temporary file before the import transaction
+     * starts, then loaded as {@link #importSnapshot(Path, boolean)} does.
+     *
+     * @param in the stream containing the snapshot
+     * @param replace whether the snapshot replaces the current workouts
+     * @return OperationResult containing the number of imported workouts and a success/failure message
+     */
+    public OperationResult<Long> importSnapshot(InputStream in, boolean replace) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("workout-import-", ".wksnap");
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return importSnapshot(file, replace);
+        } catch (IOException e) {
+            return new OperationResult<>(false, null, "Error importing snapshot: " + e.getMessage());
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Imports a snapshot file.
+     * <p>
+     * When replace is true the existing workouts are deleted first and the IDs from the
+     * snapshot are kept. The import is refused if one of those IDs belongs to an archived
+     * workout, since date-range queries would then return both. Otherwise the snapshot rows
+     * are appended and receive new IDs.
+     *
+     * @param file the file containing the snapshot
+     * @param replace whether the snapshot replaces the current workouts
+     * @return OperationResult containing the number of imported workouts and a success/failure message
+     */
+    public OperationResult<Long> importSnapshot(Path file, boolean replace) {
+        long start = System.currentTimeMillis();
+        try {
+            Long rows = transactionTemplate.execute(status -> {
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                    return load(in, replace);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("action=IMPORT_SNAPSHOT status=SUCCESS rows={} replace={} duration={}ms",
+                    rows, replace, System.currentTimeMillis() - start);
+            return new OperationResult<>(true, rows, "Imported " + rows + " workouts.");
+        } catch (UncheckedIOException e) {
+            return new OperationResult<>(false, null, "Error importing snapshot: " + e.getCause().getMessage());
+        } catch (Exception e) {
+            return new OperationResult<>(false, null, "Error importing snapshot: " + e.getMessage());
+        }
+    }
+
+    private long load(InputStream in, boolean replace) throws IOException {
+        WorkoutSnapshotFormat.Reader reader = new WorkoutSnapshotFormat.Reader(in);
+
+        // Defer index maintenance until every row is in
+        List<String[]> indexes = jdbcTemplate.query(SELECT_INDEXES,
+                (rs, i) -> new String[]{rs.getString("name"), rs.getString("sql")});
+        for (String[] index : indexes) {
+            jdbcTemplate.execute("DROP INDEX \"" + index[0] + "\"");
+        }
+
+        if (replace) {
+            jdbcTemplate.update("DELETE FROM workout");
+        }
+
+        long total = 0;
+        List<WorkoutSnapshotFormat.Row> block;
+        while ((block = reader.nextBlock()) != null) {
+            insertBlock(block, replace);
+            total += block.size();
+        }
+
+        if (replace) {
+            Long conflicts = jdbcTemplate.queryForObject(COUNT_ARCHIVED_IDS, Long.class);
+            if (conflicts != null && conflicts > 0) {
+                throw new IllegalStateException(conflicts + " snapshot IDs belong to archived workouts.");
+            }
+        }
+
+        for (String[] index : indexes) {
+            jdbcTemplate.execute(index[1]);
+        }
+        changeLog.invalidate();
+        dataVersion.incrementAfterCommit();
+        return total;
+    }
+
+    private void insertBlock(List<WorkoutSnapshotFormat.Row> rows, boolean keepIds) {
+        jdbcTemplate.batchUpdate(keepIds ? INSERT_WITH_ID : INSERT_WITHOUT_ID, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                WorkoutSnapshotFormat.Row row = rows.get(i);
+                int column = 1;
+                if (keepIds) ps.setInt(column++, row.id());
+                ps.setString(column++, row.name());
+                ps.setLong(column++, row.startMillis());
+                ps.setInt(column++, row.duration());
+                ps.setDouble(column++, row.distance());
+                ps.setString(column++, row.unit().name());
+                if (row.notes() == null) {
+                    ps.setNull(column, Types.VARCHAR);
+                } else {
+                    ps.setString(column, row.notes());
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("action=IMPORT_SNAPSHOT status=CLEANUP_FAIL file={} message={}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.model.RecordedTrace;
+import org.joaobarrera.model.TraceSpan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutTracer.java
+ */
+
+/**
+ * Lightweight in-process tracing of requests and background jobs.
+ * <p>
+ * A trace is started for each API request and background job, and any code running on the
+ * same thread can open spans inside it through {@link #span(String)}, which does nothing
+ * when no trace is active. Spans are collected in memory until the trace ends.
+ * <p>
+ * Sampling happens at the tail: once a trace has ended and its duration is known, it is
+ * kept if it was slow or failed, and otherwise only for a small random share. Kept traces
+ * are handed to the {@link TraceFileExporter} and the most recent ones are held for the
+ * slowest-traces endpoint.
+ */
+@Service
+public class WorkoutTracer {
+    private static final ThreadLocal<ActiveTrace> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int maxSpans;
+    private final int retain;
+    private final TraceFileExporter exporter;
+
+    private final Deque<RecordedTrace> recent = new ArrayDeque<>();
+    private final Counter keptSlow;
+    private final Counter keptError;
+    private final Counter keptSampled;
+    private final Counter dropped;
+
+    /**
+     * Constructs the tracer and registers its metrics.
+     *
+     * @param enabled whether traces are started at all
+     * @param slowThresholdMillis the trace duration at or above which a trace is always kept
+     * @param sampleRate the share of other successful traces that is kept, from 0 to 1
+     * @param maxSpans how many spans a trace holds before further spans are dropped
+     * @param retain how many kept traces are held in memory for the slowest-traces endpoint
+     * @param exporter the exporter that writes kept traces to disk
+     * @param registry the registry that receives the sampling counters
+     */
+    public WorkoutTracer(@Value("${workout.tracing.enabled:true}") boolean enabled,
+                         @Value("${workout.tracing.slow-threshold-ms:250}") long slowThresholdMillis,
+                         @Value("${workout.tracing.sample-rate:0.01}") double sampleRate,
+                         @Value("${workout.tracing.max-spans:256}") int maxSpans,
+                         @Value("${workout.tracing.retain:200}") int retain,
+                         TraceFileExporter exporter,
+                         MeterRegistry registry) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.sampleRate = sampleRate;
+        this.maxSpans = Math.max(1, maxSpans);
+        this.retain = Math.max(1, retain);
+        this.exporter = exporter;
+
+        keptSlow = counter(registry, "kept", "slow");
+        keptError = counter(registry, "kept", "error");
+        keptSampled = counter(registry, "kept", "sampled");
+        dropped = counter(registry, "dropped", "fast");
+    }
+
+    /**
+     * Starts a trace on this thread. Closing the returned span ends the trace.
+     * <p>
+     * If a trace is already active on this thread, or tracing is disabled, the work simply
+     * joins the current trace as a span, or is not traced.
+     *
+     * @param name the name of the root span, such as GET /api/workout/getAll
+     * @return the root span
+     */
+    public Span startTrace(String name) {
+        if (!enabled || CURRENT.get() != null) return span(name);
+
+        ActiveTrace trace = new ActiveTrace(this, maxSpans);
+        CURRENT.set(trace);
+        return trace.open(name);
+    }
+
+    /**
+     * Opens a span within the trace active on this thread. Closing the span ends it.
+     *
+     * @param name what the span measures
+     * @return the open span, or a span that records nothing if no trace is active
+     */
+    public static Span span(String name) {
+        ActiveTrace trace = CURRENT.get();
+        return trace == null ? Span.NONE : trace.open(name);
+    }
+
+    /**
+     * Returns the slowest of the recently kept traces.
+     *
+     * @param limit how many traces to return
+     * @return the traces, slowest first
+     */
+    public List<RecordedTrace> slowest(int limit) {
+        List<RecordedTrace> traces;
+        synchronized (recent) {
+            traces = new ArrayList<>(recent);
+        }
+        traces.sort(Comparator.comparingDouble(RecordedTrace::durationMillis).reversed());
+        return traces.subList(0, Math.min(Math.max(0, limit), traces.size()));
+    }
+
+    private void finish(ActiveTrace trace, long durationNanos) {
+        CURRENT.remove();
+
+        String reason;
+        if (trace.failed) {
+            reason = "error";
+            keptError.increment();
+        } else if (durationNanos >= slowThresholdNanos) {
+            reason = "slow";
+            keptSlow.increment();
+        } else if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            reason = "sampled";
+            keptSampled.increment();
+        } else {
+            dropped.increment();
+            return;
+        }
+
+        RecordedTrace recorded = trace.toRecord(reason);
+        synchronized (recent) {
+            recent.addLast(recorded);
+            while (recent.size() > retain) recent.removeFirst();
+        }
+        exporter.export(recorded);
+    }
+
+    private static Counter counter(MeterRegistry registry, String decision, String reason) {
+        return Counter.builder("workout.tracing.traces")
+                .description("Finished traces by sampling decision")
+                .tag("decision", decision)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * A timed step within a trace. Closing a span more than once has no further effect.
+     */
+    public static class Span implements AutoCloseable {
+        static final Span NONE = new Span(null, -1);
+
+        private final ActiveTrace trace;
+        private final int index;
+
+        private Span(ActiveTrace trace, int index) {
+            this.trace = trace;
+            this.index = index;
+        }
+
+        /**
+         * Reports whether this span is part of a trace.
+         *
+         * @return false if the span records nothing
+         */
+        public boolean isRecording() {
+            return trace != null;
+        }
+
+        /**
+         * Adds a detail to the span.
+         *
+         * @param key the name of the detail
+         * @param value the value of the detail
+         * @return this span
+         */
+        public Span attribute(String key, Object value) {
+            if (trace != null) trace.spans.get(index).attributes.put(key, String.valueOf(value));
+            return this;
+        }
+
+        /**
+         * Renames the span, for example once the matched route is known.
+         *
+         * @param name the new name
+         * @return this span
+         */
+        public Span rename(String name) {
+            if (trace != null) trace.spans.get(index).name = name;
+            return this;
+        }
+
+        /**
+         * Marks the whole trace as failed, so it is always kept.
+         *
+         * @return this span
+         */
+        public Span failed() {
+            if (trace != null) trace.failed = true;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (trace != null) trace.close(index);
+        }
+    }
+
+    // Only touched by the thread that started the trace
+    private static final class ActiveTrace {
+        private final WorkoutTracer tracer;
+        private final int maxSpans;
+        private final String traceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final List<SpanData> spans = new ArrayList<>();
+        private final Deque<Integer> open = new ArrayDeque<>();
+        private int droppedSpans;
+        private boolean failed;
+
+        private ActiveTrace(WorkoutTracer tracer, int maxSpans) {
+            this.tracer = tracer;
+            this.maxSpans = maxSpans;
+        }
+
+        private Span open(String name) {
+            if (spans.size() >= maxSpans) {
+                droppedSpans++;
+                return Span.NONE;
+            }
+            int parent = open.isEmpty() ? -1 : open.peek();
+            spans.add(new SpanData(name, parent, System.nanoTime() - startNanos));
+            open.push(spans.size() - 1);
+            return new Span(this, spans.size() - 1);
+        }
+
+        private void close(int index) {
+            SpanData span = spans.get(index);
+            if (span.endNanos >= 0) return;
+
+            long now = System.nanoTime() - startNanos;
+            if (index == 0) {
+                // The root closes every span left open, such as a response still being written
+                for (SpanData other : spans) {
+                    if (other.endNanos < 0) other.endNanos = now;
+                }
+                open.clear();
+                tracer.finish(this, now);
+                return;
+            }
+            span.endNanos = now;
+            open.remove(Integer.valueOf(index));
+        }
+
+        private RecordedTrace toRecord(String reason) {
+            Map<Integer, List<TraceSpan>> children = new HashMap<>();
+            TraceSpan root = null;
+            for (int i = spans.size() - 1; i >= 0; i--) {
+                SpanData span = spans.get(i);
+                // Children were gathered last to first
+                List<TraceSpan> nested = children.getOrDefault(i, new ArrayList<>());
+                Collections.reverse(nested);
+                TraceSpan node = new TraceSpan(span.name, millis(span.startNanos),
+                        millis(span.endNanos - span.startNanos), span.attributes, nested);
+                if (span.parent < 0) {
+                    root = node;
+                } else {
+                    children.computeIfAbsent(span.parent, key -> new ArrayList<>()).add(node);
+                }
+            }
+            return new RecordedTrace(traceId, startedAt, root == null ? 0 : root.durationMillis(), reason,
+                    droppedSpans, root);
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+
+    private static final class SpanData {
+        private String name;
+        private final int parent;
+        private final long startNanos;
+        private long endNanos = -1;
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+
+        private SpanData(String name, int parent, long startNanos) {
+            this.name = name;
+            this.parent = parent;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutTransactionRunner.java
+ */
+
+/**
+ * Runs workout operations and retries the ones that fail because SQLite was busy.
+ * <p>
+ * Each failure is classified with {@link SqliteFailure}. Only BUSY failures are retried:
+ * the whole transaction is run again after a jittered exponential backoff, for as long as
+ * the retry deadline allows. When the deadline runs out the result is UNAVAILABLE, so the API
+ * can answer 503 and the client can try again later. Constraint and fatal failures are
+ * returned at once as ordinary failures.
+ * <p>
+ * Retries, give-ups and failures by kind are counted in workout.db.retries,
+ * workout.db.giveups and workout.db.failures, tagged with the operation.
+ */
+@Service
+public class WorkoutTransactionRunner {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutTransactionRunner.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final long deadlineMillis;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final MeterRegistry registry;
+
+    /**
+     * Constructs the runner with its retry policy.
+     *
+     * @param transactionManager the transaction manager used for write operations
+     * @param deadlineMillis how long an operation may keep retrying, measured from its first attempt
+     * @param initialBackoffMillis the upper bound of the first backoff, doubled after each retry
+     * @param maxBackoffMillis the largest upper bound a backoff may reach
+     * @param registry the registry that receives the retry metrics
+     */
+    public WorkoutTransactionRunner(PlatformTransactionManager transactionManager,
+                                    @Value("${workout.db.retry.deadline-ms:2000}") long deadlineMillis,
+                                    @Value("${workout.db.retry.initial-backoff-ms:10}") long initialBackoffMillis,
+                                    @Value("${workout.db.retry.max-backoff-ms:250}") long maxBackoffMillis,
+                                    MeterRegistry registry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deadlineMillis = deadlineMillis;
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.registry = registry;
+    }
+
+    /**
+     * Runs a write operation in its own transaction, retrying it while SQLite is busy.
+     * <p>
+     * The transaction is rolled back when the operation returns a failed result.
+     *
+     * @param operation the name used in logs and metric tags, such as update
+     * @param errorPrefix the start of the message for failures, such as "Error updating workout: "
+     * @param work the operation
+     * @return the operation's result, or a failed result describing why it could not complete
+     */
+    public <T> OperationResult<T> write(String operation, String errorPrefix, Supplier<OperationResult<T>> work) {
+        return run(operation, errorPrefix, () -> {
+            // Traced as begin, the work itself, then commit or rollback
+            try (WorkoutTracer.Span transaction = WorkoutTracer.span("transaction")) {
+                WorkoutTracer.Span[] phase = {WorkoutTracer.span("transaction.begin")};
+                try {
+                    return transactionTemplate.execute(status -> {
+                        phase[0].close();
+                        OperationResult<T> result = work.get();
+                        if (!result.success()) status.setRollbackOnly();
+                        phase[0] = WorkoutTracer.span(result.success() ? "transaction.commit" : "transaction.rollback");
+                        return result;
+                    });
+                } finally {
+                    phase[0].close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs a read operation, retrying it while SQLite is busy.
+     *
+     * @param operation the name used in logs and metric tags, such as getAll
+     * @param errorPrefix the start of the message for failures, such as "Error retrieving workouts: "
+     * @param work the operation
+     * @return the operation's result, or a failed result describing why it could not complete
+     */
+    public <T> OperationResult<T> read(String operation, String errorPrefix, Supplier<OperationResult<T>> work) {
+        return run(operation, errorPrefix, work);
+    }
+
+    private <T> OperationResult<T> run(String operation, String errorPrefix, Supplier<OperationResult<T>> attempt) {
+        long deadline = System.currentTimeMillis() + deadlineMillis;
+        long backoffCeiling = initialBackoffMillis;
+        int retries = 0;
+
+        while (true) {
+            try {
+                return attempt.get();
+            } catch (Exception e) {
+                SqliteFailure failure = SqliteFailure.classify(e);
+                registry.counter("workout.db.failures", "operation", operation, "kind", failure.name()).increment();
+                if (failure != SqliteFailure.BUSY) {
+                    return new OperationResult<>(false, null, errorPrefix + e.getMessage());
+                }
+
+                // Full jitter keeps competing writers from waking up together
+                long backoff = ThreadLocalRandom.current().nextLong(backoffCeiling + 1);
+                if (System.currentTimeMillis() + backoff >= deadline || !backOff(backoff, retries + 1)) {
+                    registry.counter("workout.db.giveups", "operation", operation).increment();
+                    log.warn("action=DB_RETRY status=GIVE_UP operation={} retries={} message={}", operation, retries, e.getMessage());
+                    return new OperationResult<>(false, null,
+                            "The database is busy. Please try again shortly.", OperationStatus.UNAVAILABLE);
+                }
+
+                retries++;
+                registry.counter("workout.db.retries", "operation", operation).increment();
+                log.debug("action=DB_RETRY operation={} attempt={} backoff={}ms", operation, retries, backoff);
+                backoffCeiling = Math.min(maxBackoffMillis, backoffCeiling * 2);
+            }
+        }
+    }
+
+    private static boolean backOff(long millis, int attempt) {
+        try (WorkoutTracer.Span span = WorkoutTracer.span("busy.backoff")) {
+            span.attribute("attempt", attempt).attribute("backoffMs", millis);
+            return sleep(millis);
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.joaobarrera.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.LatencySummary;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.model.WarmupStatus;
+import org.joaobarrera.model.WorkoutChanges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutWarmup.java
+ */
+
+/**
+ * Drives the hot paths at startup so the first real requests do not pay for JIT
+ * compilation, Hibernate query plans and Jackson serializer construction.
+ * <p>
+ * Once the application is ready, a background thread runs the configured number of
+ * iterations. Each iteration runs inside a scratch transaction that is always rolled back.
+ * It round-trips a workout through JSON, then adds, reads, searches, updates, patches and
+ * deletes it through {@link WorkoutManager}. It also lists through {@link WorkoutJdbcReader}
+ * and the JSON cache, and reads the change log. Nothing is committed, so no change
+ * notification is sent and the data version does not move. The readiness group reports the
+ * application ready only once the warm-up is complete.
+ * <p>
+ * While the warm-up runs, {@link #isWarmingUp()} is true on its thread. Write admission,
+ * operation events, SQL statistics and the JSON cache check it and leave the warm-up out, so
+ * synthetic writes do not train the admission limit, rolled-back rows are never cached, and
+ * statistics from real traffic arriving meanwhile are kept. The latency of requests in the
+ * first minute after the warm-up is then logged, so deploys with and without warm-up can be
+ * compared.
+ */
+@Service
+public class WorkoutWarmup {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutWarmup.class);
+    private static final ThreadLocal<Boolean> WARMING_UP = new ThreadLocal<>();
+
+    private final WorkoutManager workoutManager;
+    private final WorkoutJdbcReader jdbcReader;
+    private final WorkoutJsonCache jsonCache;
+    private final WorkoutDataVersion dataVersion;
+    private final ObjectMapper objectMapper;
+    private final MetricsHistory metricsHistory;
+    private final TransactionTemplate scratchTransaction;
+    private final int iterations;
+    private final long maxDurationMillis;
+    private final long firstMinuteMillis;
+
+    private volatile String state = "PENDING";
+    private volatile int completed;
+    private volatile int failed;
+    private volatile Long durationMillis;
+    private volatile Double firstIterationMillis;
+    private volatile Double lastIterationMillis;
+    private volatile LatencySummary firstMinute;
+    private volatile Thread worker;
+
+    /**
+     * Constructs the warm-up.
+     *
+     * @param workoutManager the manager whose operations are warmed up
+     * @param jdbcReader the read path used for workout listings
+     * @param jsonCache the cache that serializes workout lists
+     * @param dataVersion the version passed to the read path
+     * @param objectMapper the mapper used for request and response bodies
+     * @param metricsHistory the history the first-minute latency is measured from
+     * @param transactionManager the transaction manager used for the scratch transactions
+     * @param iterations how many times the hot paths are driven, 0 to skip the warm-up
+     * @param maxDurationMillis how long the warm-up may run before it stops early
+     * @param firstMinuteMillis how long after the warm-up the request latency is measured
+     */
+    public WorkoutWarmup(WorkoutManager workoutManager,
+                         WorkoutJdbcReader jdbcReader,
+                         WorkoutJsonCache jsonCache,
+                         WorkoutDataVersion dataVersion,
+                         ObjectMapper objectMapper,
+                         MetricsHistory metricsHistory,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${workout.warmup.iterations:300}") int iterations,
+                         @Value("${workout.warmup.max-duration-ms:60000}") long maxDurationMillis,
+                         @Value("${workout.warmup.first-minute-ms:60000}") long firstMinuteMillis) {
+        this.workoutManager = workoutManager;
+        this.jdbcReader = jdbcReader;
+        this.jsonCache = jsonCache;
+        this.dataVersion = dataVersion;
+        this.objectMapper = objectMapper;
+        this.metricsHistory = metricsHistory;
+        this.scratchTransaction = new TransactionTemplate(transactionManager);
+        this.iterations = Math.max(0, iterations);
+        this.maxDurationMillis = maxDurationMillis;
+        this.firstMinuteMillis = firstMinuteMillis;
+    }
+
+    /**
+     * Starts the warm-up in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(() -> {
+            warmUp();
+            measureFirstMinute();
+        }, "warmup");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the warm-up or the first-minute measurement if either is still running.
+     */
+    @PreDestroy
+    public void shutdown() {
+        Thread thread = worker;
+        if (thread != null) thread.interrupt();
+    }
+
+    /**
+     * Reports whether the calling thread is running the warm-up, so components with shared
+     * state can keep the warm-up's work out of it.
+     *
+     * @return true inside a warm-up iteration
+     */
+    public static boolean isWarmingUp() {
+        return WARMING_UP.get() != null;
+    }
+
+    /**
+     * Reports whether the warm-up has finished.
+     *
+     * @return true once every iteration has run, or straight away if the warm-up is disabled
+     */
+    public boolean isComplete() {
+        return "COMPLETE".equals(state);
+    }
+
+    /**
+     * Returns the progress and outcome of the warm-up.
+     *
+     * @return the current warm-up status
+     */
+    public WarmupStatus getStatus() {
+        return new WarmupStatus(state, iterations, completed, failed, durationMillis,
+                firstIterationMillis, lastIterationMillis, firstMinute);
+    }
+
+    /**
+     * Runs the warm-up iterations on the calling thread, stopping early once the maximum
+     * duration has passed.
+     *
+     * @return the status once the warm-up is complete
+     */
+    public WarmupStatus warmUp() {
+        state = "RUNNING";
+        long start = System.currentTimeMillis();
+        long deadline = start + maxDurationMillis;
+        WARMING_UP.set(Boolean.TRUE);
+        try {
+            for (int i = 0; i < iterations && !Thread.currentThread().isInterrupted(); i++) {
+                if (System.currentTimeMillis() > deadline) {
+                    log.warn("action=WARMUP status=STOPPED_EARLY completed={} maxDuration={}ms", completed, maxDurationMillis);
+                    break;
+                }
+
+                long iterationStart = System.nanoTime();
+                try {
+                    int iteration = i;
+                    scratchTransaction.executeWithoutResult(status -> {
+                        status.setRollbackOnly();
+                        exercise(iteration);
+                    });
+                } catch (Exception e) {
+                    failed++;
+                    if (failed == 1) log.warn("action=WARMUP status=ITERATION_FAIL message={}", e.getMessage());
+                }
+
+                double millis = (System.nanoTime() - iterationStart) / 1_000_000.0;
+                if (i == 0) firstIterationMillis = millis;
+                lastIterationMillis = millis;
+                completed = i + 1;
+            }
+        } finally {
+            WARMING_UP.remove();
+        }
+
+        durationMillis = System.currentTimeMillis() - start;
+        state = "COMPLETE";
+        log.info("action=WARMUP status=SUCCESS iterations={} failed={} firstIteration={}ms lastIteration={}ms duration={}ms",
+                completed, failed, firstIterationMillis, lastIterationMillis, durationMillis);
+        return getStatus();
+    }
+
+    private void measureFirstMinute() {
+        long[] snapshot = metricsHistory.latencySnapshot();
+        try {
+            Thread.sleep(firstMinuteMillis);
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        LatencySummary summary = metricsHistory.latencySince(snapshot);
+        firstMinute = summary;
+        log.info("action=FIRST_MINUTE_LATENCY warmupIterations={} requests={} p50={}ms p95={}ms p99={}ms",
+                iterations, summary.requests(), summary.p50Millis(), summary.p95Millis(), summary.p99Millis());
+    }
+
+    // One pass over the hot paths, inside a transaction that is rolled back afterwards
+    private void exercise(int iteration) {
+        try {
+            Workout draft = new Workout(null, "Warm-up " + iteration, LocalDateTime.of(2000, 1, 1, 6, 0),
+                    30, 5.0, UnitType.KILOMETERS, "Warm-up");
+            Workout workout = objectMapper.readValue(objectMapper.writeValueAsBytes(draft), Workout.class);
+
+            OperationResult<Workout> added = workoutManager.addWorkout(workout);
+            if (!added.success()) throw new IllegalStateException(added.message());
+            Integer id = added.data().getID();
+
+            workoutManager.addWorkout(new Workout(null, "", null, 0, -1.0, null, null));
+            workoutManager.getAllWorkouts();
+            workoutManager.getWorkoutsBySearchParameter("warm-up");
+            workoutManager.getWorkoutsByDateRange(LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.of(2000, 1, 2, 0, 0));
+
+            Workout changed = new Workout(id, "Warm-up " + iteration, LocalDateTime.of(2000, 1, 1, 7, 0),
+                    45, 8.0, UnitType.MILES, "Warm-up", added.data().getVersion());
+            OperationResult<Workout> updated = workoutManager.updateWorkout(id, changed);
+            workoutManager.patchWorkout(id, Map.of(WorkoutField.NOTES, "Warm-up patch",
+                    WorkoutField.VERSION, updated.success() ? updated.data().getVersion() : 0L));
+            objectMapper.writeValueAsBytes(workoutManager.getAllWorkouts().data());
+
+            long version = dataVersion.current();
+            jdbcReader.getAllWorkouts(null, version);
+            jdbcReader.getAllWorkouts(EnumSet.of(WorkoutField.ID, WorkoutField.NAME), version);
+            jdbcReader.getWorkoutsBySearchParameter("warm-up", null, version);
+            jsonCache.serialize(List.of(updated.success() ? updated.data() : added.data()), version);
+            OperationResult<WorkoutChanges> changes = workoutManager.getChanges(null, null);
+            if (changes.success()) workoutManager.getChanges(changes.data().cursor(), null);
+
+            workoutManager.deleteWorkout(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.joaobarrera.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutWriteAdmission.java
+ */
+
+/**
+ * Limits how many workout writes run at once and turns away the excess quickly.
+ * <p>
+ * SQLite has a single write lock, so letting every request thread start a write only makes
+ * them queue inside the database while holding their threads, and reads starve for lack of
+ * threads. Writes are admitted up to a concurrency limit. Beyond it they wait in a bounded
+ * queue for a limited time, and once the queue is full a write is rejected straight away so
+ * the API can answer 429.
+ * <p>
+ * The limit adapts AIMD style to the latency of completed writes. Each write that finishes
+ * within the target latency raises it by about one per limit's worth of writes, and each
+ * write that runs slower, or finds the database busy, cuts it by a quarter. The limit stays
+ * between one and the configured maximum.
+ * <p>
+ * Writes made by the startup warm-up run straight away and leave the limit alone, so
+ * synthetic iterations do not train it.
+ */
+@Service
+public class WorkoutWriteAdmission {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutWriteAdmission.class);
+    private static final double DECREASE_FACTOR = 0.75;
+
+    private final int maxConcurrency;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final long targetLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    private final Counter rejections;
+
+    /**
+     * Constructs the admission control and registers its metrics.
+     *
+     * @param initialConcurrency the concurrency limit to start from
+     * @param maxConcurrency the highest the concurrency limit may grow to
+     * @param maxQueue how many writes may wait for a permit before new ones are rejected
+     * @param queueTimeoutMillis how long a queued write waits for a permit before it is rejected
+     * @param targetLatencyMillis the write latency above which the limit is cut
+     * @param registry the registry that receives the admission metrics
+     */
+    public WorkoutWriteAdmission(@Value("${workout.admission.initial-concurrency:2}") int initialConcurrency,
+                                 @Value("${workout.admission.max-concurrency:8}") int maxConcurrency,
+                                 @Value("${workout.admission.max-queue:32}") int maxQueue,
+                                 @Value("${workout.admission.queue-timeout-ms:1000}") long queueTimeoutMillis,
+                                 @Value("${workout.admission.target-latency-ms:100}") long targetLatencyMillis,
+                                 MeterRegistry registry) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.limit = Math.max(1, Math.min(initialConcurrency, this.maxConcurrency));
+        this.maxQueue = Math.max(0, maxQueue);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+
+        Gauge.builder("workout.admission.limit", this, WorkoutWriteAdmission::currentLimit)
+                .description("Writes currently allowed to run at once")
+                .register(registry);
+        Gauge.builder("workout.admission.in-flight", this, admission -> admission.locked(() -> admission.inFlight))
+                .description("Writes currently running")
+                .register(registry);
+        Gauge.builder("workout.admission.queue", this, admission -> admission.locked(() -> admission.queued))
+                .description("Writes waiting to be admitted")
+                .register(registry);
+        rejections = Counter.builder("workout.admission.rejections")
+                .description("Writes turned away because the queue was full or the wait timed out")
+                .register(registry);
+    }
+
+    /**
+     * Runs a write once it is admitted.
+     *
+     * @param operation the name used in logs, such as update
+     * @param write the write to run
+     * @return the write's result, or a REJECTED result if it was not admitted
+     */
+    public <T> OperationResult<T> admit(String operation, Supplier<OperationResult<T>> write) {
+        if (WorkoutWarmup.isWarmingUp()) return write.get();
+
+        boolean admitted;
+        try (WorkoutTracer.Span span = WorkoutTracer.span("admission.wait")) {
+            admitted = acquire();
+            if (!admitted) span.attribute("outcome", "rejected");
+        }
+        if (!admitted) {
+            rejections.increment();
+            log.warn("action=WRITE_ADMISSION status=REJECTED operation={} limit={}", operation, currentLimit());
+            return new OperationResult<>(false, null,
+                    "Too many changes are in progress. Please try again shortly.", OperationStatus.REJECTED);
+        }
+
+        long start = System.nanoTime();
+        OperationResult<T> result = null;
+        try {
+            result = write.get();
+            return result;
+        } finally {
+            boolean overloaded = result == null || result.status() == OperationStatus.UNAVAILABLE;
+            release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return the number of writes currently allowed to run at once
+     */
+    public int currentLimit() {
+        return locked(() -> (int) limit);
+    }
+
+    private boolean acquire() {
+        lock.lock();
+        try {
+            if (queued == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= maxQueue) return false;
+
+            queued++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) return false;
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long latencyNanos, boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (overloaded || latencyNanos > targetLatencyNanos) {
+                limit = Math.max(1, limit * DECREASE_FACTOR);
+            } else {
+                limit = Math.min(maxConcurrency, limit + 1 / limit);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <V> V locked(Supplier<V> read) {
+        lock.lock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+-- Workouts and their archive, as Hibernate created them while the schema was managed by
+-- ddl-auto. IF NOT EXISTS lets databases created that way adopt this migration unchanged.
+
+CREATE TABLE IF NOT EXISTS workout (
+    id integer,
+    distance float not null,
+    duration integer not null,
+    name varchar(50) not null,
+    notes varchar(200),
+    start_date_time timestamp not null,
+    unit varchar(255) not null check (unit in ('KILOMETERS','MILES')),
+    version bigint default 0 not null,
+    primary key (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_workout_start ON workout (start_date_time);
+
+CREATE TABLE IF NOT EXISTS workout_archive (
+    id integer not null,
+    archived_at timestamp not null,
+    distance float not null,
+    duration integer not null,
+    name varchar(50) not null,
+    notes varchar(200),
+    start_date_time timestamp not null,
+    unit varchar(255) not null check (unit in ('KILOMETERS','MILES')),
+    primary key (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_workout_archive_start ON workout_archive (start_date_time);
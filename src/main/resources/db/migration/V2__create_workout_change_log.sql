@@ -0,0 +1,21 @@
+-- Append-only log of workout changes behind the delta-sync endpoint. AUTOINCREMENT keeps
+-- sequence numbers from being reused once old entries are pruned.
+
+CREATE TABLE workout_change (
+    seq integer primary key autoincrement,
+    workout_id integer not null,
+    operation varchar(10) not null check (operation in ('UPSERT','DELETE')),
+    changed_at bigint not null
+);
+
+CREATE INDEX idx_workout_change_workout ON workout_change (workout_id, seq);
+
+-- One row. Cursors from another epoch or at or below pruned_through need a full resync.
+CREATE TABLE workout_change_horizon (
+    id integer primary key check (id = 1),
+    epoch bigint not null,
+    pruned_through integer not null
+);
+
+INSERT INTO workout_change_horizon (id, epoch, pruned_through)
+VALUES (1, CAST(strftime('%s', 'now') AS integer) * 1000, 0);
@@ -0,0 +1,29 @@
+-- Workout IDs were a plain rowid alias, so SQLite handed the ID of the newest workout out again
+-- once that workout had been archived. AUTOINCREMENT never reuses an ID. SQLite cannot add it to
+-- an existing table, so the table is rebuilt, and the sequence starts past every archived ID.
+
+CREATE TABLE workout_rebuilt (
+    id integer primary key autoincrement,
+    distance float not null,
+    duration integer not null,
+    name varchar(50) not null,
+    notes varchar(200),
+    start_date_time timestamp not null,
+    unit varchar(255) not null check (unit in ('KILOMETERS','MILES')),
+    version bigint default 0 not null
+);
+
+INSERT INTO workout_rebuilt (id, distance, duration, name, notes, start_date_time, unit, version)
+SELECT id, distance, duration, name, notes, start_date_time, unit, version FROM workout;
+
+DROP TABLE workout;
+
+ALTER TABLE workout_rebuilt RENAME TO workout;
+
+CREATE INDEX idx_workout_start ON workout (start_date_time);
+
+DELETE FROM sqlite_sequence WHERE name = 'workout';
+
+INSERT INTO sqlite_sequence (name, seq)
+SELECT 'workout', max(coalesce((SELECT max(id) FROM workout), 0),
+                      coalesce((SELECT max(id) FROM workout_archive), 0));
@@ -14,6 +14,12 @@ const searchInput = document.getElementById("search-input");
 
 let selectedRow = null;
 
+// Local copy of the workouts currently shown, keyed by id.
+// dataVersion is the server data version the copy is known to match.
+const workouts = new Map();
+let dataVersion = null;
+let currentQuery = "";
+
 refreshWorkouts()
 
 reloadWorkoutsButton.addEventListener("click", refreshWorkouts)
@@ -24,20 +30,8 @@ searchForm.addEventListener("submit", (e) => {
     let query = searchInput.value.trim();
     if (!query) query = "";
 
-    fetch(`/api/workout/getByName?name=${encodeURIComponent(query)}`)
-    .then(async response => {
-        if (response.ok) {
-            const data = await response.json();
-            populateWorkoutsTable(data);
-        } else {
-            const errorBody = await response.json();
-            alert("Search failed: " + (errorBody.error || "Unknown error"));
-        }
-    })
-    .catch(err => {
-        console.error(err);
-        alert("Error fetching workouts.");
-    })
+    currentQuery = query;
+    loadWorkouts();
 });
 
 createWorkoutButton.addEventListener("click", () => {
@@ -53,6 +47,8 @@ createWorkoutButton.addEventListener("click", () => {
     })
     .then(async response => {
         if (response.ok) {
+            const body = await response.json()
+            applyMutation(body, () => upsertWorkout(body.data))
             formResultMessage.textContent = "Workout added successfully!";
             formResultMessage.classList.add("success");
         } else {
@@ -62,10 +58,7 @@ createWorkoutButton.addEventListener("click", () => {
         }
     })
     .catch(console.log)
-    .finally(() => {
-        refreshWorkouts()
-        clearWorkoutForm()
-    })
+    .finally(clearWorkoutForm)
 })
 
 updateWorkoutButton.addEventListener("click", () => {
@@ -87,14 +80,22 @@ updateWorkoutButton.addEventListener("click", () => {
         method: "PUT",
         body: JSON.stringify({
             id,
+            version: parseInt(selectedRow.dataset.version),
             ...formData
         }),
         headers: {"Content-Type": "application/json"}
     })
         .then(async response => {
             if (response.ok) {
+                const body = await response.json();
+                applyMutation(body, () => upsertWorkout(body.data))
                 formResultMessage.textContent = "Workout updated successfully!";
                 formResultMessage.classList.add("success");
+            } else if (response.status === 409) {
+                // Someone else changed the workout first; show their version instead of overwriting it
+                loadWorkouts();
+                formResultMessage.textContent = "This workout was changed elsewhere. The latest version has been loaded.";
+                formResultMessage.classList.add("error");
             } else {
                 const errorBody = await response.json();
                 formResultMessage.textContent = errorBody.error || "Failed to update workout.";
@@ -102,10 +103,7 @@ updateWorkoutButton.addEventListener("click", () => {
             }
         })
         .catch(console.error)
-        .finally(() => {
-            refreshWorkouts()
-            clearWorkoutForm()
-        })
+        .finally(clearWorkoutForm)
 });
 
 deleteWorkoutButton.addEventListener("click", () => {
@@ -131,6 +129,8 @@ deleteWorkoutButton.addEventListener("click", () => {
     })
     .then(async response => {
         if (response.ok) {
+            const body = await response.json()
+            applyMutation(body, () => workouts.delete(body.data))
             formResultMessage.textContent = "Workout deleted successfully!";
             formResultMessage.classList.add("success");
         } else {
@@ -140,10 +140,7 @@ deleteWorkoutButton.addEventListener("click", () => {
         }
     })
     .catch(console.log)
-    .finally(() => {
-        refreshWorkouts()
-        clearWorkoutForm()
-    })
+    .finally(clearWorkoutForm)
 })
 
 convertToMilesButton.addEventListener("click", () => {
@@ -157,28 +154,59 @@ convertToKilometersButton.addEventListener("click", () => {
 function convertUnits(unitType) {
     if (confirm("Are you sure you want to convert all workouts to " + unitType + "?") === false) return
 
-    fetch("/api/workout/convertUnits", {
-        method: "PUT",
+    // Conversion runs as a background job; poll it and reload once it has finished
+    fetch("/api/jobs/convert", {
+        method: "POST",
         body: JSON.stringify(unitType),
         headers: {"Content-Type": "application/json"}
     })
     .then(async response => {
+        const body = await response.json()
+        if (response.ok) {
+            waitForJob(body.id)
+        } else {
+            window.alert(body.error);
+        }
+    })
+    .catch(console.log)
+}
+
+function waitForJob(jobId) {
+    fetch(`/api/jobs/${jobId}`)
+    .then(async response => {
+        const job = await response.json()
         if (!response.ok) {
-            const errorBody = await response.json()
-            const errorMessage = errorBody.error
-            window.alert(errorMessage);
+            window.alert(job.error);
+        } else if (job.state === "QUEUED" || job.state === "RUNNING") {
+            setTimeout(() => waitForJob(jobId), 500);
+        } else {
+            loadWorkouts();
+            if (job.state === "FAILED") window.alert(job.message);
         }
     })
     .catch(console.log)
-    .finally(refreshWorkouts)
 }
 
 function refreshWorkouts() {
-    fetch("/api/workout/getAll")
+    currentQuery = "";
+    loadWorkouts();
+}
+
+// Fetches the workouts for the current search (or all of them) and replaces the local copy
+function loadWorkouts() {
+    const url = currentQuery
+        ? `/api/workout/getByName?name=${encodeURIComponent(currentQuery)}`
+        : "/api/workout/getAll";
+
+    fetch(url)
     .then(async response => {
         if (response.ok) {
             const data = await response.json();
-            populateWorkoutsTable(data);
+            workouts.clear();
+            data.forEach(workout => workouts.set(workout.id, workout));
+            dataVersion = parseInt(response.headers.get("X-Data-Version"));
+            if (isNaN(dataVersion)) dataVersion = null;
+            populateWorkoutsTable(Array.from(workouts.values()));
         } else {
             const errorBody = await response.json();
             alert("Search failed: " + (errorBody.error || "Unknown error"));
@@ -190,6 +218,28 @@ function refreshWorkouts() {
     })
 }
 
+// Applies a mutation response to the local copy when the version its own commit produced
+// directly follows the known version. Any gap means another change happened in between, so
+// the table is reloaded instead.
+function applyMutation(body, apply) {
+    if (dataVersion !== null && body.version === dataVersion + 1) {
+        apply();
+        dataVersion = body.version;
+        populateWorkoutsTable(Array.from(workouts.values()).sort((a, b) => a.id - b.id));
+    } else if (dataVersion === null || body.version > dataVersion) {
+        loadWorkouts();
+    }
+}
+
+// Adds or replaces a workout in the local copy, respecting the current search
+function upsertWorkout(workout) {
+    if (!currentQuery || workout.name.toLowerCase().includes(currentQuery.toLowerCase())) {
+        workouts.set(workout.id, workout);
+    } else {
+        workouts.delete(workout.id);
+    }
+}
+
 function selectRow(e) {
     // Remove previous selection highlight
     if (selectedRow !== null) {
@@ -254,6 +304,7 @@ function populateWorkoutsTable(data) {
             tr.dataset.distance = workout.distance;
             tr.dataset.unit = workout.unit;
             tr.dataset.notes = workout.notes;
+            tr.dataset.version = workout.version;
 
             const name = document.createElement("td");
             name.innerText = workout.name;
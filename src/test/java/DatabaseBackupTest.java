@@ -0,0 +1,85 @@
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.BackupStatus;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.DatabaseBackupService;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * DatabaseBackupTest.java
+ * This class uses unit testing to validate the online backup and restore functionality.
+ */
+
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class DatabaseBackupTest {
+    @Autowired
+    private DatabaseBackupService backupService;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+    }
+
+    @DisplayName("Should write a verified backup file")
+    @Test
+    void backup_ShouldWriteVerifiedFile() {
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T12:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+
+        OperationResult<BackupStatus> result = backupService.backupNow();
+
+        assertTrue(result.success(), result.message());
+        assertEquals("SUCCEEDED", result.data().state());
+        assertTrue(Files.isRegularFile(Path.of(result.data().file())));
+        assertTrue(backupService.listBackups().data().contains(Path.of(result.data().file()).getFileName().toString()));
+    }
+
+    @DisplayName("Should restore the database to the state captured by a backup")
+    @Test
+    void restore_ShouldReturnDatabaseToBackedUpState() {
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T12:00"), 30, 5.0, UnitType.KILOMETERS, "Kept"));
+        OperationResult<BackupStatus> backup = backupService.backupNow();
+        assertTrue(backup.success(), backup.message());
+
+        workoutManager.addWorkout(new Workout(null, "Walk", LocalDateTime.parse("2025-10-11T12:00"), 45, 3.0, UnitType.MILES, "Lost"));
+        assertEquals(2, workoutManager.getAllWorkouts().data().size());
+
+        String fileName = Path.of(backup.data().file()).getFileName().toString();
+        OperationResult<BackupStatus> restore = backupService.restore(fileName);
+
+        assertTrue(restore.success(), restore.message());
+        assertEquals(1, workoutManager.getAllWorkouts().data().size());
+        assertEquals("Kept", workoutManager.getAllWorkouts().data().get(0).getNotes());
+    }
+
+    @DisplayName("Should refuse to restore files outside the backup directory")
+    @Test
+    void restore_ShouldFail_ForUnknownFile() {
+        assertFalse(backupService.restore("../storage.db").success());
+        assertFalse(backupService.restore("workouts-missing.db").success());
+    }
+}
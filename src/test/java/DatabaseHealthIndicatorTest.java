@@ -0,0 +1,88 @@
+import org.joaobarrera.Main;
+import org.joaobarrera.config.DatabaseHealthIndicator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.CompositeHealth;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * DatabaseHealthIndicatorTest.java
+ * This class uses unit testing to validate that the database health is probed in the
+ * background, served from cache, and reported through separate liveness and readiness groups.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class DatabaseHealthIndicatorTest {
+    private static final Path DIRECTORY = Path.of("target", "test-health");
+
+    @Autowired
+    private DatabaseHealthIndicator healthIndicator;
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Test
+    @DisplayName("Should report UP with ping and quick_check details for the test database")
+    void refresh_ShouldReportUp_ForHealthyDatabase() {
+        Health health = healthIndicator.refresh();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("ok", health.getDetails().get("quickCheck"));
+        assertTrue(health.getDetails().containsKey("pingMillis"));
+        assertEquals(health, healthIndicator.health());
+    }
+
+    @Test
+    @DisplayName("Should report DOWN without creating the file when the database is missing")
+    void refresh_ShouldReportDown_WhenDatabaseIsMissing() {
+        Path missing = DIRECTORY.resolve("missing.db");
+        DatabaseHealthIndicator indicator = new DatabaseHealthIndicator("jdbc:sqlite:" + missing, 10_000, 600_000, 100);
+
+        assertEquals(Status.DOWN, indicator.refresh().getStatus());
+        assertFalse(Files.exists(missing), "the probe must not create the database");
+    }
+
+    @Test
+    @DisplayName("Should serve the cached result until the next probe")
+    void health_ShouldServeCachedResult_BetweenProbes() throws Exception {
+        Files.createDirectories(DIRECTORY);
+        Path copy = DIRECTORY.resolve("cached.db");
+        Files.copy(Path.of("src/test/resources/test.db"), copy, StandardCopyOption.REPLACE_EXISTING);
+        DatabaseHealthIndicator indicator = new DatabaseHealthIndicator("jdbc:sqlite:" + copy, 10_000, 600_000, 100);
+
+        assertEquals(Status.UP, indicator.refresh().getStatus());
+        Files.delete(copy);
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(Status.DOWN, indicator.refresh().getStatus());
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should include the database in readiness but not in liveness")
+    void groups_ShouldSeparateLivenessAndReadiness() {
+        HealthComponent readiness = healthEndpoint.healthForPath("readiness");
+        HealthComponent liveness = healthEndpoint.healthForPath("liveness");
+
+        assertEquals(Status.UP, readiness.getStatus());
+        assertTrue(((CompositeHealth) readiness).getComponents().containsKey("database"));
+        assertFalse(((CompositeHealth) liveness).getComponents().containsKey("database"));
+        assertFalse(((CompositeHealth) healthEndpoint.health()).getComponents().containsKey("db"),
+                "the blocking datasource check should be replaced");
+    }
+}
@@ -0,0 +1,144 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.service.DatabaseMaintenanceService;
+import org.joaobarrera.service.MetricsHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * DatabaseMaintenanceServiceTest.java
+ * This class uses unit testing to validate that database maintenance enables WAL and
+ * incremental auto-vacuum, reclaims free pages in bounded steps and keeps the WAL short.
+ */
+public class DatabaseMaintenanceServiceTest {
+    private static final Path DIRECTORY = Path.of("target", "test-maintenance");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricsHistory metricsHistory = new MetricsHistory(registry, false);
+    private String url;
+
+    @BeforeEach
+    void setup() throws Exception {
+        Files.createDirectories(DIRECTORY);
+        Path database = DIRECTORY.resolve("maintenance.db");
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Files.deleteIfExists(DIRECTORY.resolve("maintenance.db" + suffix));
+        }
+        url = "jdbc:sqlite:" + database;
+
+        // A database created in the default rollback journal mode, like the ones Hibernate left behind
+        try (Connection connection = DriverManager.getConnection(url); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE filler (id integer primary key, payload text not null)");
+        }
+    }
+
+    @Test
+    @DisplayName("Should switch the database to WAL and incremental auto-vacuum at startup")
+    void prepare_ShouldEnableWalAndIncrementalVacuum() throws SQLException {
+        DatabaseMaintenanceService service = service(100, 16 * 1024 * 1024);
+        service.prepare();
+
+        assertEquals("wal", queryString("PRAGMA journal_mode"));
+        assertEquals("2", queryString("PRAGMA auto_vacuum"));
+        assertTrue(service.fileBytes() > 0);
+        assertEquals(service.fileBytes(), registry.get("workout.db.file.bytes").gauge().value(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should return free pages in steps, and only once traffic is known to be low")
+    void runMaintenance_ShouldReclaimFreePages_WhenTrafficIsLow() throws SQLException {
+        DatabaseMaintenanceService service = service(1000, 16 * 1024 * 1024);
+        service.prepare();
+        fillAndDelete(2000);
+        service.refreshStatistics();
+        long free = service.freelistPages();
+        long bytes = service.fileBytes();
+        assertTrue(free > 64, "deleting rows should leave free pages: " + free);
+
+        // The first pass has no earlier pass to measure traffic against
+        assertTrue(service.runMaintenance());
+        assertEquals(free, service.freelistPages());
+
+        assertTrue(service.runMaintenance());
+        assertEquals(0, service.freelistPages());
+        assertTrue(service.fileBytes() < bytes);
+        assertEquals(free, registry.get("workout.db.maintenance.reclaimed.pages").counter().count(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should stop reclaiming after the maximum number of steps")
+    void reclaimFreePages_ShouldStop_AfterMaxSteps() throws SQLException {
+        DatabaseMaintenanceService service = service(1, 16 * 1024 * 1024);
+        service.prepare();
+        fillAndDelete(2000);
+
+        OperationResult<Integer> result = service.reclaimFreePages();
+        assertTrue(result.success(), result.message());
+        assertEquals(64, result.data());
+        service.refreshStatistics();
+        assertTrue(service.freelistPages() > 0);
+    }
+
+    @Test
+    @DisplayName("Should truncate the WAL once it is over its limit")
+    void checkpoint_ShouldTruncateWal_WhenOverLimit() throws SQLException {
+        DatabaseMaintenanceService service = service(100, 0);
+        service.prepare();
+        try (Connection connection = DriverManager.getConnection(url)) {
+            fill(connection, 500);
+            assertTrue(service.walBytes() > 0);
+
+            OperationResult<Integer> result = service.checkpoint();
+            assertTrue(result.success(), result.message());
+            assertEquals(0, service.walBytes());
+        }
+    }
+
+    private DatabaseMaintenanceService service(int vacuumMaxSteps, long walMaxBytes) {
+        return new DatabaseMaintenanceService(url, metricsHistory, true, 50, 0, 64, vacuumMaxSteps, 0,
+                5, walMaxBytes, 64 * 1024 * 1024, registry);
+    }
+
+    private void fillAndDelete(int rows) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url); Statement statement = connection.createStatement()) {
+            fill(connection, rows);
+            statement.executeUpdate("DELETE FROM filler");
+            statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+    }
+
+    private void fill(Connection connection, int rows) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO filler (payload) VALUES (?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, "x".repeat(1000));
+                insert.executeUpdate();
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
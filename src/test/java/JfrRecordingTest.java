@@ -0,0 +1,115 @@
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.RecordingStatus;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.JfrRecordingService;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * JfrRecordingTest.java
+ * This class uses unit testing to validate that on-demand recordings capture an event for
+ * each WorkoutManager operation.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class JfrRecordingTest {
+
+    @Autowired
+    private JfrRecordingService recordingService;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+    }
+
+    @AfterEach
+    void cleanup() {
+        recordingService.stop();
+    }
+
+    @Test
+    @DisplayName("Should record an event with outcome, timings and rows for each operation")
+    void recording_ShouldCaptureWorkoutOperations() throws Exception {
+        assertTrue(recordingService.start(30L).success());
+
+        OperationResult<Workout> added = workoutManager.addWorkout(new Workout(null, "Run",
+                LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+        workoutManager.addWorkout(new Workout(null, "", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0,
+                UnitType.KILOMETERS, ""));
+        workoutManager.deleteWorkout(added.data().getID());
+
+        OperationResult<Path> stopped = recordingService.stop();
+        assertTrue(stopped.success(), stopped.message());
+        assertEquals("STOPPED", recordingService.getStatus().state());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(stopped.data()).stream()
+                .filter(event -> event.getEventType().getName().equals("org.joaobarrera.WorkoutOperation"))
+                .toList();
+        assertEquals(3, events.size());
+
+        RecordedEvent add = events.get(0);
+        assertEquals("add", add.getString("operation"));
+        assertEquals("SUCCEEDED", add.getString("outcome"));
+        assertEquals(1, add.getInt("rows"));
+        assertTrue(add.getInt("statements") >= 1);
+        assertTrue(add.getDuration("databaseTime").toNanos() > 0);
+
+        RecordedEvent invalid = events.get(1);
+        assertEquals("FAILED", invalid.getString("outcome"));
+        assertEquals(0, invalid.getInt("statements"));
+        assertEquals(0, invalid.getInt("rows"));
+
+        RecordedEvent delete = events.get(2);
+        assertEquals("delete", delete.getString("operation"));
+        assertEquals(added.data().getID().longValue(), delete.getLong("workoutId"));
+        Files.deleteIfExists(stopped.data());
+    }
+
+    @Test
+    @DisplayName("Should refuse a second recording while one is running")
+    void start_ShouldFail_WhenRecordingIsRunning() {
+        OperationResult<RecordingStatus> first = recordingService.start(30L);
+        assertTrue(first.success());
+        assertEquals(30, first.data().maxDurationSeconds());
+
+        OperationResult<RecordingStatus> second = recordingService.start(30L);
+        assertFalse(second.success());
+        assertEquals("RUNNING", second.data().state());
+    }
+
+    @Test
+    @DisplayName("Should cap the duration of a recording at the configured maximum")
+    void start_ShouldCapDuration() {
+        OperationResult<RecordingStatus> started = recordingService.start(1_000_000L);
+        assertTrue(started.success());
+        assertEquals(600, started.data().maxDurationSeconds());
+    }
+}
@@ -0,0 +1,117 @@
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.model.MetricSeries;
+import org.joaobarrera.model.MetricsHistorySnapshot;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.service.MetricsHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * MetricsHistoryTest.java
+ * This class uses unit testing to validate that the metric history turns readings into rates,
+ * percentiles and averages at each resolution and keeps a fixed number of points.
+ */
+public class MetricsHistoryTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricsHistory history = new MetricsHistory(registry, false);
+
+    @DisplayName("Should report the request rate and latency percentiles of each second")
+    @Test
+    void sample_ShouldRecordRateAndPercentiles_PerSecond() {
+        history.sample(1000);
+        for (int i = 0; i < 98; i++) history.recordRequest(TimeUnit.MILLISECONDS.toNanos(10));
+        history.recordRequest(TimeUnit.MILLISECONDS.toNanos(900));
+        history.recordRequest(TimeUnit.MILLISECONDS.toNanos(900));
+        history.sample(2000);
+
+        MetricsHistorySnapshot snapshot = query("1s", "http.requests", "http.latency.p50", "http.latency.p99");
+        assertEquals(List.of(1000L), snapshot.timestamps());
+        assertEquals(100, value(snapshot, "http.requests", 0), 0.001);
+        assertEquals(10, value(snapshot, "http.latency.p50", 0), 3);
+        assertEquals(900, value(snapshot, "http.latency.p99", 0), 250);
+
+        history.sample(3000);
+        snapshot = query("1s", "http.requests", "http.latency.p50");
+        assertEquals(0, value(snapshot, "http.requests", 1), 0.001);
+        assertNull(snapshot.series().get(1).values().get(1), "a second without requests has no latency");
+    }
+
+    @DisplayName("Should average gauges and sum counters over each minute")
+    @Test
+    void sample_ShouldRollUpMinutes() {
+        AtomicReference<Double> cpu = new AtomicReference<>(0.2);
+        Gauge.builder("process.cpu.usage", cpu, AtomicReference::get).register(registry);
+
+        for (long second = 0; second < 60; second++) {
+            history.recordRequest(TimeUnit.MILLISECONDS.toNanos(5));
+            history.sample(second * 1000);
+        }
+        cpu.set(0.6);
+        for (long second = 60; second <= 120; second++) history.sample(second * 1000);
+
+        MetricsHistorySnapshot snapshot = query("1m", "cpu.process", "http.requests");
+        assertEquals(List.of(0L, 60_000L), snapshot.timestamps());
+        assertEquals(20, value(snapshot, "cpu.process", 0), 0.001);
+        assertEquals(60, value(snapshot, "cpu.process", 1), 0.001);
+        assertEquals(59 / 60.0, value(snapshot, "http.requests", 0), 0.001);
+    }
+
+    @DisplayName("Should keep only the most recent points once the ring is full")
+    @Test
+    void sample_ShouldOverwriteOldestPoints_WhenFull() {
+        for (long second = 0; second <= 700; second++) history.sample(second * 1000);
+
+        MetricsHistorySnapshot snapshot = query("1s");
+        assertEquals(600, snapshot.timestamps().size());
+        assertEquals(100_000L, snapshot.timestamps().get(0));
+        assertEquals(699_000L, snapshot.timestamps().get(599));
+
+        OperationResult<MetricsHistorySnapshot> recent = history.query("1s", null, 690_000L);
+        assertEquals(10, recent.data().timestamps().size());
+    }
+
+    @DisplayName("Should fail for an unknown resolution or series")
+    @Test
+    void query_ShouldFail_WhenNameIsUnknown() {
+        assertFalse(history.query("5m", null, null).success());
+        assertFalse(history.query("1s", List.of("disk.io"), null).success());
+    }
+
+    @DisplayName("Should sample on its own thread once started")
+    @Test
+    void start_ShouldSampleEverySecond() throws InterruptedException {
+        MetricsHistory sampled = new MetricsHistory(registry, true);
+        sampled.start();
+        try {
+            Thread.sleep(3500);
+        } finally {
+            sampled.shutdown();
+        }
+
+        // The first sample only opens the first period
+        OperationResult<MetricsHistorySnapshot> result = sampled.query("1s", List.of("http.requests"), null);
+        assertTrue(result.success(), result.message());
+        assertTrue(result.data().timestamps().size() >= 2, result.data().timestamps().toString());
+    }
+
+    private MetricsHistorySnapshot query(String resolution, String... series) {
+        OperationResult<MetricsHistorySnapshot> result = history.query(resolution, List.of(series), null);
+        assertTrue(result.success(), result.message());
+        return result.data();
+    }
+
+    private static double value(MetricsHistorySnapshot snapshot, String name, int index) {
+        MetricSeries series = snapshot.series().stream().filter(s -> s.name().equals(name)).findFirst().orElseThrow();
+        return series.values().get(index);
+    }
+}
@@ -0,0 +1,99 @@
+import org.joaobarrera.service.SchemaMigrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * SchemaMigratorTest.java
+ * This class uses unit testing to validate that versioned migrations create the schema once,
+ * adopt databases created by Hibernate, and refuse scripts changed after they were applied.
+ */
+public class SchemaMigratorTest {
+    private static final Path DIRECTORY = Path.of("target", "test-migrations");
+
+    private Path database;
+    private SQLiteDataSource dataSource;
+
+    @BeforeEach
+    void setup() throws Exception {
+        Files.createDirectories(DIRECTORY);
+        database = DIRECTORY.resolve("migrations.db");
+        Files.deleteIfExists(database);
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + database);
+    }
+
+    @Test
+    @DisplayName("Should create the schema on an empty database and do nothing on the next start")
+    void migrate_ShouldApplyOnce_OnEmptyDatabase() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource);
+
+        assertTrue(migrator.migrate() > 0);
+        List<String> objects = query("SELECT name FROM sqlite_master WHERE type IN ('table', 'index')");
+        assertTrue(objects.containsAll(List.of("workout", "workout_archive", "idx_workout_start",
+                "idx_workout_archive_start", "schema_history")), objects.toString());
+        assertTrue(query("PRAGMA table_info(workout)", "name").contains("version"));
+
+        List<String> history = query("SELECT version FROM schema_history");
+        assertEquals(0, migrator.migrate());
+        assertEquals(history, query("SELECT version FROM schema_history"));
+    }
+
+    @Test
+    @DisplayName("Should adopt a database created by Hibernate and keep its rows")
+    void migrate_ShouldAdoptLegacyDatabase() throws SQLException, IOException {
+        Files.copy(Path.of("src/main/data/mockdata.db"), database, StandardCopyOption.REPLACE_EXISTING);
+        List<String> before = query("SELECT id || ':' || name FROM workout ORDER BY id");
+        assertFalse(query("PRAGMA table_info(workout)", "name").contains("version"));
+
+        new SchemaMigrator(dataSource).migrate();
+
+        assertEquals(before, query("SELECT id || ':' || name FROM workout ORDER BY id"));
+        assertEquals(List.of("0"), query("SELECT DISTINCT version FROM workout"));
+        assertTrue(query("SELECT name FROM sqlite_master WHERE type = 'index'").contains("idx_workout_start"));
+    }
+
+    @Test
+    @DisplayName("Should refuse to start when an applied migration was changed")
+    void migrate_ShouldFail_WhenChecksumDiffers() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource);
+        migrator.migrate();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE schema_history SET checksum = checksum + 1 WHERE version = 1");
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, migrator::migrate);
+        assertTrue(e.getMessage().contains("V1"), e.getMessage());
+    }
+
+    private List<String> query(String sql) throws SQLException {
+        return query(sql, null);
+    }
+
+    private List<String> query(String sql, String column) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) values.add(column == null ? rs.getString(1) : rs.getString(column));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,198 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.ArchivedWorkoutRepository;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutArchiveService;
+import org.joaobarrera.service.WorkoutChangeLog;
+import org.joaobarrera.service.WorkoutDataVersion;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutArchiveTest.java
+ * This class uses unit testing to validate the archival of old workouts.
+ */
+
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutArchiveTest {
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ArchivedWorkoutRepository archivedWorkoutRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkoutDataVersion dataVersion;
+
+    @Autowired
+    private WorkoutChangeLog changeLog;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+        archivedWorkoutRepository.deleteAll();
+        archiveService.refreshStatistics();
+
+        workoutManager.addWorkout(new Workout(null, "Old Run", LocalDateTime.parse("2020-03-01T08:00"), 30, 5.0, UnitType.KILOMETERS, "Archived"));
+        workoutManager.addWorkout(new Workout(null, "New Run", LocalDateTime.parse("2025-10-10T08:00"), 40, 6.0, UnitType.KILOMETERS, "Hot"));
+        workoutManager.addWorkout(new Workout(null, "Old Walk", LocalDateTime.parse("2021-06-15T18:00"), 50, 3.0, UnitType.MILES, null));
+    }
+
+    @DisplayName("Should move only workouts older than the cutoff out of the primary table")
+    @Test
+    void archive_ShouldMoveOldWorkouts() {
+        OperationResult<Integer> result = archiveService.archiveOlderThan(LocalDateTime.parse("2024-01-01T00:00"));
+
+        assertTrue(result.success(), result.message());
+        assertEquals(2, result.data());
+        assertEquals(2, archivedWorkoutRepository.count());
+
+        List<Workout> hot = workoutManager.getAllWorkouts().data();
+        assertEquals(1, hot.size());
+        assertEquals("New Run", hot.get(0).getName());
+    }
+
+    @DisplayName("Should include archived workouts in date-range queries that reach into the archive")
+    @Test
+    void dateRange_ShouldUnionArchive() {
+        assertTrue(archiveService.archiveOlderThan(LocalDateTime.parse("2024-01-01T00:00")).success());
+
+        List<Workout> all = workoutManager.getWorkoutsByDateRange(
+                LocalDateTime.parse("2019-01-01T00:00"), LocalDateTime.parse("2026-01-01T00:00")).data();
+
+        assertEquals(3, all.size());
+        assertEquals("Old Run", all.get(0).getName());
+        assertEquals("Archived", all.get(0).getNotes());
+        assertEquals("Old Walk", all.get(1).getName());
+        assertNull(all.get(1).getNotes());
+        assertEquals("New Run", all.get(2).getName());
+    }
+
+    @DisplayName("Should keep archived workouts out of date ranges that do not reach them")
+    @Test
+    void dateRange_ShouldExcludeArchiveOutsideRange() {
+        assertTrue(archiveService.archiveOlderThan(LocalDateTime.parse("2024-01-01T00:00")).success());
+
+        List<Workout> recent = workoutManager.getWorkoutsByDateRange(
+                LocalDateTime.parse("2025-01-01T00:00"), LocalDateTime.parse("2026-01-01T00:00")).data();
+
+        assertEquals(1, recent.size());
+        assertEquals("New Run", recent.get(0).getName());
+    }
+
+    @DisplayName("Should never reuse the ID of an archived workout")
+    @Test
+    void archive_ShouldNotReuseArchivedIds() {
+        Workout newest = workoutManager.addWorkout(new Workout(null, "Backfilled Run",
+                LocalDateTime.parse("2019-05-05T08:00"), 20, 4.0, UnitType.KILOMETERS, null)).data();
+        assertTrue(archiveService.archiveOlderThan(LocalDateTime.parse("2024-01-01T00:00")).success());
+
+        Workout next = workoutManager.addWorkout(new Workout(null, "Another Backfill",
+                LocalDateTime.parse("2019-06-06T08:00"), 25, 4.5, UnitType.KILOMETERS, null)).data();
+        assertTrue(next.getID() > newest.getID());
+
+        OperationResult<Integer> result = archiveService.archiveOlderThan(LocalDateTime.parse("2024-01-01T00:00"));
+        assertTrue(result.success(), result.message());
+        assertEquals(4, archivedWorkoutRepository.count());
+    }
+
+    @DisplayName("Should route date ranges to the archive as soon as the first batch is moved")
+    @Test
+    void archive_ShouldExposeArchivedRange_PerBatch() throws Exception {
+        WorkoutArchiveService slowArchive = new WorkoutArchiveService(jdbcTemplate, transactionManager,
+                archivedWorkoutRepository, dataVersion, changeLog, 365, 1, 1000, new SimpleMeterRegistry());
+        assertFalse(slowArchive.archiveMayContain(LocalDateTime.parse("2020-01-01T00:00")));
+
+        Thread run = new Thread(() -> slowArchive.archiveOlderThan(LocalDateTime.parse("2024-01-01T00:00")));
+        run.start();
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (archivedWorkoutRepository.count() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+
+            // The first batch moved the 2020 run; the run is now pausing before the second batch
+            assertEquals(1, archivedWorkoutRepository.count());
+            assertTrue(slowArchive.archiveMayContain(LocalDateTime.parse("2020-01-01T00:00")));
+        } finally {
+            run.join();
+        }
+    }
+
+    @DisplayName("Should keep the archived range when statistics are refreshed during a batch")
+    @Test
+    void refreshStatistics_ShouldNotNarrow_WhileBatchIsUncommitted() throws Exception {
+        // Refreshes from another thread once the batch is copied but not yet committed
+        AtomicReference<WorkoutArchiveService> service = new AtomicReference<>();
+        NamedParameterJdbcTemplate refreshingTemplate = new NamedParameterJdbcTemplate(
+                jdbcTemplate.getJdbcTemplate().getDataSource()) {
+            @Override
+            public int update(String sql, SqlParameterSource params) {
+                if (sql.startsWith("DELETE")) {
+                    Thread refresh = new Thread(() -> service.get().refreshStatistics());
+                    refresh.start();
+                    try {
+                        refresh.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.update(sql, params);
+            }
+        };
+        service.set(new WorkoutArchiveService(refreshingTemplate, transactionManager,
+                archivedWorkoutRepository, dataVersion, changeLog, 365, 1, 1000, new SimpleMeterRegistry()));
+
+        Thread run = new Thread(() -> service.get().archiveOlderThan(LocalDateTime.parse("2024-01-01T00:00")));
+        run.start();
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (archivedWorkoutRepository.count() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+
+            // The first batch has committed and the run is pausing before the second batch
+            assertEquals(1, archivedWorkoutRepository.count());
+            assertTrue(service.get().archiveMayContain(LocalDateTime.parse("2020-01-01T00:00")));
+        } finally {
+            run.join();
+        }
+    }
+
+    @DisplayName("Should fail when the date range is inverted")
+    @Test
+    void dateRange_ShouldFail_WhenInverted() {
+        assertFalse(workoutManager.getWorkoutsByDateRange(
+                LocalDateTime.parse("2026-01-01T00:00"), LocalDateTime.parse("2025-01-01T00:00")).success());
+    }
+}
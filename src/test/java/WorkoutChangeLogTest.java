@@ -0,0 +1,188 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.model.WorkoutChanges;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutChangeLog;
+import org.joaobarrera.service.WorkoutField;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutChangeLogTest.java
+ * This class uses unit testing to validate that every write is recorded in the change log and
+ * that clients receive compacted, paged deltas or a resync signal once their cursor is pruned.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutChangeLogTest {
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WorkoutChangeLog changeLog;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should return each changed workout once, with its latest values or as deleted")
+    void getChanges_ShouldCompactChanges_SinceCursor() {
+        WorkoutChanges first = changes(null, null);
+        assertTrue(first.resync(), "a client without a cursor starts with a full resync");
+
+        Workout kept = add("Run");
+        Workout removed = add("Ride");
+        workoutManager.patchWorkout(kept.getID(), Map.of(WorkoutField.NOTES, "Felt good"));
+        workoutManager.deleteWorkout(removed.getID());
+
+        WorkoutChanges delta = changes(first.cursor(), null);
+        assertFalse(delta.resync());
+        assertFalse(delta.hasMore());
+        assertEquals(1, delta.upserted().size());
+        assertEquals(kept.getID(), delta.upserted().get(0).getID());
+        assertEquals("Felt good", delta.upserted().get(0).getNotes());
+        assertEquals(List.of(removed.getID()), delta.deleted());
+
+        WorkoutChanges none = changes(delta.cursor(), null);
+        assertTrue(none.upserted().isEmpty());
+        assertTrue(none.deleted().isEmpty());
+        assertEquals(delta.cursor(), none.cursor());
+
+        assertTrue(workoutManager.convertAllUnits(UnitType.MILES).success());
+        WorkoutChanges converted = changes(none.cursor(), null);
+        assertEquals(UnitType.MILES, converted.upserted().get(0).getUnit());
+    }
+
+    @Test
+    @DisplayName("Should page through the changes without skipping any workout")
+    void getChanges_ShouldPage_WhenLimitIsReached() {
+        String cursor = changes(null, null).cursor();
+        for (int i = 0; i < 5; i++) add("Run " + i);
+
+        Set<Integer> seen = new HashSet<>();
+        int pages = 0;
+        WorkoutChanges page;
+        do {
+            page = changes(cursor, 2);
+            page.upserted().forEach(workout -> seen.add(workout.getID()));
+            cursor = page.cursor();
+            pages++;
+        } while (page.hasMore());
+
+        assertEquals(3, pages);
+        assertEquals(5, seen.size());
+    }
+
+    @Test
+    @DisplayName("Should ask clients to resync once their cursor has been pruned")
+    void prune_ShouldSignalResync_ForPrunedCursors() {
+        String old = changes(null, null).cursor();
+        add("Run");
+        String current = changes(old, null).cursor();
+
+        OperationResult<Long> pruned = changeLog.prune(System.currentTimeMillis() + 1);
+        assertTrue(pruned.success(), pruned.message());
+        assertTrue(pruned.data() > 0);
+
+        assertTrue(changes(old, null).resync());
+        assertFalse(changes(current, null).resync(), "a cursor at the pruned horizon is still served");
+    }
+
+    @Test
+    @DisplayName("Should not lose changes pruned between the horizon check and the page read")
+    void getChanges_ShouldNotSkipChanges_PrunedDuringRead() throws Exception {
+        String cursor = changes(null, null).cursor();
+        add("Run");
+        add("Ride");
+        add("Swim");
+
+        // Prunes the whole log from another thread just before the page is read
+        AtomicReference<OperationResult<Long>> pruned = new AtomicReference<>();
+        JdbcTemplate pruningTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+                if (pruned.get() == null) {
+                    Thread pruner = new Thread(() -> pruned.set(changeLog.prune(System.currentTimeMillis() + 1)));
+                    pruner.start();
+                    try {
+                        pruner.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.query(sql, rowMapper, args);
+            }
+        };
+        WorkoutChangeLog reader = new WorkoutChangeLog(pruningTemplate, workoutRepository, transactionManager,
+                500, 5000, 720, 100000, 1000, new SimpleMeterRegistry());
+
+        OperationResult<WorkoutChanges> result = reader.changesSince(cursor, null);
+        assertNotNull(pruned.get(), "the prune ran between the two reads");
+        assertTrue(result.success(), result.message());
+        WorkoutChanges page = result.data();
+        assertTrue(page.resync() || page.upserted().size() == 3,
+                "a page must either hold every change or ask for a resync, got " + page.upserted().size());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor and resync cursors from an earlier epoch")
+    void getChanges_ShouldRejectOrResync_InvalidCursors() {
+        assertFalse(workoutManager.getChanges("yesterday", null).success());
+        assertFalse(workoutManager.getChanges(null, 0).success());
+
+        String cursor = changes(null, null).cursor();
+        changeLog.invalidate();
+        WorkoutChanges resync = changes(cursor, null);
+        assertTrue(resync.resync());
+        assertNotEquals(cursor, resync.cursor());
+    }
+
+    private WorkoutChanges changes(String since, Integer limit) {
+        OperationResult<WorkoutChanges> result = workoutManager.getChanges(since, limit);
+        assertTrue(result.success(), result.message());
+        return result.data();
+    }
+
+    private Workout add(String name) {
+        return workoutManager.addWorkout(new Workout(null, name, LocalDateTime.parse("2025-10-10T08:00"),
+                30, 5.0, UnitType.KILOMETERS, "")).data();
+    }
+}
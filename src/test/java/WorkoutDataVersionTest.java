@@ -0,0 +1,124 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.service.WorkoutChangeListener;
+import org.joaobarrera.service.WorkoutDataVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutDataVersionTest.java
+ * This class uses unit testing to validate that each committed change receives its own data
+ * version in commit order, and that the current version only moves past finished changes.
+ */
+public class WorkoutDataVersionTest {
+    private final CountDownLatch slowListenerEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseSlowListener = new CountDownLatch(1);
+    private final WorkoutDataVersion dataVersion = newDataVersion();
+    private final TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager());
+
+    @DisplayName("Should give each committed change the next version")
+    @Test
+    void commit_ShouldProduceConsecutiveVersions() {
+        commit(List.of(1));
+        assertEquals(1L, dataVersion.takeCommitted());
+        assertNull(dataVersion.takeCommitted(), "the committed version is handed out once");
+
+        commit(List.of(2));
+        assertEquals(2L, dataVersion.takeCommitted());
+        assertEquals(2, dataVersion.current());
+    }
+
+    @DisplayName("Should leave the version alone when a change rolls back")
+    @Test
+    void rollback_ShouldNotMoveVersion() {
+        transaction.executeWithoutResult(status -> {
+            dataVersion.incrementAfterCommit(List.of(1));
+            status.setRollbackOnly();
+        });
+        assertNull(dataVersion.takeCommitted());
+        assertEquals(0, dataVersion.current());
+    }
+
+    @DisplayName("Should return each change its own version and only move past finished changes")
+    @Test
+    void commit_ShouldReturnOwnVersion_WhenAnEarlierCommitIsStillFinishing() throws Exception {
+        // The first change commits, then its listeners stall
+        AtomicReference<Long> first = new AtomicReference<>();
+        Thread slow = new Thread(() -> {
+            commit(List.of(-1));
+            first.set(dataVersion.takeCommitted());
+        });
+        slow.start();
+        assertTrue(slowListenerEntered.await(5, TimeUnit.SECONDS));
+
+        commit(List.of(2));
+        assertEquals(2L, dataVersion.takeCommitted());
+        assertEquals(0, dataVersion.current(), "version 1 has not finished, so 2 cannot be current yet");
+
+        releaseSlowListener.countDown();
+        slow.join(5000);
+        assertEquals(1L, first.get());
+        assertEquals(2, dataVersion.current());
+    }
+
+    private void commit(List<Integer> ids) {
+        transaction.executeWithoutResult(status -> dataVersion.incrementAfterCommit(ids));
+    }
+
+    // Listeners stall on workout -1 until the test releases them
+    private WorkoutDataVersion newDataVersion() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("listener", new WorkoutChangeListener() {
+            @Override
+            public void workoutsChanged(Collection<Integer> ids) {
+                if (!ids.contains(-1)) return;
+                slowListenerEntered.countDown();
+                try {
+                    releaseSlowListener.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void allWorkoutsChanged() {
+            }
+        });
+        return new WorkoutDataVersion(beans.getBeanProvider(WorkoutChangeListener.class), new SimpleMeterRegistry());
+    }
+
+    // Runs transaction synchronizations without a resource behind them
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutJdbcReader;
+import org.joaobarrera.service.WorkoutJsonCache;
+import org.joaobarrera.service.WorkoutTransactionRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutJdbcReaderBenchmarkTest.java
+ * This class uses benchmark testing to compare listing workouts through entities with the
+ * JDBC read path. Run it with mvn test -Pbenchmark.
+ */
+
+@Tag("benchmark")
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutJdbcReaderBenchmarkTest {
+    private static final int ROWS = 5000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WorkoutTransactionRunner transactions;
+
+    @BeforeEach
+    void setup() {
+        workoutRepository.deleteAll();
+
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        LocalDateTime start = LocalDateTime.parse("2024-01-01T06:00");
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[] {"Workout " + (i % 50), Timestamp.valueOf(start.plusHours(i)), 30 + i % 60,
+                    3.0 + i % 10, i % 2 == 0 ? "KILOMETERS" : "MILES",
+                    "Notes for workout " + i + " describing the route and how it felt"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO workout (name, start_date_time, duration, distance, unit, notes) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterEach
+    void cleanup() {
+        workoutRepository.deleteAll();
+    }
+
+    @DisplayName("Should list rows faster and with less allocation than the entity path")
+    @Test
+    void jdbcPath_ShouldBeCheaperThanEntityPath() throws Exception {
+        // Cache disabled, so every row is read and encoded on every iteration
+        WorkoutJdbcReader uncached = new WorkoutJdbcReader(jdbcTemplate,
+                new WorkoutJsonCache(objectMapper, 0, new SimpleMeterRegistry()), transactions);
+
+        // The JPA path: workouts from a constructor query, then one byte array from Jackson
+        Result entities = measure(() -> OutputStream.nullOutputStream().write(objectMapper.writeValueAsBytes(workoutRepository.findAllDetached())));
+        Result jdbc = measure(() -> uncached.getAllWorkouts(null, 0).data().writeTo(OutputStream.nullOutputStream()));
+
+        System.out.printf("jdbc-reader benchmark rows=%d entity: %.0f rows/s %d B/row | jdbc: %.0f rows/s %d B/row%n",
+                ROWS, entities.rowsPerSecond(), entities.bytesPerRow(), jdbc.rowsPerSecond(), jdbc.bytesPerRow());
+
+        assertTrue(jdbc.bytesPerRow() < entities.bytesPerRow(), "JDBC path should allocate less per row");
+        assertTrue(jdbc.rowsPerSecond() > entities.rowsPerSecond(), "JDBC path should list more rows per second");
+    }
+
+    private static Result measure(Task task) throws Exception {
+        for (int i = 0; i < WARMUP; i++) task.run();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long nanosBefore = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) task.run();
+        long nanos = System.nanoTime() - nanosBefore;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+
+        long rows = (long) ROWS * ITERATIONS;
+        return new Result(rows * 1_000_000_000.0 / nanos, bytes / rows);
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    private record Result(double rowsPerSecond, long bytesPerRow) {}
+}
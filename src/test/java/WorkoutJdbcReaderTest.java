@@ -0,0 +1,110 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.SerializedWorkouts;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutField;
+import org.joaobarrera.service.WorkoutJdbcReader;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutJdbcReaderTest.java
+ * This class uses unit testing to validate that the JDBC read path matches the entity read path
+ * and that sparse fieldsets select only the requested fields.
+ */
+
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutJdbcReaderTest {
+    @Autowired
+    private WorkoutJdbcReader jdbcReader;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+        workoutManager.addWorkout(new Workout(null, "Morning Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.25, UnitType.KILOMETERS, "Felt \"great\" ✓"));
+        workoutManager.addWorkout(new Workout(null, "100% Effort_Intervals", LocalDateTime.parse("2025-10-11T17:45:30"), 45, 8.0, UnitType.MILES, null));
+        workoutManager.addWorkout(new Workout(null, "Evening Walk", LocalDateTime.parse("2025-10-12T19:15"), 60, 3.1, UnitType.MILES, ""));
+    }
+
+    @DisplayName("Should list every workout exactly as the entity path serializes it")
+    @Test
+    void getAll_ShouldMatchEntityPath() throws Exception {
+        byte[] expected = objectMapper.writeValueAsBytes(workoutManager.getAllWorkouts().data());
+
+        OperationResult<SerializedWorkouts> result = jdbcReader.getAllWorkouts(null, 0);
+
+        assertTrue(result.success(), result.message());
+        assertEquals(3, result.data().count());
+        assertArrayEquals(expected, bytes(result.data()));
+    }
+
+    @DisplayName("Should search case-insensitively and treat LIKE wildcards literally")
+    @Test
+    void search_ShouldMatchEntityPath() throws Exception {
+        for (String term : new String[] {"run", "WALK", "%", "_", "100% e", "", "missing"}) {
+            byte[] expected = objectMapper.writeValueAsBytes(workoutManager.getWorkoutsBySearchParameter(term).data());
+
+            OperationResult<SerializedWorkouts> result = jdbcReader.getWorkoutsBySearchParameter(term, null, 0);
+
+            assertTrue(result.success(), result.message());
+            assertArrayEquals(expected, bytes(result.data()), "search term: " + term);
+        }
+    }
+
+    @DisplayName("Should write only the requested fields, always including the ID")
+    @Test
+    void getAll_WithFields_ShouldWriteSlimObjects() throws Exception {
+        Set<WorkoutField> fields = WorkoutField.parse("distance, name").data();
+
+        OperationResult<SerializedWorkouts> result = jdbcReader.getWorkoutsBySearchParameter("run", fields, 0);
+
+        assertTrue(result.success(), result.message());
+        int id = workoutManager.getWorkoutsBySearchParameter("run").data().get(0).getID();
+        assertEquals("[{\"id\":" + id + ",\"name\":\"Morning Run\",\"distance\":5.25}]",
+                new String(bytes(result.data()), StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("Should reject unknown field names")
+    @Test
+    void parseFields_ShouldFail_WhenFieldUnknown() {
+        OperationResult<Set<WorkoutField>> result = WorkoutField.parse("name,pace");
+
+        assertFalse(result.success());
+        assertEquals("Unknown workout field: pace", result.message());
+    }
+
+    private static byte[] bytes(SerializedWorkouts workouts) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workouts.writeTo(out);
+        return out.toByteArray();
+    }
+}
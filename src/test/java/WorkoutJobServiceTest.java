@@ -0,0 +1,304 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.JobStatus;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.ArchivedWorkoutRepository;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutArchiveService;
+import org.joaobarrera.service.WorkoutBulkhead;
+import org.joaobarrera.service.WorkoutJobService;
+import org.joaobarrera.service.WorkoutManager;
+import org.joaobarrera.service.WorkoutSnapshotExporter;
+import org.joaobarrera.service.WorkoutSnapshotImporter;
+import org.joaobarrera.service.WorkoutTracer;
+import org.joaobarrera.service.WorkoutWriteAdmission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutJobServiceTest.java
+ * This class uses unit testing to validate that heavy operations run as chunked background
+ * jobs on bounded bulkheads.
+ */
+@SpringBootTest(classes = Main.class, properties = "workout.convert.chunk-size=3")
+@ActiveProfiles("test")
+public class WorkoutJobServiceTest {
+
+    @Autowired
+    private WorkoutJobService jobService;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WorkoutTracer tracer;
+
+    @Autowired
+    private WorkoutSnapshotImporter importer;
+
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    @Autowired
+    private ArchivedWorkoutRepository archivedWorkoutRepository;
+
+    @Autowired
+    private WorkoutWriteAdmission admission;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should convert every workout in chunks and report progress")
+    void startConversion_ShouldConvertInChunks() throws Exception {
+        seed(10);
+
+        OperationResult<JobStatus> started = jobService.startConversion(UnitType.MILES);
+        assertTrue(started.success());
+        assertEquals("mutation", started.data().bulkhead());
+
+        JobStatus finished = awaitJob(started.data().id());
+        assertEquals("SUCCEEDED", finished.state(), finished.message());
+        assertEquals(5, finished.processed());
+        assertEquals(5, finished.total());
+
+        for (Workout workout : workoutRepository.findAllDetached()) {
+            assertEquals(UnitType.MILES, workout.getUnit());
+        }
+        Workout converted = workoutRepository.findAllDetached().get(0);
+        assertEquals(3.10686, converted.getDistance(), 0.0001);
+        assertEquals(1L, converted.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should keep accepting new workouts while a conversion is running")
+    void startConversion_ShouldNotBlockAdds() throws Exception {
+        seed(600);
+
+        OperationResult<JobStatus> started = jobService.startConversion(UnitType.MILES);
+        assertTrue(started.success());
+
+        for (int i = 0; i < 10; i++) {
+            OperationResult<Workout> added = workoutManager.addWorkout(new Workout(null, "Added " + i,
+                    LocalDateTime.parse("2025-11-01T08:00"), 30, 5.0, UnitType.MILES, ""));
+            assertTrue(added.success(), added.message());
+        }
+
+        JobStatus finished = awaitJob(started.data().id());
+        assertEquals("SUCCEEDED", finished.state(), finished.message());
+        assertEquals(610, workoutRepository.count());
+        assertEquals(0, workoutRepository.countByUnitNot(UnitType.MILES));
+    }
+
+    @Test
+    @DisplayName("Should fail a conversion job when there are no workouts")
+    void startConversion_ShouldFail_WhenNoWorkouts() throws Exception {
+        OperationResult<JobStatus> started = jobService.startConversion(UnitType.KILOMETERS);
+        assertTrue(started.success());
+
+        JobStatus finished = awaitJob(started.data().id());
+        assertEquals("FAILED", finished.state());
+        assertEquals("No workouts to convert.", finished.message());
+    }
+
+    @Test
+    @DisplayName("Should export a snapshot file that can be downloaded")
+    void startExport_ShouldWriteSnapshotFile() throws Exception {
+        seed(4);
+
+        OperationResult<JobStatus> started = jobService.startExport();
+        assertTrue(started.success());
+
+        JobStatus finished = awaitJob(started.data().id());
+        assertEquals("SUCCEEDED", finished.state(), finished.message());
+        assertEquals(4, finished.processed());
+
+        OperationResult<Path> file = jobService.getExportFile(finished.id());
+        assertTrue(file.success());
+        assertTrue(Files.size(file.data()) > 0);
+        Files.delete(file.data());
+    }
+
+    @Test
+    @DisplayName("Should import an uploaded snapshot in the background and delete the upload")
+    void startImport_ShouldLoadSnapshot() throws Exception {
+        seed(4);
+        JobStatus exported = awaitJob(jobService.startExport().data().id());
+        Path file = jobService.getExportFile(exported.id()).data();
+
+        OperationResult<JobStatus> started;
+        try (InputStream in = Files.newInputStream(file)) {
+            started = jobService.startImport(in, false);
+        }
+        assertTrue(started.success(), started.message());
+        assertEquals("IMPORT", started.data().type());
+        assertEquals("mutation", started.data().bulkhead());
+
+        JobStatus finished = awaitJob(started.data().id());
+        assertEquals("SUCCEEDED", finished.state(), finished.message());
+        assertEquals(4, finished.processed());
+        assertEquals(8, workoutRepository.count());
+        Files.delete(file);
+    }
+
+    @Test
+    @DisplayName("Should archive expired workouts in the background")
+    void startArchive_ShouldMoveExpiredWorkouts() throws Exception {
+        archivedWorkoutRepository.deleteAll();
+        workoutRepository.save(new Workout(null, "Run", LocalDateTime.now().withNano(0), 30, 5.0,
+                UnitType.KILOMETERS, ""));
+        workoutRepository.save(new Workout(null, "Old Run", LocalDateTime.parse("2001-03-01T08:00"), 30, 5.0,
+                UnitType.KILOMETERS, ""));
+
+        OperationResult<JobStatus> started = jobService.startArchive();
+        assertTrue(started.success(), started.message());
+        assertEquals("mutation", started.data().bulkhead());
+
+        JobStatus finished = awaitJob(started.data().id());
+        assertEquals("SUCCEEDED", finished.state(), finished.message());
+        assertEquals(1, finished.processed());
+        assertEquals(1, workoutRepository.count());
+        archivedWorkoutRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should delete the export file of a job once the job is forgotten")
+    void evictedExport_ShouldDeleteItsFile() throws Exception {
+        seed(2);
+        Path directory = Path.of("target", "test-exports-retain");
+        WorkoutJobService service = newService(directory, new WorkoutSnapshotExporter(jdbcTemplate));
+        try {
+            JobStatus first = awaitJob(service, service.startExport().data().id());
+            Path firstFile = service.getExportFile(first.id()).data();
+            JobStatus second = awaitJob(service, service.startExport().data().id());
+
+            assertFalse(service.getJob(first.id()).success());
+            assertFalse(Files.exists(firstFile));
+            assertTrue(service.getExportFile(second.id()).success());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail a job whose work throws an Error instead of leaving it running")
+    void failingJob_ShouldFinish_WhenWorkThrowsError() throws Exception {
+        WorkoutSnapshotExporter failing = new WorkoutSnapshotExporter(jdbcTemplate) {
+            @Override
+            public OperationResult<Long> export(OutputStream out) {
+                throw new StackOverflowError("simulated");
+            }
+        };
+        WorkoutJobService service = newService(Path.of("target", "test-exports-error"), failing);
+        try {
+            JobStatus finished = awaitJob(service, service.startExport().data().id());
+            assertEquals("FAILED", finished.state());
+            assertTrue(finished.message().contains("StackOverflowError"), finished.message());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a job at once when the bulkhead's threads and queue are taken")
+    void trySubmit_ShouldReject_WhenBulkheadIsFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WorkoutBulkhead bulkhead = new WorkoutBulkhead("test", 1, 1, registry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        try {
+            assertTrue(bulkhead.trySubmit(() -> {
+                running.countDown();
+                await(finish);
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            assertTrue(bulkhead.trySubmit(() -> { }));
+
+            assertFalse(bulkhead.trySubmit(() -> { }));
+            assertEquals(1.0, bulkhead.saturation());
+            assertEquals(1, registry.get("workout.bulkhead.rejections").tag("bulkhead", "test").counter().count());
+        } finally {
+            finish.countDown();
+            bulkhead.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report an unknown job as not found")
+    void getJob_ShouldFail_WhenJobIsUnknown() {
+        OperationResult<JobStatus> result = jobService.getJob(-1);
+        assertFalse(result.success());
+        assertNull(result.data());
+        assertNotEquals(OperationStatus.REJECTED, result.status());
+    }
+
+    // A service that remembers a single finished job
+    private WorkoutJobService newService(Path directory, WorkoutSnapshotExporter exporter) {
+        return new WorkoutJobService(workoutManager, exporter, importer, archiveService, admission, tracer, 1, 4, 1, 4,
+                directory.toString(), 1, new SimpleMeterRegistry());
+    }
+
+    private void seed(int count) {
+        List<Workout> workouts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UnitType unit = i % 2 == 0 ? UnitType.KILOMETERS : UnitType.MILES;
+            workouts.add(new Workout(null, "Workout " + i, LocalDateTime.parse("2025-10-10T08:00").plusHours(i),
+                    30, 5.0, unit, ""));
+        }
+        workoutRepository.saveAll(workouts);
+    }
+
+    private JobStatus awaitJob(long id) throws InterruptedException {
+        return awaitJob(jobService, id);
+    }
+
+    private static JobStatus awaitJob(WorkoutJobService service, long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            JobStatus status = service.getJob(id).data();
+            if (!status.active()) return status;
+            assertTrue(System.currentTimeMillis() < deadline, "job did not finish");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
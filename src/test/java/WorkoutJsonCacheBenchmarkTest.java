@@ -0,0 +1,84 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.service.WorkoutJsonCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutJsonCacheBenchmarkTest.java
+ * This class uses benchmark testing to compare list serialization through Jackson with
+ * assembly from the JSON cache. Run it with mvn test -Pbenchmark.
+ */
+
+@Tag("benchmark")
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutJsonCacheBenchmarkTest {
+    private static final int ROWS = 5000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private WorkoutJsonCache jsonCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DisplayName("Should list cached workouts with less CPU time and allocation than Jackson")
+    @Test
+    void cachedList_ShouldBeCheaperThanJackson() throws Exception {
+        List<Workout> workouts = new ArrayList<>(ROWS);
+        LocalDateTime start = LocalDateTime.parse("2024-01-01T06:00");
+        for (int i = 0; i < ROWS; i++) {
+            workouts.add(new Workout(1_000_000 + i, "Workout " + (i % 50), start.plusHours(i), 30 + i % 60,
+                    3.0 + i % 10, i % 2 == 0 ? UnitType.KILOMETERS : UnitType.MILES,
+                    "Notes for workout " + i + " describing the route and how it felt"));
+        }
+
+        Result jackson = measure(() -> objectMapper.writeValue(OutputStream.nullOutputStream(), workouts));
+        Result cached = measure(() -> jsonCache.serialize(workouts, 0).writeTo(OutputStream.nullOutputStream()));
+
+        System.out.printf("json-cache benchmark rows=%d jackson: %.2f ms/op %d B/op | cached: %.2f ms/op %d B/op%n",
+                ROWS, jackson.millisPerOp(), jackson.bytesPerOp(), cached.millisPerOp(), cached.bytesPerOp());
+
+        assertTrue(cached.bytesPerOp() < jackson.bytesPerOp(), "cached list should allocate less than Jackson");
+        assertTrue(cached.millisPerOp() < jackson.millisPerOp(), "cached list should be faster than Jackson");
+    }
+
+    private static Result measure(Task task) throws Exception {
+        for (int i = 0; i < WARMUP; i++) task.run();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) task.run();
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+
+        return new Result(cpu / 1_000_000.0 / ITERATIONS, bytes / ITERATIONS);
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    private record Result(double millisPerOp, long bytesPerOp) {}
+}
@@ -0,0 +1,153 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.SerializedWorkouts;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutJsonCache;
+import org.joaobarrera.service.WorkoutManager;
+import org.joaobarrera.service.WorkoutReadCoalescer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutJsonCacheTest.java
+ * This class uses unit testing to validate list responses assembled from cached workout JSON.
+ */
+
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutJsonCacheTest {
+    @Autowired
+    private WorkoutJsonCache jsonCache;
+
+    @Autowired
+    private WorkoutReadCoalescer coalescer;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Workout run;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+        run = workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, "Easy \"pace\"")).data();
+        workoutManager.addWorkout(new Workout(null, "Walk", LocalDateTime.parse("2025-10-11T08:00"), 45, 3.0, UnitType.MILES, null));
+    }
+
+    @DisplayName("Should produce exactly the JSON Jackson produces, with or without cached entries")
+    @Test
+    void serialize_ShouldMatchJackson() throws Exception {
+        List<Workout> workouts = workoutManager.getAllWorkouts().data();
+        byte[] expected = objectMapper.writeValueAsBytes(workouts);
+
+        SerializedWorkouts cold = jsonCache.serialize(workouts, 0);
+        SerializedWorkouts warm = jsonCache.serialize(workouts, 0);
+
+        assertArrayEquals(expected, bytes(cold));
+        assertArrayEquals(expected, bytes(warm));
+        assertEquals(expected.length, warm.length());
+        assertArrayEquals("[]".getBytes(), bytes(jsonCache.serialize(List.of(), 0)));
+    }
+
+    @DisplayName("Should serve the updated workout after a committed change")
+    @Test
+    void update_ShouldInvalidateCachedEntry() throws Exception {
+        OperationResult<SerializedWorkouts> before = coalescer.getAllWorkouts();
+        assertTrue(new String(bytes(before.data())).contains("\"Run\""));
+
+        Workout updated = new Workout(null, "Tempo Run", run.getStartDateTime(), 30, 5.0, UnitType.KILOMETERS, null);
+        assertTrue(workoutManager.updateWorkout(run.getID(), updated).success());
+
+        String after = new String(bytes(coalescer.getAllWorkouts().data()));
+        assertTrue(after.contains("\"Tempo Run\""));
+        assertFalse(after.contains("\"Run\""));
+    }
+
+    @DisplayName("Should never serve an entry whose row was changed outside the application")
+    @Test
+    void changedRow_ShouldNotUseStaleEntry() throws Exception {
+        List<Workout> workouts = new ArrayList<>(workoutManager.getAllWorkouts().data());
+        jsonCache.serialize(workouts, 0);
+
+        Workout changed = workouts.get(0);
+        Workout copy = new Workout(changed.getID(), changed.getName(), changed.getStartDateTime(), 99,
+                changed.getDistance(), changed.getUnit(), changed.getNotes());
+        workouts.set(0, copy);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(workouts), bytes(jsonCache.serialize(workouts, 0)));
+    }
+
+    @DisplayName("Should encode a workout again once its version changes")
+    @Test
+    void newVersion_ShouldNotUseStaleEntry() throws Exception {
+        Workout original = new Workout(run.getID(), "Aa", run.getStartDateTime(), 30, 5.0, UnitType.KILOMETERS, null, 7L);
+        jsonCache.serialize(List.of(original), 0);
+
+        Workout edited = new Workout(run.getID(), "BB", run.getStartDateTime(), 30, 5.0, UnitType.KILOMETERS, null, 8L);
+
+        String json = new String(bytes(jsonCache.serialize(List.of(edited), 0)));
+        assertTrue(json.contains("\"BB\""), json);
+    }
+
+    @DisplayName("Should not keep rows listed across a change that bypasses the version")
+    @Test
+    void fullInvalidation_ShouldDropRowsListedBeforeIt() throws Exception {
+        Workout before = new Workout(run.getID(), "Imported over", run.getStartDateTime(), 30, 5.0, UnitType.KILOMETERS, null, 0L);
+        WorkoutJsonCache.ListBuilder list = jsonCache.newList(1);
+        jsonCache.allWorkoutsChanged();
+        list.add(before);
+        list.build(0);
+
+        Workout after = new Workout(run.getID(), "Imported", run.getStartDateTime(), 30, 5.0, UnitType.KILOMETERS, null, 0L);
+        String json = new String(bytes(jsonCache.serialize(List.of(after), 0)));
+        assertTrue(json.contains("\"Imported\""), json);
+    }
+
+    @DisplayName("Should keep the memory held by its slabs within the bound")
+    @Test
+    void slabs_ShouldStayWithinBound() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WorkoutJsonCache small = new WorkoutJsonCache(objectMapper, 16384, registry);
+        List<Workout> workouts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            workouts.add(new Workout(i + 1, "Workout " + i, LocalDateTime.parse("2025-10-10T08:00").plusHours(i),
+                    30, 5.0, UnitType.KILOMETERS, "Notes " + i, 1L));
+        }
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(workouts), bytes(small.serialize(workouts, 0)));
+        assertArrayEquals(objectMapper.writeValueAsBytes(workouts), bytes(small.serialize(workouts, 0)));
+        assertTrue(registry.get("workout.json.cache.bytes").gauge().value() <= 16384);
+        assertTrue(registry.get("workout.json.cache.evictions").counter().count() > 0);
+    }
+
+    private static byte[] bytes(SerializedWorkouts workouts) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workouts.writeTo(out);
+        return out.toByteArray();
+    }
+}
@@ -67,6 +67,18 @@ public class WorkoutManagerAddTest {
         assertEquals(1, workoutManager.getAllWorkouts().data().size());
     }
 
+    @DisplayName("Should return the data version produced by its own commit")
+    @Test
+    public void addWorkout_ShouldCarryCommittedVersion() {
+        Workout first = new Workout(null, "Run", LocalDateTime.parse("2025-10-10T12:00"), 10, 10.0, UnitType.KILOMETERS, "");
+        Workout second = new Workout(null, "Walk", LocalDateTime.parse("2025-10-11T12:00"), 10, 10.0, UnitType.KILOMETERS, "");
+        OperationResult<Workout> firstResult = workoutManager.addWorkout(first);
+        OperationResult<Workout> secondResult = workoutManager.addWorkout(second);
+
+        assertNotNull(firstResult.version());
+        assertEquals(firstResult.version() + 1, secondResult.version());
+    }
+
     @DisplayName("Should fail when workout name exceeds 50 characters")
     @Test
     public void addWorkout_ShouldFail_WhenNameExceeds50Chars() {
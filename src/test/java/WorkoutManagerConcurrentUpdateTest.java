@@ -0,0 +1,99 @@
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutManagerConcurrentUpdateTest.java
+ * This class uses unit testing to validate that concurrent updates to the same workout
+ * never overwrite each other.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutManagerConcurrentUpdateTest {
+    private static final int EDITORS = 4;
+    private static final int EDITS_PER_EDITOR = 25;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+    }
+
+    @DisplayName("Should keep every edit when several editors update the same workout at once")
+    @Test
+    void updateWorkout_ShouldNotLoseEdits_UnderContention() throws Exception {
+        int id = workoutManager.addWorkout(new Workout(null, "Shared", LocalDateTime.parse("2025-10-10T12:00"),
+                1, 5.0, UnitType.KILOMETERS, "")).data().getID();
+
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch startLine = new CountDownLatch(1);
+        ExecutorService editors = Executors.newFixedThreadPool(EDITORS);
+        List<Future<?>> running = new ArrayList<>();
+
+        // Each editor adds one minute per edit: read, change, and retry on conflict with the fresh state
+        for (int editor = 0; editor < EDITORS; editor++) {
+            running.add(editors.submit(() -> {
+                startLine.await();
+                Workout current = workoutRepository.findDetachedById(id).orElseThrow();
+                for (int edit = 0; edit < EDITS_PER_EDITOR; ) {
+                    current.setDuration(current.getDuration() + 1);
+                    OperationResult<Workout> result = workoutManager.updateWorkout(id, current);
+                    if (result.success()) {
+                        current = result.data();
+                        edit++;
+                    } else {
+                        assertEquals(OperationStatus.CONFLICT, result.status(), result.message());
+                        conflicts.incrementAndGet();
+                        current = result.data();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+        startLine.countDown();
+        for (Future<?> editor : running) editor.get(60, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        editors.shutdown();
+
+        int edits = EDITORS * EDITS_PER_EDITOR;
+        System.out.printf("concurrent updates editors=%d edits=%d conflicts=%d throughput=%.0f updates/s%n",
+                EDITORS, edits, conflicts.get(), edits / seconds);
+
+        Workout stored = workoutRepository.findDetachedById(id).orElseThrow();
+        assertEquals(1 + edits, stored.getDuration());
+        assertEquals(edits, stored.getVersion());
+    }
+}
@@ -0,0 +1,131 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutField;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutManagerPatchTest.java
+ * This class uses unit testing to validate the patchWorkout() functionality.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutManagerPatchTest {
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Workout added;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+        added = workoutManager.addWorkout(new Workout(null, "Morning Run", LocalDateTime.parse("2025-10-10T07:00"),
+                30, 5.0, UnitType.KILOMETERS, "Nice run")).data();
+    }
+
+    @DisplayName("Should change only the fields present in the patch")
+    @Test
+    void patchWorkout_ShouldChangeOnlyPresentFields() throws Exception {
+        OperationResult<Workout> result = patch("{\"notes\": \"Windy\", \"duration\": 35}");
+
+        assertTrue(result.success(), result.message());
+        Workout stored = workoutRepository.findDetachedById(added.getID()).orElseThrow();
+        assertEquals("Morning Run", stored.getName());
+        assertEquals(LocalDateTime.parse("2025-10-10T07:00"), stored.getStartDateTime());
+        assertEquals(35, stored.getDuration());
+        assertEquals(5.0, stored.getDistance());
+        assertEquals(UnitType.KILOMETERS, stored.getUnit());
+        assertEquals("Windy", stored.getNotes());
+        assertEquals(added.getVersion() + 1, stored.getVersion());
+    }
+
+    @DisplayName("Should clear notes when the patch sets them to null")
+    @Test
+    void patchWorkout_ShouldClearNotes_WhenNull() throws Exception {
+        OperationResult<Workout> result = patch("{\"notes\": null}");
+
+        assertTrue(result.success(), result.message());
+        assertNull(result.data().getNotes());
+    }
+
+    @DisplayName("Should fail and change nothing when a present field is invalid")
+    @Test
+    void patchWorkout_ShouldFail_WhenPresentFieldIsInvalid() throws Exception {
+        OperationResult<Workout> result = patch("{\"notes\": \"Windy\", \"duration\": 0}");
+
+        assertFalse(result.success());
+        assertEquals("Duration must be at least 1 minute.", result.message());
+        assertEquals("Nice run", workoutRepository.findDetachedById(added.getID()).orElseThrow().getNotes());
+    }
+
+    @DisplayName("Should fail when a required field is set to null")
+    @Test
+    void patchWorkout_ShouldFail_WhenRequiredFieldIsNull() throws Exception {
+        OperationResult<Workout> result = patch("{\"name\": null}");
+
+        assertFalse(result.success());
+    }
+
+    @DisplayName("Should report a conflict with the current workout when the version is stale")
+    @Test
+    void patchWorkout_ShouldConflict_WhenVersionIsStale() throws Exception {
+        patch("{\"notes\": \"First\", \"version\": " + added.getVersion() + "}");
+
+        OperationResult<Workout> result = patch("{\"notes\": \"Second\", \"version\": " + added.getVersion() + "}");
+
+        assertFalse(result.success());
+        assertEquals(OperationStatus.CONFLICT, result.status());
+        assertEquals("First", result.data().getNotes());
+    }
+
+    @DisplayName("Should reject unknown fields and values of the wrong type")
+    @Test
+    void readPatch_ShouldFail_WhenFieldUnknownOrMistyped() throws Exception {
+        assertEquals("Unknown workout field: pace",
+                WorkoutField.readPatch(objectMapper.readTree("{\"pace\": 5}")).message());
+        assertEquals("Workout field duration must be a whole number.",
+                WorkoutField.readPatch(objectMapper.readTree("{\"duration\": \"long\"}")).message());
+    }
+
+    @DisplayName("Should fail when the workout does not exist")
+    @Test
+    void patchWorkout_ShouldFail_WhenWorkoutMissing() throws Exception {
+        Map<WorkoutField, Object> changes = WorkoutField.readPatch(objectMapper.readTree("{\"notes\": \"Windy\"}")).data();
+
+        OperationResult<Workout> result = workoutManager.patchWorkout(added.getID() + 1, changes);
+
+        assertFalse(result.success());
+        assertEquals("Workout with ID " + (added.getID() + 1) + " not found.", result.message());
+    }
+
+    private OperationResult<Workout> patch(String json) throws Exception {
+        OperationResult<Map<WorkoutField, Object>> changes = WorkoutField.readPatch(objectMapper.readTree(json));
+        assertTrue(changes.success(), changes.message());
+        return workoutManager.patchWorkout(added.getID(), changes.data());
+    }
+}
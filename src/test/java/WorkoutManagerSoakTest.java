@@ -0,0 +1,293 @@
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutManagerSoakTest.java
+ * This class uses soak testing to run concurrent add, update, delete, search and convert
+ * workloads against a SQLite file and validate the data afterwards. Run it with
+ * mvn test -Psoak, and set the length with -Dsoak.seconds (30 by default).
+ */
+
+@Tag("soak")
+@SpringBootTest(classes = Main.class, properties = "spring.datasource.url=jdbc:sqlite:target/soak.db")
+@ActiveProfiles("test")
+public class WorkoutManagerSoakTest {
+    private static final double MILES_PER_KILOMETER = 0.621371;
+    private static final int SEED_WORKOUTS = 200;
+    private static final int MAX_LIVE_WORKOUTS = 1000;
+    private static final int UPDATE_ATTEMPTS = 20;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    // What the workers know about each workout they added
+    private final Map<Integer, Double> kilometersById = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> incrementsById = new ConcurrentHashMap<>();
+    private final Set<Integer> live = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> deleted = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger highestId = new AtomicInteger();
+
+    // What the run measured, by operation
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> unexpected = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> unavailable = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejected = new ConcurrentHashMap<>();
+    private final LongAdder conflicts = new LongAdder();
+    private final ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+    }
+
+    @DisplayName("Should keep every invariant under a concurrent mixed workload")
+    @Test
+    void mixedWorkload_ShouldKeepInvariants() throws Exception {
+        for (int i = 0; i < SEED_WORKOUTS; i++) add();
+
+        long seconds = Long.getLong("soak.seconds", 30);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(9);
+        List<Future<?>> running = new ArrayList<>();
+        running.add(workers.submit(() -> repeat(deadline, 0, this::add)));
+        running.add(workers.submit(() -> repeat(deadline, 0, this::add)));
+        running.add(workers.submit(() -> repeat(deadline, 0, this::update)));
+        running.add(workers.submit(() -> repeat(deadline, 0, this::update)));
+        running.add(workers.submit(() -> repeat(deadline, 0, this::update)));
+        running.add(workers.submit(() -> repeat(deadline, 5, this::delete)));
+        running.add(workers.submit(() -> repeat(deadline, 0, this::search)));
+        running.add(workers.submit(() -> repeat(deadline, 0, this::search)));
+        running.add(workers.submit(() -> repeat(deadline, 250, this::convert)));
+
+        for (Future<?> worker : running) worker.get(seconds + 120, TimeUnit.SECONDS);
+        workers.shutdown();
+
+        report(seconds);
+        checkFinalState();
+
+        assertTrue(violations.isEmpty(), "invariant violations: " + violations);
+        unexpected.forEach((operation, count) -> assertEquals(0, count.sum(), "unexpected " + operation + " failures"));
+        assertTrue(incrementsById.values().stream().anyMatch(count -> count.get() > 0), "no update succeeded");
+    }
+
+    private void repeat(long deadline, long pauseMillis, Runnable operation) {
+        while (System.nanoTime() < deadline) {
+            operation.run();
+            if (pauseMillis > 0) sleep(pauseMillis);
+        }
+    }
+
+    private void add() {
+        if (live.size() >= MAX_LIVE_WORKOUTS) {
+            sleep(1);
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UnitType unit = random.nextBoolean() ? UnitType.KILOMETERS : UnitType.MILES;
+        double distance = 1 + random.nextInt(4000) / 100.0;
+        Workout workout = new Workout(null, "Soak " + random.nextInt(100), LocalDateTime.parse("2025-01-01T06:00")
+                .plusMinutes(random.nextInt(500_000)), 1, distance, unit, "soak");
+
+        OperationResult<Workout> result = timed("add", () -> workoutManager.addWorkout(workout));
+        if (result.success()) {
+            int id = result.data().getID();
+            kilometersById.put(id, toKilometers(distance, unit));
+            incrementsById.put(id, new AtomicInteger());
+            live.add(id);
+            highestId.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    // Adds one minute to a workout, retrying with the current state on conflict
+    private void update() {
+        Integer id = pickLive();
+        if (id == null) return;
+
+        Workout current = workoutRepository.findDetachedById(id).orElse(null);
+        for (int attempt = 0; current != null && attempt < UPDATE_ATTEMPTS; attempt++) {
+            current.setDuration(current.getDuration() + 1);
+            Workout edit = current;
+            OperationResult<Workout> result = timed("update", () -> workoutManager.updateWorkout(id, edit));
+            if (result.success()) {
+                incrementsById.get(id).incrementAndGet();
+                return;
+            }
+            if (result.status() != OperationStatus.CONFLICT) return;
+
+            conflicts.increment();
+            current = result.data();
+        }
+    }
+
+    private void delete() {
+        Integer id = pickLive();
+        if (id == null || !live.remove(id)) return;
+
+        OperationResult<Integer> result = timed("delete", () -> workoutManager.deleteWorkout(id));
+        if (result.success()) {
+            deleted.add(id);
+        } else {
+            live.add(id);
+        }
+    }
+
+    // Every workout a search returns must already hold a unit and distance that belong together
+    private void search() {
+        OperationResult<List<Workout>> result = timed("search", () -> workoutManager.getWorkoutsBySearchParameter("soak"));
+        if (!result.success()) return;
+
+        for (Workout workout : result.data()) {
+            Double kilometers = kilometersById.get(workout.getID());
+            if (kilometers != null && !matches(kilometers, workout)) {
+                violations.add("search saw workout " + workout.getID() + " with " + workout.getDistance() + " " + workout.getUnit());
+            }
+        }
+    }
+
+    private void convert() {
+        UnitType target = ThreadLocalRandom.current().nextBoolean() ? UnitType.KILOMETERS : UnitType.MILES;
+        timed("convert", () -> workoutManager.convertAllUnits(target));
+    }
+
+    private void checkFinalState() {
+        List<Workout> stored = workoutRepository.findAllDetached();
+        Set<Integer> storedIds = new HashSet<>();
+
+        for (Workout workout : stored) {
+            int id = workout.getID();
+            storedIds.add(id);
+
+            if (!live.contains(id)) {
+                violations.add("orphaned workout " + id + (deleted.contains(id) ? " was reported deleted" : " was never reported added"));
+                continue;
+            }
+            int expectedDuration = 1 + incrementsById.get(id).get();
+            if (workout.getDuration() != expectedDuration) {
+                violations.add("lost update on workout " + id + ": duration " + workout.getDuration() + ", expected " + expectedDuration);
+            }
+            if (!matches(kilometersById.get(id), workout)) {
+                violations.add("workout " + id + " has " + workout.getDistance() + " " + workout.getUnit()
+                        + ", expected " + kilometersById.get(id) + " KILOMETERS");
+            }
+        }
+
+        for (Integer id : live) {
+            if (!storedIds.contains(id)) violations.add("workout " + id + " was reported added but is missing");
+        }
+    }
+
+    private void report(long seconds) {
+        System.out.printf("soak seconds=%d live=%d deleted=%d conflicts=%d%n", seconds, live.size(), deleted.size(), conflicts.sum());
+        for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entry : new TreeMap<>(latencies).entrySet()) {
+            String operation = entry.getKey();
+            long[] nanos = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            long errors = count(unexpected, operation) + count(unavailable, operation) + count(rejected, operation);
+            System.out.printf("soak op=%-7s count=%6d throughput=%7.1f/s errors=%d (%.2f%%) unavailable=%d rejected=%d "
+                            + "p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n",
+                    operation, nanos.length, nanos.length / (double) seconds, errors, 100.0 * errors / nanos.length,
+                    count(unavailable, operation), count(rejected, operation), millis(nanos, 0.50), millis(nanos, 0.95),
+                    millis(nanos, 0.99), millis(nanos, 1.0));
+        }
+    }
+
+    // Runs an operation and records its latency and how it failed, if it did
+    private <T> OperationResult<T> timed(String operation, Supplier<OperationResult<T>> call) {
+        long start = System.nanoTime();
+        OperationResult<T> result = call.get();
+        latencies.computeIfAbsent(operation, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+
+        if (result.status() == OperationStatus.UNAVAILABLE) {
+            unavailable.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        } else if (result.status() == OperationStatus.REJECTED) {
+            rejected.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        } else if (result.status() == OperationStatus.FAILED && !isExpected(result.message())) {
+            unexpected.computeIfAbsent(operation, key -> new LongAdder()).increment();
+            System.out.printf("soak op=%s unexpected failure: %s%n", operation, result.message());
+        }
+        return result;
+    }
+
+    // Workers race each other for the same rows, so a workout can be gone by the time it is used
+    private static boolean isExpected(String message) {
+        return message.endsWith("not found.") || message.equals("No workouts to convert.");
+    }
+
+    private Integer pickLive() {
+        int highest = highestId.get();
+        if (highest == 0) return null;
+
+        for (int attempt = 0; attempt < 10; attempt++) {
+            int id = ThreadLocalRandom.current().nextInt(1, highest + 1);
+            if (live.contains(id)) return id;
+        }
+        return null;
+    }
+
+    private static boolean matches(double kilometers, Workout workout) {
+        double stored = toKilometers(workout.getDistance(), workout.getUnit());
+        return Math.abs(stored - kilometers) <= 1e-9 * Math.max(1, kilometers);
+    }
+
+    private static double toKilometers(double distance, UnitType unit) {
+        return unit == UnitType.KILOMETERS ? distance : distance / MILES_PER_KILOMETER;
+    }
+
+    private static long count(Map<String, LongAdder> counts, String operation) {
+        LongAdder count = counts.get(operation);
+        return count == null ? 0 : count.sum();
+    }
+
+    private static double millis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) return 0;
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
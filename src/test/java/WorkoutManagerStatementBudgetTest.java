@@ -0,0 +1,152 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.SqlStatementSummary;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.SqlStatementStats;
+import org.joaobarrera.service.WorkoutField;
+import org.joaobarrera.service.WorkoutManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutManagerStatementBudgetTest.java
+ * This class uses unit testing to validate that each WorkoutManager operation stays within
+ * its budget of SQL statements, and that the statement statistics see them.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutManagerStatementBudgetTest {
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private SqlStatementStats stats;
+
+    private Integer firstID;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+        for (int i = 0; i < 5; i++) {
+            workoutManager.addWorkout(workout("Run " + i, UnitType.KILOMETERS));
+        }
+        firstID = workoutRepository.findAllDetached().get(0).getID();
+    }
+
+    @Test
+    @DisplayName("Should add a workout with an insert, a generated-key lookup and a change log entry")
+    void addWorkout_ShouldStayWithinBudget() {
+        assertWithinBudget(3, () -> workoutManager.addWorkout(workout("Ride", UnitType.KILOMETERS)));
+    }
+
+    @Test
+    @DisplayName("Should read workouts with a single query whatever their number")
+    void reads_ShouldStayWithinBudget() {
+        assertWithinBudget(1, () -> workoutManager.getAllWorkouts());
+        assertWithinBudget(1, () -> workoutManager.getWorkoutsBySearchParameter("run"));
+        assertWithinBudget(1, () -> workoutManager.getWorkoutsByDateRange(
+                LocalDateTime.parse("2025-10-01T00:00"), LocalDateTime.parse("2025-11-01T00:00")));
+    }
+
+    @Test
+    @DisplayName("Should update or patch a workout with one update, one read back and a change log entry")
+    void updates_ShouldStayWithinBudget() {
+        assertWithinBudget(3, () -> workoutManager.updateWorkout(firstID, workout("Swim", UnitType.MILES)));
+        assertWithinBudget(3, () -> workoutManager.patchWorkout(firstID, Map.of(WorkoutField.NOTES, "Easy")));
+    }
+
+    @Test
+    @DisplayName("Should delete a workout with one statement plus a change log entry, or one statement if it is missing")
+    void deleteWorkout_ShouldStayWithinBudget() {
+        assertWithinBudget(2, () -> workoutManager.deleteWorkout(firstID));
+
+        try (SqlStatementStats.Capture capture = stats.capture()) {
+            assertFalse(workoutManager.deleteWorkout(9999).success());
+            assertEquals(1, capture.statements());
+        }
+    }
+
+    @Test
+    @DisplayName("Should convert units with a fixed number of statements per chunk, not per workout")
+    void convertAllUnits_ShouldStayWithinBudget() {
+        try (SqlStatementStats.Capture capture = stats.capture()) {
+            assertTrue(workoutManager.convertAllUnits(UnitType.MILES).success());
+
+            // Two counts, one ID query per chunk plus the final empty one, one update and one
+            // batched change log insert per chunk, one read back
+            assertEquals(7, capture.statements(), capture.counts().toString());
+            assertEquals(2, capture.mostRepeated().getValue(), capture.counts().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should aggregate statements by fingerprint and tell Hibernate's apart")
+    void summaries_ShouldGroupByFingerprint() {
+        stats.reset();
+        workoutManager.deleteWorkout(firstID);
+        workoutManager.deleteWorkout(firstID + 1);
+
+        SqlStatementSummary delete = stats.summaries().stream()
+                .filter(summary -> summary.fingerprint().equals("delete from workout where id=?"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, delete.count());
+        assertEquals("hibernate", delete.source());
+        assertEquals(0, delete.errors());
+    }
+
+    @Test
+    @DisplayName("Should fingerprint each SQL string once, up to the fingerprint limit")
+    void record_ShouldReuseFingerprints_UpToLimit() {
+        SqlStatementStats limited = new SqlStatementStats(100, 1, new SimpleMeterRegistry());
+        String cached = limited.record("SELECT * FROM workout WHERE id = 1", "jdbc", "", 1000, false);
+        assertSame(cached, limited.record("SELECT * FROM workout WHERE id = 1", "jdbc", "", 1000, false));
+
+        String uncached = limited.record("DELETE FROM workout WHERE id = 2", "jdbc", "", 1000, false);
+        assertEquals("delete from workout where id = ?", uncached);
+        assertNotSame(uncached, limited.record("DELETE FROM workout WHERE id = 2", "jdbc", "", 1000, false));
+    }
+
+    @Test
+    @DisplayName("Should reduce SQL to its shape")
+    void fingerprint_ShouldReplaceLiteralsAndInLists() {
+        assertEquals("select * from workout where name = ? and id in (?) and distance > ?",
+                SqlStatementStats.fingerprint("SELECT *  FROM workout\n WHERE name = 'It''s' AND id IN (?, ?, ?) AND distance > 2.5"));
+        assertEquals("insert into workout (name,unit) values (?,?)",
+                SqlStatementStats.fingerprint("insert into workout (name,unit) values (?,?)"));
+    }
+
+    private void assertWithinBudget(int budget, Supplier<OperationResult<?>> operation) {
+        try (SqlStatementStats.Capture capture = stats.capture()) {
+            OperationResult<?> result = operation.get();
+            assertTrue(result.success(), result.message());
+            assertTrue(capture.statements() <= budget,
+                    "ran " + capture.statements() + " statements, budget " + budget + ": " + capture.counts());
+        }
+    }
+
+    private static Workout workout(String name, UnitType unit) {
+        return new Workout(null, name, LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, unit, "notes");
+    }
+}
@@ -1,5 +1,6 @@
 import org.joaobarrera.Main;
 import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
 import org.joaobarrera.model.UnitType;
 import org.joaobarrera.entity.Workout;
 import org.joaobarrera.repository.WorkoutRepository;
@@ -338,4 +339,33 @@ public class WorkoutManagerUpdateTest {
         assertFalse(resultNegative.success());
     }
 
+    @DisplayName("Should update and move the version forward when the version is current")
+    @Test
+    void updateWorkout_ShouldSucceed_WhenVersionIsCurrent() {
+        Workout added = workoutManager.addWorkout(new Workout(null, "Initial", LocalDateTime.parse("2025-10-10T12:00"), 10, 10.0, UnitType.KILOMETERS, "")).data();
+        Workout update = new Workout(null, "Renamed", LocalDateTime.parse("2025-10-10T12:00"), 10, 10.0, UnitType.KILOMETERS, "", added.getVersion());
+
+        OperationResult<Workout> result = workoutManager.updateWorkout(added.getID(), update);
+
+        assertTrue(result.success());
+        assertEquals("Renamed", result.data().getName());
+        assertEquals(added.getVersion() + 1, result.data().getVersion());
+    }
+
+    @DisplayName("Should report a conflict with the current workout when the version is stale")
+    @Test
+    void updateWorkout_ShouldConflict_WhenVersionIsStale() {
+        Workout added = workoutManager.addWorkout(new Workout(null, "Initial", LocalDateTime.parse("2025-10-10T12:00"), 10, 10.0, UnitType.KILOMETERS, "")).data();
+        long staleVersion = added.getVersion();
+        workoutManager.updateWorkout(added.getID(), new Workout(null, "First Edit", LocalDateTime.parse("2025-10-10T12:00"), 10, 10.0, UnitType.KILOMETERS, "", staleVersion));
+
+        OperationResult<Workout> result = workoutManager.updateWorkout(added.getID(),
+                new Workout(null, "Second Edit", LocalDateTime.parse("2025-10-10T12:00"), 20, 10.0, UnitType.KILOMETERS, "", staleVersion));
+
+        assertFalse(result.success());
+        assertEquals(OperationStatus.CONFLICT, result.status());
+        assertEquals("First Edit", result.data().getName());
+        assertEquals(staleVersion + 1, result.data().getVersion());
+        assertEquals("First Edit", workoutManager.getAllWorkouts().data().get(0).getName());
+    }
 }
@@ -0,0 +1,131 @@
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutManager;
+import org.joaobarrera.service.WorkoutMirror;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutMirrorTest.java
+ * This class uses unit testing to validate reads served from the in-memory mirror.
+ */
+
+@SpringBootTest(classes = Main.class, properties = "workout.read-mode=mirror")
+@ActiveProfiles("test")
+public class WorkoutMirrorTest {
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutMirror mirror;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Workout run;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test, then rebuild the mirror from the empty table
+        workoutRepository.deleteAll();
+        mirror.warm();
+
+        run = workoutManager.addWorkout(new Workout(null, "Morning Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, null)).data();
+        workoutManager.addWorkout(new Workout(null, "Evening Walk", LocalDateTime.parse("2025-10-09T18:00"), 45, 3.0, UnitType.MILES, "Easy"));
+    }
+
+    @DisplayName("Should serve reads from the mirror and reflect committed writes")
+    @Test
+    void reads_ShouldReflectCommittedWrites() {
+        assertTrue(mirror.isReady());
+        assertEquals(2, workoutManager.getAllWorkouts().data().size());
+
+        Workout updated = new Workout(null, "Long Run", LocalDateTime.parse("2025-10-10T08:00"), 90, 15.0, UnitType.KILOMETERS, null);
+        assertTrue(workoutManager.updateWorkout(run.getID(), updated).success());
+
+        List<Workout> found = workoutManager.getWorkoutsBySearchParameter("long").data();
+        assertEquals(1, found.size());
+        assertEquals(90, found.get(0).getDuration());
+        assertTrue(workoutManager.getWorkoutsBySearchParameter("morning").data().isEmpty());
+
+        assertTrue(workoutManager.deleteWorkout(run.getID()).success());
+        assertEquals(1, workoutManager.getAllWorkouts().data().size());
+    }
+
+    @DisplayName("Should never show readers a partial mirror during rebuilds and updates")
+    @Test
+    void reads_ShouldStayComplete_DuringRebuildsAndUpdates() throws Exception {
+        LocalDateTime from = LocalDateTime.parse("2025-01-01T00:00");
+        LocalDateTime to = LocalDateTime.parse("2026-01-01T00:00");
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger incomplete = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                if (mirror.getAll().size() != 2) incomplete.incrementAndGet();
+                if (mirror.getByDateRange(from, to).size() != 2) incomplete.incrementAndGet();
+                if (mirror.search("run").size() != 1) incomplete.incrementAndGet();
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 50; i++) {
+                mirror.warm();
+                Workout moved = new Workout(null, "Morning Run", LocalDateTime.parse("2025-10-10T08:00").plusMinutes(i),
+                        30, 5.0, UnitType.KILOMETERS, null);
+                assertTrue(workoutManager.updateWorkout(run.getID(), moved).success());
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+
+        assertEquals(0, incomplete.get());
+    }
+
+    @DisplayName("Should return date-range reads from the mirror oldest first")
+    @Test
+    void dateRange_ShouldBeOrderedByStart() {
+        List<Workout> workouts = workoutManager.getWorkoutsByDateRange(
+                LocalDateTime.parse("2025-10-01T00:00"), LocalDateTime.parse("2025-10-31T00:00")).data();
+
+        assertEquals(2, workouts.size());
+        assertEquals("Evening Walk", workouts.get(0).getName());
+        assertEquals("Morning Run", workouts.get(1).getName());
+    }
+
+    @DisplayName("Should detect and repair a mirror that no longer matches the database")
+    @Test
+    void verify_ShouldRebuildDivergedMirror() {
+        assertEquals(Boolean.TRUE, mirror.verify().data());
+
+        // Change the table behind the application's back
+        jdbcTemplate.update("UPDATE workout SET duration = 99 WHERE id = ?", run.getID());
+
+        OperationResult<Boolean> result = mirror.verify();
+        assertTrue(result.success(), result.message());
+        assertEquals(Boolean.FALSE, result.data());
+        assertEquals(99, workoutManager.getWorkoutsBySearchParameter("morning").data().get(0).getDuration());
+    }
+}
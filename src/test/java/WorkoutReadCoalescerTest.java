@@ -0,0 +1,188 @@
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.SerializedWorkouts;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutManager;
+import org.joaobarrera.service.WorkoutReadCoalescer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutReadCoalescerTest.java
+ * This class uses concurrency testing to validate that identical concurrent reads share one query.
+ */
+
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutReadCoalescerTest {
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private WorkoutReadCoalescer coalescer;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+    }
+
+    @DisplayName("Should run one database query for many identical concurrent reads")
+    @Test
+    void concurrentIdenticalReads_ShouldShareOneQuery() throws Exception {
+        String query = "coalesce-test-" + System.nanoTime();
+        AtomicInteger databaseQueries = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+        try {
+            List<Future<List<Workout>>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return coalescer.execute(query, "", () -> {
+                        databaseQueries.incrementAndGet();
+                        // Hold the query open until every other caller has joined it
+                        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                        while (hits(query) < CALLERS - 1 && System.nanoTime() < deadline) {
+                            Thread.onSpinWait();
+                        }
+                        return workoutManager.getAllWorkouts().data();
+                    });
+                }));
+            }
+            start.countDown();
+
+            List<Workout> first = futures.get(0).get(20, TimeUnit.SECONDS);
+            for (Future<List<Workout>> future : futures) {
+                assertSame(first, future.get(20, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, databaseQueries.get());
+        assertEquals(CALLERS - 1, hits(query));
+    }
+
+    @DisplayName("Should release waiting callers and the key when a query throws an Error")
+    @Test
+    void errorInQuery_ShouldReleaseFollowers() throws Exception {
+        String query = "error-test-" + System.nanoTime();
+        CountDownLatch running = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Object> leader = pool.submit(() -> coalescer.execute(query, "", () -> {
+                running.countDown();
+                // Fail only once the follower has joined this execution
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (hits(query) < 1 && System.nanoTime() < deadline) Thread.onSpinWait();
+                throw new StackOverflowError("simulated");
+            }));
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+
+            assertThrows(StackOverflowError.class, () -> coalescer.execute(query, "", () -> "follower ran its own query"));
+            Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(20, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, leaderFailure.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals("next", coalescer.execute(query, "", () -> "next"));
+    }
+
+    @DisplayName("Should emit an operation event for list and search reads served by the database")
+    @Test
+    void databaseReads_ShouldEmitOperationEvents() throws Exception {
+        Path file = Path.of("target", "coalescer-events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.joaobarrera.WorkoutOperation");
+            recording.start();
+            assertTrue(coalescer.getAllWorkouts().success());
+            assertTrue(coalescer.getWorkoutsBySearchParameter("run").success());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, Integer> rows = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            rows.put(event.getString("operation"), event.getInt("rows"));
+            assertTrue(event.getInt("statements") >= 1);
+        }
+        assertEquals(Map.of("getAll", 1, "search", 1), rows);
+    }
+
+    @DisplayName("Should query again for sequential reads instead of caching")
+    @Test
+    void sequentialReads_ShouldEachQuery() {
+        String query = "sequential-test-" + System.nanoTime();
+        AtomicInteger databaseQueries = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            coalescer.execute(query, "", () -> {
+                databaseQueries.incrementAndGet();
+                return workoutManager.getAllWorkouts().data();
+            });
+        }
+
+        assertEquals(3, databaseQueries.get());
+        assertEquals(0, hits(query));
+    }
+
+    @DisplayName("Should return fresh data after a write instead of an earlier result")
+    @Test
+    void readAfterWrite_ShouldSeeNewVersion() {
+        OperationResult<SerializedWorkouts> before = coalescer.getAllWorkouts();
+        workoutManager.addWorkout(new Workout(null, "Walk", LocalDateTime.parse("2025-10-11T08:00"), 30, 3.0, UnitType.MILES, ""));
+        OperationResult<SerializedWorkouts> after = coalescer.getAllWorkouts();
+
+        assertTrue(before.success());
+        assertTrue(after.success());
+        assertEquals(1, before.data().count());
+        assertEquals(2, after.data().count());
+        assertTrue(after.data().version() > before.data().version());
+    }
+
+    private double hits(String query) {
+        var counter = registry.find("workout.coalesce.hits").tag("query", query).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
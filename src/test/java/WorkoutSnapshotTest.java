@@ -0,0 +1,222 @@
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.ArchivedWorkoutRepository;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.WorkoutArchiveService;
+import org.joaobarrera.service.WorkoutManager;
+import org.joaobarrera.service.WorkoutSnapshotExporter;
+import org.joaobarrera.service.WorkoutSnapshotImporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 18, 2026
+ * WorkoutSnapshotTest.java
+ * This class uses unit testing to validate the snapshot export and import functionality.
+ */
+
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutSnapshotTest {
+    @Autowired
+    private WorkoutSnapshotExporter exporter;
+
+    @Autowired
+    private WorkoutSnapshotImporter importer;
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ArchivedWorkoutRepository archivedWorkoutRepository;
+
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+        archivedWorkoutRepository.deleteAll();
+    }
+
+    @DisplayName("Should restore every field and ID when importing with replace")
+    @Test
+    void importSnapshot_ShouldRoundTripAllFields() {
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.25, UnitType.KILOMETERS, "Morning run"));
+        workoutManager.addWorkout(new Workout(null, "Walk", LocalDateTime.parse("2025-10-09T18:45"), 45, 3.0, UnitType.MILES, null));
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-12T07:15"), 60, 12.0, UnitType.KILOMETERS, "Café ☕"));
+        List<Workout> before = workoutManager.getAllWorkouts().data();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OperationResult<Long> exported = exporter.export(out);
+        assertTrue(exported.success(), exported.message());
+        assertEquals(3L, exported.data());
+
+        workoutRepository.deleteAll();
+        OperationResult<Long> imported = importer.importSnapshot(new ByteArrayInputStream(out.toByteArray()), true);
+        assertTrue(imported.success(), imported.message());
+        assertEquals(3L, imported.data());
+
+        List<Workout> after = workoutManager.getAllWorkouts().data();
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.get(i).toString(), after.get(i).toString());
+        }
+    }
+
+    @DisplayName("Should append snapshot rows with new IDs when not replacing")
+    @Test
+    void importSnapshot_ShouldAppendWithNewIds() {
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(exporter.export(out).success());
+
+        OperationResult<Long> imported = importer.importSnapshot(new ByteArrayInputStream(out.toByteArray()), false);
+        assertTrue(imported.success(), imported.message());
+
+        List<Workout> workouts = workoutManager.getAllWorkouts().data();
+        assertEquals(2, workouts.size());
+        assertNotEquals(workouts.get(0).getID(), workouts.get(1).getID());
+        assertEquals(workouts.get(0).getName(), workouts.get(1).getName());
+    }
+
+    @DisplayName("Should reject a truncated snapshot and leave existing workouts untouched")
+    @Test
+    void importSnapshot_ShouldFail_WhenTruncated() {
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(exporter.export(out).success());
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 3);
+
+        OperationResult<Long> imported = importer.importSnapshot(new ByteArrayInputStream(truncated), true);
+
+        assertFalse(imported.success());
+        assertEquals(1, workoutManager.getAllWorkouts().data().size());
+    }
+
+    @DisplayName("Should reject block sizes beyond the limits before allocating them")
+    @Test
+    void importSnapshot_ShouldFail_WhenBlockIsOversized() {
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+        byte[] header = {'W', 'K', 'S', 'N', 'A', 'P', 1};
+
+        // One row claiming 2 GB of raw data, and a block claiming 2^35 rows
+        byte[] hugeBlock = {1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 0};
+        byte[] hugeRows = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 0, 1, 1, 0};
+
+        for (byte[] block : List.of(hugeBlock, hugeRows)) {
+            ByteArrayOutputStream crafted = new ByteArrayOutputStream();
+            crafted.writeBytes(header);
+            crafted.writeBytes(block);
+
+            OperationResult<Long> imported = importer.importSnapshot(new ByteArrayInputStream(crafted.toByteArray()), true);
+
+            assertFalse(imported.success());
+            assertTrue(imported.message().contains("exceeds") || imported.message().contains("rows"), imported.message());
+        }
+        assertEquals(1, workoutManager.getAllWorkouts().data().size());
+    }
+
+    @DisplayName("Should read a slow upload to the end before taking the write lock")
+    @Test
+    void importSnapshot_ShouldNotBlockWrites_WhileUploadIsStalled() throws Exception {
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(exporter.export(out).success());
+
+        // The upload sends its header, then stalls until the write below has finished
+        CountDownLatch stalledRead = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        InputStream stalled = new FilterInputStream(new ByteArrayInputStream(out.toByteArray())) {
+            private int sent;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (sent < 7) {
+                    int read = super.read(b, off, Math.min(len, 7 - sent));
+                    sent += Math.max(read, 0);
+                    return read;
+                }
+                stalledRead.countDown();
+                try {
+                    resume.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.read(b, off, len);
+            }
+        };
+        AtomicReference<OperationResult<Long>> imported = new AtomicReference<>();
+        Thread upload = new Thread(() -> imported.set(importer.importSnapshot(stalled, false)));
+        upload.start();
+        assertTrue(stalledRead.await(10, TimeUnit.SECONDS));
+
+        OperationResult<Workout> added = workoutManager.addWorkout(
+                new Workout(null, "Ride", LocalDateTime.parse("2025-10-11T08:00"), 60, 20.0, UnitType.KILOMETERS, ""));
+        resume.countDown();
+        upload.join(10_000);
+
+        assertTrue(added.success(), added.message());
+        assertTrue(imported.get().success(), imported.get().message());
+        assertEquals(3, workoutManager.getAllWorkouts().data().size());
+    }
+
+    @DisplayName("Should refuse to replace workouts with IDs that belong to archived workouts")
+    @Test
+    void importSnapshot_ShouldFail_WhenReplaceReusesArchivedIds() {
+        workoutManager.addWorkout(new Workout(null, "Old Run", LocalDateTime.parse("2020-03-01T08:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(exporter.export(out).success());
+        assertTrue(archiveService.archiveOlderThan(LocalDateTime.parse("2024-01-01T00:00")).success());
+        workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, ""));
+
+        OperationResult<Long> imported = importer.importSnapshot(new ByteArrayInputStream(out.toByteArray()), true);
+
+        assertFalse(imported.success());
+        assertTrue(imported.message().contains("archived"), imported.message());
+        List<Workout> workouts = workoutManager.getAllWorkouts().data();
+        assertEquals(1, workouts.size());
+        assertEquals("Run", workouts.get(0).getName());
+    }
+
+    @DisplayName("Should reject input that is not a snapshot")
+    @Test
+    void importSnapshot_ShouldFail_WhenNotASnapshot() {
+        OperationResult<Long> imported = importer.importSnapshot(new ByteArrayInputStream("[]".getBytes()), true);
+        assertFalse(imported.success());
+    }
+}
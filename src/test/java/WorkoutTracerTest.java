@@ -0,0 +1,161 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.RecordedTrace;
+import org.joaobarrera.model.TraceSpan;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.TraceFileExporter;
+import org.joaobarrera.service.WorkoutManager;
+import org.joaobarrera.service.WorkoutTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutTracerTest.java
+ * This class uses unit testing to validate that traces break a WorkoutManager call down into
+ * spans, that only slow, failed or sampled traces are kept, and that kept traces are written to disk.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutTracerTest {
+    private static final Path DIRECTORY = Path.of("target", "test-traces", "tracer-test");
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TraceFileExporter exporter;
+
+    @BeforeEach
+    void setup() throws Exception {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+        Files.deleteIfExists(DIRECTORY.resolve("traces.jsonl"));
+        exporter = new TraceFileExporter(objectMapper, DIRECTORY.toString(), 1024 * 1024, 2, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void cleanup() {
+        exporter.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should break an add down into manager, validation, transaction and SQL spans")
+    void trace_ShouldRecordSpanTree_ForAddWorkout() {
+        WorkoutTracer tracer = tracer(0, 0);
+
+        try (WorkoutTracer.Span root = tracer.startTrace("POST /api/workout/add")) {
+            assertTrue(root.isRecording());
+            assertTrue(workoutManager.addWorkout(run()).success());
+        }
+
+        List<RecordedTrace> traces = tracer.slowest(10);
+        assertEquals(1, traces.size());
+        assertEquals("slow", traces.get(0).reason());
+
+        TraceSpan root = traces.get(0).root();
+        assertEquals("POST /api/workout/add", root.name());
+        TraceSpan add = child(root, "WorkoutManager.addWorkout");
+        assertEquals("SUCCEEDED", add.attributes().get("outcome"));
+        child(add, "validate");
+
+        List<TraceSpan> statements = new ArrayList<>();
+        collect(child(add, "transaction"), "sql", statements);
+        assertFalse(statements.isEmpty(), "the insert should appear as a sql span");
+        assertTrue(statements.stream().anyMatch(span -> span.attributes().get("statement").startsWith("insert")));
+    }
+
+    @Test
+    @DisplayName("Should drop fast traces and always keep failed ones")
+    void trace_ShouldKeepOnlyFailedTraces_WhenFastAndUnsampled() {
+        WorkoutTracer tracer = tracer(60_000, 0);
+
+        try (WorkoutTracer.Span root = tracer.startTrace("GET /api/workout/getAll")) {
+            workoutManager.getAllWorkouts();
+        }
+        assertTrue(tracer.slowest(10).isEmpty());
+
+        try (WorkoutTracer.Span root = tracer.startTrace("POST /api/workout/add")) {
+            workoutManager.addWorkout(run());
+            root.failed();
+        }
+        List<RecordedTrace> traces = tracer.slowest(10);
+        assertEquals(1, traces.size());
+        assertEquals("error", traces.get(0).reason());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when spans are opened outside a trace")
+    void span_ShouldNotRecord_WithoutActiveTrace() {
+        try (WorkoutTracer.Span span = WorkoutTracer.span("orphan")) {
+            assertFalse(span.isRecording());
+        }
+        assertTrue(workoutManager.addWorkout(run()).success());
+    }
+
+    @Test
+    @DisplayName("Should append kept traces to the trace file")
+    void export_ShouldWriteKeptTraces_AsJsonLines() throws Exception {
+        WorkoutTracer tracer = tracer(0, 0);
+
+        try (WorkoutTracer.Span root = tracer.startTrace("POST /api/workout/add")) {
+            workoutManager.addWorkout(run());
+        }
+        String traceId = tracer.slowest(1).get(0).traceId();
+
+        Path file = exporter.currentFile();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Files.exists(file) || !Files.readString(file).contains(traceId)) {
+            assertTrue(System.currentTimeMillis() < deadline, "trace was never written");
+            Thread.sleep(20);
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        RecordedTrace written = objectMapper.readValue(lines.get(0), RecordedTrace.class);
+        assertEquals("POST /api/workout/add", written.root().name());
+    }
+
+    private WorkoutTracer tracer(long slowThresholdMillis, double sampleRate) {
+        return new WorkoutTracer(true, slowThresholdMillis, sampleRate, 256, 10, exporter, new SimpleMeterRegistry());
+    }
+
+    private static Workout run() {
+        return new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"), 30, 5.0, UnitType.KILOMETERS, "");
+    }
+
+    private static TraceSpan child(TraceSpan parent, String name) {
+        return parent.children().stream()
+                .filter(span -> span.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(parent.name() + " has no " + name + " span"));
+    }
+
+    private static void collect(TraceSpan span, String name, List<TraceSpan> found) {
+        if (span.name().equals(name)) found.add(span);
+        for (TraceSpan child : span.children()) collect(child, name, found);
+    }
+}
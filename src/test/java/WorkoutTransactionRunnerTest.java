@@ -0,0 +1,184 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.joaobarrera.service.SqliteFailure;
+import org.joaobarrera.service.WorkoutTransactionRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutTransactionRunnerTest.java
+ * This class uses unit testing to validate how database failures are classified and retried.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutTransactionRunnerTest {
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    private SimpleMeterRegistry registry;
+    private WorkoutTransactionRunner runner;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        runner = new WorkoutTransactionRunner(transactionManager, 300, 1, 20, registry);
+    }
+
+    @DisplayName("Should classify SQLite errors through wrapping exceptions")
+    @Test
+    void classify_ShouldFindSqliteErrorAlongCauses() {
+        assertEquals(SqliteFailure.BUSY, SqliteFailure.classify(
+                new PessimisticLockingFailureException("lock", busy(SQLiteErrorCode.SQLITE_BUSY_SNAPSHOT))));
+        assertEquals(SqliteFailure.BUSY, SqliteFailure.classify(busy(SQLiteErrorCode.SQLITE_LOCKED)));
+        assertEquals(SqliteFailure.CONSTRAINT, SqliteFailure.classify(
+                new DataIntegrityViolationException("constraint", busy(SQLiteErrorCode.SQLITE_CONSTRAINT_NOTNULL))));
+        assertEquals(SqliteFailure.FATAL, SqliteFailure.classify(busy(SQLiteErrorCode.SQLITE_CORRUPT)));
+        assertEquals(SqliteFailure.FATAL, SqliteFailure.classify(new IllegalStateException("broken")));
+    }
+
+    @DisplayName("Should retry a busy write until it succeeds")
+    @Test
+    void write_ShouldRetry_WhenBusy() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        OperationResult<String> result = runner.write("test", "Error testing: ", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new PessimisticLockingFailureException("locked", busy(SQLiteErrorCode.SQLITE_BUSY));
+            }
+            return new OperationResult<>(true, "done", "Done.");
+        });
+
+        assertTrue(result.success());
+        assertEquals(3, attempts.get());
+        assertEquals(2, registry.counter("workout.db.retries", "operation", "test").count());
+        assertEquals(0, registry.counter("workout.db.giveups", "operation", "test").count());
+    }
+
+    @DisplayName("Should give up as unavailable once the deadline passes")
+    @Test
+    void write_ShouldBeUnavailable_WhenBusyPastDeadline() {
+        long start = System.currentTimeMillis();
+
+        OperationResult<String> result = runner.write("test", "Error testing: ", () -> {
+            throw new PessimisticLockingFailureException("locked", busy(SQLiteErrorCode.SQLITE_BUSY));
+        });
+
+        assertFalse(result.success());
+        assertEquals(OperationStatus.UNAVAILABLE, result.status());
+        assertTrue(System.currentTimeMillis() - start < 1000, "retries should stop at the deadline");
+        assertEquals(1, registry.counter("workout.db.giveups", "operation", "test").count());
+    }
+
+    @DisplayName("Should back off and retry while another connection holds the write lock")
+    @Test
+    void write_ShouldRetry_WhenDatabaseIsLocked() throws Exception {
+        WorkoutTransactionRunner lockedRunner = new WorkoutTransactionRunner(transactionManager, 1500, 10, 100, registry);
+
+        long start;
+        OperationResult<String> result;
+        try (Connection lock = holdWriteLock()) {
+            start = System.currentTimeMillis();
+            Thread release = new Thread(() -> release(lock, 500));
+            release.start();
+            result = lockedRunner.write("locked", "Error testing: ", this::touchWorkoutTable);
+            release.join();
+        }
+
+        assertTrue(result.success(), result.message());
+        assertTrue(registry.counter("workout.db.retries", "operation", "locked").count() >= 1,
+                "the pool's busy timeout must be short enough for the backoff to run");
+        assertTrue(System.currentTimeMillis() - start < 1500);
+    }
+
+    @DisplayName("Should give up near the deadline, not after the driver's default busy wait")
+    @Test
+    void write_ShouldBeUnavailable_WhenLockOutlastsDeadline() throws Exception {
+        WorkoutTransactionRunner lockedRunner = new WorkoutTransactionRunner(transactionManager, 500, 10, 100, registry);
+
+        long start = System.currentTimeMillis();
+        OperationResult<String> result;
+        try (Connection lock = holdWriteLock()) {
+            result = lockedRunner.write("locked", "Error testing: ", this::touchWorkoutTable);
+            lock.rollback();
+        }
+
+        assertEquals(OperationStatus.UNAVAILABLE, result.status());
+        assertTrue(System.currentTimeMillis() - start < 1500, "gave up after " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    @DisplayName("Should fail at once without retrying a constraint violation")
+    @Test
+    void write_ShouldNotRetry_WhenConstraintViolated() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        OperationResult<String> result = runner.write("test", "Error testing: ", () -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("constraint failed",
+                    busy(SQLiteErrorCode.SQLITE_CONSTRAINT_UNIQUE));
+        });
+
+        assertFalse(result.success());
+        assertEquals(OperationStatus.FAILED, result.status());
+        assertEquals("Error testing: constraint failed", result.message());
+        assertEquals(1, attempts.get());
+        assertEquals(1, registry.counter("workout.db.failures", "operation", "test", "kind", "CONSTRAINT").count());
+    }
+
+    // Any write statement needs the lock, even one that matches no rows
+    private OperationResult<String> touchWorkoutTable() {
+        jdbcTemplate.update("UPDATE workout SET version = version WHERE id = -1");
+        return new OperationResult<>(true, "done", "Done.");
+    }
+
+    private Connection holdWriteLock() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE workout SET version = version WHERE id = -1");
+        }
+        return connection;
+    }
+
+    private static void release(Connection lock, long afterMillis) {
+        try {
+            Thread.sleep(afterMillis);
+            lock.rollback();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SQLiteException busy(SQLiteErrorCode code) {
+        return new SQLiteException(code.message, code);
+    }
+}
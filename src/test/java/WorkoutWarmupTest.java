@@ -0,0 +1,163 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.joaobarrera.Main;
+import org.joaobarrera.config.WarmupHealthIndicator;
+import org.joaobarrera.entity.Workout;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.SqlStatementSummary;
+import org.joaobarrera.model.UnitType;
+import org.joaobarrera.model.WarmupStatus;
+import org.joaobarrera.repository.WorkoutRepository;
+import org.joaobarrera.service.MetricsHistory;
+import org.joaobarrera.service.SqlStatementStats;
+import org.joaobarrera.service.WorkoutDataVersion;
+import org.joaobarrera.service.WorkoutJdbcReader;
+import org.joaobarrera.service.WorkoutJsonCache;
+import org.joaobarrera.service.WorkoutManager;
+import org.joaobarrera.service.WorkoutWarmup;
+import org.joaobarrera.service.WorkoutWriteAdmission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.CompositeHealth;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutWarmupTest.java
+ * This class uses unit testing to validate that the startup warm-up leaves no data or shared
+ * state behind and holds readiness back until it is complete.
+ */
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("test")
+public class WorkoutWarmupTest {
+
+    @Autowired
+    private WorkoutManager workoutManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WorkoutJdbcReader jdbcReader;
+
+    @Autowired
+    private WorkoutJsonCache jsonCache;
+
+    @Autowired
+    private WorkoutDataVersion dataVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementStats sqlStats;
+
+    @Autowired
+    private MetricsHistory metricsHistory;
+
+    @Autowired
+    private WorkoutWriteAdmission admission;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkoutWarmup configuredWarmup;
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @BeforeEach
+    void setup() {
+        // Wipe all records before each test
+        workoutRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should run every iteration without committing or announcing any change")
+    void warmUp_ShouldLeaveNoData_AfterIterations() {
+        Workout existing = workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"),
+                30, 5.0, UnitType.KILOMETERS, "")).data();
+        long versionBefore = dataVersion.current();
+
+        WarmupStatus status = warmup(5).warmUp();
+
+        assertEquals("COMPLETE", status.state());
+        assertEquals(5, status.completed());
+        assertEquals(0, status.failed());
+        assertNotNull(status.firstIterationMillis());
+        assertEquals(versionBefore, dataVersion.current());
+
+        OperationResult<List<Workout>> all = workoutManager.getAllWorkouts();
+        assertEquals(1, all.data().size());
+        assertEquals(existing.getName(), all.data().get(0).getName());
+        assertEquals(existing.getVersion(), all.data().get(0).getVersion());
+
+        // IDs handed out during the warm-up are free again
+        Workout next = workoutManager.addWorkout(new Workout(null, "Ride", LocalDateTime.parse("2025-10-11T08:00"),
+                60, 20.0, UnitType.KILOMETERS, "")).data();
+        assertEquals(existing.getID() + 1, next.getID());
+    }
+
+    @Test
+    @DisplayName("Should leave the admission limit, SQL statistics and JSON cache as real traffic left them")
+    void warmUp_ShouldNotTouchSharedState() throws Exception {
+        Workout existing = workoutManager.addWorkout(new Workout(null, "Run", LocalDateTime.parse("2025-10-10T08:00"),
+                30, 5.0, UnitType.KILOMETERS, "")).data();
+        jsonCache.serialize(List.of(existing), dataVersion.current());
+        int limitBefore = admission.currentLimit();
+        long statementsBefore = statementCount();
+        double entriesBefore = registry.get("workout.json.cache.entries").gauge().value();
+        assertTrue(statementsBefore > 0);
+
+        WarmupStatus status = warmup(20).warmUp();
+
+        assertEquals(0, status.failed());
+        assertFalse(WorkoutWarmup.isWarmingUp());
+        assertEquals(limitBefore, admission.currentLimit());
+        assertEquals(statementsBefore, statementCount(), "real traffic's statistics are kept and the warm-up's are not added");
+        assertEquals(entriesBefore, registry.get("workout.json.cache.entries").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should report out of service until the warm-up is complete")
+    void readiness_ShouldWaitForWarmup() {
+        WorkoutWarmup pending = warmup(1);
+        WarmupHealthIndicator indicator = new WarmupHealthIndicator(pending);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        pending.warmUp();
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        // The test profile skips the warm-up, so the application itself is ready at once
+        assertTrue(configuredWarmup.isComplete());
+        CompositeHealth readiness = (CompositeHealth) healthEndpoint.healthForPath("readiness");
+        assertEquals(Status.UP, readiness.getStatus());
+        assertTrue(readiness.getComponents().containsKey("warmup"));
+    }
+
+    private WorkoutWarmup warmup(int iterations) {
+        return new WorkoutWarmup(workoutManager, jdbcReader, jsonCache, dataVersion, objectMapper,
+                metricsHistory, transactionManager, iterations, 60_000, 60_000);
+    }
+
+    private long statementCount() {
+        return sqlStats.summaries().stream().mapToLong(SqlStatementSummary::count).sum();
+    }
+}
@@ -0,0 +1,116 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joaobarrera.model.OperationResult;
+import org.joaobarrera.model.OperationStatus;
+import org.joaobarrera.service.WorkoutWriteAdmission;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Joao Barrera
+ * CEN 3024 - Software Development 1
+ * October 19, 2026
+ * WorkoutWriteAdmissionTest.java
+ * This class uses unit testing to validate that writes are admitted, queued, rejected and
+ * limited as the admission control intends.
+ */
+public class WorkoutWriteAdmissionTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @DisplayName("Should reject at once when the limit is reached and the queue is full")
+    @Test
+    void admit_ShouldReject_WhenQueueIsFull() throws Exception {
+        WorkoutWriteAdmission admission = new WorkoutWriteAdmission(1, 1, 1, 5000, 10_000, registry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<OperationResult<String>> first = CompletableFuture.supplyAsync(() -> admission.admit("test", () -> {
+            running.countDown();
+            await(finish);
+            return new OperationResult<>(true, "first", "Done.");
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<OperationResult<String>> second = CompletableFuture.supplyAsync(() ->
+                admission.admit("test", () -> new OperationResult<>(true, "second", "Done.")));
+        waitForQueue(1);
+
+        long start = System.nanoTime();
+        OperationResult<String> third = admission.admit("test", () -> new OperationResult<>(true, "third", "Done."));
+
+        assertEquals(OperationStatus.REJECTED, third.status());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500), "rejection should not wait");
+        assertEquals(1, registry.get("workout.admission.rejections").counter().count());
+
+        finish.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).success());
+        assertTrue(second.get(5, TimeUnit.SECONDS).success());
+    }
+
+    @DisplayName("Should reject a queued write that waits longer than the queue timeout")
+    @Test
+    void admit_ShouldReject_WhenQueuedTooLong() throws Exception {
+        WorkoutWriteAdmission admission = new WorkoutWriteAdmission(1, 1, 4, 50, 10_000, registry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<OperationResult<String>> first = CompletableFuture.supplyAsync(() -> admission.admit("test", () -> {
+            running.countDown();
+            await(finish);
+            return new OperationResult<>(true, "first", "Done.");
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        OperationResult<String> queued = admission.admit("test", () -> new OperationResult<>(true, "queued", "Done."));
+
+        assertEquals(OperationStatus.REJECTED, queued.status());
+        finish.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).success());
+    }
+
+    @DisplayName("Should cut the limit after slow or busy writes and grow it again after fast ones")
+    @Test
+    void admit_ShouldAdaptLimit_ToWriteLatency() {
+        WorkoutWriteAdmission admission = new WorkoutWriteAdmission(4, 8, 8, 1000, 20, registry);
+
+        admission.admit("test", () -> {
+            sleep(60);
+            return new OperationResult<>(true, null, "Slow.");
+        });
+        assertEquals(3, admission.currentLimit());
+
+        admission.admit("test", () -> new OperationResult<>(false, null, "Busy.", OperationStatus.UNAVAILABLE));
+        assertEquals(2, admission.currentLimit());
+
+        for (int i = 0; i < 100; i++) admission.admit("test", () -> new OperationResult<>(true, null, "Fast."));
+        assertEquals(8, admission.currentLimit());
+    }
+
+    private void waitForQueue(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.get("workout.admission.queue").gauge().value() < depth) {
+            assertTrue(System.currentTimeMillis() < deadline, "write was never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}